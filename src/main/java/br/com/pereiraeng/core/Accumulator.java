@@ -1,15 +1,334 @@
 package br.com.pereiraeng.core;
 
-public class Accumulator implements Flow<String> {
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Objeto que acumula os dados recebidos, um por linha.
+ *
+ * Opcionalmente, a quantidade de caracteres mantida em memória pode ser
+ * limitada: ultrapassado o limite, o conteúdo em memória é transferido para um
+ * arquivo temporário, em blocos codificados em UTF-8. O conteúdo acumulado pode
+ * então ser lido sequencialmente por {@link #reader()} ou por acesso direto por
+ * {@link #asCharSequence()}, sem que seja montado em uma única
+ * <code>String</code> como em {@link #get()}. O arquivo temporário é apagado
+ * por {@link #clear()} ou {@link #close()}.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public class Accumulator implements Flow<String>, Closeable {
+
+	/**
+	 * Número máximo de caracteres mantidos em memória
+	 */
+	private final int maxChars;
+
+	/**
+	 * Diretório do arquivo temporário (<code>null</code> para o diretório padrão)
+	 */
+	private final Path directory;
 
 	private StringBuilder out = new StringBuilder();
 
+	/**
+	 * Arquivo temporário (aberto na primeira transferência)
+	 */
+	private FileChannel spill;
+
+	/**
+	 * Para cada bloco do arquivo: posição do primeiro caracter no conteúdo
+	 * acumulado, posição do primeiro byte no arquivo e número de bytes
+	 */
+	private long[] chunkChars = new long[8], chunkBytes = new long[8];
+
+	private int[] chunkLengths = new int[8];
+
+	private int chunks;
+
+	/**
+	 * Número de caracteres transferidos para o arquivo
+	 */
+	private long spilledChars;
+
+	/**
+	 * Construtor de um acumulador sem limite de memória
+	 */
+	public Accumulator() {
+		this(Integer.MAX_VALUE, null);
+	}
+
+	/**
+	 * Construtor de um acumulador com limite de memória
+	 *
+	 * @param maxChars número máximo de caracteres mantidos em memória (é também o
+	 *                 tamanho aproximado de cada bloco do arquivo temporário)
+	 */
+	public Accumulator(int maxChars) {
+		this(maxChars, null);
+	}
+
+	/**
+	 * Construtor de um acumulador com limite de memória
+	 *
+	 * @param maxChars  número máximo de caracteres mantidos em memória
+	 * @param directory diretório do arquivo temporário
+	 */
+	public Accumulator(int maxChars, Path directory) {
+		if (maxChars <= 0)
+			throw new IllegalArgumentException("Limite inválido: " + maxChars);
+		this.maxChars = maxChars;
+		this.directory = directory;
+	}
+
 	@Override
 	public void incomingData(String data) {
-		this.out.append(data + "\n");
+		this.out.append(data).append('\n');
+		if (out.length() >= maxChars)
+			spill();
+	}
+
+	/**
+	 * Função que transfere o conteúdo em memória para o arquivo temporário
+	 */
+	private void spill() {
+		// um par de surrogates não deve ser dividido entre dois blocos
+		int n = out.length();
+		if (Character.isHighSurrogate(out.charAt(n - 1)))
+			n--;
+		if (n == 0)
+			return;
+		try {
+			if (spill == null) {
+				Path file = directory == null ? Files.createTempFile("accumulator", ".txt")
+						: Files.createTempFile(directory, "accumulator", ".txt");
+				spill = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+						StandardOpenOption.DELETE_ON_CLOSE);
+			}
+			ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(out, 0, n));
+
+			if (chunks == chunkChars.length) {
+				chunkChars = Arrays.copyOf(chunkChars, 2 * chunks);
+				chunkBytes = Arrays.copyOf(chunkBytes, 2 * chunks);
+				chunkLengths = Arrays.copyOf(chunkLengths, 2 * chunks);
+			}
+			long position = chunks == 0 ? 0L : chunkBytes[chunks - 1] + chunkLengths[chunks - 1];
+			chunkChars[chunks] = spilledChars;
+			chunkBytes[chunks] = position;
+			chunkLengths[chunks] = bytes.remaining();
+			chunks++;
+
+			while (bytes.hasRemaining())
+				position += spill.write(bytes, position);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		spilledChars += n;
+		out.delete(0, n);
+	}
+
+	/**
+	 * Função que lê e decodifica um bloco do arquivo temporário
+	 */
+	private String readChunk(int chunk) throws IOException {
+		ByteBuffer bytes = ByteBuffer.allocate(chunkLengths[chunk]);
+		long position = chunkBytes[chunk];
+		while (bytes.hasRemaining()) {
+			int r = spill.read(bytes, position + bytes.position());
+			if (r < 0)
+				throw new IOException("Fim inesperado do arquivo temporário");
+		}
+		bytes.flip();
+		return StandardCharsets.UTF_8.decode(bytes).toString();
+	}
+
+	/**
+	 * Número de caracteres acumulados
+	 */
+	public long length() {
+		return spilledChars + out.length();
 	}
 
+	/**
+	 * Se parte do conteúdo foi transferida para o arquivo temporário
+	 */
+	public boolean isSpilled() {
+		return chunks > 0;
+	}
+
+	/**
+	 * Função que retorna todo o conteúdo acumulado em uma única
+	 * <code>String</code>
+	 *
+	 * @return conteúdo acumulado
+	 * @see #reader()
+	 */
 	public String get() {
-		return out.toString();
+		if (chunks == 0)
+			return out.toString();
+		if (length() > Integer.MAX_VALUE)
+			throw new IllegalStateException("Conteúdo grande demais para uma String: " + length());
+		StringBuilder sb = new StringBuilder((int) length());
+		try {
+			for (int i = 0; i < chunks; i++)
+				sb.append(readChunk(i));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return sb.append(out).toString();
+	}
+
+	/**
+	 * Função que retorna um leitor sequencial do conteúdo acumulado até o
+	 * momento, que lê um bloco do arquivo temporário por vez
+	 *
+	 * @return leitor
+	 */
+	public Reader reader() {
+		final int n = chunks;
+		final String tail = out.toString();
+		return new Reader() {
+			private int chunk = 0;
+
+			private String current;
+
+			private int pos;
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				if (len == 0)
+					return 0;
+				while (current == null || pos == current.length()) {
+					if (chunk > n)
+						return -1;
+					current = chunk < n ? readChunk(chunk) : tail;
+					chunk++;
+					pos = 0;
+				}
+				int r = Math.min(len, current.length() - pos);
+				current.getChars(pos, pos + r, cbuf, off);
+				pos += r;
+				return r;
+			}
+
+			@Override
+			public void close() {
+				current = null;
+				chunk = n + 1;
+			}
+		};
+	}
+
+	/**
+	 * Função que retorna uma visão, por acesso direto, do conteúdo acumulado até o
+	 * momento. Os blocos do arquivo temporário são lidos sob demanda (somente o
+	 * último bloco lido é mantido em memória).
+	 *
+	 * @return sequência de caracteres (o comprimento é limitado a
+	 *         {@link Integer#MAX_VALUE})
+	 */
+	public CharSequence asCharSequence() {
+		if (chunks == 0)
+			return out.toString();
+		return new SpilledView(chunks, out.toString());
+	}
+
+	private final class SpilledView implements CharSequence {
+		private final int n;
+
+		private final String tail;
+
+		private final long tailStart;
+
+		private int cached = -1;
+
+		private String cachedChunk;
+
+		private SpilledView(int n, String tail) {
+			this.n = n;
+			this.tail = tail;
+			this.tailStart = spilledChars;
+		}
+
+		@Override
+		public int length() {
+			return (int) Math.min(Integer.MAX_VALUE, tailStart + tail.length());
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length())
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			if (index >= tailStart)
+				return tail.charAt((int) (index - tailStart));
+			int c = Arrays.binarySearch(chunkChars, 0, n, index);
+			if (c < 0)
+				c = -c - 2;
+			if (c != cached) {
+				try {
+					cachedChunk = readChunk(c);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				cached = c;
+			}
+			return cachedChunk.charAt((int) (index - chunkChars[c]));
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || end > length() || start > end)
+				throw new IndexOutOfBoundsException(start + ", " + end);
+			StringBuilder sb = new StringBuilder(end - start);
+			for (int i = start; i < end; i++)
+				sb.append(charAt(i));
+			return sb.toString();
+		}
+
+		@Override
+		public String toString() {
+			return subSequence(0, length()).toString();
+		}
+	}
+
+	/**
+	 * Função que descarta o conteúdo acumulado
+	 */
+	public void clear() {
+		out = new StringBuilder();
+		chunks = 0;
+		spilledChars = 0L;
+		closeSpill();
+	}
+
+	/**
+	 * Função que descarta o conteúdo acumulado e apaga o arquivo temporário, caso
+	 * exista
+	 */
+	@Override
+	public void close() {
+		clear();
+	}
+
+	private void closeSpill() {
+		if (spill != null) {
+			try {
+				spill.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				spill = null;
+			}
+		}
 	}
 }
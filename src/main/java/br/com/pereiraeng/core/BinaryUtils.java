@@ -1,8 +1,12 @@
 package br.com.pereiraeng.core;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.Arrays;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Classe das funções de manipulações de binários
@@ -22,8 +26,7 @@ public class BinaryUtils {
 	 */
 	public static byte[] shorts2bytes(short[] ss) {
 		byte[] out = new byte[2 * ss.length];
-		for (int i = 0; i < ss.length; i++)
-			ByteBuffer.wrap(out, 2 * i, 2).putShort(ss[i]);
+		shorts2bytes(ss, 0, out, 0, ss.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
@@ -38,8 +41,7 @@ public class BinaryUtils {
 		if (bs == null)
 			return new short[0];
 		short[] out = new short[bs.length / 2];
-		for (int j = 0; j < out.length; j++)
-			out[j] = ByteBuffer.wrap(bs, 2 * j, 2).getShort();
+		bytes2shorts(bs, 0, out, 0, out.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
@@ -78,8 +80,7 @@ public class BinaryUtils {
 	 */
 	public static byte[] ints2bytes(int[] is) {
 		byte[] out = new byte[4 * is.length];
-		for (int i = 0; i < is.length; i++)
-			ByteBuffer.wrap(out, 4 * i, 4).putInt(is[i]);
+		ints2bytes(is, 0, out, 0, is.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
@@ -94,8 +95,7 @@ public class BinaryUtils {
 		if (bs == null)
 			return new int[0];
 		int[] out = new int[bs.length / 4];
-		for (int j = 0; j < out.length; j++)
-			out[j] = ByteBuffer.wrap(bs, 4 * j, 4).getInt();
+		bytes2ints(bs, 0, out, 0, out.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
@@ -134,8 +134,7 @@ public class BinaryUtils {
 	 */
 	public static byte[] floats2bytes(float... fs) {
 		byte[] out = new byte[4 * fs.length];
-		for (int i = 0; i < fs.length; i++)
-			ByteBuffer.wrap(out, 4 * i, 4).putFloat(fs[i]);
+		floats2bytes(fs, 0, out, 0, fs.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
@@ -150,8 +149,7 @@ public class BinaryUtils {
 		if (bs == null)
 			return null;
 		float[] out = new float[bs.length / 4];
-		for (int i = 0; i < out.length; i++)
-			out[i] = ByteBuffer.wrap(bs, 4 * i, 4).getFloat();
+		bytes2floats(bs, 0, out, 0, out.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
@@ -216,8 +214,7 @@ public class BinaryUtils {
 	 */
 	public static byte[] doubles2bytes(double... vs) {
 		byte[] out = new byte[8 * vs.length];
-		for (int i = 0; i < vs.length; i++)
-			ByteBuffer.wrap(out, 8 * i, 8).putDouble(vs[i]);
+		doubles2bytes(vs, 0, out, 0, vs.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
@@ -230,11 +227,320 @@ public class BinaryUtils {
 	 */
 	public static double[] bytes2doubles(byte[] bs) {
 		double[] out = new double[bs.length / 8];
-		for (int i = 0; i < out.length; i++)
-			out[i] = ByteBuffer.wrap(bs, 8 * i, 8).getDouble();
+		bytes2doubles(bs, 0, out, 0, out.length, ByteOrder.BIG_ENDIAN);
 		return out;
 	}
 
+	// ----------------------- BULK CONVERSIONS -----------------------
+
+	// As conversões em bloco usam uma única visão (ver ByteBuffer#asIntBuffer(),
+	// etc.) sobre o vetor de bytes, em vez de um ByteBuffer por elemento
+
+	/**
+	 * Função que escreve os bytes de uma sequência de inteiros de 16 bits em um vetor de
+	 * bytes fornecido
+	 * 
+	 * @param src    vetor de inteiros de 16 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de bytes (com pelo menos <code>2*count</code> posições a
+	 *               partir de <code>dstOff</code>)
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void shorts2bytes(short[] src, int srcOff, byte[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(dst, dstOff, 2 * count).order(order).asShortBuffer().put(src, srcOff, count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de inteiros de 16 bits em um
+	 * {@link ByteBuffer} (inclusive direto), a partir da sua posição atual e na
+	 * sua ordem de bytes. A posição do buffer é avançada.
+	 * 
+	 * @param src    vetor de inteiros de 16 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    buffer de destino
+	 * @param count  número de elementos convertidos
+	 */
+	public static void shorts2bytes(short[] src, int srcOff, ByteBuffer dst, int count) {
+		dst.asShortBuffer().put(src, srcOff, count);
+		dst.position(dst.position() + 2 * count);
+	}
+
+	/**
+	 * Função que lê uma sequência de inteiros de 16 bits de um vetor de bytes,
+	 * escrevendo-os em um vetor fornecido
+	 * 
+	 * @param src    vetor de bytes
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de inteiros de 16 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void bytes2shorts(byte[] src, int srcOff, short[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(src, srcOff, 2 * count).order(order).asShortBuffer().get(dst, dstOff, count);
+	}
+
+	/**
+	 * Função que lê uma sequência de inteiros de 16 bits de um {@link ByteBuffer}
+	 * (inclusive direto), a partir da sua posição atual e na sua ordem de bytes. A
+	 * posição do buffer é avançada.
+	 * 
+	 * @param src    buffer de origem
+	 * @param dst    vetor de inteiros de 16 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 */
+	public static void bytes2shorts(ByteBuffer src, short[] dst, int dstOff, int count) {
+		src.asShortBuffer().get(dst, dstOff, count);
+		src.position(src.position() + 2 * count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de inteiros de 32 bits em um vetor de
+	 * bytes fornecido
+	 * 
+	 * @param src    vetor de inteiros de 32 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de bytes (com pelo menos <code>4*count</code> posições a
+	 *               partir de <code>dstOff</code>)
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void ints2bytes(int[] src, int srcOff, byte[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(dst, dstOff, 4 * count).order(order).asIntBuffer().put(src, srcOff, count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de inteiros de 32 bits em um
+	 * {@link ByteBuffer} (inclusive direto), a partir da sua posição atual e na
+	 * sua ordem de bytes. A posição do buffer é avançada.
+	 * 
+	 * @param src    vetor de inteiros de 32 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    buffer de destino
+	 * @param count  número de elementos convertidos
+	 */
+	public static void ints2bytes(int[] src, int srcOff, ByteBuffer dst, int count) {
+		dst.asIntBuffer().put(src, srcOff, count);
+		dst.position(dst.position() + 4 * count);
+	}
+
+	/**
+	 * Função que lê uma sequência de inteiros de 32 bits de um vetor de bytes,
+	 * escrevendo-os em um vetor fornecido
+	 * 
+	 * @param src    vetor de bytes
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de inteiros de 32 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void bytes2ints(byte[] src, int srcOff, int[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(src, srcOff, 4 * count).order(order).asIntBuffer().get(dst, dstOff, count);
+	}
+
+	/**
+	 * Função que lê uma sequência de inteiros de 32 bits de um {@link ByteBuffer}
+	 * (inclusive direto), a partir da sua posição atual e na sua ordem de bytes. A
+	 * posição do buffer é avançada.
+	 * 
+	 * @param src    buffer de origem
+	 * @param dst    vetor de inteiros de 32 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 */
+	public static void bytes2ints(ByteBuffer src, int[] dst, int dstOff, int count) {
+		src.asIntBuffer().get(dst, dstOff, count);
+		src.position(src.position() + 4 * count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de inteiros de 64 bits em um vetor de
+	 * bytes fornecido
+	 * 
+	 * @param src    vetor de inteiros de 64 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de bytes (com pelo menos <code>8*count</code> posições a
+	 *               partir de <code>dstOff</code>)
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void longs2bytes(long[] src, int srcOff, byte[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(dst, dstOff, 8 * count).order(order).asLongBuffer().put(src, srcOff, count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de inteiros de 64 bits em um
+	 * {@link ByteBuffer} (inclusive direto), a partir da sua posição atual e na
+	 * sua ordem de bytes. A posição do buffer é avançada.
+	 * 
+	 * @param src    vetor de inteiros de 64 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    buffer de destino
+	 * @param count  número de elementos convertidos
+	 */
+	public static void longs2bytes(long[] src, int srcOff, ByteBuffer dst, int count) {
+		dst.asLongBuffer().put(src, srcOff, count);
+		dst.position(dst.position() + 8 * count);
+	}
+
+	/**
+	 * Função que lê uma sequência de inteiros de 64 bits de um vetor de bytes,
+	 * escrevendo-os em um vetor fornecido
+	 * 
+	 * @param src    vetor de bytes
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de inteiros de 64 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void bytes2longs(byte[] src, int srcOff, long[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(src, srcOff, 8 * count).order(order).asLongBuffer().get(dst, dstOff, count);
+	}
+
+	/**
+	 * Função que lê uma sequência de inteiros de 64 bits de um {@link ByteBuffer}
+	 * (inclusive direto), a partir da sua posição atual e na sua ordem de bytes. A
+	 * posição do buffer é avançada.
+	 * 
+	 * @param src    buffer de origem
+	 * @param dst    vetor de inteiros de 64 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 */
+	public static void bytes2longs(ByteBuffer src, long[] dst, int dstOff, int count) {
+		src.asLongBuffer().get(dst, dstOff, count);
+		src.position(src.position() + 8 * count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de decimais de 32 bits em um vetor de
+	 * bytes fornecido
+	 * 
+	 * @param src    vetor de decimais de 32 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de bytes (com pelo menos <code>4*count</code> posições a
+	 *               partir de <code>dstOff</code>)
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void floats2bytes(float[] src, int srcOff, byte[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(dst, dstOff, 4 * count).order(order).asFloatBuffer().put(src, srcOff, count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de decimais de 32 bits em um
+	 * {@link ByteBuffer} (inclusive direto), a partir da sua posição atual e na
+	 * sua ordem de bytes. A posição do buffer é avançada.
+	 * 
+	 * @param src    vetor de decimais de 32 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    buffer de destino
+	 * @param count  número de elementos convertidos
+	 */
+	public static void floats2bytes(float[] src, int srcOff, ByteBuffer dst, int count) {
+		dst.asFloatBuffer().put(src, srcOff, count);
+		dst.position(dst.position() + 4 * count);
+	}
+
+	/**
+	 * Função que lê uma sequência de decimais de 32 bits de um vetor de bytes,
+	 * escrevendo-os em um vetor fornecido
+	 * 
+	 * @param src    vetor de bytes
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de decimais de 32 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void bytes2floats(byte[] src, int srcOff, float[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(src, srcOff, 4 * count).order(order).asFloatBuffer().get(dst, dstOff, count);
+	}
+
+	/**
+	 * Função que lê uma sequência de decimais de 32 bits de um {@link ByteBuffer}
+	 * (inclusive direto), a partir da sua posição atual e na sua ordem de bytes. A
+	 * posição do buffer é avançada.
+	 * 
+	 * @param src    buffer de origem
+	 * @param dst    vetor de decimais de 32 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 */
+	public static void bytes2floats(ByteBuffer src, float[] dst, int dstOff, int count) {
+		src.asFloatBuffer().get(dst, dstOff, count);
+		src.position(src.position() + 4 * count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de decimais de 64 bits em um vetor de
+	 * bytes fornecido
+	 * 
+	 * @param src    vetor de decimais de 64 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de bytes (com pelo menos <code>8*count</code> posições a
+	 *               partir de <code>dstOff</code>)
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void doubles2bytes(double[] src, int srcOff, byte[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(dst, dstOff, 8 * count).order(order).asDoubleBuffer().put(src, srcOff, count);
+	}
+
+	/**
+	 * Função que escreve os bytes de uma sequência de decimais de 64 bits em um
+	 * {@link ByteBuffer} (inclusive direto), a partir da sua posição atual e na
+	 * sua ordem de bytes. A posição do buffer é avançada.
+	 * 
+	 * @param src    vetor de decimais de 64 bits
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    buffer de destino
+	 * @param count  número de elementos convertidos
+	 */
+	public static void doubles2bytes(double[] src, int srcOff, ByteBuffer dst, int count) {
+		dst.asDoubleBuffer().put(src, srcOff, count);
+		dst.position(dst.position() + 8 * count);
+	}
+
+	/**
+	 * Função que lê uma sequência de decimais de 64 bits de um vetor de bytes,
+	 * escrevendo-os em um vetor fornecido
+	 * 
+	 * @param src    vetor de bytes
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de decimais de 64 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 * @param order  ordem dos bytes
+	 */
+	public static void bytes2doubles(byte[] src, int srcOff, double[] dst, int dstOff, int count, ByteOrder order) {
+		ByteBuffer.wrap(src, srcOff, 8 * count).order(order).asDoubleBuffer().get(dst, dstOff, count);
+	}
+
+	/**
+	 * Função que lê uma sequência de decimais de 64 bits de um {@link ByteBuffer}
+	 * (inclusive direto), a partir da sua posição atual e na sua ordem de bytes. A
+	 * posição do buffer é avançada.
+	 * 
+	 * @param src    buffer de origem
+	 * @param dst    vetor de decimais de 64 bits
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de elementos convertidos
+	 */
+	public static void bytes2doubles(ByteBuffer src, double[] dst, int dstOff, int count) {
+		src.asDoubleBuffer().get(dst, dstOff, count);
+		src.position(src.position() + 8 * count);
+	}
+
 	// ----------------------- BYTE <-> BOOLEAN's -----------------------
 
 	/**
@@ -392,121 +698,239 @@ public class BinaryUtils {
 		return vax2IEEE(p, 0);
 	}
 
+	/**
+	 * Função que converte um decimal no formato VAX D (8 bytes) em um decimal IEEE
+	 * 754
+	 * 
+	 * @param dbl    vetor de bytes
+	 * @param offset posição do decimal VAX no vetor
+	 * @return decimal IEEE 754
+	 */
 	public static double vax2IEEE(byte[] dbl, int offset) {
-		long[] dt = new long[2];
-
-		// Arrange the VAX double so that it may be accessed by a double64_t
-		// structure, (two GUInt32s).
-
-		byte[] ib = new byte[8];
-
-		ib[2] = dbl[4 + offset];
-		ib[3] = dbl[5 + offset];
-		ib[0] = dbl[6 + offset];
-		ib[1] = dbl[7 + offset];
-		dt[0] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
-
-		ib[2] = dbl[offset];
-		ib[3] = dbl[1 + offset];
-		ib[0] = dbl[2 + offset];
-		ib[1] = dbl[3 + offset];
-		dt[1] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
+		// as palavras de 16 bits estão em ordem little endian, e os pares de palavras
+		// em ordem big endian (middle endian)
+		int hi = (dbl[2 + offset] & 0xFF) | (dbl[3 + offset] & 0xFF) << 8 | (dbl[offset] & 0xFF) << 16
+				| (dbl[1 + offset] & 0xFF) << 24;
+		int lo = (dbl[6 + offset] & 0xFF) | (dbl[7 + offset] & 0xFF) << 8 | (dbl[4 + offset] & 0xFF) << 16
+				| (dbl[5 + offset] & 0xFF) << 24;
+		return vax2IEEE(hi, lo);
+	}
 
+	/**
+	 * Função que converte um decimal no formato VAX D, dado pelas suas duas
+	 * metades de 32 bits, em um decimal IEEE 754
+	 */
+	static double vax2IEEE(int hi, int lo) {
 		// Save the sign of the double
-		int sign = (int) (dt[1] & 0x80000000);
+		int sign = hi & 0x80000000;
 
 		// Adjust the exponent so that we may work with it
-		int exponent = (int) (dt[1] >> 23);
-		exponent &= 0x000000ff;
-
+		int exponent = (hi >>> 23) & 0xff;
 		if (exponent != 0)
 			exponent = exponent - 129 + 1023;
 
-		// Save the bits that we are discarding so we can round properly
-		int rndbits = (int) (dt[0] & 0x00000007);
+		// Shift the fraction 3 bits right, keeping a sticky bit for the discarded
+		// ones (que resto é esse? Um dia descubro...)
+		int l = (lo >>> 3) | (hi << 29);
+		if ((lo & 0x7) != 0)
+			l |= 1;
 
-		dt[0] >>= 3;
-		dt[0] = (dt[0] & 0x1fffffff) | (dt[1] << 29);
+		// Shift the hi-order int over 3 and insert the exponent and sign
+		int h = ((hi >>> 3) & 0x000fffff) | (exponent << 20) | sign;
 
-		if (rndbits != 0) // que resto é esse? Um dia descubro...
-			dt[0] |= 0x00000001;
+		return Double.longBitsToDouble(((long) h << 32) | (l & 0xFFFFFFFFL));
+	}
 
-		// Shift the hi-order int over 3 and insert the exponent and sign
-		dt[1] >>= 3;
-		dt[1] &= 0x000fffff;
-		dt[1] |= (exponent << 20) | sign;
+	/**
+	 * Função que converte uma sequência de decimais no formato VAX D em decimais
+	 * IEEE 754
+	 * 
+	 * @param src    vetor de bytes
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de decimais
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de decimais convertidos
+	 */
+	public static void vax2IEEE(byte[] src, int srcOff, double[] dst, int dstOff, int count) {
+		for (int i = 0, o = srcOff; i < count; i++, o += 8) {
+			int hi = (src[o + 2] & 0xFF) | (src[o + 3] & 0xFF) << 8 | (src[o] & 0xFF) << 16
+					| (src[o + 1] & 0xFF) << 24;
+			int lo = (src[o + 6] & 0xFF) | (src[o + 7] & 0xFF) << 8 | (src[o + 4] & 0xFF) << 16
+					| (src[o + 5] & 0xFF) << 24;
+			dst[dstOff + i] = vax2IEEE(hi, lo);
+		}
+	}
 
-		byte[] db = new byte[8];
+	/**
+	 * Função que lê uma sequência de decimais no formato VAX D de um
+	 * {@link ByteBuffer} (inclusive direto), a partir da sua posição atual, e os
+	 * converte em decimais IEEE 754. A posição do buffer é avançada.
+	 * 
+	 * @param src    buffer de origem
+	 * @param dst    vetor de decimais
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de decimais convertidos
+	 */
+	public static void vax2IEEE(ByteBuffer src, double[] dst, int dstOff, int count) {
+		if (src.hasArray()) {
+			vax2IEEE(src.array(), src.arrayOffset() + src.position(), dst, dstOff, count);
+			src.position(src.position() + 8 * count);
+		} else {
+			// a ordem das palavras de 16 bits é little endian
+			ByteBuffer le = src.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0, p = src.position(); i < count; i++, p += 8) {
+				int hi = (le.getShort(p) & 0xFFFF) << 16 | (le.getShort(p + 2) & 0xFFFF);
+				int lo = (le.getShort(p + 4) & 0xFFFF) << 16 | (le.getShort(p + 6) & 0xFFFF);
+				dst[dstOff + i] = vax2IEEE(hi, lo);
+			}
+			src.position(src.position() + 8 * count);
+		}
+	}
 
-		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putLong(dt[0]);
-		System.arraycopy(ib, 0, db, 0, 4);
+	/**
+	 * Tamanho (em número de decimais) dos blocos lidos nas conversões de arquivos
+	 */
+	private static final int VAX_BLOCK = 8192;
 
-		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putLong(dt[1]);
-		System.arraycopy(ib, 0, db, 4, 4);
+	/**
+	 * Função que lê todos os decimais no formato VAX D de um canal de arquivo, a
+	 * partir da sua posição atual, e os converte em decimais IEEE 754. O arquivo é
+	 * lido em blocos, sem que o seu conteúdo seja carregado inteiro na memória
+	 * além do vetor de saída.
+	 * 
+	 * @param channel canal de leitura do arquivo
+	 * @return vetor de decimais
+	 * @throws IOException em caso de erro de leitura
+	 */
+	public static double[] vax2IEEE(FileChannel channel) throws IOException {
+		long n = (channel.size() - channel.position()) / 8;
+		if (n > Integer.MAX_VALUE)
+			throw new IOException("Arquivo grande demais: " + n + " decimais");
+		double[] out = new double[(int) n];
+		ByteBuffer buf = ByteBuffer.allocate(8 * VAX_BLOCK);
+		int done = 0;
+		while (done < out.length) {
+			buf.clear();
+			buf.limit(8 * Math.min(VAX_BLOCK, out.length - done));
+			while (buf.hasRemaining())
+				if (channel.read(buf) < 0)
+					throw new EOFException();
+			buf.flip();
+			int count = buf.remaining() / 8;
+			vax2IEEE(buf, out, done, count);
+			done += count;
+		}
+		return out;
+	}
 
-		return ByteBuffer.wrap(db).order(ByteOrder.LITTLE_ENDIAN).getDouble();
+	/**
+	 * Função que converte um fluxo de decimais no formato VAX D em um fluxo de
+	 * decimais IEEE 754 (8 bytes cada), até o fim do fluxo de entrada. Um eventual
+	 * decimal incompleto no fim do fluxo é ignorado.
+	 * 
+	 * @param in    canal de entrada (e.g., {@link FileChannel})
+	 * @param out   canal de saída
+	 * @param order ordem dos bytes dos decimais IEEE 754
+	 * @return número de decimais convertidos
+	 * @throws IOException em caso de erro de leitura ou escrita
+	 */
+	public static long vax2IEEE(ReadableByteChannel in, WritableByteChannel out, ByteOrder order)
+			throws IOException {
+		ByteBuffer src = ByteBuffer.allocate(8 * VAX_BLOCK), dst = ByteBuffer.allocate(8 * VAX_BLOCK).order(order);
+		double[] ds = new double[VAX_BLOCK];
+		long total = 0L;
+		boolean eof = false;
+		while (!eof) {
+			while (src.hasRemaining())
+				if (in.read(src) < 0) {
+					eof = true;
+					break;
+				}
+			src.flip();
+			int count = src.remaining() / 8;
+			vax2IEEE(src, ds, 0, count);
+			src.compact();
+
+			dst.clear();
+			doubles2bytes(ds, 0, dst, count);
+			dst.flip();
+			while (dst.hasRemaining())
+				out.write(dst);
+			total += count;
+		}
+		return total;
 	}
 
+	/**
+	 * Função que converte um decimal IEEE 754 em um decimal no formato VAX D (8
+	 * bytes)
+	 * 
+	 * @param d decimal IEEE 754
+	 * @return vetor de 8 bytes
+	 */
 	public static byte[] IEEE2vax(double d) {
-		long[] dt = new long[2];
-
-		byte[] db = new byte[8];
-		ByteBuffer.wrap(db).order(ByteOrder.LITTLE_ENDIAN).putDouble(d);
-
-		byte[] ib = new byte[8];
-		System.arraycopy(db, 0, ib, 0, 4);
-		dt[0] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
+		byte[] out = new byte[8];
+		IEEE2vax(d, out, 0);
+		return out;
+	}
 
-		System.arraycopy(db, 4, ib, 0, 4);
-		dt[1] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
+	/**
+	 * Função que converte um decimal IEEE 754 em um decimal no formato VAX D,
+	 * escrevendo-o em um vetor de bytes
+	 * 
+	 * @param d      decimal IEEE 754
+	 * @param dst    vetor de bytes
+	 * @param dstOff posição em <code>dst</code>
+	 */
+	public static void IEEE2vax(double d, byte[] dst, int dstOff) {
+		long bits = Double.doubleToRawLongBits(d);
+		int hi = (int) (bits >>> 32), lo = (int) bits;
 
-		int sign = (int) (dt[1] & 0x80000000);
-		int exponent = (int) (dt[1] >> 20);
-		exponent &= 0x000007ff;
+		int sign = hi & 0x80000000;
+		int exponent = (hi >>> 20) & 0x7ff;
 
 		// An exponent of zero means a zero value.
 		if (exponent != 0)
 			exponent = exponent - 1023 + 129;
 
-		// In the case of overflow, return the largest number we can
+		int h, l;
 		if (exponent > 255) {
-			byte[] out = new byte[8];
-			Arrays.fill(out, (byte) 0xff);
-
-			if (sign == 0)
-				out[1] = (byte) 0x7f;
-
-			return out;
-		}
-
-		// In the case of of underflow return zero
-		else if ((exponent < 0) || (exponent == 0 && sign == 0)) {
-			return new byte[8];
+			// In the case of overflow, return the largest number we can
+			h = sign == 0 ? 0x7fffffff : 0xffffffff;
+			l = 0xffffffff;
+		} else if ((exponent < 0) || (exponent == 0 && sign == 0)) {
+			// In the case of of underflow return zero
+			h = l = 0;
 		} else {
 			// Shift the fraction 3 bits left and set the exponent and sign
-			dt[1] <<= 3;
-			dt[1] |= (dt[0] >> 29);
-			dt[1] &= 0x007fffff;
-			dt[1] = dt[1] | (exponent << 23) | sign;
-
-			dt[0] <<= 3;
+			h = (((hi << 3) | (lo >>> 29)) & 0x007fffff) | (exponent << 23) | sign;
+			l = lo << 3;
 		}
 
 		// Convert the double back to VAX format
+		dst[dstOff] = (byte) (h >>> 16);
+		dst[dstOff + 1] = (byte) (h >>> 24);
+		dst[dstOff + 2] = (byte) h;
+		dst[dstOff + 3] = (byte) (h >>> 8);
+		dst[dstOff + 4] = (byte) (l >>> 16);
+		dst[dstOff + 5] = (byte) (l >>> 24);
+		dst[dstOff + 6] = (byte) l;
+		dst[dstOff + 7] = (byte) (l >>> 8);
+	}
 
-		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putInt((int) dt[1]);
-		db[0] = ib[2];
-		db[1] = ib[3];
-		db[2] = ib[0];
-		db[3] = ib[1];
-
-		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putInt((int) dt[0]);
-		db[4] = ib[2];
-		db[5] = ib[3];
-		db[6] = ib[0];
-		db[7] = ib[1];
-
-		return db;
+	/**
+	 * Função que converte uma sequência de decimais IEEE 754 em decimais no
+	 * formato VAX D
+	 * 
+	 * @param src    vetor de decimais
+	 * @param srcOff posição inicial em <code>src</code>
+	 * @param dst    vetor de bytes
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @param count  número de decimais convertidos
+	 */
+	public static void IEEE2vax(double[] src, int srcOff, byte[] dst, int dstOff, int count) {
+		for (int i = 0; i < count; i++)
+			IEEE2vax(src[srcOff + i], dst, dstOff + 8 * i);
 	}
 
 	private static final short[] saQuots = { 1600, 40, 1 };
@@ -521,9 +945,10 @@ public class BinaryUtils {
 	public static void rad50toAscii(short sRad50, char[] str, int offset) {
 		char ch = '\0';
 
+		// a palavra é sem sinal (0..63999)
+		int word = sRad50 & 0xFFFF;
 		for (int i = 0; i < 3; i++) {
-			short sValue = sRad50;
-			sValue /= saQuots[i];
+			int sValue = word / saQuots[i];
 			/* Map 0..39 to ASCII */
 			if (sValue == 0)
 				ch = ' '; /* space */
@@ -541,7 +966,7 @@ public class BinaryUtils {
 			str[offset] = ch;
 			offset++;
 
-			sRad50 -= (sValue * saQuots[i]);
+			word -= (sValue * saQuots[i]);
 		}
 
 		/* Do zero-terminate */
@@ -114,11 +114,7 @@ public class CryptoUtils {
 
 	// hex representation
 	public static String hex(byte[] bytes) {
-		StringBuilder result = new StringBuilder();
-		for (byte b : bytes) {
-			result.append(String.format("%02x", b));
-		}
-		return result.toString();
+		return HexCodec.encode(bytes);
 	}
 
 	// print hex with block size split
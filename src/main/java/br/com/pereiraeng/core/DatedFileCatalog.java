@@ -0,0 +1,548 @@
+package br.com.pereiraeng.core;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo de arquivos datados (na forma '[prefixo][yy][mm][dd][sufixo]', como
+ * em {@link TimeUtils#getPeriod(String, String, String)}) de um diretório e dos
+ * seus subdiretórios.
+ *
+ * O diretório é percorrido uma única vez (os subdiretórios em paralelo) e os
+ * arquivos são indexados em vetores ordenados pelo dia (número de dias desde
+ * 1970-01-01), sobre os quais as consultas (primeiro e último dia, arquivos de
+ * um intervalo de dias, dias sem arquivos) são feitas por busca binária, sem
+ * acesso ao disco. Com {@link #watch()}, o índice é atualizado a cada criação
+ * ou remoção de arquivos, por um {@link WatchService}.
+ *
+ * O índice é imutável e substituído a cada atualização, de modo que as
+ * consultas não são bloqueadas.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public final class DatedFileCatalog implements AutoCloseable {
+
+	private static final int DATE_LENGTH = 6;
+
+	private final Path root;
+
+	private final int prefixLength;
+
+	private final PathMatcher matcher;
+
+	private volatile Index index;
+
+	/**
+	 * Diretórios monitorados
+	 */
+	private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+
+	private volatile WatchService watcher;
+
+	private Thread thread;
+
+	private volatile boolean closed;
+
+	/**
+	 * Erro da última atualização feita pelo monitoramento
+	 */
+	private volatile IOException lastError;
+
+	/**
+	 * Construtor, que percorre o diretório
+	 *
+	 * @param root   diretório com os arquivos
+	 * @param prefix prefixo do nome do arquivo (padrão GLOB com o mesmo número de
+	 *               caracteres dos nomes)
+	 * @param suffix padrão GLOB do sufixo do nome do arquivo
+	 * @throws IOException se o diretório não puder ser lido
+	 */
+	public DatedFileCatalog(Path root, String prefix, String suffix) throws IOException {
+		this.root = root;
+		this.prefixLength = prefix.length();
+		this.matcher = root.getFileSystem()
+				.getPathMatcher("glob:" + prefix + "[0123][0-9][01][0-9][0123][0-9]" + suffix);
+		refresh();
+	}
+
+	public Path getRoot() {
+		return root;
+	}
+
+	// ------------------------------- ÍNDICE -------------------------------
+
+	/**
+	 * Índice imutável: arquivos ordenados pelo dia e diretórios percorridos
+	 */
+	private static final class Index {
+		private final int[] days;
+
+		private final Path[] paths;
+
+		private final Path[] dirs;
+
+		private Index(int[] days, Path[] paths, Path[] dirs) {
+			this.days = days;
+			this.paths = paths;
+			this.dirs = dirs;
+		}
+
+		/**
+		 * Posição do primeiro arquivo de dia maior ou igual a <code>day</code>
+		 */
+		private int lowerBound(int day) {
+			int lo = 0, hi = days.length;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (days[mid] < day)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			return lo;
+		}
+	}
+
+	/**
+	 * Resultado parcial de uma varredura
+	 */
+	private static final class Scan {
+		private int size;
+
+		private int[] days = new int[16];
+
+		private Path[] paths = new Path[16];
+
+		private final List<Path> dirs = new ArrayList<>();
+
+		private void add(int day, Path path) {
+			if (size == days.length) {
+				days = Arrays.copyOf(days, 2 * size);
+				paths = Arrays.copyOf(paths, 2 * size);
+			}
+			days[size] = day;
+			paths[size++] = path;
+		}
+
+		private Scan merge(Scan s) {
+			for (int i = 0; i < s.size; i++)
+				add(s.days[i], s.paths[i]);
+			dirs.addAll(s.dirs);
+			return this;
+		}
+
+		/**
+		 * Ordenação pelo dia (chave e posição agrupadas em um inteiro longo)
+		 */
+		private Index sort() {
+			long[] keys = new long[size];
+			for (int i = 0; i < size; i++)
+				keys[i] = (long) days[i] << 32 | i;
+			Arrays.parallelSort(keys);
+			int[] d = new int[size];
+			Path[] p = new Path[size];
+			for (int i = 0; i < size; i++) {
+				int j = (int) keys[i];
+				d[i] = days[j];
+				p[i] = paths[j];
+			}
+			return new Index(d, p, dirs.toArray(new Path[dirs.size()]));
+		}
+	}
+
+	/**
+	 * Função que extrai o dia (número de dias desde 1970-01-01) do nome de um
+	 * arquivo
+	 *
+	 * @return dia, ou {@link Integer#MIN_VALUE} se o nome não corresponder ao
+	 *         padrão ou a data for inválida
+	 */
+	private int dayOf(Path file) {
+		Path name = file.getFileName();
+		if (name == null || !matcher.matches(name))
+			return Integer.MIN_VALUE;
+		String n = name.toString();
+		int yy = Integer.parseInt(n.substring(prefixLength, prefixLength + 2));
+		int mm = Integer.parseInt(n.substring(prefixLength + 2, prefixLength + 4));
+		int dd = Integer.parseInt(n.substring(prefixLength + 4, prefixLength + DATE_LENGTH));
+		if (mm < 1 || mm > 12 || dd < 1 || dd > TimeUtils.lengthOfMonth(2000 + yy, mm))
+			return Integer.MIN_VALUE;
+		return (int) TimeUtils.epochDay(2000 + yy, mm, dd);
+	}
+
+	/**
+	 * Varredura de um diretório, com os seus subdiretórios em paralelo
+	 */
+	private Scan scan(Path dir) {
+		Scan out = new Scan();
+		out.dirs.add(dir);
+		// monitoramento antes da listagem, para não perder arquivos criados durante
+		// a varredura
+		if (watcher != null)
+			register(dir);
+		List<Path> subs = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+			for (Path p : stream) {
+				if (Files.isDirectory(p))
+					subs.add(p);
+				else {
+					int day = dayOf(p);
+					if (day != Integer.MIN_VALUE)
+						out.add(day, p);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (subs.size() == 1)
+			out.merge(scan(subs.get(0)));
+		else if (subs.size() > 1)
+			subs.parallelStream().map(this::scan).reduce(Scan::merge).ifPresent(out::merge);
+		return out;
+	}
+
+	/**
+	 * Função que percorre novamente todo o diretório (a atualização com
+	 * {@link #watch()} é incremental)
+	 *
+	 * @throws IOException se o diretório não puder ser lido
+	 */
+	public void refresh() throws IOException {
+		try {
+			Index idx = scan(root).sort();
+			synchronized (this) {
+				this.index = idx;
+				this.lastError = null;
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Função que retorna o erro da última atualização feita pelo monitoramento
+	 * (ver {@link #watch()}). Enquanto houver erro, o índice pode estar
+	 * desatualizado; a próxima atualização, ou {@link #refresh()}, percorre
+	 * novamente todo o diretório.
+	 *
+	 * @return erro, ou <code>null</code> se a última atualização foi bem-sucedida
+	 */
+	public IOException getLastError() {
+		return lastError;
+	}
+
+	// ------------------------------- CONSULTAS -------------------------------
+
+	/**
+	 * Número de arquivos
+	 */
+	public int size() {
+		return index.days.length;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Primeiro dia com arquivos (número de dias desde 1970-01-01)
+	 *
+	 * @return dia, ou {@link Integer#MIN_VALUE} se não houver arquivos
+	 */
+	public int getFirstDay() {
+		Index idx = index;
+		return idx.days.length == 0 ? Integer.MIN_VALUE : idx.days[0];
+	}
+
+	/**
+	 * Último dia com arquivos (número de dias desde 1970-01-01)
+	 *
+	 * @return dia, ou {@link Integer#MIN_VALUE} se não houver arquivos
+	 */
+	public int getLastDay() {
+		Index idx = index;
+		return idx.days.length == 0 ? Integer.MIN_VALUE : idx.days[idx.days.length - 1];
+	}
+
+	/**
+	 * Função que retorna os instantes inicial e final do período em que há
+	 * arquivos, como {@link TimeUtils#getPeriod(String, String, String)}
+	 *
+	 * @return vetor com duas posições (o início do primeiro dia e as 23h59min59s do
+	 *         último dia), com o instante atual se não houver arquivos
+	 */
+	public Calendar[] getPeriod() {
+		Index idx = index;
+		if (idx.days.length == 0)
+			return new Calendar[] { Calendar.getInstance(), Calendar.getInstance() };
+		LocalDate first = LocalDate.ofEpochDay(idx.days[0]), last = LocalDate.ofEpochDay(idx.days[idx.days.length - 1]);
+		return new Calendar[] {
+				new GregorianCalendar(first.getYear(), first.getMonthValue() - 1, first.getDayOfMonth()),
+				new GregorianCalendar(last.getYear(), last.getMonthValue() - 1, last.getDayOfMonth(), 23, 59, 59) };
+	}
+
+	/**
+	 * Função que retorna os arquivos de um intervalo de dias
+	 *
+	 * @param from primeiro dia (número de dias desde 1970-01-01)
+	 * @param to   último dia (inclusive)
+	 * @return arquivos, em ordem crescente de dia
+	 */
+	public Path[] getFiles(int from, int to) {
+		Index idx = index;
+		int a = idx.lowerBound(from), b = to == Integer.MAX_VALUE ? idx.days.length : idx.lowerBound(to + 1);
+		return a < b ? Arrays.copyOfRange(idx.paths, a, b) : new Path[0];
+	}
+
+	/**
+	 * Função que retorna os arquivos de um período
+	 *
+	 * @param from começo do período
+	 * @param to   fim do período (inclusive)
+	 * @return arquivos dos dias do período, em ordem crescente de dia
+	 */
+	public Path[] getFiles(Calendar from, Calendar to) {
+		return getFiles(epochDay(from), epochDay(to));
+	}
+
+	/**
+	 * Função que retorna os arquivos de um dia
+	 *
+	 * @param day dia (número de dias desde 1970-01-01)
+	 * @return arquivos
+	 */
+	public Path[] getFiles(int day) {
+		return getFiles(day, day);
+	}
+
+	/**
+	 * Função que retorna os intervalos de dias sem arquivos
+	 *
+	 * @param from primeiro dia (número de dias desde 1970-01-01)
+	 * @param to   último dia (inclusive)
+	 * @return matriz de duas colunas com o primeiro e o último dia (inclusive) de
+	 *         cada intervalo sem arquivos, em ordem crescente
+	 */
+	public int[][] getGaps(int from, int to) {
+		Index idx = index;
+		List<int[]> out = new ArrayList<>();
+		int next = from; // primeiro dia ainda não coberto
+		for (int i = idx.lowerBound(from); i < idx.days.length && idx.days[i] <= to; i++) {
+			int d = idx.days[i];
+			if (d > next)
+				out.add(new int[] { next, d - 1 });
+			if (d >= next)
+				next = d + 1;
+		}
+		if (next <= to)
+			out.add(new int[] { next, to });
+		return out.toArray(new int[out.size()][]);
+	}
+
+	/**
+	 * Função que retorna os intervalos de dias sem arquivos entre o primeiro e o
+	 * último dia com arquivos
+	 *
+	 * @return matriz de duas colunas (ver {@link #getGaps(int, int)})
+	 */
+	public int[][] getGaps() {
+		return isEmpty() ? new int[0][] : getGaps(getFirstDay(), getLastDay());
+	}
+
+	/**
+	 * Dia (número de dias desde 1970-01-01) da data local de um instante
+	 */
+	public static int epochDay(Calendar c) {
+		return (int) TimeUtils.epochDay(c.get(Calendar.YEAR), c.get(Calendar.MONTH) + 1, c.get(Calendar.DAY_OF_MONTH));
+	}
+
+	// ------------------------------- MONITORAMENTO -------------------------------
+
+	/**
+	 * Função que passa a atualizar o índice a cada criação ou remoção de arquivos
+	 * (ou de subdiretórios) do diretório, em uma linha de execução própria, até
+	 * {@link #close()}
+	 *
+	 * @throws IOException se o serviço de monitoramento não puder ser criado
+	 */
+	public synchronized void watch() throws IOException {
+		if (watcher != null || closed)
+			return;
+		watcher = root.getFileSystem().newWatchService();
+		for (Path d : index.dirs)
+			register(d);
+		thread = new Thread(this::loop, "dated-file-catalog");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void register(Path dir) {
+		try {
+			keys.put(dir.register(watcher, ENTRY_CREATE, ENTRY_DELETE), dir);
+		} catch (IOException e) {
+			// diretório removido durante a varredura
+		}
+	}
+
+	private void loop() {
+		try {
+			while (!closed) {
+				WatchKey key = watcher.take();
+				Set<Path> added = new HashSet<>(), removed = new HashSet<>();
+				boolean overflow = false;
+				// agrupamento dos eventos pendentes em uma única atualização
+				do {
+					Path dir = keys.get(key);
+					for (WatchEvent<?> e : key.pollEvents()) {
+						if (e.kind() == OVERFLOW) {
+							overflow = true;
+							continue;
+						}
+						Path p = dir.resolve((Path) e.context());
+						if (e.kind() == ENTRY_CREATE) {
+							removed.remove(p);
+							added.add(p);
+						} else {
+							added.remove(p);
+							removed.add(p);
+						}
+					}
+					if (!key.reset())
+						keys.remove(key);
+				} while ((key = watcher.poll()) != null);
+
+				try {
+					// após uma falha, o índice pode estar incompleto: nova varredura completa
+					if (overflow || lastError != null)
+						refresh();
+					else
+						update(added, removed);
+				} catch (IOException e) {
+					lastError = e;
+				} catch (UncheckedIOException e) {
+					lastError = e.getCause();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// encerramento
+		}
+	}
+
+	/**
+	 * Atualização incremental: os caminhos removidos (arquivos ou diretórios) são
+	 * retirados e os criados (arquivos ou diretórios, que são percorridos e
+	 * monitorados) são intercalados no índice
+	 */
+	private synchronized void update(Set<Path> added, Set<Path> removed) {
+		Index old = index;
+		Scan add = new Scan();
+		for (Path p : added) {
+			// o conteúdo dos diretórios criados é obtido na varredura destes
+			if (isUnder(p.getParent(), added))
+				continue;
+			if (Files.isDirectory(p))
+				add.merge(scan(p));
+			else {
+				int day = dayOf(p);
+				if (day != Integer.MIN_VALUE && !contains(old, day, p))
+					add.add(day, p);
+			}
+		}
+		if (add.size == 0 && removed.isEmpty())
+			return;
+		Index a = add.sort();
+
+		int n = old.days.length;
+		int[] days = new int[n + a.days.length];
+		Path[] paths = new Path[days.length];
+		int i = 0, j = 0, k = 0;
+		while (i < n || j < a.days.length) {
+			if (j == a.days.length || (i < n && old.days[i] <= a.days[j])) {
+				if (!isUnder(old.paths[i], removed)) {
+					days[k] = old.days[i];
+					paths[k++] = old.paths[i];
+				}
+				i++;
+			} else {
+				days[k] = a.days[j];
+				paths[k++] = a.paths[j++];
+			}
+		}
+		List<Path> dirs = new ArrayList<>(old.dirs.length + a.dirs.length);
+		for (Path d : old.dirs)
+			if (!isUnder(d, removed))
+				dirs.add(d);
+		dirs.addAll(Arrays.asList(a.dirs));
+		index = new Index(Arrays.copyOf(days, k), Arrays.copyOf(paths, k), dirs.toArray(new Path[dirs.size()]));
+	}
+
+	/**
+	 * Se o arquivo já está no índice
+	 */
+	private static boolean contains(Index idx, int day, Path p) {
+		for (int i = idx.lowerBound(day); i < idx.days.length && idx.days[i] == day; i++)
+			if (idx.paths[i].equals(p))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Se o caminho ou algum dos seus diretórios (abaixo da raiz) pertence ao
+	 * conjunto
+	 */
+	private boolean isUnder(Path p, Set<Path> paths) {
+		if (paths.isEmpty())
+			return false;
+		for (; p != null && !p.equals(root); p = p.getParent())
+			if (paths.contains(p))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Função que encerra o monitoramento
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		WatchService w;
+		Thread t;
+		synchronized (this) {
+			w = watcher;
+			t = thread;
+		}
+		if (w == null)
+			return;
+		try {
+			w.close();
+			t.join();
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,23 +1,90 @@
 package br.com.pereiraeng.core;
 
+import java.time.Instant;
 import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Classe do objeto que cadencia a execução de uma função.
  * 
+ * No modo {@link Scheduling#SLEEP padrão}, a <i>thread</i> do motor dorme um
+ * passo após cada execução, de modo que o período efetivo é o passo acrescido
+ * da duração da execução. Nos modos {@link Scheduling#CATCH_UP} e
+ * {@link Scheduling#SKIP}, os instantes de execução são calculados a partir de
+ * uma origem fixa ({@link System#nanoTime()}), sem deriva, e as execuções são
+ * agendadas em um {@link ScheduledExecutorService}; o atraso de cada execução
+ * com relação ao instante previsto (<i>jitter</i>) e as execuções que
+ * ultrapassam o passo são contabilizados.
+ * 
+ * Com uma {@link #setTimerWheel(TimerWheel) roda de tempo}, as execuções de
+ * todos os modos são agendadas na roda, compartilhada por vários motores, em
+ * vez de em uma <i>thread</i> ou executor próprios.
+ * 
+ * O {@link #getT() contador} do modo síncrono é calculado diretamente do
+ * instante corrente (em milissegundos) e do deslocamento do fuso horário,
+ * obtido de uma {@link ZoneOffsetTable tabela} pré-calculada das transições de
+ * horário de verão, sem a criação de um {@link Calendar} a cada execução.
+ * 
  * @author Philipe PEREIRA
  *
  */
 public class DefaultTimeMotor implements Runnable {
 
+	/**
+	 * Modos de agendamento das execuções
+	 */
+	public enum Scheduling {
+		/**
+		 * a <i>thread</i> do motor dorme um passo após cada execução (o período
+		 * efetivo inclui a duração da execução)
+		 */
+		SLEEP,
+		/**
+		 * período fixo; após um atraso, as execuções perdidas são feitas em
+		 * seguida, até que o motor alcance o seu cronograma
+		 */
+		CATCH_UP,
+		/**
+		 * período fixo; após um atraso, as execuções perdidas são descartadas e o
+		 * motor passa ao próximo instante previsto
+		 */
+		SKIP
+	}
+
 	private TimeRefresh tr;
 
-	private boolean on = false;
+	private volatile boolean on = false;
 	private boolean pause = false;
 
 	private int t = 0;
 	private int tMax = Integer.MAX_VALUE;
-	private Calendar now;
+
+	/**
+	 * instante da última execução, em milissegundos desde 1970-01-01T00:00Z
+	 * ({@link Long#MIN_VALUE} antes da primeira), e o {@link Calendar}
+	 * correspondente, criado somente se solicitado
+	 */
+	private volatile long now = Long.MIN_VALUE;
+	private Calendar nowCalendar;
+
+	/**
+	 * fuso horário do contador (<code>null</code> para o fuso padrão no momento
+	 * do {@link #play()})
+	 */
+	private TimeZone timeZone;
+	private ZoneOffsetTable zoneTable;
+
+	/**
+	 * deslocamento do fuso horário, em milissegundos, válido de
+	 * <code>zoneFrom</code> (inclusive) a <code>zoneUntil</code> (exclusive)
+	 */
+	private int zoneOffset;
+	private long zoneFrom = 1L, zoneUntil = 0L;
 
 	/**
 	 * tempo entre duas atualizações, em milisegundos
@@ -29,6 +96,48 @@ public class DefaultTimeMotor implements Runnable {
 	 */
 	private int offset = 0;
 
+	private Scheduling scheduling = Scheduling.SLEEP;
+
+	/**
+	 * <i>Thread</i> do modo {@link Scheduling#SLEEP} (a <i>thread</i> de um ciclo
+	 * anterior encerra o seu laço ao deixar de ser a corrente)
+	 */
+	private volatile Thread thread;
+
+	/**
+	 * Executor dos modos de período fixo, e se este foi criado pelo próprio motor
+	 */
+	private ScheduledExecutorService executor;
+	private boolean ownExecutor;
+
+	/**
+	 * Trava mantida durante cada execução agendada (e durante o seu
+	 * reagendamento), de modo que {@link #stop()} possa aguardar o seu fim
+	 */
+	private final ReentrantLock tickLock = new ReentrantLock();
+
+	private ScheduledFuture<?> future;
+
+	/**
+	 * Roda de tempo compartilhada (opcional) e próxima execução nela agendada
+	 */
+	private TimerWheel wheel;
+	private TimerWheel.Timeout timeout;
+
+	/**
+	 * Origem, passo (em nanossegundos) e índice da próxima execução agendada
+	 */
+	private long origin, stepN, tick;
+
+	/**
+	 * Número do ciclo {@link #play()}/{@link #stop()} corrente, para que uma
+	 * execução de um ciclo anterior que já tenha sido disparada seja ignorada
+	 */
+	private long generation;
+
+	// métricas dos modos de período fixo
+	private volatile long ticks, overruns, skipped, jitterSum, jitterMax, jitterLast;
+
 	/**
 	 * Função que estabelece qual a classe que terá a função
 	 * {@link TimeRefresh#fireTimeRefresh()} chamada para cada repintura promovida
@@ -37,8 +146,17 @@ public class DefaultTimeMotor implements Runnable {
 	 * @param tr classe com a função a ser invocada a cada chamada de
 	 *           {@link TimeRefresh#fireTimeRefresh() função} associada ao motor
 	 *           temporal
+	 * @throws IllegalArgumentException se a {@link TimeRefresh#getWindow() janela}
+	 *                                  não for compatível com a
+	 *                                  {@link TimeRefresh#getUnit() unidade} do
+	 *                                  contador
 	 */
 	public void setTimeRefresh(TimeRefresh tr) {
+		if (tr != null) {
+			int unit = tr.getUnit();
+			if (unit != TimeRefresh.NOT && counter(unit, tr.getWindow(), 0) == UNKNOWN_WINDOW)
+				throw new IllegalArgumentException("Janela desconhecida para a unidade " + unit + ": " + tr.getWindow());
+		}
 		this.tr = tr;
 	}
 
@@ -84,10 +202,67 @@ public class DefaultTimeMotor implements Runnable {
 		this.tMax = tMax;
 	}
 
+	/**
+	 * Função que retorna o instante da última execução do motor (acrescido do
+	 * {@link #setOffset(int) offset}) como um {@link Calendar}, criado na primeira
+	 * chamada após cada execução
+	 * 
+	 * @return instante, ou <code>null</code> antes da primeira execução
+	 * @see #getNowMillis()
+	 */
 	public Calendar getNow() {
+		long ms = now;
+		if (ms == Long.MIN_VALUE)
+			return null;
+		Calendar c = nowCalendar;
+		if (c == null || c.getTimeInMillis() != ms) {
+			c = timeZone == null ? Calendar.getInstance() : Calendar.getInstance(timeZone);
+			c.setTimeInMillis(ms);
+			nowCalendar = c;
+		}
+		return c;
+	}
+
+	/**
+	 * Função que retorna o instante da última execução do motor (acrescido do
+	 * {@link #setOffset(int) offset}), sem alocação
+	 * 
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z, ou
+	 *         {@link Long#MIN_VALUE} antes da primeira execução
+	 */
+	public long getNowMillis() {
 		return now;
 	}
 
+	/**
+	 * Função que retorna o instante da última execução do motor (acrescido do
+	 * {@link #setOffset(int) offset})
+	 * 
+	 * @return instante, ou <code>null</code> antes da primeira execução
+	 */
+	public Instant getNowInstant() {
+		long ms = now;
+		return ms == Long.MIN_VALUE ? null : Instant.ofEpochMilli(ms);
+	}
+
+	/**
+	 * Função que estabelece o fuso horário do {@link #getT() contador} do modo
+	 * síncrono
+	 * 
+	 * @param timeZone fuso horário, ou <code>null</code> para o fuso padrão da JVM
+	 *                 (lido a cada {@link #play()})
+	 */
+	public void setTimeZone(TimeZone timeZone) {
+		this.timeZone = timeZone;
+		this.zoneTable = null;
+		this.zoneFrom = 1L;
+		this.zoneUntil = 0L;
+	}
+
+	public TimeZone getTimeZone() {
+		return timeZone;
+	}
+
 	/**
 	 * Função que estipula o valor, em segundos, do passo de tempo entre duas
 	 * chamadas da {@link TimeRefresh#fireTimeRefresh() função} do motor temporal
@@ -114,14 +289,134 @@ public class DefaultTimeMotor implements Runnable {
 		return on;
 	}
 
+	public Scheduling getScheduling() {
+		return scheduling;
+	}
+
+	/**
+	 * Função que estabelece o modo de agendamento das execuções, a ser
+	 * considerado no próximo {@link #play()}
+	 * 
+	 * @param scheduling modo de agendamento
+	 */
+	public void setScheduling(Scheduling scheduling) {
+		this.scheduling = scheduling;
+	}
+
+	/**
+	 * Função que estabelece o executor dos modos de período fixo (e.g., para que
+	 * vários motores compartilhem as mesmas <i>threads</i>). Se nenhum for
+	 * informado, o motor cria o seu próprio executor a cada {@link #play()}, que é
+	 * encerrado por {@link #stop()}.
+	 * 
+	 * @param executor executor
+	 */
+	public void setExecutor(ScheduledExecutorService executor) {
+		this.executor = executor;
+		this.ownExecutor = false;
+	}
+
+	/**
+	 * Função que estabelece a roda de tempo na qual as execuções do motor serão
+	 * agendadas a partir do próximo {@link #play()}, em vez de em uma
+	 * <i>thread</i> ou executor próprios
+	 * 
+	 * @param wheel roda de tempo (e.g., {@link TimerWheel#shared()}), ou
+	 *              <code>null</code> para voltar ao comportamento padrão
+	 */
+	public void setTimerWheel(TimerWheel wheel) {
+		this.wheel = wheel;
+	}
+
+	// -------------------------- MÉTRICAS --------------------------
+
+	/**
+	 * Número de execuções agendadas realizadas desde o último {@link #play()}
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Número de execuções que terminaram após o instante previsto para a
+	 * seguinte
+	 */
+	public long getOverruns() {
+		return overruns;
+	}
+
+	/**
+	 * Número de execuções descartadas no modo {@link Scheduling#SKIP}
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * Atraso, em nanossegundos, da última execução com relação ao instante
+	 * previsto
+	 */
+	public long getLastJitter() {
+		return jitterLast;
+	}
+
+	/**
+	 * Maior atraso, em nanossegundos, de uma execução com relação ao instante
+	 * previsto
+	 */
+	public long getMaxJitter() {
+		return jitterMax;
+	}
+
+	/**
+	 * Atraso médio, em nanossegundos, das execuções com relação aos instantes
+	 * previstos
+	 */
+	public double getMeanJitter() {
+		long n = ticks;
+		return n == 0 ? 0.0 : (double) jitterSum / n;
+	}
+
+	private void resetMetrics() {
+		ticks = overruns = skipped = jitterSum = jitterMax = jitterLast = 0L;
+	}
+
 	// -------------------------- RUNNABLE --------------------------
 
 	/**
 	 * Função que dá início a execução da animação
 	 */
 	public void play() {
-		if (!on)
-			new Thread(this).start();
+		tickLock.lock();
+		try {
+			if (on)
+				return;
+			setTimeZone(timeZone);
+			on = true;
+			generation++;
+			if (scheduling == Scheduling.SLEEP && wheel == null) {
+				thread = new Thread(this::loop);
+				thread.start();
+			} else {
+				if (wheel == null && executor == null) {
+					ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1, r -> {
+						Thread th = new Thread(r, "time-motor");
+						th.setDaemon(true);
+						return th;
+					});
+					stpe.setRemoveOnCancelPolicy(true);
+					executor = stpe;
+					ownExecutor = true;
+				}
+				resetMetrics();
+				origin = System.nanoTime();
+				stepN = TimeUnit.MILLISECONDS.toNanos(stepL);
+				tick = 0L;
+				reschedule(origin);
+			}
+		} finally {
+			tickLock.unlock();
+		}
 	}
 
 	/**
@@ -130,6 +425,7 @@ public class DefaultTimeMotor implements Runnable {
 	public void pause() {
 		if (on) {
 			on = false;
+			halt();
 			pause = true;
 		} else if (pause) {
 			pause = false;
@@ -138,88 +434,240 @@ public class DefaultTimeMotor implements Runnable {
 	}
 
 	/**
-	 * Função que suspende a execução da animação
+	 * Função que suspende a execução da animação. Ao retornar (exceto quando
+	 * chamada pela própria função executada pelo motor), nenhuma execução está em
+	 * andamento e nenhuma outra será feita.
 	 */
 	public void stop() {
-		boolean wasOn = on;
 		on = false;
+		halt();
+		// após o fim da execução em andamento, que ainda lê o contador
 		t = 0;
-		if (wasOn) {
-			try {
-				// esperar o Thread anterior acabar
-				Thread.sleep(stepL);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+		if (ownExecutor && executor != null) {
+			executor.shutdown();
+			executor = null;
+			ownExecutor = false;
+		}
+	}
+
+	/**
+	 * Função que encerra a <i>thread</i> do modo {@link Scheduling#SLEEP},
+	 * aguardando o seu fim (exceto quando chamada pela própria <i>thread</i>), e
+	 * cancela a próxima execução agendada
+	 */
+	private void halt() {
+		Thread th = thread;
+		if (th != null) {
+			thread = null;
+			if (th != Thread.currentThread()) {
+				// acordar e esperar o Thread anterior acabar
+				th.interrupt();
+				try {
+					th.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
 			}
 		}
+		cancel();
+	}
+
+	/**
+	 * Função que cancela a próxima execução agendada, aguardando o fim de uma
+	 * eventual execução em andamento
+	 */
+	private void cancel() {
+		tickLock.lock();
+		try {
+			if (future != null) {
+				future.cancel(false);
+				future = null;
+			}
+			if (timeout != null) {
+				timeout.cancel();
+				timeout = null;
+			}
+		} finally {
+			tickLock.unlock();
+		}
+	}
+
+	/**
+	 * Função que agenda a próxima execução para um instante
+	 */
+	private void reschedule(long deadline) {
+		long g = generation;
+		Runnable task = () -> scheduledTick(g);
+		if (wheel != null)
+			timeout = wheel.scheduleAt(task, deadline);
+		else
+			// atraso negativo: execução imediata
+			future = executor.schedule(task, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Execução agendada nos modos de período fixo (e em todos os modos com uma
+	 * roda de tempo): a execução de índice <code>n</code> é prevista para
+	 * <code>origem + n * passo</code>
+	 */
+	private void scheduledTick(long g) {
+		tickLock.lock();
+		try {
+			if (!on || g != generation)
+				return;
+			long start = System.nanoTime();
+			long jitter = start - (origin + tick * stepN);
+			jitterLast = jitter;
+			jitterSum += jitter;
+			if (jitter > jitterMax)
+				jitterMax = jitter;
+			ticks++;
+
+			tick();
+
+			if (!on || g != generation)
+				return;
+			long now = System.nanoTime();
+			long next = tick + 1;
+			if (scheduling == Scheduling.SLEEP)
+				// um passo após o fim da execução
+				origin = now + stepN - next * stepN;
+			else if (now - (origin + next * stepN) > 0L) {
+				overruns++;
+				if (scheduling == Scheduling.SKIP) {
+					long late = (now - origin) / stepN + 1;
+					skipped += late - next;
+					next = late;
+				}
+			}
+			tick = next;
+			reschedule(origin + next * stepN);
+		} catch (RuntimeException e) {
+			on = false;
+			throw e;
+		} finally {
+			tickLock.unlock();
+		}
 	}
 
 	@Override
 	public void run() {
 		on = true;
+		thread = Thread.currentThread();
+		loop();
+	}
+
+	/**
+	 * Laço do modo {@link Scheduling#SLEEP}, executado enquanto o motor estiver
+	 * ligado e a <i>thread</i> corrente for a do ciclo {@link #play()}/
+	 * {@link #stop()} corrente
+	 */
+	private void loop() {
+		Thread self = Thread.currentThread();
 		try {
-			while (on) {
-				// contador
-				this.now = Calendar.getInstance();
-				if (offset != 0L)
-					this.now.add(Calendar.MILLISECOND, offset);
-
-				if (tr != null) {
-					// possíveis valores de t:
-					switch (tr.getUnit()) {
-					case TimeRefresh.NOT: // contador
-						break;
-					case Calendar.SECOND:
-						switch (tr.getWindow()) {
-						case Calendar.DAY_OF_MONTH:
-							t = this.now.get(Calendar.HOUR_OF_DAY) * 3600;
-						case Calendar.HOUR_OF_DAY:
-							t = this.now.get(Calendar.MINUTE) * 60;
-						case Calendar.MINUTE:
-							t = this.now.get(Calendar.SECOND);
-							break;
-						default:
-							t = 0;
-							System.out.println("Offset desconhecido");
-							break;
-						}
-						break;
-					case Calendar.MINUTE:
-						switch (tr.getWindow()) {
-						case Calendar.DAY_OF_MONTH:
-							t = this.now.get(Calendar.HOUR_OF_DAY) * 60;
-						case Calendar.HOUR_OF_DAY:
-							t = this.now.get(Calendar.MINUTE);
-						default:
-							t = 0;
-							System.out.println("Offset desconhecido");
-							break;
-						}
-						break;
-					case Calendar.HOUR_OF_DAY:
-						switch (tr.getWindow()) {
-						case Calendar.DAY_OF_MONTH:
-							t = this.now.get(Calendar.HOUR_OF_DAY);
-						default:
-							t = 0;
-							System.out.println("Offset desconhecido");
-							break;
-						}
-						break;
-					}
-					tr.fireTimeRefresh();
-				} else { // contador
-					t++;
-					if (t == tMax)
-						t = 0;
-				}
-				beforeSleep();
+			while (on && thread == self) {
+				tick();
 				// dormir
 				Thread.sleep(stepL);
 			}
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			// interrupção esperada quando o motor é parado
+			if (on && thread == self)
+				e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Função que executa um ciclo do motor: cálculo do contador e chamada da
+	 * {@link TimeRefresh#fireTimeRefresh() função}
+	 */
+	private void tick() {
+		// contador
+		long ms = System.currentTimeMillis() + offset;
+		this.now = ms;
+
+		if (tr != null) {
+			int unit = tr.getUnit();
+			if (unit != TimeRefresh.NOT) {
+				int c = counter(unit, tr.getWindow(), secondOfDay(ms));
+				if (c >= 0)
+					t = c;
+				else if (c == UNKNOWN_WINDOW)
+					// janela alterada após setTimeRefresh
+					t = 0;
+			}
+			tr.fireTimeRefresh();
+		} else { // contador
+			t++;
+			if (t == tMax)
+				t = 0;
+		}
+		beforeSleep();
+	}
+
+	private static final int UNKNOWN_UNIT = -1, UNKNOWN_WINDOW = -2;
+
+	/**
+	 * Função que calcula o contador do modo síncrono
+	 * 
+	 * @param unit        unidade de tempo (ver {@link TimeRefresh#getUnit()})
+	 * @param window      janela de tempo (ver {@link TimeRefresh#getWindow()})
+	 * @param secondOfDay segundo do dia, no horário local
+	 * @return número de unidades decorridas desde o início da janela, ou um valor
+	 *         negativo se a unidade ou a janela forem desconhecidas
+	 */
+	static int counter(int unit, int window, int secondOfDay) {
+		switch (unit) {
+		case Calendar.SECOND:
+			switch (window) {
+			case Calendar.DAY_OF_MONTH:
+				return secondOfDay;
+			case Calendar.HOUR_OF_DAY:
+				return secondOfDay % 3600;
+			case Calendar.MINUTE:
+				return secondOfDay % 60;
+			default:
+				return UNKNOWN_WINDOW;
+			}
+		case Calendar.MINUTE:
+			switch (window) {
+			case Calendar.DAY_OF_MONTH:
+				return secondOfDay / 60;
+			case Calendar.HOUR_OF_DAY:
+				return secondOfDay / 60 % 60;
+			default:
+				return UNKNOWN_WINDOW;
+			}
+		case Calendar.HOUR_OF_DAY:
+			switch (window) {
+			case Calendar.DAY_OF_MONTH:
+				return secondOfDay / 3600;
+			default:
+				return UNKNOWN_WINDOW;
+			}
+		default:
+			return UNKNOWN_UNIT;
+		}
+	}
+
+	/**
+	 * Função que retorna o segundo do dia, no horário local, de um instante. O
+	 * deslocamento do fuso é mantido em cache até a próxima transição da
+	 * {@link ZoneOffsetTable tabela}.
+	 */
+	private int secondOfDay(long epochMillis) {
+		if (epochMillis < zoneFrom || epochMillis >= zoneUntil) {
+			ZoneOffsetTable z = zoneTable;
+			if (z == null)
+				zoneTable = z = ZoneOffsetTable.of(timeZone == null ? TimeZone.getDefault() : timeZone);
+			zoneOffset = z.getOffset(epochMillis);
+			long from = z.previousTransition(epochMillis);
+			if (from != Long.MIN_VALUE) {
+				zoneFrom = from;
+				zoneUntil = z.nextTransition(epochMillis);
+			}
 		}
+		return (int) (Math.floorMod(epochMillis + zoneOffset, 86400000L) / 1000L);
 	}
 
 	protected void beforeSleep() {
@@ -0,0 +1,289 @@
+package br.com.pereiraeng.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import br.com.pereiraeng.core.collections.map.FuzzyDictionary;
+
+/**
+ * Classe das funções de associação global entre uma lista de palavras e as
+ * palavras de um dicionário, usadas por
+ * {@link StringUtils#associateDictionaryOptimal(List, Map, boolean, boolean)}.
+ *
+ * A associação maximiza a soma das {@link StringUtils#relevancia(String, String)
+ * relevâncias} dos pares formados (algoritmo húngaro sobre a matriz de
+ * semelhança, calculada em paralelo). Quando a matriz seria grande demais, a
+ * associação é feita de forma gulosa sobre os pares candidatos obtidos por um
+ * {@link FuzzyDictionary}.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+final class DictionaryAssociation {
+
+	/**
+	 * Número de linhas da matriz de semelhança abaixo do qual o cálculo não é
+	 * mais subdividido
+	 */
+	private static final int ROWS_PER_TASK = 16;
+
+	/**
+	 * Número de candidatos do dicionário considerados para cada palavra na
+	 * associação gulosa
+	 */
+	private static final int CANDIDATES = 8;
+
+	private DictionaryAssociation() {
+	}
+
+	static <K> List<K> associate(List<String> strings, Map<K, String> dic, boolean caseIgnore, boolean diacRmv,
+			float threshold, long maxCells) {
+		int n = strings.size(), m = dic.size();
+
+		List<K> keys = new ArrayList<>(m);
+		String[] values = new String[m];
+		for (Entry<K, String> e : dic.entrySet()) {
+			values[keys.size()] = StringUtils.normalize(e.getValue(), caseIgnore, diacRmv);
+			keys.add(e.getKey());
+		}
+		String[] words = new String[n];
+		for (int i = 0; i < n; i++)
+			words[i] = StringUtils.normalize(strings.get(i), caseIgnore, diacRmv);
+
+		int[] match;
+		if ((long) n * m <= maxCells)
+			match = optimal(words, values, threshold);
+		else
+			match = pruned(words, values, threshold);
+
+		List<K> out = new ArrayList<>(n);
+		for (int i = 0; i < n; i++)
+			out.add(match[i] < 0 ? null : keys.get(match[i]));
+		return out;
+	}
+
+	// =========================== associação ótima ===========================
+
+	/**
+	 * Função que associa as palavras da lista às do dicionário maximizando a
+	 * soma das relevâncias
+	 *
+	 * @return vetor com o índice da palavra do dicionário associada a cada
+	 *         palavra da lista (-1 se nenhuma)
+	 */
+	private static int[] optimal(String[] words, String[] values, float threshold) {
+		// as linhas da matriz devem ser o menor dos conjuntos
+		boolean transpose = words.length > values.length;
+		String[] rows = transpose ? values : words, cols = transpose ? words : values;
+
+		float[][] w = new float[rows.length][cols.length];
+		ForkJoinPool.commonPool().invoke(new SimilarityTask(rows, cols, w, threshold, 0, rows.length));
+
+		int[] rowMatch = hungarian(w, cols.length);
+
+		int[] out = new int[words.length];
+		Arrays.fill(out, -1);
+		for (int r = 0; r < rows.length; r++) {
+			int c = rowMatch[r];
+			if (c >= 0 && w[r][c] > 0f) {
+				if (transpose)
+					out[c] = r;
+				else
+					out[r] = c;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Cálculo da matriz de semelhança, dividido recursivamente por faixas de
+	 * linhas. As relevâncias que não superam o limite são anuladas.
+	 */
+	private static final class SimilarityTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final String[] rows, cols;
+		private final float[][] w;
+		private final float threshold;
+		private final int from, to;
+
+		private SimilarityTask(String[] rows, String[] cols, float[][] w, float threshold, int from, int to) {
+			this.rows = rows;
+			this.cols = cols;
+			this.w = w;
+			this.threshold = threshold;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > ROWS_PER_TASK) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new SimilarityTask(rows, cols, w, threshold, from, mid),
+						new SimilarityTask(rows, cols, w, threshold, mid, to));
+			} else
+				for (int r = from; r < to; r++) {
+					float[] row = w[r];
+					for (int c = 0; c < cols.length; c++) {
+						float v = StringUtils.relevancia(rows[r], cols[c], threshold);
+						row[c] = v > threshold ? v : 0f; // NaN -> 0
+					}
+				}
+		}
+	}
+
+	/**
+	 * Algoritmo húngaro (versão com potenciais, O(n²m)) que maximiza a soma dos
+	 * pesos de uma matriz com menos linhas do que colunas
+	 *
+	 * @param w pesos
+	 * @param m número de colunas
+	 * @return vetor com a coluna associada a cada linha
+	 */
+	private static int[] hungarian(float[][] w, int m) {
+		int n = w.length;
+		// índices a partir de 1; a coluna 0 é fictícia
+		double[] u = new double[n + 1], v = new double[m + 1], minv = new double[m + 1];
+		int[] p = new int[m + 1], way = new int[m + 1];
+		boolean[] used = new boolean[m + 1];
+
+		for (int i = 1; i <= n; i++) {
+			p[0] = i;
+			int j0 = 0;
+			Arrays.fill(minv, Double.POSITIVE_INFINITY);
+			Arrays.fill(used, false);
+			do {
+				used[j0] = true;
+				int i0 = p[j0], j1 = 0;
+				float[] row = w[i0 - 1];
+				double delta = Double.POSITIVE_INFINITY, ui0 = u[i0];
+				for (int j = 1; j <= m; j++)
+					if (!used[j]) {
+						double cur = -row[j - 1] - ui0 - v[j]; // custo = -peso
+						if (cur < minv[j]) {
+							minv[j] = cur;
+							way[j] = j0;
+						}
+						if (minv[j] < delta) {
+							delta = minv[j];
+							j1 = j;
+						}
+					}
+				for (int j = 0; j <= m; j++)
+					if (used[j]) {
+						u[p[j]] += delta;
+						v[j] -= delta;
+					} else
+						minv[j] -= delta;
+				j0 = j1;
+			} while (p[j0] != 0);
+			do {
+				int j1 = way[j0];
+				p[j0] = p[j1];
+				j0 = j1;
+			} while (j0 != 0);
+		}
+
+		int[] out = new int[n];
+		Arrays.fill(out, -1);
+		for (int j = 1; j <= m; j++)
+			if (p[j] != 0)
+				out[p[j] - 1] = j - 1;
+		return out;
+	}
+
+	// =========================== associação gulosa ===========================
+
+	/**
+	 * Função que associa as palavras da lista às do dicionário de forma gulosa:
+	 * os pares candidatos (as palavras mais semelhantes do dicionário para cada
+	 * palavra da lista) são atribuídos em ordem decrescente de relevância
+	 */
+	private static int[] pruned(String[] words, String[] values, float threshold) {
+		// os valores já estão normalizados
+		FuzzyDictionary<Integer> fd = new FuzzyDictionary<>(false, false);
+		for (int j = 0; j < values.length; j++)
+			fd.put(j, values[j]);
+
+		// a busca não altera o dicionário, podendo ser feita em paralelo
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		List<Integer>[] candidates = new List[words.length];
+		ForkJoinPool.commonPool().invoke(new CandidatesTask(fd, words, candidates, threshold, 0, words.length));
+
+		List<Pair> pairs = new ArrayList<>();
+		for (int i = 0; i < words.length; i++)
+			for (Integer j : candidates[i])
+				pairs.add(new Pair(i, j, StringUtils.relevancia(words[i], values[j])));
+		Collections.sort(pairs);
+
+		int[] out = new int[words.length];
+		Arrays.fill(out, -1);
+		boolean[] taken = new boolean[values.length];
+		for (Pair p : pairs)
+			if (out[p.i] < 0 && !taken[p.j]) {
+				out[p.i] = p.j;
+				taken[p.j] = true;
+			}
+		return out;
+	}
+
+	private static final class CandidatesTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final FuzzyDictionary<Integer> fd;
+		private final String[] words;
+		private final List<Integer>[] candidates;
+		private final float threshold;
+		private final int from, to;
+
+		private CandidatesTask(FuzzyDictionary<Integer> fd, String[] words, List<Integer>[] candidates,
+				float threshold, int from, int to) {
+			this.fd = fd;
+			this.words = words;
+			this.candidates = candidates;
+			this.threshold = threshold;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > ROWS_PER_TASK) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new CandidatesTask(fd, words, candidates, threshold, from, mid),
+						new CandidatesTask(fd, words, candidates, threshold, mid, to));
+			} else
+				for (int i = from; i < to; i++)
+					candidates[i] = fd.search(words[i], CANDIDATES, threshold);
+		}
+	}
+
+	private static final class Pair implements Comparable<Pair> {
+		private final int i, j;
+		private final float relevance;
+
+		private Pair(int i, int j, float relevance) {
+			this.i = i;
+			this.j = j;
+			this.relevance = relevance;
+		}
+
+		@Override
+		public int compareTo(Pair o) {
+			// relevância decrescente; empates resolvidos pelos índices
+			int c = Float.compare(o.relevance, relevance);
+			if (c == 0)
+				c = Integer.compare(i, o.i);
+			if (c == 0)
+				c = Integer.compare(j, o.j);
+			return c;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package br.com.pereiraeng.core;
 
+import java.util.List;
+
 /**
  * Interface das classes dos objetos que recebem uma fluxo de dados através da
  * função {@link #incomingData(Object)}
@@ -18,4 +20,18 @@ public interface Flow<K> {
 	 *            dado recebido
 	 */
 	public void incomingData(K data);
+
+	/**
+	 * Função que processa um lote de dados recebidos de uma só vez. A
+	 * implementação padrão processa um dado por vez; as classes que ganham com o
+	 * processamento em lote devem sobrescrevê-la.
+	 * 
+	 * @param batch
+	 *            dados recebidos, na ordem de chegada
+	 * @see FlowPipeline
+	 */
+	public default void incomingBatch(List<? extends K> batch) {
+		for (K data : batch)
+			incomingData(data);
+	}
 }
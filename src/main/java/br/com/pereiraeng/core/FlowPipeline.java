@@ -0,0 +1,558 @@
+package br.com.pereiraeng.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import br.com.pereiraeng.core.collections.list.MpscCircularQueue;
+import br.com.pereiraeng.core.collections.list.WaitStrategy;
+
+/**
+ * Montador de uma cadeia de {@link FlowStage estágios} entre a entrada de um
+ * fluxo de dados e um {@link Flow} final. Os estágios são declarados na ordem
+ * em que os dados os percorrem, e a cadeia é montada por {@link #to(Flow)}:
+ *
+ * <pre>
+ * FlowStage&lt;String&gt; in = FlowPipeline.&lt;String&gt;start().filter(s -&gt; !s.isEmpty()).map(Integer::parseInt)
+ * 		.buffer(100).async(1024).to(sink);
+ * </pre>
+ *
+ * Os dados são repassados em lotes ({@link Flow#incomingBatch(List)}) sempre
+ * que possível. Os estágios síncronos não são seguros para várias
+ * <i>threads</i>; o estágio {@link #async(int) assíncrono} recebe dados de
+ * várias <i>threads</i> e os entrega ao restante da cadeia em uma só
+ * <i>thread</i> por vez.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @param <I> classe dos objetos recebidos na entrada da cadeia
+ * @param <O> classe dos objetos na saída da cadeia
+ */
+public final class FlowPipeline<I, O> {
+
+	/**
+	 * Comportamento do estágio assíncrono quando a sua fila está cheia
+	 */
+	public enum Overflow {
+		/**
+		 * a <i>thread</i> produtora aguarda até que haja espaço na fila (se ela for
+		 * interrompida durante a espera, o dado não é entregue e é lançada uma
+		 * {@link IllegalStateException}, com o estado de interrupção mantido)
+		 */
+		BLOCK,
+		/** o dado recebido é descartado (ver {@link FlowStage#getDropped()}) */
+		DROP
+	}
+
+	/**
+	 * Interface dos objetos avisados do início e do fim da saturação de um
+	 * estágio assíncrono
+	 */
+	@FunctionalInterface
+	public interface BackpressureListener {
+
+		/**
+		 * Função chamada quando a ocupação da fila ultrapassa 3/4 da capacidade
+		 * (<code>true</code>) e quando ela volta a ficar abaixo de 1/4
+		 * (<code>false</code>)
+		 *
+		 * @param saturated se o estágio está saturado
+		 */
+		public void backpressure(boolean saturated);
+	}
+
+	/**
+	 * Função que, dado o fluxo seguinte, monta a cadeia de estágios e retorna a
+	 * sua entrada
+	 */
+	private final Function<Flow<O>, Flow<I>> assembler;
+
+	private FlowPipeline(Function<Flow<O>, Flow<I>> assembler) {
+		this.assembler = assembler;
+	}
+
+	/**
+	 * Função que inicia a declaração de uma cadeia
+	 *
+	 * @param <K> classe dos objetos recebidos na entrada da cadeia
+	 * @return cadeia vazia
+	 */
+	public static <K> FlowPipeline<K, K> start() {
+		return new FlowPipeline<>(Function.identity());
+	}
+
+	private <R> FlowPipeline<I, R> then(Function<Flow<R>, Flow<O>> stage) {
+		return new FlowPipeline<>(next -> assembler.apply(stage.apply(next)));
+	}
+
+	/**
+	 * Estágio que transforma cada dado
+	 *
+	 * @param f função de transformação
+	 * @return cadeia acrescida do estágio
+	 */
+	public <R> FlowPipeline<I, R> map(Function<? super O, ? extends R> f) {
+		return then(next -> new MapStage<>(f, next));
+	}
+
+	/**
+	 * Estágio que deixa passar somente os dados que satisfazem uma condição
+	 *
+	 * @param p condição
+	 * @return cadeia acrescida do estágio
+	 */
+	public FlowPipeline<I, O> filter(Predicate<? super O> p) {
+		return then(next -> new FilterStage<>(p, next));
+	}
+
+	/**
+	 * Estágio que agrupa os dados em lotes, repassados por
+	 * {@link Flow#incomingBatch(List)} quando completos ou quando da chamada de
+	 * {@link FlowStage#flush()}
+	 *
+	 * @param size tamanho dos lotes
+	 * @return cadeia acrescida do estágio
+	 */
+	public FlowPipeline<I, O> buffer(int size) {
+		if (size <= 0)
+			throw new IllegalArgumentException("Tamanho de lote inválido: " + size);
+		return then(next -> new BufferStage<>(size, next));
+	}
+
+	/**
+	 * Estágio que repassa janelas (listas) dos últimos <code>size</code> dados,
+	 * a cada <code>step</code> dados recebidos. As janelas são disjuntas se
+	 * <code>step == size</code>. As janelas incompletas não são repassadas.
+	 *
+	 * @param size número de dados de cada janela
+	 * @param step número de dados entre duas janelas consecutivas
+	 * @return cadeia acrescida do estágio
+	 */
+	public FlowPipeline<I, List<O>> window(int size, int step) {
+		if (size <= 0 || step <= 0)
+			throw new IllegalArgumentException("Janela inválida: " + size + "/" + step);
+		return then(next -> new WindowStage<>(size, step, next));
+	}
+
+	/**
+	 * Estágio assíncrono, com o executor {@link #defaultExecutor() padrão}, que
+	 * bloqueia os produtores quando a fila está cheia
+	 *
+	 * @param capacity capacidade da fila
+	 * @return cadeia acrescida do estágio
+	 * @see #async(int, Executor, Overflow, BackpressureListener)
+	 */
+	public FlowPipeline<I, O> async(int capacity) {
+		return async(capacity, defaultExecutor(), Overflow.BLOCK, null);
+	}
+
+	/**
+	 * Estágio assíncrono: os dados recebidos são inseridos em uma fila limitada e
+	 * entregues em lotes ao restante da cadeia por tarefas submetidas a um
+	 * executor (uma tarefa por vez, de modo que o restante da cadeia nunca é
+	 * chamado por duas <i>threads</i> ao mesmo tempo)
+	 *
+	 * Se a entrega de um lote ao restante da cadeia falhar, o lote é entregue
+	 * novamente, antes dos seguintes, pela próxima tarefa; após três falhas
+	 * consecutivas, {@link FlowStage#flush()} (e {@link FlowStage#close()}) lança
+	 * uma {@link IllegalStateException} com a última falha.
+	 *
+	 * @param capacity capacidade da fila
+	 * @param executor executor das tarefas de entrega
+	 * @param overflow comportamento quando a fila está cheia
+	 * @param listener objeto avisado da saturação da fila (opcional)
+	 * @return cadeia acrescida do estágio
+	 */
+	public FlowPipeline<I, O> async(int capacity, Executor executor, Overflow overflow,
+			BackpressureListener listener) {
+		return then(next -> new AsyncStage<>(capacity, executor, overflow, listener, next));
+	}
+
+	/**
+	 * Função que monta a cadeia
+	 *
+	 * @param sink fluxo final
+	 * @return entrada da cadeia
+	 */
+	public FlowStage<I> to(Flow<O> sink) {
+		Flow<I> in = assembler.apply(sink);
+		if (in instanceof FlowStage)
+			return (FlowStage<I>) in;
+		// cadeia sem estágios
+		return new FilterStage<>(x -> true, in);
+	}
+
+	// ================================ executor ================================
+
+	private static final class DefaultExecutor {
+		private static final ExecutorService INSTANCE = create();
+
+		private static ExecutorService create() {
+			// threads virtuais, a partir do JDK 21
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				return Executors.newCachedThreadPool(r -> {
+					Thread t = new Thread(r, "flow-pipeline");
+					t.setDaemon(true);
+					return t;
+				});
+			}
+		}
+	}
+
+	/**
+	 * Função que retorna o executor padrão dos estágios assíncronos: um executor
+	 * de <i>threads</i> virtuais quando disponível (JDK 21 ou superior) ou, senão,
+	 * um <i>pool</i> de <i>threads</i> <i>daemon</i>
+	 *
+	 * @return executor compartilhado
+	 */
+	public static Executor defaultExecutor() {
+		return DefaultExecutor.INSTANCE;
+	}
+
+	// ================================ estágios ================================
+
+	private static final class MapStage<A, B> implements FlowStage<A> {
+		private final Function<? super A, ? extends B> f;
+		private final Flow<B> next;
+
+		private MapStage(Function<? super A, ? extends B> f, Flow<B> next) {
+			this.f = f;
+			this.next = next;
+		}
+
+		@Override
+		public void incomingData(A data) {
+			next.incomingData(f.apply(data));
+		}
+
+		@Override
+		public void incomingBatch(List<? extends A> batch) {
+			List<B> out = new ArrayList<>(batch.size());
+			for (A a : batch)
+				out.add(f.apply(a));
+			next.incomingBatch(out);
+		}
+
+		@Override
+		public void flush() {
+			FlowStage.flush(next);
+		}
+
+		@Override
+		public long getDropped() {
+			return FlowStage.getDropped(next);
+		}
+
+		@Override
+		public void close() {
+			FlowStage.close(next);
+		}
+	}
+
+	private static final class FilterStage<K> implements FlowStage<K> {
+		private final Predicate<? super K> p;
+		private final Flow<K> next;
+
+		private FilterStage(Predicate<? super K> p, Flow<K> next) {
+			this.p = p;
+			this.next = next;
+		}
+
+		@Override
+		public void incomingData(K data) {
+			if (p.test(data))
+				next.incomingData(data);
+		}
+
+		@Override
+		public void incomingBatch(List<? extends K> batch) {
+			List<K> out = new ArrayList<>(batch.size());
+			for (K k : batch)
+				if (p.test(k))
+					out.add(k);
+			if (!out.isEmpty())
+				next.incomingBatch(out);
+		}
+
+		@Override
+		public void flush() {
+			FlowStage.flush(next);
+		}
+
+		@Override
+		public long getDropped() {
+			return FlowStage.getDropped(next);
+		}
+
+		@Override
+		public void close() {
+			FlowStage.close(next);
+		}
+	}
+
+	private static final class BufferStage<K> implements FlowStage<K> {
+		private final int size;
+		private final Flow<K> next;
+		private List<K> pending;
+
+		private BufferStage(int size, Flow<K> next) {
+			this.size = size;
+			this.next = next;
+			this.pending = new ArrayList<>(size);
+		}
+
+		@Override
+		public void incomingData(K data) {
+			pending.add(data);
+			if (pending.size() >= size)
+				emit();
+		}
+
+		@Override
+		public void incomingBatch(List<? extends K> batch) {
+			for (K k : batch)
+				incomingData(k);
+		}
+
+		private void emit() {
+			List<K> out = pending;
+			pending = new ArrayList<>(size);
+			next.incomingBatch(out);
+		}
+
+		@Override
+		public void flush() {
+			if (!pending.isEmpty())
+				emit();
+			FlowStage.flush(next);
+		}
+
+		@Override
+		public long getDropped() {
+			return FlowStage.getDropped(next);
+		}
+
+		@Override
+		public void close() {
+			if (!pending.isEmpty())
+				emit();
+			FlowStage.close(next);
+		}
+	}
+
+	private static final class WindowStage<K> implements FlowStage<K> {
+		private final int size, step;
+		private final Flow<List<K>> next;
+		private final ArrayDeque<K> window;
+
+		/**
+		 * Número de dados recebidos desde a última janela repassada
+		 */
+		private int count;
+
+		private WindowStage(int size, int step, Flow<List<K>> next) {
+			this.size = size;
+			this.step = step;
+			this.next = next;
+			this.window = new ArrayDeque<>(size);
+		}
+
+		@Override
+		public void incomingData(K data) {
+			if (window.size() == size)
+				window.pollFirst();
+			window.addLast(data);
+			if (++count >= step && window.size() == size) {
+				count = 0;
+				next.incomingData(new ArrayList<>(window));
+			}
+		}
+
+		@Override
+		public void flush() {
+			FlowStage.flush(next);
+		}
+
+		@Override
+		public long getDropped() {
+			return FlowStage.getDropped(next);
+		}
+
+		@Override
+		public void close() {
+			FlowStage.close(next);
+		}
+	}
+
+	private static final class AsyncStage<K> implements FlowStage<K>, Runnable {
+		/**
+		 * Número de falhas consecutivas de entrega após o qual {@link #flush()} lança
+		 * a última falha
+		 */
+		private static final int MAX_ATTEMPTS = 3;
+
+		private final MpscCircularQueue<K> queue;
+		private final Executor executor;
+		private final Overflow overflow;
+		private final BackpressureListener listener;
+		private final Flow<K> next;
+
+		/**
+		 * Limites de ocupação da fila para o início e o fim da saturação
+		 */
+		private final int high, low;
+
+		/**
+		 * Número máximo de dados entregues por lote
+		 */
+		private final int maxBatch;
+
+		/**
+		 * Se há uma tarefa de entrega submetida ao executor
+		 */
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private final AtomicBoolean saturated = new AtomicBoolean();
+
+		private volatile boolean closed;
+
+		private final AtomicLong dropped = new AtomicLong();
+
+		/**
+		 * Lote cuja entrega falhou (entregue novamente antes dos seguintes), número
+		 * de falhas consecutivas e última falha
+		 */
+		private volatile List<K> failed;
+		private final AtomicInteger failures = new AtomicInteger();
+		private volatile Throwable failure;
+
+		private AsyncStage(int capacity, Executor executor, Overflow overflow, BackpressureListener listener,
+				Flow<K> next) {
+			this.queue = new MpscCircularQueue<>(capacity, WaitStrategy.blocking());
+			this.executor = executor;
+			this.overflow = overflow;
+			this.listener = listener;
+			this.next = next;
+			this.high = Math.max(1, 3 * capacity / 4);
+			this.low = capacity / 4;
+			this.maxBatch = Math.min(capacity, 1024);
+		}
+
+		@Override
+		public void incomingData(K data) {
+			if (closed)
+				throw new IllegalStateException("Estágio fechado");
+			if (queue.offer(data)) {
+				if (queue.size() >= high)
+					signal(true);
+			} else {
+				signal(true);
+				if (overflow == Overflow.DROP) {
+					dropped.incrementAndGet();
+					return;
+				}
+				// garantir que a fila esteja sendo esvaziada antes de aguardar
+				schedule();
+				try {
+					queue.put(data);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrompido durante a espera: dado não entregue", e);
+				}
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true))
+				executor.execute(this);
+		}
+
+		private void signal(boolean on) {
+			if (listener != null && saturated.compareAndSet(!on, on))
+				listener.backpressure(on);
+		}
+
+		@Override
+		public void run() {
+			List<K> batch = new ArrayList<>(maxBatch);
+			try {
+				do {
+					List<K> retry = failed;
+					if (retry != null) {
+						next.incomingBatch(retry);
+						failed = null;
+					}
+					while (queue.drainTo(batch, maxBatch) > 0) {
+						try {
+							next.incomingBatch(batch);
+						} catch (RuntimeException | Error e) {
+							failed = batch;
+							throw e;
+						}
+						batch.clear();
+						if (queue.size() <= low)
+							signal(false);
+					}
+					failures.set(0);
+					scheduled.set(false);
+					// um dado pode ter chegado após a última retirada
+				} while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+			} catch (RuntimeException | Error e) {
+				failure = e;
+				failures.incrementAndGet();
+				scheduled.set(false);
+				if (e instanceof Error)
+					throw e;
+			}
+		}
+
+		/**
+		 * Aguarda a entrega de todos os dados já recebidos e repassa o pedido
+		 *
+		 * @throws IllegalStateException após {@value #MAX_ATTEMPTS} falhas
+		 *                               consecutivas de entrega (os dados não
+		 *                               entregues são mantidos para a próxima
+		 *                               tentativa)
+		 */
+		@Override
+		public void flush() {
+			while (!queue.isEmpty() || scheduled.get() || failed != null) {
+				if (failures.get() >= MAX_ATTEMPTS) {
+					failures.set(0);
+					throw new IllegalStateException("Falha na entrega ao estágio seguinte", failure);
+				}
+				schedule();
+				LockSupport.parkNanos(100_000L);
+			}
+			FlowStage.flush(next);
+		}
+
+		@Override
+		public long getDropped() {
+			return dropped.get() + FlowStage.getDropped(next);
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+			try {
+				flush();
+			} finally {
+				FlowStage.close(next);
+			}
+		}
+	}
+}
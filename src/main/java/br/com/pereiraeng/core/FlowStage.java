@@ -0,0 +1,74 @@
+package br.com.pereiraeng.core;
+
+/**
+ * Interface dos estágios de um {@link FlowPipeline}: objetos que recebem um
+ * fluxo de dados e o repassam, transformado, a um {@link Flow} seguinte. Os
+ * estágios podem reter dados (e.g., para formar lotes), que são enviados
+ * adiante por {@link #flush()}.
+ * 
+ * @author Philipe PEREIRA
+ *
+ * @param <K> classe dos objetos que serão recebidos
+ */
+public interface FlowStage<K> extends Flow<K>, AutoCloseable {
+
+	/**
+	 * Função que envia adiante os dados retidos pelo estágio e repassa o pedido
+	 * ao fluxo seguinte, caso este também seja um estágio
+	 */
+	public void flush();
+
+	/**
+	 * Função que retorna o número de dados descartados por este estágio e pelos
+	 * seguintes (e.g., por um estágio assíncrono com
+	 * {@link FlowPipeline.Overflow#DROP}); os dados recusados por um filtro não
+	 * são contados
+	 * 
+	 * @return número de dados descartados
+	 */
+	public default long getDropped() {
+		return 0L;
+	}
+
+	/**
+	 * Função que envia adiante os dados retidos e libera os recursos do estágio
+	 * e dos estágios seguintes
+	 */
+	@Override
+	public default void close() {
+		flush();
+	}
+
+	/**
+	 * Função que chama {@link #flush()} sobre um fluxo, caso este seja um
+	 * estágio
+	 * 
+	 * @param flow fluxo de dados
+	 */
+	public static void flush(Flow<?> flow) {
+		if (flow instanceof FlowStage)
+			((FlowStage<?>) flow).flush();
+	}
+
+	/**
+	 * Função que chama {@link #getDropped()} sobre um fluxo, caso este seja um
+	 * estágio
+	 * 
+	 * @param flow fluxo de dados
+	 * @return número de dados descartados (zero se o fluxo não for um estágio)
+	 */
+	public static long getDropped(Flow<?> flow) {
+		return flow instanceof FlowStage ? ((FlowStage<?>) flow).getDropped() : 0L;
+	}
+
+	/**
+	 * Função que chama {@link #close()} sobre um fluxo, caso este seja um
+	 * estágio
+	 * 
+	 * @param flow fluxo de dados
+	 */
+	public static void close(Flow<?> flow) {
+		if (flow instanceof FlowStage)
+			((FlowStage<?>) flow).close();
+	}
+}
@@ -0,0 +1,319 @@
+package br.com.pereiraeng.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Classe das funções de conversão entre bytes e sua representação hexadecimal
+ * (dois dígitos minúsculos por byte). As conversões são feitas por tabelas,
+ * podendo escrever em vetores fornecidos pelo chamador, em
+ * {@link ByteBuffer}/{@link CharBuffer} ou em fluxos de dados.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public final class HexCodec {
+
+	private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Dígitos mais e menos significativos de cada byte
+	 */
+	private static final char[] HI = new char[256], LO = new char[256];
+
+	/**
+	 * Valor de cada dígito (-1 para os caracteres que não são dígitos)
+	 */
+	private static final byte[] VALUES = new byte[128];
+
+	/**
+	 * Tamanho dos vetores intermediários usados nas conversões de fluxos
+	 */
+	private static final int STREAM_BUFFER = 8192;
+
+	static {
+		for (int b = 0; b < 256; b++) {
+			HI[b] = DIGITS[b >>> 4];
+			LO[b] = DIGITS[b & 0xF];
+		}
+		Arrays.fill(VALUES, (byte) -1);
+		for (int i = 0; i < 10; i++)
+			VALUES['0' + i] = (byte) i;
+		for (int i = 0; i < 6; i++) {
+			VALUES['a' + i] = (byte) (10 + i);
+			VALUES['A' + i] = (byte) (10 + i);
+		}
+	}
+
+	private HexCodec() {
+	}
+
+	// =============================== codificação ===============================
+
+	/**
+	 * Função que retorna a representação hexadecimal de um vetor de bytes
+	 *
+	 * @param bs vetor de bytes
+	 * @return sequência de caracteres na forma [h{2}]*
+	 */
+	public static String encode(byte[] bs) {
+		return encode(bs, 0, bs.length);
+	}
+
+	/**
+	 * Função que retorna a representação hexadecimal de parte de um vetor de
+	 * bytes
+	 *
+	 * @param bs  vetor de bytes
+	 * @param off posição inicial
+	 * @param len número de bytes
+	 * @return sequência de caracteres na forma [h{2}]*
+	 */
+	public static String encode(byte[] bs, int off, int len) {
+		char[] out = new char[2 * len];
+		encode(bs, off, len, out, 0);
+		return new String(out);
+	}
+
+	/**
+	 * Função que escreve a representação hexadecimal de parte de um vetor de
+	 * bytes em um vetor de caracteres
+	 *
+	 * @param src    vetor de bytes
+	 * @param off    posição inicial em <code>src</code>
+	 * @param len    número de bytes
+	 * @param dst    vetor de caracteres (com pelo menos <code>2*len</code>
+	 *               posições a partir de <code>dstOff</code>)
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @return número de caracteres escritos
+	 */
+	public static int encode(byte[] src, int off, int len, char[] dst, int dstOff) {
+		for (int i = off, j = dstOff, end = off + len; i < end; i++) {
+			int b = src[i] & 0xFF;
+			dst[j++] = HI[b];
+			dst[j++] = LO[b];
+		}
+		return 2 * len;
+	}
+
+	/**
+	 * Função que escreve a representação hexadecimal de parte de um vetor de
+	 * bytes em um vetor de bytes (caracteres ASCII)
+	 */
+	private static int encodeAscii(byte[] src, int off, int len, byte[] dst, int dstOff) {
+		for (int i = off, j = dstOff, end = off + len; i < end; i++) {
+			int b = src[i] & 0xFF;
+			dst[j++] = (byte) HI[b];
+			dst[j++] = (byte) LO[b];
+		}
+		return 2 * len;
+	}
+
+	/**
+	 * Função que retorna a representação hexadecimal dos bytes restantes de um
+	 * {@link ByteBuffer}, consumindo-os
+	 *
+	 * @param src fonte dos bytes
+	 * @return sequência de caracteres na forma [h{2}]*
+	 */
+	public static String encode(ByteBuffer src) {
+		char[] out = new char[2 * src.remaining()];
+		encode(src, CharBuffer.wrap(out));
+		return new String(out);
+	}
+
+	/**
+	 * Função que escreve a representação hexadecimal dos bytes restantes de um
+	 * {@link ByteBuffer} em um {@link CharBuffer}. São consumidos somente os
+	 * bytes cuja representação cabe no destino.
+	 *
+	 * @param src fonte dos bytes
+	 * @param dst destino dos caracteres
+	 * @return número de bytes consumidos
+	 */
+	public static int encode(ByteBuffer src, CharBuffer dst) {
+		int n = Math.min(src.remaining(), dst.remaining() / 2);
+		if (src.hasArray() && dst.hasArray()) {
+			encode(src.array(), src.arrayOffset() + src.position(), n, dst.array(),
+					dst.arrayOffset() + dst.position());
+			src.position(src.position() + n);
+			dst.position(dst.position() + 2 * n);
+		} else
+			for (int i = 0; i < n; i++) {
+				int b = src.get() & 0xFF;
+				dst.put(HI[b]).put(LO[b]);
+			}
+		return n;
+	}
+
+	/**
+	 * Função que lê um fluxo de bytes até o seu fim e escreve a sua representação
+	 * hexadecimal (caracteres ASCII) em outro fluxo
+	 *
+	 * @param in  fluxo de entrada
+	 * @param out fluxo de saída
+	 * @return número de bytes lidos
+	 * @throws IOException em caso de erro de leitura ou escrita
+	 */
+	public static long encode(InputStream in, OutputStream out) throws IOException {
+		byte[] buf = new byte[STREAM_BUFFER], hex = new byte[2 * STREAM_BUFFER];
+		long total = 0L;
+		int n;
+		while ((n = in.read(buf)) >= 0) {
+			out.write(hex, 0, encodeAscii(buf, 0, n, hex, 0));
+			total += n;
+		}
+		return total;
+	}
+
+	/**
+	 * Função que retorna a representação hexadecimal de um vetor de números
+	 * inteiros de 16 bits
+	 *
+	 * @param ss vetor de inteiros
+	 * @return sequência de caracteres na forma [h{4}]*
+	 */
+	public static String encode(short[] ss) {
+		char[] out = new char[4 * ss.length];
+		for (int i = 0, j = 0; i < ss.length; i++) {
+			int s = ss[i];
+			out[j++] = HI[(s >>> 8) & 0xFF];
+			out[j++] = LO[(s >>> 8) & 0xFF];
+			out[j++] = HI[s & 0xFF];
+			out[j++] = LO[s & 0xFF];
+		}
+		return new String(out);
+	}
+
+	/**
+	 * Função que retorna a representação hexadecimal de um vetor de números
+	 * inteiros de 32 bits
+	 *
+	 * @param is vetor de inteiros
+	 * @return sequência de caracteres na forma [h{8}]*
+	 */
+	public static String encode(int[] is) {
+		char[] out = new char[8 * is.length];
+		for (int i = 0, j = 0; i < is.length; i++) {
+			int v = is[i];
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				int b = (v >>> shift) & 0xFF;
+				out[j++] = HI[b];
+				out[j++] = LO[b];
+			}
+		}
+		return new String(out);
+	}
+
+	// ============================== decodificação ==============================
+
+	/**
+	 * Função que converte uma sequência de dígitos hexadecimais em um vetor de
+	 * bytes. Um eventual dígito final sem par é ignorado.
+	 *
+	 * @param s sequência de caracteres na forma [h{2}]*
+	 * @return vetor de bytes
+	 * @throws NumberFormatException se houver caracteres que não são dígitos
+	 *                               hexadecimais
+	 */
+	public static byte[] decode(CharSequence s) {
+		byte[] out = new byte[s.length() / 2];
+		decode(s, 0, 2 * out.length, out, 0);
+		return out;
+	}
+
+	/**
+	 * Função que converte parte de uma sequência de dígitos hexadecimais em bytes,
+	 * escrevendo-os em um vetor
+	 *
+	 * @param s      sequência de caracteres
+	 * @param off    posição inicial em <code>s</code>
+	 * @param len    número de caracteres (par)
+	 * @param dst    vetor de bytes (com pelo menos <code>len/2</code> posições a
+	 *               partir de <code>dstOff</code>)
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @return número de bytes escritos
+	 * @throws NumberFormatException se houver caracteres que não são dígitos
+	 *                               hexadecimais
+	 */
+	public static int decode(CharSequence s, int off, int len, byte[] dst, int dstOff) {
+		int n = len / 2;
+		for (int i = 0, j = off; i < n; i++, j += 2)
+			dst[dstOff + i] = (byte) ((value(s.charAt(j)) << 4) | value(s.charAt(j + 1)));
+		return n;
+	}
+
+	/**
+	 * Função que converte uma sequência de dígitos hexadecimais em bytes,
+	 * escrevendo-os em um {@link ByteBuffer}
+	 *
+	 * @param s   sequência de caracteres na forma [h{2}]*
+	 * @param dst destino dos bytes
+	 * @return número de bytes escritos
+	 * @throws NumberFormatException se houver caracteres que não são dígitos
+	 *                               hexadecimais
+	 */
+	public static int decode(CharSequence s, ByteBuffer dst) {
+		int n = s.length() / 2;
+		if (dst.hasArray()) {
+			if (dst.remaining() < n)
+				throw new BufferOverflowException();
+			decode(s, 0, 2 * n, dst.array(), dst.arrayOffset() + dst.position());
+			dst.position(dst.position() + n);
+		} else
+			for (int i = 0; i < 2 * n; i += 2)
+				dst.put((byte) ((value(s.charAt(i)) << 4) | value(s.charAt(i + 1))));
+		return n;
+	}
+
+	/**
+	 * Função que lê um fluxo de dígitos hexadecimais (caracteres ASCII) até o seu
+	 * fim e escreve os bytes correspondentes em outro fluxo. Os espaços em branco
+	 * (inclusive quebras de linha) são ignorados.
+	 *
+	 * @param in  fluxo de entrada
+	 * @param out fluxo de saída
+	 * @return número de bytes escritos
+	 * @throws IOException           em caso de erro de leitura ou escrita
+	 * @throws NumberFormatException se houver caracteres que não são dígitos
+	 *                               hexadecimais ou se o número de dígitos for
+	 *                               ímpar
+	 */
+	public static long decode(InputStream in, OutputStream out) throws IOException {
+		byte[] buf = new byte[2 * STREAM_BUFFER], bytes = new byte[STREAM_BUFFER];
+		long total = 0L;
+		int hi = -1, n;
+		while ((n = in.read(buf)) >= 0) {
+			int k = 0;
+			for (int i = 0; i < n; i++) {
+				int c = buf[i] & 0xFF;
+				if (c == ' ' || c == '\n' || c == '\r' || c == '\t')
+					continue;
+				int v = value((char) c);
+				if (hi < 0)
+					hi = v;
+				else {
+					bytes[k++] = (byte) ((hi << 4) | v);
+					hi = -1;
+				}
+			}
+			out.write(bytes, 0, k);
+			total += k;
+		}
+		if (hi >= 0)
+			throw new NumberFormatException("Número ímpar de dígitos hexadecimais");
+		return total;
+	}
+
+	private static int value(char c) {
+		int v = c < 128 ? VALUES[c] : -1;
+		if (v < 0)
+			throw new NumberFormatException("Dígito hexadecimal inválido: '" + c + "'");
+		return v;
+	}
+}
@@ -0,0 +1,394 @@
+package br.com.pereiraeng.core;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Calendário de feriados e dias úteis. Os dias são designados pelo número de
+ * dias desde 1970-01-01 (ver {@link TimeUtils#date2int(long, ZoneOffsetTable)}
+ * e {@link java.time.LocalDate#toEpochDay()}).
+ *
+ * Para cada ano, os feriados e os dias úteis (de segunda a sexta-feira, exceto
+ * os feriados) são pré-calculados em vetores de bits, na primeira consulta ao
+ * ano; as consultas são então feitas em tempo constante, e as contagens de dias
+ * úteis por contagem de bits. Os calendários são imutáveis e podem ser
+ * compartilhados entre <i>threads</i>.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public final class HolidayCalendar {
+
+	/**
+	 * Conjunto de feriados
+	 */
+	@FunctionalInterface
+	public interface HolidaySet {
+
+		/**
+		 * Função que marca os feriados de um ano
+		 *
+		 * @param year ano
+		 * @param days dias do ano
+		 */
+		void addTo(int year, Days days);
+
+		/**
+		 * Função que retorna o conjunto de um feriado de data fixa
+		 *
+		 * @param month mês (ver {@link Calendar#JANUARY})
+		 * @param day   dia do mês
+		 * @return conjunto de feriados
+		 */
+		public static HolidaySet fixed(int month, int day) {
+			return (y, d) -> d.add(month, day);
+		}
+
+		/**
+		 * Função que retorna o conjunto de um feriado de data fixa, instituído em
+		 * certos anos
+		 *
+		 * @param month    mês (ver {@link Calendar#JANUARY})
+		 * @param day      dia do mês
+		 * @param fromYear primeiro ano do feriado
+		 * @param toYear   último ano do feriado (inclusive)
+		 * @return conjunto de feriados
+		 */
+		public static HolidaySet fixed(int month, int day, int fromYear, int toYear) {
+			return (y, d) -> {
+				if (y >= fromYear && y <= toYear)
+					d.add(month, day);
+			};
+		}
+
+		/**
+		 * Função que retorna o conjunto de um feriado móvel, definido pelo número
+		 * de dias com relação ao domingo de Páscoa
+		 *
+		 * @param offset número de dias (e.g., -2 para a Sexta-feira da Paixão)
+		 * @return conjunto de feriados
+		 */
+		public static HolidaySet easter(int offset) {
+			return (y, d) -> d.addEpochDay(TimeUtils.easterDay(y) + offset);
+		}
+	}
+
+	/**
+	 * Dias de um ano, a serem marcados por um {@link HolidaySet}
+	 */
+	public static final class Days {
+		private final int year;
+
+		private final long first;
+
+		private final int length;
+
+		private final long[] bits = new long[WORDS];
+
+		private Days(int year, long first, int length) {
+			this.year = year;
+			this.first = first;
+			this.length = length;
+		}
+
+		/**
+		 * Função que marca um dia do ano
+		 *
+		 * @param month mês (ver {@link Calendar#JANUARY})
+		 * @param day   dia do mês
+		 */
+		public void add(int month, int day) {
+			if (month < Calendar.JANUARY || month > Calendar.DECEMBER || day < 1
+					|| day > TimeUtils.lengthOfMonth(year, month + 1))
+				throw new IllegalArgumentException("Data inválida: " + day + "/" + (month + 1));
+			addEpochDay(TimeUtils.epochDay(year, month + 1, day));
+		}
+
+		/**
+		 * Função que marca um dia (dias de outros anos são ignorados)
+		 *
+		 * @param epochDay número de dias desde 1970-01-01
+		 */
+		public void addEpochDay(long epochDay) {
+			long i = epochDay - first;
+			if (i >= 0 && i < length)
+				bits[(int) i >>> 6] |= 1L << i;
+		}
+	}
+
+	/**
+	 * Feriados nacionais (REN ANEEL 418, de 23/11/2010): Confraternização
+	 * universal, Terça-feira de carnaval, Sexta-feira da Paixão, Tiradentes, Dia
+	 * do trabalho, Corpus Christi, Independência, Aparecida, Finados, Proclamação
+	 * da república e Natal
+	 */
+	public static final HolidaySet NATIONAL = (y, d) -> {
+		d.add(Calendar.JANUARY, 1);
+		d.add(Calendar.APRIL, 21);
+		d.add(Calendar.MAY, 1);
+		d.add(Calendar.SEPTEMBER, 7);
+		d.add(Calendar.OCTOBER, 12);
+		d.add(Calendar.NOVEMBER, 2);
+		d.add(Calendar.NOVEMBER, 15);
+		d.add(Calendar.DECEMBER, 25);
+		long easter = TimeUtils.easterDay(y);
+		d.addEpochDay(easter - 47);
+		d.addEpochDay(easter - 2);
+		d.addEpochDay(easter + 60);
+	};
+
+	private static final HolidayCalendar NATIONAL_CALENDAR = new HolidayCalendar(NATIONAL);
+
+	/**
+	 * Anos mantidos em cache
+	 */
+	private static final int MIN_YEAR = 1900, MAX_YEAR = 2199;
+
+	/**
+	 * Número de palavras de 64 bits de um ano
+	 */
+	private static final int WORDS = 6;
+
+	/**
+	 * Feriados e dias úteis de um ano
+	 */
+	private static final class Year {
+		/**
+		 * Primeiro dia do ano e número de dias
+		 */
+		final long first;
+		final int length;
+
+		final long[] holidays;
+
+		final long[] business = new long[WORDS];
+
+		/**
+		 * Número de dias úteis nas palavras anteriores a cada palavra
+		 */
+		final int[] before = new int[WORDS + 1];
+
+		Year(long first, int length, long[] holidays) {
+			this.first = first;
+			this.length = length;
+			this.holidays = holidays;
+		}
+
+		int count() {
+			return before[WORDS];
+		}
+
+		/**
+		 * Número de dias úteis de índice menor que <code>i</code>
+		 */
+		int countBefore(int i) {
+			int w = i >>> 6;
+			return w == WORDS ? before[WORDS] : before[w] + Long.bitCount(business[w] & ((1L << i) - 1));
+		}
+
+		/**
+		 * Índice do <code>r</code>-ésimo dia útil do ano (a partir de 1)
+		 */
+		int select(int r) {
+			int w = 0;
+			while (before[w + 1] < r)
+				w++;
+			long bits = business[w];
+			for (int k = r - before[w]; k > 1; k--)
+				bits &= bits - 1;
+			return (w << 6) + Long.numberOfTrailingZeros(bits);
+		}
+	}
+
+	private final HolidaySet[] sets;
+
+	private final AtomicReferenceArray<Year> years = new AtomicReferenceArray<>(MAX_YEAR - MIN_YEAR + 1);
+
+	/**
+	 * Construtor
+	 *
+	 * @param sets conjuntos de feriados
+	 */
+	public HolidayCalendar(HolidaySet... sets) {
+		this.sets = sets.clone();
+	}
+
+	/**
+	 * Função que retorna o calendário (compartilhado) dos feriados
+	 * {@link #NATIONAL nacionais}
+	 *
+	 * @return calendário
+	 */
+	public static HolidayCalendar national() {
+		return NATIONAL_CALENDAR;
+	}
+
+	/**
+	 * Função que retorna um novo calendário, com os feriados deste acrescidos de
+	 * outros (e.g., feriados regionais)
+	 *
+	 * @param sets conjuntos de feriados
+	 * @return novo calendário
+	 */
+	public HolidayCalendar with(HolidaySet... sets) {
+		HolidaySet[] all = Arrays.copyOf(this.sets, this.sets.length + sets.length);
+		System.arraycopy(sets, 0, all, this.sets.length, sets.length);
+		return new HolidayCalendar(all);
+	}
+
+	private Year year(int y) {
+		if (y < MIN_YEAR || y > MAX_YEAR)
+			return compute(y);
+		int i = y - MIN_YEAR;
+		Year out = years.get(i);
+		if (out == null) {
+			out = compute(y);
+			if (!years.compareAndSet(i, null, out))
+				out = years.get(i);
+		}
+		return out;
+	}
+
+	private Year compute(int y) {
+		long first = TimeUtils.epochDay(y, 1, 1);
+		int length = (int) (TimeUtils.epochDay(y + 1, 1, 1) - first);
+		Days days = new Days(y, first, length);
+		for (HolidaySet s : sets)
+			s.addTo(y, days);
+		Year out = new Year(first, length, days.bits);
+		int dow = TimeUtils.dayOfWeek(first);
+		for (int i = 0; i < length; i++) {
+			if (dow != Calendar.SATURDAY && dow != Calendar.SUNDAY && (out.holidays[i >>> 6] & 1L << i) == 0L)
+				out.business[i >>> 6] |= 1L << i;
+			dow = dow == Calendar.SATURDAY ? Calendar.SUNDAY : dow + 1;
+		}
+		for (int w = 0; w < WORDS; w++)
+			out.before[w + 1] = out.before[w] + Long.bitCount(out.business[w]);
+		return out;
+	}
+
+	/**
+	 * Função que avalia se um dia é feriado
+	 *
+	 * @param epochDay número de dias desde 1970-01-01
+	 * @return <code>true</code> se for feriado
+	 */
+	public boolean isHoliday(long epochDay) {
+		Year y = year(TimeUtils.yearOf(epochDay));
+		int i = (int) (epochDay - y.first);
+		return (y.holidays[i >>> 6] & 1L << i) != 0L;
+	}
+
+	/**
+	 * Função que avalia se um dia é útil (de segunda a sexta-feira, e não feriado)
+	 *
+	 * @param epochDay número de dias desde 1970-01-01
+	 * @return <code>true</code> se for dia útil
+	 */
+	public boolean isBusinessDay(long epochDay) {
+		Year y = year(TimeUtils.yearOf(epochDay));
+		int i = (int) (epochDay - y.first);
+		return (y.business[i >>> 6] & 1L << i) != 0L;
+	}
+
+	/**
+	 * Função que retorna os feriados de um ano
+	 *
+	 * @param year ano
+	 * @return dias (número de dias desde 1970-01-01), em ordem crescente
+	 */
+	public long[] getHolidays(int year) {
+		Year y = year(year);
+		int n = 0;
+		for (long w : y.holidays)
+			n += Long.bitCount(w);
+		long[] out = new long[n];
+		n = 0;
+		for (int w = 0; w < WORDS; w++)
+			for (long bits = y.holidays[w]; bits != 0L; bits &= bits - 1)
+				out[n++] = y.first + (w << 6) + Long.numberOfTrailingZeros(bits);
+		return out;
+	}
+
+	/**
+	 * Função que conta os dias úteis de um período
+	 *
+	 * @param from primeiro dia do período (inclusive)
+	 * @param to   último dia do período (exclusive)
+	 * @return número de dias úteis (negativo se <code>to &lt; from</code>)
+	 */
+	public int businessDaysBetween(long from, long to) {
+		if (to < from)
+			return -businessDaysBetween(to, from);
+		int y1 = TimeUtils.yearOf(from), y2 = TimeUtils.yearOf(to);
+		Year a = year(y1);
+		if (y1 == y2)
+			return a.countBefore((int) (to - a.first)) - a.countBefore((int) (from - a.first));
+		int n = a.count() - a.countBefore((int) (from - a.first));
+		for (int y = y1 + 1; y < y2; y++)
+			n += year(y).count();
+		Year b = year(y2);
+		return n + b.countBefore((int) (to - b.first));
+	}
+
+	/**
+	 * Função que retorna o primeiro dia útil posterior a um dia
+	 *
+	 * @param epochDay número de dias desde 1970-01-01
+	 * @return primeiro dia útil posterior
+	 */
+	public long nextBusinessDay(long epochDay) {
+		return addBusinessDays(epochDay, 1);
+	}
+
+	/**
+	 * Função que retorna o último dia útil anterior a um dia
+	 *
+	 * @param epochDay número de dias desde 1970-01-01
+	 * @return último dia útil anterior
+	 */
+	public long previousBusinessDay(long epochDay) {
+		return addBusinessDays(epochDay, -1);
+	}
+
+	/**
+	 * Função que desloca um dia de um número de dias úteis
+	 *
+	 * @param epochDay número de dias desde 1970-01-01
+	 * @param n        número de dias úteis: se positivo, é retornado o
+	 *                 <code>n</code>-ésimo dia útil posterior; se negativo, o
+	 *                 <code>|n|</code>-ésimo dia útil anterior; se nulo, o próprio
+	 *                 dia
+	 * @return dia deslocado
+	 * @throws IllegalStateException se um ano inteiro sem dias úteis for
+	 *                               percorrido (e.g., um calendário em que todos
+	 *                               os dias são feriados)
+	 */
+	public long addBusinessDays(long epochDay, int n) {
+		if (n == 0)
+			return epochDay;
+		int y = TimeUtils.yearOf(epochDay);
+		Year yr = year(y);
+		int i = (int) (epochDay - yr.first);
+		// posição (a partir de 1) do dia procurado entre os dias úteis do ano
+		long r = n > 0 ? yr.countBefore(i + 1) + (long) n : yr.countBefore(i) + (long) n + 1;
+		while (r > yr.count()) {
+			if (yr.count() == 0)
+				throw noBusinessDay(y);
+			r -= yr.count();
+			yr = year(++y);
+		}
+		while (r <= 0) {
+			yr = year(--y);
+			if (yr.count() == 0)
+				throw noBusinessDay(y);
+			r += yr.count();
+		}
+		return yr.first + yr.select((int) r);
+	}
+
+	private static IllegalStateException noBusinessDay(int year) {
+		return new IllegalStateException("Ano sem dias úteis: " + year);
+	}
+}
@@ -0,0 +1,279 @@
+package br.com.pereiraeng.core;
+
+import java.util.Arrays;
+
+/**
+ * Classe das funções de cálculo da distância de Levenshtein usadas por
+ * {@link StringUtils}. O cálculo é feito sem alocação de memória (os vetores
+ * de trabalho são mantidos por <i>thread</i>) e pode ser limitado por uma
+ * distância máxima, a partir da qual ele é interrompido.
+ *
+ * Dois algoritmos são empregados:
+ * <ul>
+ * <li>programação dinâmica com duas linhas e restrita à diagonal de largura
+ * <code>2k+1</code> (Ukkonen), para palavras curtas ou limites pequenos;</li>
+ * <li>algoritmo paralelo em bits de <a href=
+ * "https://doi.org/10.1145/316542.316550">Myers</a>, na versão em blocos de
+ * 64 bits de Hyyrö, para palavras longas.</li>
+ * </ul>
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+final class Levenshtein {
+
+	/**
+	 * Tamanho mínimo da palavra mais longa para que se considere o algoritmo de
+	 * Myers
+	 */
+	private static final int MYERS_MIN_LENGTH = 16;
+
+	/**
+	 * Custo relativo (em células da matriz de programação dinâmica) de cada bloco
+	 * de 64 bits do algoritmo de Myers
+	 */
+	private static final int MYERS_BLOCK_COST = 8;
+
+	private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+	private Levenshtein() {
+	}
+
+	/**
+	 * Vetores de trabalho reaproveitados entre as chamadas de uma mesma
+	 * <i>thread</i>
+	 */
+	private static final class Buffers {
+		private int[] row1 = new int[64], row2 = new int[64];
+
+		/**
+		 * Índice de cada caracter Latin-1 da palavra na tabela {@link #peq} (0 se
+		 * ausente, i+1 senão)
+		 */
+		private final int[] latin = new int[256];
+
+		/**
+		 * Caracteres da palavra fora do Latin-1
+		 */
+		private char[] others = new char[8];
+
+		private long[] peq = new long[64], pv = new long[4], mv = new long[4];
+
+		private int[] rows(int length) {
+			if (row1.length < length) {
+				row1 = new int[Math.max(length, 2 * row1.length)];
+				row2 = new int[row1.length];
+			}
+			return row1;
+		}
+	}
+
+	/**
+	 * Função que retorna a distância de Levenshtein entre duas sequências de
+	 * caracteres, caso esta não ultrapasse um dado limite
+	 *
+	 * @param s1          uma palavra
+	 * @param s2          outra palavra
+	 * @param maxDistance distância máxima (não negativa)
+	 * @return a distância entre as duas sequências, ou <code>maxDistance + 1</code>
+	 *         se esta for superior a <code>maxDistance</code>
+	 */
+	static int distance(CharSequence s1, CharSequence s2, int maxDistance) {
+		if (maxDistance < 0)
+			throw new IllegalArgumentException("Distância máxima negativa");
+
+		int l1 = s1.length(), l2 = s2.length();
+
+		// remover o prefixo e o sufixo comuns, que não alteram a distância
+		int start = 0, min = Math.min(l1, l2);
+		while (start < min && s1.charAt(start) == s2.charAt(start))
+			start++;
+		int e1 = l1, e2 = l2;
+		while (e1 > start && e2 > start && s1.charAt(e1 - 1) == s2.charAt(e2 - 1)) {
+			e1--;
+			e2--;
+		}
+		l1 = e1 - start;
+		l2 = e2 - start;
+
+		// a menor das palavras é a 'coluna' (padrão)
+		CharSequence p, t;
+		int m, n;
+		if (l1 <= l2) {
+			p = s1;
+			m = l1;
+			t = s2;
+			n = l2;
+		} else {
+			p = s2;
+			m = l2;
+			t = s1;
+			n = l1;
+		}
+
+		if (n - m > maxDistance)
+			return maxDistance + 1;
+		if (m == 0)
+			return n;
+		int k = Math.min(maxDistance, n);
+
+		int blocks = (m + 63) >>> 6;
+		if (n >= MYERS_MIN_LENGTH && blocks * MYERS_BLOCK_COST < 2 * Math.min(k, m) + 1)
+			return myers(p, start, m, t, start, n, k);
+		else
+			return band(p, start, m, t, start, n, k);
+	}
+
+	/**
+	 * Programação dinâmica em duas linhas, restrita às células da diagonal que
+	 * podem ter valor inferior ou igual a <code>k</code>
+	 */
+	private static int band(CharSequence p, int po, int m, CharSequence t, int to, int n, int k) {
+		Buffers b = BUFFERS.get();
+		int[] prev = b.rows(m + 1), cur = b.row2;
+		int big = k + 1;
+
+		for (int i = 0; i <= m; i++)
+			prev[i] = i <= k ? i : big;
+
+		for (int j = 1; j <= n; j++) {
+			int lo = Math.max(1, j - k), hi = Math.min(m, j + k);
+			cur[lo - 1] = lo == 1 && j <= k ? j : big;
+			int rowMin = cur[lo - 1];
+
+			char c = t.charAt(to + j - 1);
+			for (int i = lo; i <= hi; i++) {
+				int v = prev[i - 1] + (p.charAt(po + i - 1) == c ? 0 : 1);
+				int a = prev[i] + 1;
+				if (a < v)
+					v = a;
+				a = cur[i - 1] + 1;
+				if (a < v)
+					v = a;
+				if (v > big)
+					v = big;
+				cur[i] = v;
+				if (v < rowMin)
+					rowMin = v;
+			}
+			if (hi < m)
+				cur[hi + 1] = big;
+
+			if (rowMin > k)
+				return big;
+
+			int[] aux = prev;
+			prev = cur;
+			cur = aux;
+		}
+		return prev[m];
+	}
+
+	/**
+	 * Algoritmo de Myers em blocos de 64 linhas (Hyyrö). Cada bloco guarda as
+	 * diferenças verticais positivas (<code>pv</code>) e negativas
+	 * (<code>mv</code>) de uma coluna da matriz; somente o valor da última linha
+	 * é acompanhado.
+	 */
+	private static int myers(CharSequence p, int po, int m, CharSequence t, int to, int n, int k) {
+		Buffers b = BUFFERS.get();
+		int blocks = (m + 63) >>> 6;
+
+		// tabela de ocorrências de cada caracter da palavra
+		int[] latin = b.latin;
+		int nLatin = 0, nOthers = 0;
+		for (int i = 0; i < m; i++) {
+			char c = p.charAt(po + i);
+			if (c < 256) {
+				if (latin[c] == 0)
+					latin[c] = ++nLatin;
+			} else if (indexOf(b.others, nOthers, c) < 0) {
+				if (nOthers == b.others.length)
+					b.others = Arrays.copyOf(b.others, 2 * nOthers);
+				b.others[nOthers++] = c;
+			}
+		}
+		int nChars = nLatin + nOthers;
+
+		int peqLength = (nChars + 1) * blocks;
+		if (b.peq.length < peqLength)
+			b.peq = new long[Math.max(peqLength, 2 * b.peq.length)];
+		long[] peq = b.peq;
+		Arrays.fill(peq, 0, peqLength, 0L);
+		for (int i = 0; i < m; i++) {
+			int id = id(b, nLatin, nOthers, p.charAt(po + i));
+			peq[id * blocks + (i >>> 6)] |= 1L << (i & 63);
+		}
+
+		if (b.pv.length < blocks) {
+			b.pv = new long[Math.max(blocks, 2 * b.pv.length)];
+			b.mv = new long[b.pv.length];
+		}
+		long[] pv = b.pv, mv = b.mv;
+		Arrays.fill(pv, 0, blocks, -1L);
+		Arrays.fill(mv, 0, blocks, 0L);
+
+		long lastBit = 1L << ((m - 1) & 63);
+		int score = m, out = -1;
+		for (int j = 0; j < n; j++) {
+			int base = id(b, nLatin, nOthers, t.charAt(to + j)) * blocks;
+
+			int hin = 1;
+			for (int bl = 0; bl < blocks; bl++) {
+				long eq = peq[base + bl], pvb = pv[bl], mvb = mv[bl];
+				long hinNeg = hin < 0 ? 1L : 0L;
+
+				long xv = eq | mvb;
+				eq |= hinNeg;
+				long xh = (((eq & pvb) + pvb) ^ pvb) | eq;
+				long ph = mvb | ~(xh | pvb);
+				long mh = pvb & xh;
+
+				long high = bl == blocks - 1 ? lastBit : Long.MIN_VALUE;
+				int hout = (ph & high) != 0 ? 1 : ((mh & high) != 0 ? -1 : 0);
+
+				ph = (ph << 1) | (hin > 0 ? 1L : 0L);
+				mh = (mh << 1) | hinNeg;
+				pv[bl] = mh | ~(xv | ph);
+				mv[bl] = ph & xv;
+				hin = hout;
+			}
+			score += hin;
+
+			// a distância final não pode ser inferior a 'score - (n - j - 1)'
+			if (score - (n - j - 1) > k) {
+				out = k + 1;
+				break;
+			}
+		}
+
+		// limpar a tabela dos caracteres Latin-1 para a próxima chamada
+		for (int i = 0; i < m; i++) {
+			char c = p.charAt(po + i);
+			if (c < 256)
+				latin[c] = 0;
+		}
+
+		if (out < 0)
+			out = score > k ? k + 1 : score;
+		return out;
+	}
+
+	/**
+	 * Função que retorna o índice de um caracter na tabela de ocorrências (0 para
+	 * os caracteres que não pertencem à palavra)
+	 */
+	private static int id(Buffers b, int nLatin, int nOthers, char c) {
+		if (c < 256)
+			return b.latin[c];
+		int i = indexOf(b.others, nOthers, c);
+		return i < 0 ? 0 : nLatin + i + 1;
+	}
+
+	private static int indexOf(char[] cs, int length, char c) {
+		for (int i = 0; i < length; i++)
+			if (cs[i] == c)
+				return i;
+		return -1;
+	}
+}
@@ -0,0 +1,496 @@
+package br.com.pereiraeng.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Leitor de arquivos de registros de tamanho fixo (e.g., os arquivos legados
+ * de PDP-11 e VAX) mapeados em memória. Os campos de cada registro são
+ * descritos por um {@link Layout} e decodificados diretamente do mapeamento,
+ * sem que o arquivo seja copiado para a memória: o acesso a um registro
+ * qualquer tem custo constante, e o sistema operacional carrega somente as
+ * páginas efetivamente lidas.
+ *
+ * Os arquivos maiores que 2 GB são mapeados em vários segmentos, cada um com um
+ * número inteiro de registros. As leituras não alteram o estado do leitor,
+ * podendo ser feitas por várias <i>threads</i>.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public final class MappedRecordReader implements Closeable, Iterable<MappedRecordReader.Record> {
+
+	/**
+	 * Tipos dos campos dos registros
+	 */
+	public enum Type {
+		/** inteiro de 8 bits com sinal */
+		BYTE(1),
+		/** inteiro de 8 bits sem sinal */
+		UNSIGNED_BYTE(1),
+		/** inteiro de 16 bits com sinal, na ordem de bytes do layout */
+		SHORT(2),
+		/** inteiro de 16 bits sem sinal, na ordem de bytes do layout */
+		UNSIGNED_SHORT(2),
+		/** inteiro de 32 bits com sinal, na ordem de bytes do layout */
+		INT(4),
+		/** inteiro de 32 bits sem sinal, na ordem de bytes do layout */
+		UNSIGNED_INT(4),
+		/**
+		 * inteiro de 32 bits em <i>middle endian</i> (PDP-11), ver
+		 * {@link BinaryUtils#getIntME(byte[], int)}
+		 */
+		INT_ME(4),
+		/** inteiro de 64 bits, na ordem de bytes do layout */
+		LONG(8),
+		/** decimal IEEE 754 de 32 bits, na ordem de bytes do layout */
+		FLOAT(4),
+		/** decimal IEEE 754 de 64 bits, na ordem de bytes do layout */
+		DOUBLE(8),
+		/**
+		 * decimal no formato VAX D, ver {@link BinaryUtils#vax2IEEE(byte[], int)}
+		 */
+		VAX_DOUBLE(8),
+		/**
+		 * texto em Radix-50 (3 caracteres a cada 2 bytes, little endian), ver
+		 * {@link BinaryUtils#rad50toAscii(short, char[], int)}
+		 */
+		RAD50(2),
+		/** texto ASCII (1 caracter por byte) */
+		ASCII(1);
+
+		/**
+		 * Número de bytes de cada unidade do tipo
+		 */
+		private final int size;
+
+		private Type(int size) {
+			this.size = size;
+		}
+
+		private boolean isInteger() {
+			return this.ordinal() <= LONG.ordinal();
+		}
+
+		private boolean isText() {
+			return this == RAD50 || this == ASCII;
+		}
+	}
+
+	/**
+	 * Descrição de um campo de um registro
+	 */
+	private static final class Field {
+		private final String name;
+		private final int offset, length;
+		private final Type type;
+
+		private Field(String name, int offset, Type type, int length) {
+			this.name = name;
+			this.offset = offset;
+			this.type = type;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Descrição declarativa dos registros de um arquivo: tamanho de cada
+	 * registro, ordem dos bytes e posição e tipo de cada campo.
+	 */
+	public static final class Layout {
+
+		private final int recordSize;
+
+		private final ByteOrder order;
+
+		private final List<Field> fields = new ArrayList<>();
+
+		private final Map<String, Integer> indices = new LinkedHashMap<>();
+
+		/**
+		 * Construtor de um layout com os valores numéricos em ordem little endian
+		 * (como no PDP-11 e no VAX)
+		 *
+		 * @param recordSize número de bytes de cada registro
+		 */
+		public Layout(int recordSize) {
+			this(recordSize, ByteOrder.LITTLE_ENDIAN);
+		}
+
+		/**
+		 * Construtor
+		 *
+		 * @param recordSize número de bytes de cada registro
+		 * @param order      ordem dos bytes dos tipos {@link Type#SHORT},
+		 *                   {@link Type#INT}, {@link Type#LONG}, {@link Type#FLOAT}
+		 *                   e {@link Type#DOUBLE} (e afins)
+		 */
+		public Layout(int recordSize, ByteOrder order) {
+			if (recordSize <= 0)
+				throw new IllegalArgumentException("Tamanho de registro inválido: " + recordSize);
+			this.recordSize = recordSize;
+			this.order = order;
+		}
+
+		/**
+		 * Função que acrescenta um campo numérico ao layout
+		 *
+		 * @param name   nome do campo
+		 * @param offset posição do campo no registro
+		 * @param type   tipo do campo
+		 * @return o próprio layout
+		 */
+		public Layout field(String name, int offset, Type type) {
+			if (type.isText())
+				throw new IllegalArgumentException("O tamanho do campo de texto " + name + " deve ser informado");
+			return field(name, offset, type, 1);
+		}
+
+		/**
+		 * Função que acrescenta um campo ao layout
+		 *
+		 * @param name   nome do campo
+		 * @param offset posição do campo no registro
+		 * @param type   tipo do campo
+		 * @param length número de unidades do campo: palavras de 16 bits para
+		 *               {@link Type#RAD50}, bytes para {@link Type#ASCII} e 1 para
+		 *               os tipos numéricos
+		 * @return o próprio layout
+		 */
+		public Layout field(String name, int offset, Type type, int length) {
+			if (length <= 0 || (!type.isText() && length != 1))
+				throw new IllegalArgumentException("Tamanho inválido para o campo " + name + ": " + length);
+			if (offset < 0 || offset + type.size * length > recordSize)
+				throw new IllegalArgumentException("O campo " + name + " excede o registro");
+			if (indices.containsKey(name))
+				throw new IllegalArgumentException("Campo repetido: " + name);
+			indices.put(name, fields.size());
+			fields.add(new Field(name, offset, type, length));
+			return this;
+		}
+
+		/**
+		 * Função que retorna o índice de um campo, a ser usado nos métodos de
+		 * leitura de {@link Record} sem a busca pelo nome
+		 *
+		 * @param name nome do campo
+		 * @return índice do campo
+		 */
+		public int indexOf(String name) {
+			Integer i = indices.get(name);
+			if (i == null)
+				throw new IllegalArgumentException("Campo inexistente: " + name);
+			return i;
+		}
+
+		public int getRecordSize() {
+			return recordSize;
+		}
+
+		public int getFieldCount() {
+			return fields.size();
+		}
+
+		public String getFieldName(int field) {
+			return fields.get(field).name;
+		}
+
+		public Type getFieldType(int field) {
+			return fields.get(field).type;
+		}
+	}
+
+	/**
+	 * Número máximo de bytes de cada segmento mapeado
+	 */
+	private static final long SEGMENT_BYTES = Integer.MAX_VALUE;
+
+	private final FileChannel channel;
+
+	private final Layout layout;
+
+	private final Field[] fields;
+
+	private final ByteBuffer[] segments;
+
+	private final int recordsPerSegment;
+
+	private final long size;
+
+	/**
+	 * Construtor de um leitor sem cabeçalho
+	 *
+	 * @param file   arquivo
+	 * @param layout layout dos registros
+	 * @throws IOException em caso de erro na abertura ou no mapeamento
+	 */
+	public MappedRecordReader(Path file, Layout layout) throws IOException {
+		this(file, 0L, layout);
+	}
+
+	/**
+	 * Construtor
+	 *
+	 * @param file       arquivo
+	 * @param headerSize número de bytes no início do arquivo antes do primeiro
+	 *                   registro
+	 * @param layout     layout dos registros
+	 * @throws IOException em caso de erro na abertura ou no mapeamento
+	 */
+	public MappedRecordReader(Path file, long headerSize, Layout layout) throws IOException {
+		this.layout = layout;
+		this.fields = layout.fields.toArray(new Field[0]);
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			int rs = layout.recordSize;
+			// um eventual registro incompleto no fim do arquivo é ignorado
+			this.size = Math.max(0L, channel.size() - headerSize) / rs;
+			this.recordsPerSegment = (int) (SEGMENT_BYTES / rs);
+
+			int n = (int) ((size + recordsPerSegment - 1) / recordsPerSegment);
+			this.segments = new ByteBuffer[n];
+			for (int i = 0; i < n; i++) {
+				long first = (long) i * recordsPerSegment;
+				long count = Math.min(recordsPerSegment, size - first);
+				MappedByteBuffer mbb = channel.map(FileChannel.MapMode.READ_ONLY, headerSize + first * rs,
+						count * rs);
+				segments[i] = mbb.order(layout.order);
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Função que retorna o número de registros do arquivo
+	 *
+	 * @return número de registros
+	 */
+	public long size() {
+		return size;
+	}
+
+	public Layout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Função que retorna um registro do arquivo. O registro é uma visão sobre o
+	 * mapeamento: os seus campos são decodificados a cada leitura.
+	 *
+	 * @param index índice do registro (a partir de 0)
+	 * @return registro
+	 */
+	public Record get(long index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Registro " + index + " de " + size);
+		return new Record(index);
+	}
+
+	/**
+	 * Iterador sequencial sobre os registros do arquivo
+	 */
+	@Override
+	public Iterator<Record> iterator() {
+		return new Iterator<Record>() {
+			private long next = 0L;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Record next() {
+				if (next >= size)
+					throw new NoSuchElementException();
+				return new Record(next++);
+			}
+		};
+	}
+
+	/**
+	 * Função que fecha o arquivo. Os mapeamentos são liberados quando deixam de
+	 * ser referenciados, de modo que os registros obtidos não devem ser lidos
+	 * após o fechamento.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Registro do arquivo. Os campos podem ser lidos pelo nome ou, de forma mais
+	 * rápida, pelo índice (ver {@link Layout#indexOf(String)}).
+	 */
+	public final class Record {
+
+		private final long index;
+
+		private final ByteBuffer segment;
+
+		private final int base;
+
+		private Record(long index) {
+			this.index = index;
+			this.segment = segments[(int) (index / recordsPerSegment)];
+			this.base = (int) (index % recordsPerSegment) * layout.recordSize;
+		}
+
+		public long getIndex() {
+			return index;
+		}
+
+		public int getInt(String name) {
+			return getInt(layout.indexOf(name));
+		}
+
+		public long getLong(String name) {
+			return getLong(layout.indexOf(name));
+		}
+
+		public double getDouble(String name) {
+			return getDouble(layout.indexOf(name));
+		}
+
+		public String getString(String name) {
+			return getString(layout.indexOf(name));
+		}
+
+		/**
+		 * Função que lê um campo inteiro de até 32 bits
+		 *
+		 * @param field índice do campo
+		 * @return valor do campo
+		 */
+		public int getInt(int field) {
+			Field f = fields[field];
+			if (f.type == Type.LONG || f.type == Type.UNSIGNED_INT)
+				throw new IllegalArgumentException("O campo " + f.name + " deve ser lido com getLong");
+			return (int) getLong(field);
+		}
+
+		/**
+		 * Função que lê um campo inteiro
+		 *
+		 * @param field índice do campo
+		 * @return valor do campo
+		 */
+		public long getLong(int field) {
+			Field f = fields[field];
+			int p = base + f.offset;
+			switch (f.type) {
+			case BYTE:
+				return segment.get(p);
+			case UNSIGNED_BYTE:
+				return segment.get(p) & 0xFF;
+			case SHORT:
+				return segment.getShort(p);
+			case UNSIGNED_SHORT:
+				return segment.getShort(p) & 0xFFFF;
+			case INT:
+				return segment.getInt(p);
+			case UNSIGNED_INT:
+				return segment.getInt(p) & 0xFFFFFFFFL;
+			case INT_ME:
+				return hiLo(p);
+			case LONG:
+				return segment.getLong(p);
+			default:
+				throw new IllegalArgumentException("O campo " + f.name + " não é inteiro");
+			}
+		}
+
+		/**
+		 * Função que lê um campo numérico
+		 *
+		 * @param field índice do campo
+		 * @return valor do campo
+		 */
+		public double getDouble(int field) {
+			Field f = fields[field];
+			int p = base + f.offset;
+			switch (f.type) {
+			case FLOAT:
+				return segment.getFloat(p);
+			case DOUBLE:
+				return segment.getDouble(p);
+			case VAX_DOUBLE:
+				return BinaryUtils.vax2IEEE(hiLo(p), hiLo(p + 4));
+			default:
+				if (f.type.isInteger())
+					return getLong(field);
+				throw new IllegalArgumentException("O campo " + f.name + " não é numérico");
+			}
+		}
+
+		/**
+		 * Função que lê um campo de texto
+		 *
+		 * @param field índice do campo
+		 * @return texto (os espaços de preenchimento são mantidos)
+		 */
+		public String getString(int field) {
+			Field f = fields[field];
+			int p = base + f.offset;
+			char[] cs;
+			switch (f.type) {
+			case RAD50:
+				cs = new char[3 * f.length + 1];
+				for (int i = 0; i < f.length; i++)
+					BinaryUtils.rad50toAscii(shortLE(p + 2 * i), cs, 3 * i);
+				return new String(cs, 0, 3 * f.length);
+			case ASCII:
+				cs = new char[f.length];
+				for (int i = 0; i < f.length; i++)
+					cs[i] = (char) (segment.get(p + i) & 0xFF);
+				return new String(cs);
+			default:
+				throw new IllegalArgumentException("O campo " + f.name + " não é de texto");
+			}
+		}
+
+		/**
+		 * Função que lê um valor de 32 bits composto de duas palavras de 16 bits
+		 * little endian, a mais significativa primeiro (middle endian)
+		 */
+		private int hiLo(int p) {
+			return (shortLE(p) & 0xFFFF) << 16 | (shortLE(p + 2) & 0xFFFF);
+		}
+
+		private short shortLE(int p) {
+			return (short) ((segment.get(p) & 0xFF) | (segment.get(p + 1) & 0xFF) << 8);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("{");
+			for (int i = 0; i < fields.length; i++) {
+				if (i > 0)
+					sb.append(", ");
+				sb.append(fields[i].name).append('=');
+				Type t = fields[i].type;
+				if (t.isText())
+					sb.append(getString(i));
+				else if (t.isInteger())
+					sb.append(getLong(i));
+				else
+					sb.append(getDouble(i));
+			}
+			return sb.append('}').toString();
+		}
+	}
+}
@@ -0,0 +1,395 @@
+package br.com.pereiraeng.core;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.stream.IntStream;
+
+/**
+ * Classificação em lote de instantes ordenados (em milissegundos desde
+ * 1970-01-01T00:00Z) nos períodos locais que os envolvem (hora, dia, semana,
+ * mês ou ano), em uma única passagem: como os instantes estão ordenados, um
+ * novo período só é calculado quando um instante ultrapassa o fim do período
+ * corrente.
+ *
+ * O resultado ({@link Buckets}) contém, para cada período não vazio, o começo,
+ * o fim e o intervalo de índices dos seus instantes, e para cada instante o
+ * índice do seu período; sobre ele podem ser feitas agregações por período.
+ * Vetores grandes podem ser classificados em paralelo, por blocos.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @see TimeUtils#convertIntoRange(int, ZoneOffsetTable, long...)
+ */
+public final class PeriodBucketer {
+
+	private static final long HOUR_MILLI = 3_600_000L;
+
+	/**
+	 * Número mínimo de instantes por bloco na classificação em paralelo
+	 */
+	private static final int PARALLEL_CHUNK = 1 << 16;
+
+	private final int per;
+
+	private final ZoneOffsetTable zone;
+
+	/**
+	 * Construtor
+	 *
+	 * @param per  período: {@link Calendar#HOUR_OF_DAY}, {@link Calendar#DAY_OF_MONTH},
+	 *             {@link Calendar#WEEK_OF_MONTH} (de domingo a sábado),
+	 *             {@link Calendar#MONTH} ou {@link Calendar#YEAR}
+	 * @param zone fuso horário
+	 */
+	public PeriodBucketer(int per, ZoneOffsetTable zone) {
+		switch (per) {
+		case Calendar.HOUR_OF_DAY:
+		case Calendar.DAY_OF_MONTH:
+		case Calendar.WEEK_OF_MONTH:
+		case Calendar.MONTH:
+		case Calendar.YEAR:
+			break;
+		default:
+			throw new IllegalArgumentException("Período inválido: " + per);
+		}
+		this.per = per;
+		this.zone = zone;
+	}
+
+	/**
+	 * Construtor, no fuso padrão
+	 *
+	 * @param per período (ver {@link #PeriodBucketer(int, ZoneOffsetTable)})
+	 */
+	public PeriodBucketer(int per) {
+		this(per, ZoneOffsetTable.systemDefault());
+	}
+
+	public int getPer() {
+		return per;
+	}
+
+	/**
+	 * Função que calcula o começo e o fim (exclusive) do período de um instante
+	 */
+	private void bounds(long ms, long[] out) {
+		if (per == Calendar.HOUR_OF_DAY) {
+			out[0] = ms - Math.floorMod(zone.toLocal(ms), HOUR_MILLI);
+			out[1] = out[0] + HOUR_MILLI;
+		} else {
+			long d = TimeUtils.lowerDay(Math.floorDiv(zone.toLocal(ms), TimeUtils.DAY_MILLI), per);
+			out[0] = zone.toUtc(d * TimeUtils.DAY_MILLI);
+			out[1] = zone.toUtc(TimeUtils.nextDay(d, per) * TimeUtils.DAY_MILLI);
+		}
+	}
+
+	/**
+	 * Função que classifica instantes ordenados
+	 *
+	 * @param t instantes, em ordem crescente
+	 * @return períodos
+	 * @throws IllegalArgumentException se os instantes não estiverem ordenados
+	 */
+	public Buckets bucket(long[] t) {
+		Buckets out = new Buckets(t.length);
+		scan(t, 0, t.length, out);
+		return out.trim();
+	}
+
+	/**
+	 * Função que classifica instantes ordenados, em paralelo por blocos (para
+	 * vetores pequenos, equivale a {@link #bucket(long[])})
+	 *
+	 * @param t instantes, em ordem crescente
+	 * @return períodos
+	 * @throws IllegalArgumentException se os instantes não estiverem ordenados
+	 */
+	public Buckets bucketParallel(long[] t) {
+		int chunks = Math.min(t.length / PARALLEL_CHUNK, 4 * Runtime.getRuntime().availableProcessors());
+		if (chunks < 2)
+			return bucket(t);
+		Buckets[] parts = new Buckets[chunks];
+		Buckets out = new Buckets(t.length);
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			int from = (int) ((long) t.length * c / chunks), to = (int) ((long) t.length * (c + 1) / chunks);
+			if (c > 0 && t[from] < t[from - 1])
+				throw new IllegalArgumentException("Instantes não ordenados: " + from);
+			Buckets b = new Buckets(0);
+			b.ids = out.ids;
+			scan(t, from, to, b);
+			parts[c] = b;
+		});
+
+		// junção dos blocos: o primeiro período de um bloco pode ser o último do
+		// anterior
+		int[] base = new int[chunks];
+		int n = 0;
+		for (int c = 0; c < chunks; c++) {
+			Buckets b = parts[c];
+			int skip = n > 0 && out.starts[n - 1] == b.starts[0] ? 1 : 0;
+			base[c] = n - skip;
+			out.ensure(n + b.size - skip);
+			System.arraycopy(b.starts, skip, out.starts, n, b.size - skip);
+			System.arraycopy(b.ends, skip, out.ends, n, b.size - skip);
+			System.arraycopy(b.offsets, skip, out.offsets, n, b.size - skip);
+			n += b.size - skip;
+		}
+		out.size = n;
+		out.offsets[n] = t.length;
+		IntStream.range(1, chunks).parallel().forEach(c -> {
+			int from = (int) ((long) t.length * c / chunks), to = (int) ((long) t.length * (c + 1) / chunks);
+			for (int i = from; i < to; i++)
+				out.ids[i] += base[c];
+		});
+		return out.trim();
+	}
+
+	/**
+	 * Passagem linear sobre <code>t[from..to[</code>. Os índices dos períodos são
+	 * locais ao bloco, e os índices dos instantes, globais.
+	 */
+	private void scan(long[] t, int from, int to, Buckets out) {
+		long[] b = new long[2];
+		long end = Long.MIN_VALUE, prev = Long.MIN_VALUE;
+		int n = -1;
+		for (int i = from; i < to; i++) {
+			long ms = t[i];
+			if (ms < prev)
+				throw new IllegalArgumentException("Instantes não ordenados: " + i);
+			prev = ms;
+			if (ms >= end) {
+				bounds(ms, b);
+				end = b[1];
+				n++;
+				out.ensure(n + 1);
+				out.starts[n] = b[0];
+				out.ends[n] = b[1];
+				out.offsets[n] = i;
+			}
+			out.ids[i] = n;
+		}
+		out.size = n + 1;
+		out.offsets[n + 1] = to;
+	}
+
+	/**
+	 * Função que recebe os períodos um a um
+	 */
+	@FunctionalInterface
+	public interface BucketConsumer {
+		/**
+		 * @param bucket índice do período
+		 * @param from   índice do primeiro instante do período
+		 * @param to     índice seguinte ao do último instante do período
+		 */
+		void accept(int bucket, int from, int to);
+	}
+
+	/**
+	 * Períodos não vazios de uma classificação, em ordem crescente
+	 */
+	public static final class Buckets {
+		private int size;
+
+		private long[] starts, ends;
+
+		/**
+		 * Índice do primeiro instante de cada período (e, na última posição, o
+		 * número de instantes)
+		 */
+		private int[] offsets;
+
+		/**
+		 * Índice do período de cada instante
+		 */
+		private int[] ids;
+
+		private Buckets(int length) {
+			this.starts = new long[16];
+			this.ends = new long[16];
+			this.offsets = new int[17];
+			this.ids = new int[length];
+		}
+
+		private void ensure(int n) {
+			if (n > starts.length) {
+				int c = Math.max(n, 2 * starts.length);
+				starts = Arrays.copyOf(starts, c);
+				ends = Arrays.copyOf(ends, c);
+				offsets = Arrays.copyOf(offsets, c + 1);
+			}
+		}
+
+		private Buckets trim() {
+			starts = Arrays.copyOf(starts, size);
+			ends = Arrays.copyOf(ends, size);
+			offsets = Arrays.copyOf(offsets, size + 1);
+			return this;
+		}
+
+		/**
+		 * Número de períodos
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Começo de um período
+		 */
+		public long start(int bucket) {
+			return starts[bucket];
+		}
+
+		/**
+		 * Fim de um período (exclusive), i.e., começo do período seguinte
+		 */
+		public long end(int bucket) {
+			return ends[bucket];
+		}
+
+		/**
+		 * Índice do primeiro instante de um período
+		 */
+		public int from(int bucket) {
+			return offsets[bucket];
+		}
+
+		/**
+		 * Índice seguinte ao do último instante de um período
+		 */
+		public int to(int bucket) {
+			return offsets[bucket + 1];
+		}
+
+		/**
+		 * Começos dos períodos (vetor interno, não deve ser modificado)
+		 */
+		public long[] getStarts() {
+			return starts;
+		}
+
+		/**
+		 * Fins (exclusive) dos períodos (vetor interno, não deve ser modificado)
+		 */
+		public long[] getEnds() {
+			return ends;
+		}
+
+		/**
+		 * Índices do período de cada instante (vetor interno, não deve ser
+		 * modificado)
+		 */
+		public int[] getIds() {
+			return ids;
+		}
+
+		/**
+		 * Função que percorre os períodos
+		 *
+		 * @param consumer função que recebe os períodos
+		 */
+		public void forEach(BucketConsumer consumer) {
+			for (int b = 0; b < size; b++)
+				consumer.accept(b, offsets[b], offsets[b + 1]);
+		}
+
+		/**
+		 * Função que percorre os períodos em paralelo (a função deve poder ser
+		 * chamada concorrentemente, para períodos distintos)
+		 *
+		 * @param consumer função que recebe os períodos
+		 */
+		public void forEachParallel(BucketConsumer consumer) {
+			IntStream.range(0, size).parallel().forEach(b -> consumer.accept(b, offsets[b], offsets[b + 1]));
+		}
+
+		/**
+		 * Função que calcula a soma, o mínimo, o máximo e o número de valores de
+		 * cada período
+		 *
+		 * @param values   valores associados aos instantes
+		 * @param parallel se os períodos devem ser agregados em paralelo
+		 * @return agregados por período
+		 */
+		public Statistics aggregate(double[] values, boolean parallel) {
+			Statistics s = new Statistics(size);
+			BucketConsumer c = (b, from, to) -> {
+				double sum = 0.0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+				for (int i = from; i < to; i++) {
+					double v = values[i];
+					sum += v;
+					if (v < min)
+						min = v;
+					if (v > max)
+						max = v;
+				}
+				s.count[b] = to - from;
+				s.sum[b] = sum;
+				s.min[b] = min;
+				s.max[b] = max;
+			};
+			if (parallel)
+				forEachParallel(c);
+			else
+				forEach(c);
+			return s;
+		}
+
+		/**
+		 * Função que retorna os intervalos contínuos formados pelos períodos, com
+		 * a mesma convenção de {@link TimeUtils#convertCalendarIntoRange(int, Calendar...)}:
+		 * cada intervalo vai do começo do primeiro período ao último minuto do
+		 * último período
+		 *
+		 * @return matriz de duas colunas (começo e fim de cada intervalo)
+		 */
+		public long[][] ranges() {
+			int n = 0;
+			long[][] out = new long[size][];
+			for (int b = 0; b < size; b++) {
+				if (n > 0 && starts[b] <= out[n - 1][1] + 60_000L)
+					out[n - 1][1] = ends[b] - 60_000L;
+				else
+					out[n++] = new long[] { starts[b], ends[b] - 60_000L };
+			}
+			return Arrays.copyOf(out, n);
+		}
+	}
+
+	/**
+	 * Agregados por período
+	 */
+	public static final class Statistics {
+		private final int[] count;
+
+		private final double[] sum, min, max;
+
+		private Statistics(int size) {
+			this.count = new int[size];
+			this.sum = new double[size];
+			this.min = new double[size];
+			this.max = new double[size];
+		}
+
+		public int[] getCount() {
+			return count;
+		}
+
+		public double[] getSum() {
+			return sum;
+		}
+
+		public double[] getMin() {
+			return min;
+		}
+
+		public double[] getMax() {
+			return max;
+		}
+
+		public double getMean(int bucket) {
+			return sum[bucket] / count[bucket];
+		}
+	}
+}
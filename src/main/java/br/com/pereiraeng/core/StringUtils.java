@@ -16,6 +16,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -677,6 +678,37 @@ public class StringUtils {
 
 	// ================== Função de manipulação de acentuação ==================
 
+	/**
+	 * Tabela de conversão dos caracteres até o fim do bloco Latin Extended-B em
+	 * seus correspondentes sem acento (0 para os caracteres cuja decomposição
+	 * não resulta em um único caracter base)
+	 */
+	private static final char[] FOLD = new char[0x250];
+
+	/**
+	 * Decomposições dos demais caracteres já encontrados
+	 */
+	private static final Map<Integer, String> FOLD_CACHE = new ConcurrentHashMap<>();
+
+	private static final int FOLD_CACHE_MAX = 4096;
+
+	static {
+		for (char c = 0; c < FOLD.length; c++) {
+			String s = foldCodePoint(c);
+			FOLD[c] = s.length() == 1 ? s.charAt(0) : 0;
+		}
+	}
+
+	/**
+	 * Função que remove o acento de um caracter: se a sua decomposição canônica
+	 * tiver dois caracteres (letra base e diacrítico), somente a letra base é
+	 * mantida; senão, mantém-se a decomposição
+	 */
+	private static String foldCodePoint(int cp) {
+		String s = Normalizer.normalize(new String(Character.toChars(cp)), Normalizer.Form.NFD);
+		return s.length() == 2 ? s.substring(0, 1) : s;
+	}
+
 	/**
 	 * Função que remove os acentos das palavras de um texto
 	 * 
@@ -684,18 +716,98 @@ public class StringUtils {
 	 * @return texto texto sem acentos
 	 */
 	public static String removeAccent(String text) {
-		StringBuilder out = new StringBuilder();
-		String[] ss = text.split("");
-		for (String s : ss) {
-			s = Normalizer.normalize(s, Normalizer.Form.NFD);
-			if (s.length() == 2)
-				out.append(s.charAt(0));
+		return removeAccent(text, false);
+	}
+
+	/**
+	 * Função que remove os acentos das palavras de um texto e, opcionalmente, o
+	 * passa para letras minúsculas, em uma única passagem. Os caracteres latinos
+	 * são convertidos por tabela e os textos ASCII que não precisam de alteração
+	 * são retornados sem cópia.
+	 * 
+	 * @param text      texto cujas acentos serão removidos
+	 * @param lowerCase se <code>true</code>, as letras são também passadas para
+	 *                  minúsculas (ver {@link Character#toLowerCase(char)})
+	 * @return texto texto sem acentos
+	 */
+	public static String removeAccent(String text, boolean lowerCase) {
+		int n = text.length(), i = 0;
+
+		// caminho rápido: nada a ser alterado
+		for (; i < n; i++) {
+			char c = text.charAt(i);
+			if (c >= 0x80 || (lowerCase && c >= 'A' && c <= 'Z'))
+				break;
+		}
+		if (i == n)
+			return text;
+
+		char[] cs = text.toCharArray();
+		for (; i < n; i++) {
+			char c = cs[i];
+			char f = c < FOLD.length ? FOLD[c] : 0;
+			if (f == 0)
+				return removeAccent(cs, i, lowerCase);
+			cs[i] = lowerCase ? toLowerCase(f) : f;
+		}
+		return new String(cs);
+	}
+
+	/**
+	 * Função que continua a remoção dos acentos a partir do primeiro caracter que
+	 * não está na {@link #FOLD tabela}
+	 */
+	private static String removeAccent(char[] cs, int from, boolean lowerCase) {
+		StringBuilder out = new StringBuilder(cs.length + 8).append(cs, 0, from);
+		for (int i = from; i < cs.length; i++) {
+			char c = cs[i];
+			char f = c < FOLD.length ? FOLD[c] : 0;
+			if (f != 0) {
+				out.append(lowerCase ? toLowerCase(f) : f);
+				continue;
+			}
+
+			int cp = c;
+			if (Character.isHighSurrogate(c) && i + 1 < cs.length && Character.isLowSurrogate(cs[i + 1]))
+				cp = Character.toCodePoint(c, cs[++i]);
+			String s = FOLD_CACHE.get(cp);
+			if (s == null) {
+				s = foldCodePoint(cp);
+				if (FOLD_CACHE.size() < FOLD_CACHE_MAX)
+					FOLD_CACHE.put(cp, s);
+			}
+			if (lowerCase)
+				for (int j = 0; j < s.length(); j++)
+					out.append(Character.toLowerCase(s.charAt(j)));
 			else
 				out.append(s);
 		}
 		return out.toString();
 	}
 
+	private static char toLowerCase(char c) {
+		if (c < 0x80)
+			return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+		return Character.toLowerCase(c);
+	}
+
+	/**
+	 * Função que prepara uma palavra para ser comparada com outras
+	 * 
+	 * @param s          palavra
+	 * @param caseIgnore se <code>true</code>, a palavra é passada para minúsculas
+	 * @param diacRmv    se <code>true</code>, os acentos da palavra são removidos
+	 * @return palavra preparada
+	 */
+	public static String normalize(String s, boolean caseIgnore, boolean diacRmv) {
+		if (diacRmv)
+			return removeAccent(s, caseIgnore);
+		else if (caseIgnore)
+			return s.toLowerCase();
+		else
+			return s;
+	}
+
 	// ==================== Função de manipulação de unicode ===================
 
 	private static final Pattern UNICODE = Pattern.compile("\\\\u\\p{XDigit}{4}");
@@ -780,15 +892,7 @@ public class StringUtils {
 	// ================ Função de busca de palavras semelhantes ================
 
 	public static float relevancia(String s1, String s2, boolean caseIgnore, boolean diacRmv) {
-		if (caseIgnore) {
-			s1 = s1.toLowerCase();
-			s2 = s2.toLowerCase();
-		}
-		if (diacRmv) {
-			s1 = removeAccent(s1);
-			s2 = removeAccent(s2);
-		}
-		return relevancia(s1, s2);
+		return relevancia(normalize(s1, caseIgnore, diacRmv), normalize(s2, caseIgnore, diacRmv));
 	}
 
 	/**
@@ -804,6 +908,26 @@ public class StringUtils {
 		return (maxLength - levenshteinDistance(s1, s2) + 0f) / maxLength;
 	}
 
+	/**
+	 * Função que retorna o nível de semelhança entre duas palavras a partir da
+	 * distância de Levenshtein, caso este seja superior a um dado valor mínimo. O
+	 * cálculo da distância é interrompido assim que se constata que a semelhança
+	 * não superará o mínimo.
+	 * 
+	 * @param s1  uma palavra
+	 * @param s2  outra palavra
+	 * @param min valor mínimo (exclusivo) da proximidade
+	 * @return proximidade relativa entre as palavras, ou {@link Float#NaN} se esta
+	 *         não for superior ao valor mínimo
+	 */
+	public static float relevancia(String s1, String s2, float min) {
+		int maxLength = Math.max(s1.length(), s2.length());
+		// relevância > min <=> d < maxLength * (1 - min)
+		int maxDistance = min < 0f ? maxLength : Math.min(maxLength, (int) Math.ceil(maxLength * (1f - min)));
+		float out = (maxLength - levenshteinDistance(s1, s2, maxDistance) + 0f) / maxLength;
+		return out > min ? out : Float.NaN;
+	}
+
 	/**
 	 * 
 	 * @param s1
@@ -813,15 +937,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static int levenshteinDistance(String s1, String s2, boolean caseIgnore, boolean diacRmv) {
-		if (caseIgnore) {
-			s1 = s1.toLowerCase();
-			s2 = s2.toLowerCase();
-		}
-		if (diacRmv) {
-			s1 = removeAccent(s1);
-			s2 = removeAccent(s2);
-		}
-		return levenshteinDistance(s1, s2);
+		return levenshteinDistance(normalize(s1, caseIgnore, diacRmv), normalize(s2, caseIgnore, diacRmv));
 	}
 
 	/**
@@ -836,33 +952,23 @@ public class StringUtils {
 	 * @return a distância entre as duas sequências
 	 */
 	public static int levenshteinDistance(String s1, String s2) {
+		return Levenshtein.distance(s1, s2, Math.max(s1.length(), s2.length()));
+	}
 
-		// for all i and j, d[i,j] will hold the Levenshtein distance between
-		// the first i characters of s and the first j characters of t;
-		// note that d has (m+1)*(n+1) values
-
-		int[][] d = new int[s1.length() + 1][s2.length() + 1];
-
-		// source prefixes can be transformed into empty string by
-		// dropping all characters
-		for (int i = 1; i <= s1.length(); i++)
-			d[i][0] = i;
-
-		// target prefixes can be reached from empty source prefix
-		// by inserting every characters
-		for (int j = 1; j <= s2.length(); j++)
-			d[0][j] = j;
-
-		for (int j = 1; j <= s2.length(); j++) {
-			for (int i = 1; i <= s1.length(); i++) {
-				if (s1.charAt(i - 1) == s2.charAt(j - 1))
-					d[i][j] = d[i - 1][j - 1]; // no operation required
-				else
-					d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + 1);
-			}
-		}
-
-		return d[s1.length()][s2.length()];
+	/**
+	 * Função que retorna a distância de Levenshtein entre duas sequências de
+	 * caracteres, interrompendo o cálculo assim que esta ultrapassar um dado
+	 * limite. Não há alocação de memória a cada chamada e, para palavras longas,
+	 * é usado o algoritmo paralelo em bits de Myers.
+	 * 
+	 * @param s1          uma palavra
+	 * @param s2          outra palavra
+	 * @param maxDistance distância máxima (não negativa)
+	 * @return a distância entre as duas sequências, ou <code>maxDistance + 1</code>
+	 *         se esta for superior a <code>maxDistance</code>
+	 */
+	public static int levenshteinDistance(String s1, String s2, int maxDistance) {
+		return Levenshtein.distance(s1, s2, maxDistance);
 	}
 
 	/**
@@ -878,6 +984,9 @@ public class StringUtils {
 	 * elas. O nível de comparação nível aceitável pode ser estipulado ajustando o
 	 * valor da {@link StringUtils#threshold constante de proximidade} .
 	 * 
+	 * Para consultas repetidas a um mesmo dicionário, ver
+	 * {@link br.com.pereiraeng.core.collections.map.FuzzyDictionary}.
+	 * 
 	 * @param string     objeto procurado
 	 * @param dictionary tabela com as chaves e objetos
 	 * @param caseIgnore se <code>true</code>, ignorar-se-á as diferenças entre
@@ -890,10 +999,7 @@ public class StringUtils {
 			boolean diacRmv) {
 
 		// preparar string
-		if (caseIgnore)
-			string = string.toLowerCase();
-		if (diacRmv)
-			string = removeAccent(string);
+		string = normalize(string, caseIgnore, diacRmv);
 
 		float maxValue = threshold;
 		K maxKey = null;
@@ -903,12 +1009,9 @@ public class StringUtils {
 			String object = e.getValue();
 
 			// preparar string
-			if (caseIgnore)
-				object = object.toLowerCase();
-			if (diacRmv)
-				object = removeAccent(object);
+			object = normalize(object, caseIgnore, diacRmv);
 
-			float value = relevancia(string, object);
+			float value = relevancia(string, object, maxValue);
 			if (value > maxValue) {
 				maxValue = value;
 				maxKey = key;
@@ -945,7 +1048,7 @@ public class StringUtils {
 
 			for (int i = 0; i < strings.size(); i++) {
 				if (!already.contains(i)) {
-					float relevancia = relevancia(strings.get(i), value);
+					float relevancia = relevancia(strings.get(i), value, maxValue);
 					if (relevancia > maxValue) {
 						maxValue = relevancia;
 						pos = i;
@@ -959,6 +1062,45 @@ public class StringUtils {
 		return out;
 	}
 
+	/**
+	 * Número máximo de células (palavras da lista &times; palavras do dicionário)
+	 * da matriz de semelhança para que
+	 * {@link StringUtils#associateDictionaryOptimal(List, Map, boolean, boolean)}
+	 * faça a associação ótima. Acima deste valor, a associação é gulosa.
+	 */
+	public static long associationMaxCells = 2_000_000L;
+
+	/**
+	 * Função que atribui a cada uma das palavras de uma lista o correpondente do
+	 * dicionário, de modo a maximizar a soma das relevâncias dos pares formados.
+	 * Diferentemente de
+	 * {@link StringUtils#associateDictionary(List, Map, boolean, boolean)}, o
+	 * resultado não depende da ordem de iteração do dicionário.
+	 * 
+	 * A matriz de semelhança é calculada uma única vez, em paralelo, e a
+	 * associação é resolvida pelo algoritmo húngaro. Se o tamanho da matriz
+	 * superar {@link StringUtils#associationMaxCells}, a associação é gulosa,
+	 * considerando somente as palavras do dicionário mais semelhantes a cada
+	 * palavra da lista.
+	 * 
+	 * Só são formados pares cuja relevância seja superior à
+	 * {@link StringUtils#threshold constante de proximidade}.
+	 * 
+	 * @param strings    lista de palavras
+	 * @param dic        tabela de associação entre a chave e o valor da palavra
+	 * @param caseIgnore se <code>true</code>, ignorar-se-á as diferenças entre
+	 *                   maiúsculas e minúsculas
+	 * @param diacRmv    se <code>true</code>, remover-se-á os acentos das palavras
+	 *                   comparadas
+	 * @return lista com a chave associada a cada uma das palavras da lista, na
+	 *         mesma ordem desta (<code>null</code> para as palavras sem
+	 *         correspondente)
+	 */
+	public static <K> List<K> associateDictionaryOptimal(List<String> strings, Map<K, String> dic,
+			boolean caseIgnore, boolean diacRmv) {
+		return DictionaryAssociation.associate(strings, dic, caseIgnore, diacRmv, threshold, associationMaxCells);
+	}
+
 	public static Object getValue(String value, Class<?> classe) {
 		if (classe.equals(Integer.class)) {
 			return Integer.parseInt(value);
@@ -1090,11 +1232,15 @@ public class StringUtils {
 		return value;
 	}
 
+	/**
+	 * Função que converte um vetor de bytes em uma sequência de caracteres
+	 * exprimindo um número hexadecimal (ver {@link HexCodec})
+	 * 
+	 * @param bs vetor de bytes
+	 * @return sequência de caracteres na forma [h{2}]+
+	 */
 	public static String toHex(byte[] bs) {
-		String out = "";
-		for (int i = 0; i < bs.length; i++)
-			out += String.format("%02x", bs[i]);
-		return out;
+		return HexCodec.encode(bs);
 	}
 
 	/**
@@ -1105,24 +1251,15 @@ public class StringUtils {
 	 * @return sequência de caracteres na forma [h{4}]+
 	 */
 	public static String toHex(short[] ss) {
-		String out = "";
-		for (int i = 0; i < ss.length; i++)
-			out += String.format("%04x", ss[i]);
-		return out;
+		return HexCodec.encode(ss);
 	}
 
 	public static String toHex(int[] is) {
-		String out = "";
-		for (int i = 0; i < is.length; i++)
-			out += String.format("%08x", is[i]);
-		return out;
+		return HexCodec.encode(is);
 	}
 
 	public static byte[] fromHex(String s) {
-		byte[] out = new byte[s.length() / 2];
-		for (int i = 0; i < out.length; i++)
-			out[i] = (byte) Short.parseShort(String.format("%c%c", s.charAt(2 * i), s.charAt(2 * i + 1)), 16);
-		return out;
+		return HexCodec.decode(s);
 	}
 
 	public static String int2binary(int i) {
@@ -1517,7 +1654,8 @@ public class StringUtils {
 	private static String mergePatterns(String p1, boolean pt1, String p2, boolean pt2) {
 		if (!pt1 && !pt2) {
 			float max = Math.max(p1.length(), p2.length());
-			float dist = StringUtils.levenshteinDistance(p1, p2) / max;
+			float dist = StringUtils.levenshteinDistance(p1, p2,
+					Math.max(0, (int) Math.ceil(StringUtils.threshold * max))) / max;
 			if (dist < StringUtils.threshold) { // é possível fazer o merge
 
 				// achar pontos onde os padrões tem a mesma letra
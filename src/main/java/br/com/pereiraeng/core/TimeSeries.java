@@ -0,0 +1,585 @@
+package br.com.pereiraeng.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Série temporal em colunas: os instantes são guardados em um vetor ordenado de
+ * inteiros de {@link TimeUtils#toInt(Calendar)} (segundos) e os valores em
+ * vetores primitivos paralelos, um por coluna (<code>double</code>,
+ * <code>float</code> ou <code>int</code>).
+ *
+ * Uma série com uma coluna de <code>double</code> ocupa 12 bytes por ponto,
+ * contra mais de 100 bytes de um <code>TreeMap&lt;Calendar, Double&gt;</code>.
+ * Os pontos são acrescentados em ordem (com custo amortizado constante) e os
+ * intervalos são obtidos por busca binária.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public final class TimeSeries {
+
+	/**
+	 * Tipo de uma coluna
+	 */
+	public enum Type {
+		DOUBLE, FLOAT, INT
+	}
+
+	/**
+	 * Agregação dos valores de um período em {@link TimeSeries#downsample}
+	 */
+	public enum Aggregation {
+		MEAN, SUM, MIN, MAX, FIRST, LAST
+	}
+
+	/**
+	 * Identificador do formato binário de {@link #write(OutputStream)}
+	 */
+	private static final int MAGIC = 0x54534552; // "TSER"
+
+	/**
+	 * Número de elementos convertidos por vez na persistência
+	 */
+	private static final int CHUNK = 8192;
+
+	private final Type[] types;
+
+	private int size;
+
+	private int[] times;
+
+	/**
+	 * Colunas: <code>double[]</code>, <code>float[]</code> ou <code>int[]</code>,
+	 * conforme o tipo
+	 */
+	private final Object[] columns;
+
+	/**
+	 * Construtor
+	 *
+	 * @param types tipos das colunas
+	 */
+	public TimeSeries(Type... types) {
+		this(16, types);
+	}
+
+	/**
+	 * Construtor
+	 *
+	 * @param capacity número de pontos reservados
+	 * @param types    tipos das colunas
+	 */
+	public TimeSeries(int capacity, Type... types) {
+		this.types = types.clone();
+		this.times = new int[Math.max(capacity, 1)];
+		this.columns = new Object[types.length];
+		for (int c = 0; c < types.length; c++)
+			columns[c] = newColumn(types[c], times.length);
+	}
+
+	/**
+	 * Função que converte uma série em tabela de dispersão numa série com uma
+	 * coluna de <code>double</code>
+	 *
+	 * @param map série (os instantes são truncados no segundo)
+	 * @return série temporal
+	 */
+	public static TimeSeries of(Map<Calendar, ? extends Number> map) {
+		int n = map.size(), i = 0;
+		long[] keys = new long[n];
+		double[] values = new double[n];
+		for (Entry<Calendar, ? extends Number> e : map.entrySet()) {
+			keys[i] = (long) TimeUtils.toInt(e.getKey()) << 32 | i;
+			values[i++] = e.getValue().doubleValue();
+		}
+		// ordenação pelo instante (desnecessária para um SortedMap de Calendar)
+		Arrays.sort(keys);
+		TimeSeries out = new TimeSeries(n, Type.DOUBLE);
+		double[] col = (double[]) out.columns[0];
+		for (i = 0; i < n; i++) {
+			out.times[i] = (int) (keys[i] >> 32);
+			col[i] = values[(int) keys[i]];
+		}
+		out.size = n;
+		return out;
+	}
+
+	private static Object newColumn(Type type, int length) {
+		switch (type) {
+		case DOUBLE:
+			return new double[length];
+		case FLOAT:
+			return new float[length];
+		default:
+			return new int[length];
+		}
+	}
+
+	private static Object copyOf(Object column, int from, int to) {
+		if (column instanceof double[])
+			return Arrays.copyOfRange((double[]) column, from, to);
+		else if (column instanceof float[])
+			return Arrays.copyOfRange((float[]) column, from, to);
+		else
+			return Arrays.copyOfRange((int[]) column, from, to);
+	}
+
+	private void ensure(int n) {
+		if (n > times.length) {
+			int c = Math.max(n, times.length + (times.length >> 1));
+			times = Arrays.copyOf(times, c);
+			for (int k = 0; k < columns.length; k++)
+				columns[k] = copyOf(columns[k], 0, c);
+		}
+	}
+
+	/**
+	 * Número de pontos
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Número de colunas
+	 */
+	public int getColumnCount() {
+		return types.length;
+	}
+
+	public Type getType(int col) {
+		return types[col];
+	}
+
+	// -------------------------- ACRÉSCIMO --------------------------
+
+	/**
+	 * Função que acrescenta um ponto (com valores nulos) ao fim da série
+	 *
+	 * @param time instante, no inteiro de {@link TimeUtils#toInt(Calendar)}
+	 * @return índice do ponto
+	 * @throws IllegalArgumentException se o instante for anterior ao último
+	 */
+	public int append(int time) {
+		if (size > 0 && time < times[size - 1])
+			throw new IllegalArgumentException("Instante anterior ao último da série: " + time);
+		ensure(size + 1);
+		times[size] = time;
+		return size++;
+	}
+
+	/**
+	 * Função que acrescenta um ponto ao fim da série
+	 *
+	 * @param time   instante, no inteiro de {@link TimeUtils#toInt(Calendar)}
+	 * @param values valores de cada coluna (convertidos no tipo da coluna)
+	 * @return índice do ponto
+	 * @throws IllegalArgumentException se o instante for anterior ao último
+	 */
+	public int append(int time, double... values) {
+		int row = append(time);
+		for (int c = 0; c < values.length; c++)
+			set(row, c, values[c]);
+		return row;
+	}
+
+	/**
+	 * Função que acrescenta um ponto ao fim da série
+	 *
+	 * @param millis instante, em milissegundos desde 1970-01-01T00:00Z (truncado no
+	 *               segundo)
+	 * @param values valores de cada coluna (convertidos no tipo da coluna)
+	 * @return índice do ponto
+	 */
+	public int appendMillis(long millis, double... values) {
+		return append(TimeUtils.toInt(millis), values);
+	}
+
+	/**
+	 * Função que acrescenta um ponto ao fim da série
+	 *
+	 * @param c      instante (truncado no segundo)
+	 * @param values valores de cada coluna (convertidos no tipo da coluna)
+	 * @return índice do ponto
+	 */
+	public int append(Calendar c, double... values) {
+		return append(TimeUtils.toInt(c), values);
+	}
+
+	// -------------------------- ACESSO --------------------------
+
+	/**
+	 * Instante de um ponto, no inteiro de {@link TimeUtils#toInt(Calendar)}
+	 */
+	public int getTime(int row) {
+		return times[row];
+	}
+
+	/**
+	 * Instante de um ponto, em milissegundos desde 1970-01-01T00:00Z
+	 */
+	public long getMillis(int row) {
+		return TimeUtils.toLong(times[row]);
+	}
+
+	public Calendar getCalendar(int row) {
+		return TimeUtils.toCalendar(times[row]);
+	}
+
+	public double getDouble(int row, int col) {
+		Object c = columns[col];
+		if (c instanceof double[])
+			return ((double[]) c)[row];
+		else if (c instanceof float[])
+			return ((float[]) c)[row];
+		else
+			return ((int[]) c)[row];
+	}
+
+	public float getFloat(int row, int col) {
+		Object c = columns[col];
+		if (c instanceof float[])
+			return ((float[]) c)[row];
+		return (float) getDouble(row, col);
+	}
+
+	public int getInt(int row, int col) {
+		Object c = columns[col];
+		if (c instanceof int[])
+			return ((int[]) c)[row];
+		return (int) Math.round(getDouble(row, col));
+	}
+
+	/**
+	 * Função que altera o valor de um ponto
+	 *
+	 * @param row   índice do ponto
+	 * @param col   índice da coluna
+	 * @param value valor (arredondado nas colunas de inteiros)
+	 */
+	public void set(int row, int col, double value) {
+		if (row >= size)
+			throw new IndexOutOfBoundsException("Ponto inexistente: " + row);
+		Object c = columns[col];
+		if (c instanceof double[])
+			((double[]) c)[row] = value;
+		else if (c instanceof float[])
+			((float[]) c)[row] = (float) value;
+		else
+			((int[]) c)[row] = (int) Math.round(value);
+	}
+
+	/**
+	 * Instantes dos pontos (vetor interno, de comprimento maior ou igual ao número
+	 * de pontos, que não deve ser modificado)
+	 */
+	public int[] getTimes() {
+		return times;
+	}
+
+	/**
+	 * Coluna de <code>double</code> (vetor interno, de comprimento maior ou igual
+	 * ao número de pontos)
+	 *
+	 * @throws ClassCastException se a coluna for de outro tipo
+	 */
+	public double[] getDoubles(int col) {
+		return (double[]) columns[col];
+	}
+
+	/**
+	 * Coluna de <code>float</code> (vetor interno, de comprimento maior ou igual
+	 * ao número de pontos)
+	 *
+	 * @throws ClassCastException se a coluna for de outro tipo
+	 */
+	public float[] getFloats(int col) {
+		return (float[]) columns[col];
+	}
+
+	/**
+	 * Coluna de <code>int</code> (vetor interno, de comprimento maior ou igual ao
+	 * número de pontos)
+	 *
+	 * @throws ClassCastException se a coluna for de outro tipo
+	 */
+	public int[] getInts(int col) {
+		return (int[]) columns[col];
+	}
+
+	// -------------------------- INTERVALOS --------------------------
+
+	/**
+	 * Índice do primeiro ponto de instante maior ou igual a <code>time</code> (ou
+	 * o número de pontos, se não houver)
+	 */
+	public int lowerIndex(int time) {
+		int lo = 0, hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (times[mid] < time)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Índice do primeiro ponto de instante maior que <code>time</code> (ou o
+	 * número de pontos, se não houver)
+	 */
+	public int upperIndex(int time) {
+		int lo = 0, hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (times[mid] <= time)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Função que retorna os pontos de um intervalo de tempo
+	 *
+	 * @param from começo, no inteiro de {@link TimeUtils#toInt(Calendar)}
+	 * @param to   fim (inclusive)
+	 * @return cópia dos pontos do intervalo
+	 */
+	public TimeSeries slice(int from, int to) {
+		return copy(lowerIndex(from), Math.max(lowerIndex(from), upperIndex(to)));
+	}
+
+	/**
+	 * Função que retorna os pontos de um intervalo de tempo
+	 *
+	 * @param from começo, em milissegundos desde 1970-01-01T00:00Z
+	 * @param to   fim (inclusive)
+	 * @return cópia dos pontos do intervalo
+	 */
+	public TimeSeries sliceMillis(long from, long to) {
+		// o começo é arredondado para o segundo seguinte
+		return slice(TimeUtils.toInt(from + 999L), TimeUtils.toInt(to));
+	}
+
+	/**
+	 * Função que retorna os pontos de um intervalo de tempo
+	 *
+	 * @param from começo
+	 * @param to   fim (inclusive)
+	 * @return cópia dos pontos do intervalo
+	 */
+	public TimeSeries slice(Calendar from, Calendar to) {
+		return sliceMillis(from.getTimeInMillis(), to.getTimeInMillis());
+	}
+
+	/**
+	 * Função que copia os pontos de <code>[from, to[</code>
+	 */
+	private TimeSeries copy(int from, int to) {
+		TimeSeries out = new TimeSeries(to - from, types);
+		System.arraycopy(times, from, out.times, 0, to - from);
+		for (int c = 0; c < columns.length; c++)
+			out.columns[c] = copyOf(columns[c], from, Math.max(to, from + 1));
+		out.size = to - from;
+		return out;
+	}
+
+	// -------------------------- REAMOSTRAGEM --------------------------
+
+	/**
+	 * Função que agrega os pontos por período
+	 *
+	 * @param per  período: {@link Calendar#MINUTE} ou os de
+	 *             {@link PeriodBucketer#PeriodBucketer(int, ZoneOffsetTable)}
+	 * @param agg  agregação dos valores de cada período
+	 * @param zone fuso horário
+	 * @return série com um ponto por período não vazio, no instante do começo do
+	 *         período, com as mesmas colunas
+	 */
+	public TimeSeries downsample(int per, Aggregation agg, ZoneOffsetTable zone) {
+		int[] starts, offsets;
+		int n;
+		if (per == Calendar.MINUTE) {
+			// os inteiros de toInt estão alinhados com os minutos
+			starts = new int[size];
+			offsets = new int[size + 1];
+			n = 0;
+			for (int i = 0; i < size; i++) {
+				int m = Math.floorDiv(times[i], 60) * 60;
+				if (n == 0 || m != starts[n - 1]) {
+					starts[n] = m;
+					offsets[n++] = i;
+				}
+			}
+			offsets[n] = size;
+		} else {
+			long[] ms = new long[size];
+			for (int i = 0; i < size; i++)
+				ms[i] = TimeUtils.toLong(times[i]);
+			PeriodBucketer.Buckets b = new PeriodBucketer(per, zone).bucket(ms);
+			n = b.size();
+			starts = new int[n];
+			offsets = new int[n + 1];
+			for (int k = 0; k < n; k++) {
+				starts[k] = TimeUtils.toInt(b.start(k));
+				offsets[k] = b.from(k);
+			}
+			offsets[n] = size;
+		}
+
+		TimeSeries out = new TimeSeries(n, types);
+		System.arraycopy(starts, 0, out.times, 0, n);
+		out.size = n;
+		for (int c = 0; c < columns.length; c++)
+			for (int k = 0; k < n; k++)
+				out.set(k, c, aggregate(c, offsets[k], offsets[k + 1], agg));
+		return out;
+	}
+
+	private double aggregate(int col, int from, int to, Aggregation agg) {
+		switch (agg) {
+		case FIRST:
+			return getDouble(from, col);
+		case LAST:
+			return getDouble(to - 1, col);
+		default:
+			double sum = 0.0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for (int i = from; i < to; i++) {
+				double v = getDouble(i, col);
+				sum += v;
+				if (v < min)
+					min = v;
+				if (v > max)
+					max = v;
+			}
+			switch (agg) {
+			case SUM:
+				return sum;
+			case MIN:
+				return min;
+			case MAX:
+				return max;
+			default:
+				return sum / (to - from);
+			}
+		}
+	}
+
+	// -------------------------- PERSISTÊNCIA --------------------------
+
+	/**
+	 * Função que escreve a série em formato binário: identificador, número de
+	 * pontos, número e tipos das colunas, seguidos dos instantes e das colunas
+	 * (em ordem de bytes <i>big-endian</i>)
+	 *
+	 * @param os fluxo de saída (não é fechado)
+	 * @throws IOException se houver erro de escrita
+	 */
+	public void write(OutputStream os) throws IOException {
+		DataOutputStream out = new DataOutputStream(os);
+		out.writeInt(MAGIC);
+		out.writeInt(size);
+		out.writeInt(types.length);
+		for (Type t : types)
+			out.writeByte(t.ordinal());
+		byte[] buf = new byte[8 * CHUNK];
+		writeInts(out, times, buf);
+		for (Object c : columns) {
+			if (c instanceof double[]) {
+				double[] v = (double[]) c;
+				for (int i = 0; i < size; i += CHUNK) {
+					int n = Math.min(CHUNK, size - i);
+					BinaryUtils.doubles2bytes(v, i, buf, 0, n, ByteOrder.BIG_ENDIAN);
+					out.write(buf, 0, 8 * n);
+				}
+			} else if (c instanceof float[]) {
+				float[] v = (float[]) c;
+				for (int i = 0; i < size; i += CHUNK) {
+					int n = Math.min(CHUNK, size - i);
+					BinaryUtils.floats2bytes(v, i, buf, 0, n, ByteOrder.BIG_ENDIAN);
+					out.write(buf, 0, 4 * n);
+				}
+			} else
+				writeInts(out, (int[]) c, buf);
+		}
+		out.flush();
+	}
+
+	private void writeInts(DataOutputStream out, int[] v, byte[] buf) throws IOException {
+		for (int i = 0; i < size; i += CHUNK) {
+			int n = Math.min(CHUNK, size - i);
+			BinaryUtils.ints2bytes(v, i, buf, 0, n, ByteOrder.BIG_ENDIAN);
+			out.write(buf, 0, 4 * n);
+		}
+	}
+
+	/**
+	 * Função que lê uma série escrita por {@link #write(OutputStream)}
+	 *
+	 * @param is fluxo de entrada (não é fechado)
+	 * @return série temporal
+	 * @throws IOException se houver erro de leitura ou o formato for inválido
+	 */
+	public static TimeSeries read(InputStream is) throws IOException {
+		DataInputStream in = new DataInputStream(is);
+		if (in.readInt() != MAGIC)
+			throw new IOException("Formato de série temporal inválido");
+		int size = in.readInt(), nc = in.readInt();
+		if (size < 0 || nc < 0)
+			throw new IOException("Formato de série temporal inválido");
+		Type[] types = new Type[nc];
+		for (int c = 0; c < nc; c++) {
+			int t = in.readUnsignedByte();
+			if (t >= Type.values().length)
+				throw new IOException("Tipo de coluna inválido: " + t);
+			types[c] = Type.values()[t];
+		}
+		TimeSeries out = new TimeSeries(size, types);
+		byte[] buf = new byte[8 * CHUNK];
+		readInts(in, out.times, size, buf);
+		for (Object c : out.columns) {
+			if (c instanceof double[]) {
+				double[] v = (double[]) c;
+				for (int i = 0; i < size; i += CHUNK) {
+					int n = Math.min(CHUNK, size - i);
+					in.readFully(buf, 0, 8 * n);
+					BinaryUtils.bytes2doubles(buf, 0, v, i, n, ByteOrder.BIG_ENDIAN);
+				}
+			} else if (c instanceof float[]) {
+				float[] v = (float[]) c;
+				for (int i = 0; i < size; i += CHUNK) {
+					int n = Math.min(CHUNK, size - i);
+					in.readFully(buf, 0, 4 * n);
+					BinaryUtils.bytes2floats(buf, 0, v, i, n, ByteOrder.BIG_ENDIAN);
+				}
+			} else
+				readInts(in, (int[]) c, size, buf);
+		}
+		out.size = size;
+		return out;
+	}
+
+	private static void readInts(DataInputStream in, int[] v, int size, byte[] buf) throws IOException {
+		for (int i = 0; i < size; i += CHUNK) {
+			int n = Math.min(CHUNK, size - i);
+			in.readFully(buf, 0, 4 * n);
+			BinaryUtils.bytes2ints(buf, 0, v, i, n, ByteOrder.BIG_ENDIAN);
+		}
+	}
+}
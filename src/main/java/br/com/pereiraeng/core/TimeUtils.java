@@ -8,7 +8,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Time;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
@@ -19,16 +29,24 @@ import java.util.Locale;
 import java.util.SortedSet;
 import java.util.TimeZone;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JList;
 
 import br.com.pereiraeng.core.collections.SetUtils;
+import br.com.pereiraeng.core.collections.set.IntervalTree;
 
 public class TimeUtils {
 
 	public static final String ISO8601_STR = "yyyy-MM-dd'T'HH:mm:ss";
 
+	/**
+	 * @deprecated {@link SimpleDateFormat} não pode ser compartilhado entre
+	 *             <i>threads</i>; utilizar {@link #getFormatter(String, Locale)
+	 *             getFormatter(ISO8601_STR, null)} ou {@link #iso2millis(CharSequence)}
+	 */
+	@Deprecated
 	public static final SimpleDateFormat ISO8601 = new SimpleDateFormat(ISO8601_STR);
 
 	public static final String ISO8601_SSS_STR = ISO8601_STR + ".SSS";
@@ -565,6 +583,7 @@ public class TimeUtils {
 	 * @param prefix padrão GLOB do prefixo do nome do arquivo
 	 * @param suffix padrão GLOB do sufixo do nome do arquivo
 	 * @return vetor com duas posições, indicando o instante inicial e final
+	 * @see DatedFileCatalog
 	 */
 	public static Calendar[] getPeriod(String folder, String prefix, String suffix) {
 		Path dir = FileSystems.getDefault().getPath(folder);
@@ -629,47 +648,25 @@ public class TimeUtils {
 	 * 
 	 * @param c
 	 * @return
+	 * @see HolidayCalendar#national()
 	 */
 	public static boolean isFeriadoNacional(Calendar c) {
-		int d = c.get(Calendar.DAY_OF_MONTH), m = c.get(Calendar.MONTH);
-		if (d == 1 && m == Calendar.JANUARY) // Confraternização universal
-			return true;
-		else if (d == 21 && m == Calendar.APRIL) // Tiradentes
-			return true;
-		else if (d == 1 && m == Calendar.MAY) // Dia do trabalho
-			return true;
-		else if (d == 7 && m == Calendar.SEPTEMBER) // independência
-			return true;
-		else if (d == 12 && m == Calendar.OCTOBER) // Aparecida
-			return true;
-		else if (m == Calendar.NOVEMBER) // Finados ou Proclamação da república
-			return d == 2 || d == 15;
-		else if (d == 25 && m == Calendar.DECEMBER) // Natal
-			return true;
-		else {
-			// páscoa
-			Calendar e = getPascoa(c.get(Calendar.YEAR));
-
-			// Terça-feira de carnaval
-			e.add(Calendar.DAY_OF_MONTH, -47);
-			if (e.get(Calendar.DAY_OF_MONTH) == d && e.get(Calendar.MONTH) == m)
-				return true;
-
-			// Sexta-feira da Paixão
-			e.add(Calendar.DAY_OF_MONTH, 45);
-			if (e.get(Calendar.DAY_OF_MONTH) == d && e.get(Calendar.MONTH) == m)
-				return true;
-
-			// Quinta de Corpus Christi
-			e.add(Calendar.DAY_OF_MONTH, 62);
-			if (e.get(Calendar.DAY_OF_MONTH) == d && e.get(Calendar.MONTH) == m)
-				return true;
-
-			return false;
-		}
+		return HolidayCalendar.national().isHoliday(
+				epochDay(c.get(Calendar.YEAR), c.get(Calendar.MONTH) + 1, c.get(Calendar.DAY_OF_MONTH)));
 	}
 
 	public static Calendar getPascoa(int y) {
+		long c = civil(easterDay(y));
+		return new GregorianCalendar(y, month(c) - 1, day(c));
+	}
+
+	/**
+	 * Função que retorna o domingo de Páscoa de um ano
+	 * 
+	 * @param y ano
+	 * @return número de dias entre 1970-01-01 e o domingo de Páscoa
+	 */
+	static long easterDay(int y) {
 		int a = y % 19;
 		int b = y / 100;
 		int c = y % 100;
@@ -685,7 +682,7 @@ public class TimeUtils {
 		int mes = (h + l - 7 * m + 114) / 31;
 		int dia = ((h + l - 7 * m + 114) % 31) + 1;
 
-		return new GregorianCalendar(y, mes - 1, dia);
+		return epochDay(y, mes, dia);
 	}
 
 	public static Calendar getSabadoCarnaval(int y) {
@@ -774,6 +771,60 @@ public class TimeUtils {
 		return convertCalendarIntoRange(per, ints2times(per, is));
 	}
 
+	/**
+	 * Função que determina os intervalos de tempo representados por instantes
+	 * ordenados, em uma única passagem (ver {@link PeriodBucketer}). É a
+	 * equivalente de {@link #convertCalendarIntoRange(int, Calendar...)}.
+	 * 
+	 * @param per  {@link Calendar#HOUR_OF_DAY}, {@link Calendar#DAY_OF_MONTH},
+	 *             {@link Calendar#WEEK_OF_MONTH}, {@link Calendar#MONTH} ou
+	 *             {@link Calendar#YEAR}
+	 * @param zone fuso horário
+	 * @param ts   instantes, em milissegundos desde 1970-01-01T00:00Z, em ordem
+	 *             crescente
+	 * @return períodos de tempo, definidos por uma matriz de duas colunas (começo
+	 *         e último minuto de cada intervalo)
+	 */
+	public static long[][] convertIntoRange(int per, ZoneOffsetTable zone, long... ts) {
+		return new PeriodBucketer(per, zone).bucket(ts).ranges();
+	}
+
+	/**
+	 * Função que determina os intervalos de tempo representados por inteiros
+	 * ordenados. É a equivalente de {@link #convertIntsIntoRange(int, int...)}.
+	 * 
+	 * @param per  {@link Calendar#DAY_OF_MONTH} (inteiros de
+	 *             {@link #date2int(long, ZoneOffsetTable)}), {@link Calendar#MONTH}
+	 *             (inteiros de {@link #month2int(int, int)}) ou
+	 *             {@link Calendar#YEAR} (anos)
+	 * @param zone fuso horário
+	 * @param is   inteiros, em ordem crescente
+	 * @return períodos de tempo, definidos por uma matriz de duas colunas (começo
+	 *         e último minuto de cada intervalo)
+	 */
+	public static long[][] convertIntsIntoRange(int per, ZoneOffsetTable zone, int... is) {
+		long[] ts = new long[is.length];
+		for (int k = 0; k < is.length; k++) {
+			int i = is[k];
+			long day;
+			switch (per) {
+			case Calendar.DAY_OF_MONTH:
+				day = i;
+				break;
+			case Calendar.MONTH:
+				day = epochDay(2013 + Math.floorDiv(i, 12), Math.floorMod(i, 12) + 1, 1);
+				break;
+			case Calendar.YEAR:
+				day = epochDay(i, 1, 1);
+				break;
+			default:
+				throw new IllegalArgumentException("Período inválido: " + per);
+			}
+			ts[k] = zone.toUtc(day * DAY_MILLI);
+		}
+		return convertIntoRange(per, zone, ts);
+	}
+
 	// ------------------------ CONVERSÃO TEMPO-INTEIRO ------------------------
 
 	/**
@@ -879,10 +930,29 @@ public class TimeUtils {
 		return toInt(d.getTime());
 	}
 
-	private static int toInt(long mili) {
+	/**
+	 * Função que converte um instante no inteiro de {@link #toInt(Calendar)}
+	 * 
+	 * @param mili instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @return inteiro equivalente
+	 */
+	public static int toInt(long mili) {
 		return (int) (mili / SEC_MILLI) - ISTART;
 	}
 
+	/**
+	 * Função que converte em lote instantes nos inteiros de
+	 * {@link #toInt(Calendar)}
+	 * 
+	 * @param in  instantes, em milissegundos desde 1970-01-01T00:00Z
+	 * @param out inteiros equivalentes (de comprimento maior ou igual ao da
+	 *            entrada)
+	 */
+	public static void toInt(long[] in, int[] out) {
+		for (int i = 0; i < in.length; i++)
+			out[i] = (int) (in[i] / SEC_MILLI) - ISTART;
+	}
+
 	// inteiro -> tempo
 
 	/**
@@ -900,7 +970,13 @@ public class TimeUtils {
 		return out;
 	}
 
-	private static long toLong(int ic) {
+	/**
+	 * Função que converte um inteiro de {@link #toInt(Calendar)} em instante
+	 * 
+	 * @param ic inteiro a ser convertido
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z
+	 */
+	public static long toLong(int ic) {
 		return SEC_MILLI * (ISTART + ((long) ic));
 	}
 
@@ -1055,6 +1131,403 @@ public class TimeUtils {
 		return out;
 	}
 
+	// ============ Funções sobre instantes (milissegundos desde 1970) ============
+
+	/*
+	 * Equivalentes das funções acima que recebem objetos Calendar, para instantes
+	 * em milissegundos desde 1970-01-01T00:00Z e um fuso horário dado pela sua
+	 * ZoneOffsetTable. Os campos locais (ano, mês e dia) são obtidos por
+	 * aritmética sobre o calendário gregoriano proléptico, sem a criação de
+	 * objetos.
+	 */
+
+	/**
+	 * Função que retorna o dia local de um instante
+	 * 
+	 * @param epochMillis instante
+	 * @param zone        fuso horário
+	 * @return número de dias entre 1970-01-01 e o dia local
+	 */
+	private static long localDay(long epochMillis, ZoneOffsetTable zone) {
+		return Math.floorDiv(zone.toLocal(epochMillis), DAY_MILLI);
+	}
+
+	/**
+	 * Função que decompõe um dia (número de dias desde 1970-01-01) em ano, mês
+	 * (de 1 a 12) e dia do mês, agrupados em um inteiro: <code>ano &lt;&lt; 9 |
+	 * mês &lt;&lt; 5 | dia</code>
+	 */
+	private static long civil(long epochDay) {
+		long z = epochDay + 719468;
+		long era = Math.floorDiv(z, 146097);
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		long d = doy - (153 * mp + 2) / 5 + 1;
+		long m = mp < 10 ? mp + 3 : mp - 9;
+		long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+		return y << 9 | m << 5 | d;
+	}
+
+	/**
+	 * Ano de um dia (número de dias desde 1970-01-01)
+	 */
+	static int yearOf(long epochDay) {
+		return year(civil(epochDay));
+	}
+
+	private static int year(long civil) {
+		return (int) (civil >> 9);
+	}
+
+	private static int month(long civil) {
+		return (int) (civil >> 5) & 15;
+	}
+
+	private static int day(long civil) {
+		return (int) civil & 31;
+	}
+
+	/**
+	 * Dia da semana de um dia (número de dias desde 1970-01-01), de
+	 * {@link Calendar#SUNDAY} (1) a {@link Calendar#SATURDAY} (7)
+	 */
+	static int dayOfWeek(long epochDay) {
+		// 1970-01-01 foi uma quinta-feira
+		return (int) Math.floorMod(epochDay + 4, 7) + 1;
+	}
+
+	/**
+	 * Função que converte um instante no número de dias entre 1970-01-01 e o dia
+	 * local. É a equivalente de {@link #date2int(Calendar)}, com a diferença de
+	 * que os dias anteriores a 1970 são também contados corretamente.
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param zone        fuso horário
+	 * @return inteiro equivalente
+	 */
+	public static int date2int(long epochMillis, ZoneOffsetTable zone) {
+		return (int) localDay(epochMillis, zone);
+	}
+
+	/**
+	 * Função que converte um instante no número de dias entre 1970-01-01 e o dia
+	 * local, no fuso padrão (ver {@link #date2int(long, ZoneOffsetTable)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @return inteiro equivalente
+	 */
+	public static int date2int(long epochMillis) {
+		return date2int(epochMillis, ZoneOffsetTable.systemDefault());
+	}
+
+	/**
+	 * Função que converte em lote instantes em dias (ver
+	 * {@link #date2int(long, ZoneOffsetTable)}). O deslocamento do fuso é mantido
+	 * entre duas transições, de modo que, para instantes ordenados, o custo por
+	 * elemento é o de uma soma e uma divisão.
+	 * 
+	 * @param in   instantes, em milissegundos desde 1970-01-01T00:00Z
+	 * @param out  dias (de comprimento maior ou igual ao da entrada)
+	 * @param zone fuso horário
+	 */
+	public static void date2int(long[] in, int[] out, ZoneOffsetTable zone) {
+		long from = 1L, until = 0L;
+		int offset = 0;
+		for (int i = 0; i < in.length; i++) {
+			long ms = in[i];
+			if (ms < from || ms >= until) {
+				offset = zone.getOffset(ms);
+				from = zone.previousTransition(ms);
+				until = from == Long.MIN_VALUE ? Long.MIN_VALUE : zone.nextTransition(ms);
+			}
+			out[i] = (int) Math.floorDiv(ms + offset, DAY_MILLI);
+		}
+	}
+
+	/**
+	 * Função que converte em lote instantes em dias, no fuso padrão (ver
+	 * {@link #date2int(long[], int[], ZoneOffsetTable)})
+	 * 
+	 * @param in  instantes, em milissegundos desde 1970-01-01T00:00Z
+	 * @param out dias (de comprimento maior ou igual ao da entrada)
+	 */
+	public static void date2int(long[] in, int[] out) {
+		date2int(in, out, ZoneOffsetTable.systemDefault());
+	}
+
+	/**
+	 * Função que converte um dia (número de dias desde 1970-01-01) no instante do
+	 * seu começo (0h00 local)
+	 * 
+	 * @param i    dia
+	 * @param zone fuso horário
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z
+	 */
+	public static long int2millis(int i, ZoneOffsetTable zone) {
+		return zone.toUtc(i * DAY_MILLI);
+	}
+
+	/**
+	 * Função que converte um instante no inteiro representativo do seu mês local
+	 * (ver {@link #month2int(int, int)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param zone        fuso horário
+	 * @return inteiro que representa o mês
+	 */
+	public static int month2int(long epochMillis, ZoneOffsetTable zone) {
+		long c = civil(localDay(epochMillis, zone));
+		return month2int(year(c), month(c) - 1);
+	}
+
+	/**
+	 * Função que converte em lote instantes nos inteiros representativos dos seus
+	 * meses locais (ver {@link #month2int(int, int)})
+	 * 
+	 * @param in   instantes, em milissegundos desde 1970-01-01T00:00Z
+	 * @param out  meses (de comprimento maior ou igual ao da entrada)
+	 * @param zone fuso horário
+	 */
+	public static void month2int(long[] in, int[] out, ZoneOffsetTable zone) {
+		date2int(in, out, zone);
+		// os dias consecutivos de um mesmo mês não são decompostos novamente
+		long first = 1L, last = 0L;
+		int m = 0;
+		for (int i = 0; i < in.length; i++) {
+			int d = out[i];
+			if (d < first || d > last) {
+				long c = civil(d);
+				m = month2int(year(c), month(c) - 1);
+				first = d - day(c) + 1;
+				last = first + lengthOfMonth(year(c), month(c)) - 1;
+			}
+			out[i] = m;
+		}
+	}
+
+	/**
+	 * Função que converte um instante no número da sua semana local (ver
+	 * {@link #week2int(Calendar)}). As semanas começam no domingo e a primeira
+	 * semana do ano é a que contém o dia 1 de janeiro, como nos parâmetros locais
+	 * do Brasil.
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param zone        fuso horário
+	 * @return número da semana
+	 */
+	public static int week2int(long epochMillis, ZoneOffsetTable zone) {
+		return week2int(localDay(epochMillis, zone));
+	}
+
+	/**
+	 * Função que converte em lote instantes nos números das suas semanas locais
+	 * (ver {@link #week2int(long, ZoneOffsetTable)})
+	 * 
+	 * @param in   instantes, em milissegundos desde 1970-01-01T00:00Z
+	 * @param out  semanas (de comprimento maior ou igual ao da entrada)
+	 * @param zone fuso horário
+	 */
+	public static void week2int(long[] in, int[] out, ZoneOffsetTable zone) {
+		date2int(in, out, zone);
+		for (int i = 0; i < in.length; i++)
+			out[i] = week2int(out[i]);
+	}
+
+	private static int week2int(long epochDay) {
+		long c = civil(epochDay);
+		int year = year(c);
+		long jan1 = epochDay(year, 1, 1);
+		// semana do ano (a semana 1 contém o dia 1 de janeiro)
+		int week = (int) ((epochDay - jan1 + dayOfWeek(jan1) - 1) / 7) + 1;
+		if (month(c) == 12) {
+			// a última semana de dezembro pode ser a semana 1 do ano seguinte
+			long sunday = epochDay - dayOfWeek(epochDay) + 1;
+			if (sunday + 6 >= epochDay(year + 1, 1, 1))
+				return 52 * (year - 2019);
+		}
+		return week - 1 + 52 * (year - 2020);
+	}
+
+	/**
+	 * Função que avalia se dois instantes estão no mesmo dia local
+	 * 
+	 * @param t1   um instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param t2   outro instante
+	 * @param zone fuso horário
+	 * @return <code>true</code> se for o mesmo dia, <code>false</code> senão
+	 */
+	public static boolean isSameDay(long t1, long t2, ZoneOffsetTable zone) {
+		return localDay(t1, zone) == localDay(t2, zone);
+	}
+
+	/**
+	 * Função que retorna o limite inferior do período de tempo que envolve um
+	 * instante (ver {@link #getLowerBoundary(Calendar, int)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param per         {@link Calendar#YEAR}, {@link Calendar#MONTH},
+	 *                    {@link Calendar#WEEK_OF_MONTH} ou
+	 *                    {@link Calendar#DAY_OF_MONTH}
+	 * @param zone        fuso horário
+	 * @return começo (0h00 local) do período; como no {@link Calendar}, 0h00
+	 *         ambíguo (no fim do horário de verão) é associado ao segundo instante
+	 *         e 0h00 inexistente (no início do horário de verão) é avançado da
+	 *         duração da transição. Ao contrário do {@link Calendar}, que desloca
+	 *         0h00 do dia do instante até o domingo mantendo o horário local
+	 *         resultante, o começo da semana é sempre 0h00 do domingo (os
+	 *         resultados diferem se 0h00 não existir no dia do instante).
+	 */
+	public static long getLowerBoundary(long epochMillis, int per, ZoneOffsetTable zone) {
+		return zone.toUtc(lowerDay(localDay(epochMillis, zone), per) * DAY_MILLI, true);
+	}
+
+	/**
+	 * Primeiro dia do período que contém um dia
+	 */
+	static long lowerDay(long epochDay, int per) {
+		switch (per) {
+		case Calendar.YEAR:
+			return epochDay(year(civil(epochDay)), 1, 1);
+		case Calendar.MONTH:
+			return epochDay - day(civil(epochDay)) + 1;
+		case Calendar.WEEK_OF_MONTH:
+			return epochDay - dayOfWeek(epochDay) + 1;
+		default:
+			return epochDay;
+		}
+	}
+
+	/**
+	 * Primeiro dia do período seguinte ao que começa em um dia
+	 */
+	static long nextDay(long lowerDay, int per) {
+		switch (per) {
+		case Calendar.YEAR:
+			return epochDay(year(civil(lowerDay)) + 1, 1, 1);
+		case Calendar.MONTH: {
+			long c = civil(lowerDay);
+			return lowerDay + lengthOfMonth(year(c), month(c));
+		}
+		case Calendar.WEEK_OF_MONTH:
+		case Calendar.WEEK_OF_YEAR:
+			return lowerDay + 7;
+		case Calendar.DAY_OF_MONTH:
+		case Calendar.DAY_OF_YEAR:
+		case Calendar.DAY_OF_WEEK:
+			return lowerDay + 1;
+		default:
+			throw new IllegalArgumentException("Período inválido: " + per);
+		}
+	}
+
+	/**
+	 * Função que retorna o limite superior do período de tempo que envolve um
+	 * instante (ver {@link #getUpperBoundary(Calendar, int)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param per         {@link Calendar#YEAR}, {@link Calendar#MONTH},
+	 *                    {@link Calendar#WEEK_OF_MONTH} ou
+	 *                    {@link Calendar#DAY_OF_MONTH}
+	 * @param zone        fuso horário
+	 * @return 23h59 local do último dia do período; como no {@link Calendar},
+	 *         23h59 ambíguo (no fim do horário de verão) é associado ao segundo
+	 *         instante e 23h59 inexistente (no início do horário de verão) é
+	 *         avançado da duração da transição. Ao contrário do {@link Calendar},
+	 *         que desloca 23h59 do dia do instante até o sábado mantendo o horário
+	 *         local resultante, o fim da semana é sempre 23h59 do sábado (os
+	 *         resultados diferem se houver uma transição do horário de verão entre
+	 *         os dois dias).
+	 */
+	public static long getUpperBoundary(long epochMillis, int per, ZoneOffsetTable zone) {
+		long lower = lowerDay(localDay(epochMillis, zone), per);
+		long last = per == Calendar.YEAR || per == Calendar.MONTH || per == Calendar.WEEK_OF_MONTH
+				? nextDay(lower, per) - 1
+				: lower;
+		return zone.toUtc((last + 1) * DAY_MILLI - 60_000L, true);
+	}
+
+	/**
+	 * Função que retorna o período de tempo que envolve um instante (ver
+	 * {@link #getRange(Calendar, int)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param per         {@link Calendar#YEAR}, {@link Calendar#MONTH},
+	 *                    {@link Calendar#WEEK_OF_MONTH} ou
+	 *                    {@link Calendar#DAY_OF_MONTH}
+	 * @param zone        fuso horário
+	 * @return vetor com duas posições com o começo do período e o último minuto do
+	 *         período (um minuto antes do começo do período seguinte, mesmo que o
+	 *         começo deste período não exista no horário local)
+	 */
+	public static long[] getRange(long epochMillis, int per, ZoneOffsetTable zone) {
+		long lower = lowerDay(localDay(epochMillis, zone), per);
+		return new long[] { zone.toUtc(lower * DAY_MILLI), zone.toUtc(nextDay(lower, per) * DAY_MILLI) - 60_000L };
+	}
+
+	/**
+	 * Função que retorna os limites do dia local de um instante (ver
+	 * {@link #getRange(long, int, ZoneOffsetTable)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param zone        fuso horário
+	 * @return um vetor com duas posições com o começo e final do dia
+	 */
+	public static long[] getDayRange(long epochMillis, ZoneOffsetTable zone) {
+		return getRange(epochMillis, Calendar.DAY_OF_MONTH, zone);
+	}
+
+	/**
+	 * Função que retorna os limites do mês local de um instante (ver
+	 * {@link #getRange(long, int, ZoneOffsetTable)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param zone        fuso horário
+	 * @return um vetor com duas posições com o começo e final do mês
+	 */
+	public static long[] getMonthRange(long epochMillis, ZoneOffsetTable zone) {
+		return getRange(epochMillis, Calendar.MONTH, zone);
+	}
+
+	/**
+	 * Função que retorna os limites do ano local de um instante (ver
+	 * {@link #getRange(long, int, ZoneOffsetTable)})
+	 * 
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @param zone        fuso horário
+	 * @return um vetor com duas posições com o começo e final do ano
+	 */
+	public static long[] getYearRange(long epochMillis, ZoneOffsetTable zone) {
+		return getRange(epochMillis, Calendar.YEAR, zone);
+	}
+
+	/**
+	 * Função que converte em lote instantes nos começos (0h00 local) dos períodos
+	 * que os envolvem (ver {@link #getLowerBoundary(long, int, ZoneOffsetTable)})
+	 * 
+	 * @param in   instantes, em milissegundos desde 1970-01-01T00:00Z
+	 * @param per  {@link Calendar#YEAR}, {@link Calendar#MONTH},
+	 *             {@link Calendar#WEEK_OF_MONTH} ou {@link Calendar#DAY_OF_MONTH}
+	 * @param out  começos dos períodos (de comprimento maior ou igual ao da
+	 *             entrada)
+	 * @param zone fuso horário
+	 */
+	public static void getLowerBoundary(long[] in, int per, long[] out, ZoneOffsetTable zone) {
+		// os instantes de um mesmo período não são recalculados
+		long from = 1L, until = 0L, lower = 0L;
+		for (int i = 0; i < in.length; i++) {
+			long ms = in[i];
+			if (ms < from || ms >= until) {
+				long d = lowerDay(localDay(ms, zone), per);
+				from = zone.toUtc(d * DAY_MILLI);
+				until = zone.toUtc(nextDay(d, per) * DAY_MILLI);
+				lower = zone.toUtc(d * DAY_MILLI, true);
+			}
+			out[i] = lower;
+		}
+	}
+
 	// ==================== Funções de fusos horários ====================
 
 	private static int otan2tzShift(char l) {
@@ -1206,18 +1679,332 @@ public class TimeUtils {
 	 * @return objeto {@link Date}
 	 */
 	public static Date string2Date(String str, String format, Locale locale) {
-		SimpleDateFormat dateFormat = null;
-		if (locale == null)
-			dateFormat = new SimpleDateFormat(format);
-		else
-			dateFormat = new SimpleDateFormat(format, locale);
-		Date out = null;
 		try {
-			out = dateFormat.parse(str);
-		} catch (ParseException e) {
+			return new Date(string2millis(str, format, locale));
+		} catch (DateTimeParseException e) {
 			e.printStackTrace();
+			return null;
 		}
-		return out;
+	}
+
+	/**
+	 * Função que converte uma sequência de caracteres que obdece a um dado formato
+	 * no instante correspondente, utilizando um formatador da
+	 * {@link #getFormatter(String, Locale) cache}. Os campos ausentes do formato
+	 * assumem os valores de 1970-01-01T00:00:00.000 e o horário é o do fuso
+	 * padrão, exceto se o formato incluir um fuso. Como em
+	 * {@link SimpleDateFormat}, um horário ambíguo (no fim do horário de verão) é
+	 * associado ao segundo instante e os milissegundos (<code>SSS</code>) são lidos
+	 * como um número (".5" é 5 ms, e não meio segundo).
+	 * 
+	 * Casos que o formatador não resolve (e.g., texto fora do intervalo de um
+	 * campo, aceito pela leitura tolerante de {@link SimpleDateFormat}) são
+	 * repassados a um {@link SimpleDateFormat}.
+	 * 
+	 * @param str    data num dado formato
+	 * @param format formato a ser seguido (ver {@link SimpleDateFormat})
+	 * @param locale parâmetros locais (<code>null</code> para os da máquina)
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @throws DateTimeParseException se a sequência não obdecer ao formato
+	 */
+	public static long string2millis(String str, String format, Locale locale) {
+		DateTimeFormatter f = getFormatter(format, locale);
+		if (f != null) {
+			try {
+				ParsePosition pp = new ParsePosition(0);
+				TemporalAccessor ta = f.parse(str, pp);
+				// campo numérico mais longo que o do formato (e.g., milissegundos com mais
+				// de três dígitos): lido por inteiro somente por SimpleDateFormat
+				if (pp.getIndex() < str.length() && Character.isDigit(str.charAt(pp.getIndex())))
+					throw new DateTimeParseException("Campo numérico excedente", str, pp.getIndex());
+				if (ta.isSupported(ChronoField.INSTANT_SECONDS))
+					return ta.getLong(ChronoField.INSTANT_SECONDS) * SEC_MILLI
+							+ (ta.isSupported(ChronoField.MILLI_OF_SECOND) ? ta.get(ChronoField.MILLI_OF_SECOND) : 0);
+				LocalDate date = ta.query(TemporalQueries.localDate());
+				LocalTime time = ta.query(TemporalQueries.localTime());
+				boolean partialDate = date == null && (ta.isSupported(ChronoField.YEAR_OF_ERA)
+						|| ta.isSupported(ChronoField.YEAR) || ta.isSupported(ChronoField.MONTH_OF_YEAR));
+				boolean partialTime = time == null && (ta.isSupported(ChronoField.HOUR_OF_AMPM)
+						|| ta.isSupported(ChronoField.CLOCK_HOUR_OF_AMPM));
+				if (!partialDate && !partialTime) {
+					long local = (date == null ? 0L : date.toEpochDay() * DAY_MILLI)
+							+ (time == null ? 0L : time.toNanoOfDay() / 1000000L);
+					// horário ambíguo: o segundo instante, como em SimpleDateFormat
+					return ZoneOffsetTable.systemDefault().toUtc(local, true);
+				}
+			} catch (DateTimeParseException e) {
+				// ver abaixo
+			}
+		}
+		// leitura tolerante
+		SimpleDateFormat sdf = locale == null ? new SimpleDateFormat(format) : new SimpleDateFormat(format, locale);
+		try {
+			return sdf.parse(str).getTime();
+		} catch (ParseException e) {
+			throw new DateTimeParseException(e.getMessage(), str, e.getErrorOffset(), e);
+		}
+	}
+
+	/**
+	 * Formatadores imutáveis, por parâmetros locais e por formato
+	 */
+	private static final ConcurrentHashMap<Locale, ConcurrentHashMap<String, DateTimeFormatter>> FORMATTERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Formato sem equivalente em {@link DateTimeFormatter}
+	 */
+	private static final DateTimeFormatter UNSUPPORTED = DateTimeFormatter.ISO_INSTANT;
+
+	/**
+	 * Função que retorna o formatador (imutável e, portanto, seguro para o uso
+	 * concorrente) de um formato, criado na primeira chamada com o par formato e
+	 * parâmetros locais.
+	 * 
+	 * Os formatos seguem a sintaxe de {@link SimpleDateFormat}. A leitura é
+	 * tolerante, como a de {@link SimpleDateFormat}: maiúsculas e minúsculas não
+	 * são distinguidas e os campos fora dos seus intervalos são propagados (e.g.,
+	 * 30 de fevereiro é 1 ou 2 de março).
+	 * 
+	 * @param format formato (ver {@link SimpleDateFormat})
+	 * @param locale parâmetros locais (<code>null</code> para os da máquina)
+	 * @return formatador, ou <code>null</code> se o formato não tiver equivalente
+	 *         exato em {@link DateTimeFormatter} (anos de dois dígitos, frações
+	 *         de segundo que não sejam de três dígitos, letras <code>u</code> e
+	 *         <code>F</code>)
+	 */
+	public static DateTimeFormatter getFormatter(String format, Locale locale) {
+		Locale l = locale == null ? Locale.getDefault(Locale.Category.FORMAT) : locale;
+		ConcurrentHashMap<String, DateTimeFormatter> byFormat = FORMATTERS.get(l);
+		if (byFormat == null)
+			byFormat = FORMATTERS.computeIfAbsent(l, k -> new ConcurrentHashMap<>());
+		DateTimeFormatter f = byFormat.get(format);
+		if (f == null)
+			f = byFormat.computeIfAbsent(format, k -> {
+				if (!isJavaTimeCompatible(k))
+					return UNSUPPORTED;
+				try {
+					DateTimeFormatterBuilder b = new DateTimeFormatterBuilder().parseCaseInsensitive().parseLenient();
+					appendPattern(b, k);
+					return b.toFormatter(l).withResolverStyle(ResolverStyle.LENIENT);
+				} catch (IllegalArgumentException e) {
+					return UNSUPPORTED;
+				}
+			});
+		return f == UNSUPPORTED ? null : f;
+	}
+
+	/**
+	 * Função que acrescenta um formato a um formatador. Os milissegundos
+	 * (<code>SSS</code>), que {@link DateTimeFormatter} lê como fração de segundo,
+	 * são lidos como um número de três dígitos, como em {@link SimpleDateFormat}
+	 * (as sequências com outro número de dígitos são repassadas a
+	 * {@link SimpleDateFormat} por {@link #string2millis(String, String, Locale)})
+	 */
+	private static void appendPattern(DateTimeFormatterBuilder b, String format) {
+		boolean quoted = false;
+		int from = 0;
+		for (int i = 0; i < format.length();) {
+			char c = format.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+				i++;
+				continue;
+			}
+			int j = i + 1;
+			while (j < format.length() && format.charAt(j) == c)
+				j++;
+			if (!quoted && c == 'S') {
+				if (i > from)
+					b.appendPattern(format.substring(from, i));
+				b.appendValue(ChronoField.MILLI_OF_SECOND, j - i);
+				from = j;
+			}
+			i = j;
+		}
+		if (from < format.length())
+			b.appendPattern(format.substring(from));
+	}
+
+	/**
+	 * Se as letras de um formato têm o mesmo significado em
+	 * {@link SimpleDateFormat} e em {@link DateTimeFormatter}
+	 */
+	private static boolean isJavaTimeCompatible(String format) {
+		boolean quoted = false;
+		for (int i = 0; i < format.length();) {
+			char c = format.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+				i++;
+				continue;
+			}
+			int j = i + 1;
+			while (j < format.length() && format.charAt(j) == c)
+				j++;
+			if (!quoted) {
+				int run = j - i;
+				// 'u' é o dia da semana em SimpleDateFormat, e o ano em DateTimeFormatter
+				if (c == 'u' || c == 'F' || (c == 'y' && run == 2) || (c == 'S' && run != 3))
+					return false;
+			}
+			i = j;
+		}
+		return true;
+	}
+
+	// ============= ISO 8601 =============
+
+	static final long DAY_MILLI = 86_400_000L;
+
+	/**
+	 * Função que converte uma data ISO 8601 em instante, sem a criação de objetos
+	 * intermediários. São aceitas as formas <code>yyyy-MM-dd</code> e
+	 * <code>yyyy-MM-ddTHH:mm[:ss[.S...]][Z|&plusmn;HH[[:]mm]]</code> (o separador
+	 * <code>T</code> pode ser substituído por um espaço e as frações de segundo
+	 * além do milissegundo são truncadas). Sem a indicação do fuso, o horário é o
+	 * do fuso padrão.
+	 * 
+	 * @param s data no formato ISO 8601
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @throws DateTimeParseException se a sequência não estiver no formato ISO
+	 *                                8601
+	 */
+	public static long iso2millis(CharSequence s) {
+		return iso2millis(s, ZoneOffsetTable.systemDefault());
+	}
+
+	/**
+	 * Função que converte uma data ISO 8601 em instante (ver
+	 * {@link #iso2millis(CharSequence)})
+	 * 
+	 * @param s    data no formato ISO 8601
+	 * @param zone fuso horário das datas sem indicação de fuso
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @throws DateTimeParseException se a sequência não estiver no formato ISO
+	 *                                8601
+	 */
+	public static long iso2millis(CharSequence s, ZoneOffsetTable zone) {
+		int n = s.length();
+		if (n < 10 || s.charAt(4) != '-' || s.charAt(7) != '-')
+			throw isoError(s, 0);
+		int year = digits(s, 0, 4), month = digits(s, 5, 2), day = digits(s, 8, 2);
+		if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month))
+			throw isoError(s, 5);
+		long millis = epochDay(year, month, day) * DAY_MILLI;
+		if (n == 10)
+			return zone.toUtc(millis);
+
+		char sep = s.charAt(10);
+		if ((sep != 'T' && sep != 't' && sep != ' ') || n < 16 || s.charAt(13) != ':')
+			throw isoError(s, 10);
+		int hour = digits(s, 11, 2), minute = digits(s, 14, 2), second = 0, milli = 0;
+		int i = 16;
+		if (i < n && s.charAt(i) == ':') {
+			second = digits(s, i + 1, 2);
+			i += 3;
+			if (i < n && (s.charAt(i) == '.' || s.charAt(i) == ',')) {
+				int j = ++i, scale = 100;
+				for (; i < n && isDigit(s.charAt(i)); i++) {
+					milli += (s.charAt(i) - '0') * scale;
+					scale /= 10;
+				}
+				if (i == j)
+					throw isoError(s, i);
+			}
+		}
+		if (hour > 23 || minute > 59 || second > 59)
+			throw isoError(s, 11);
+		millis += ((hour * 60 + minute) * 60 + second) * SEC_MILLI + milli;
+		if (i == n)
+			return zone.toUtc(millis);
+
+		// fuso
+		char z = s.charAt(i);
+		if ((z == 'Z' || z == 'z') && i + 1 == n)
+			return millis;
+		if (z != '+' && z != '-')
+			throw isoError(s, i);
+		int offset = digits(s, i + 1, 2) * 60;
+		i += 3;
+		if (i < n && s.charAt(i) == ':')
+			i++;
+		if (i < n) {
+			offset += digits(s, i, 2);
+			i += 2;
+		}
+		if (i != n || offset > 18 * 60)
+			throw isoError(s, i);
+		return millis - (z == '-' ? -offset : offset) * 60_000L;
+	}
+
+	/**
+	 * Função que converte uma data ISO 8601 no inteiro de {@link #toInt(Calendar)}
+	 * (ver {@link #iso2millis(CharSequence)})
+	 * 
+	 * @param s data no formato ISO 8601
+	 * @return inteiro equivalente
+	 * @throws DateTimeParseException se a sequência não estiver no formato ISO
+	 *                                8601
+	 */
+	public static int iso2int(CharSequence s) {
+		return toInt(iso2millis(s));
+	}
+
+	/**
+	 * Função que converte uma data ISO 8601 no inteiro de {@link #toInt(Calendar)}
+	 * (ver {@link #iso2millis(CharSequence)})
+	 * 
+	 * @param s    data no formato ISO 8601
+	 * @param zone fuso horário das datas sem indicação de fuso
+	 * @return inteiro equivalente
+	 * @throws DateTimeParseException se a sequência não estiver no formato ISO
+	 *                                8601
+	 */
+	public static int iso2int(CharSequence s, ZoneOffsetTable zone) {
+		return toInt(iso2millis(s, zone));
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int digits(CharSequence s, int start, int count) {
+		if (start + count > s.length())
+			throw isoError(s, start);
+		int v = 0;
+		for (int i = start; i < start + count; i++) {
+			char c = s.charAt(i);
+			if (!isDigit(c))
+				throw isoError(s, i);
+			v = 10 * v + (c - '0');
+		}
+		return v;
+	}
+
+	private static DateTimeParseException isoError(CharSequence s, int index) {
+		return new DateTimeParseException("Data ISO 8601 inválida: " + s, s, index);
+	}
+
+	/**
+	 * Número de dias de um mês (de 1 a 12) do calendário gregoriano
+	 */
+	static int lengthOfMonth(int year, int month) {
+		if (month == 2)
+			return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	/**
+	 * Número de dias entre 1970-01-01 e uma data (de mês de 1 a 12) do calendário
+	 * gregoriano
+	 */
+	static long epochDay(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = Math.floorDiv(y, 400);
+		long yoe = y - era * 400;
+		long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097 + doe - 719468;
 	}
 
 	// ============= Padrões =============
@@ -1338,10 +2125,67 @@ public class TimeUtils {
 	 * 
 	 * @param ps série de períodos de tempo 
 	 * @return vetor com duas posições com os limites inferior e superior
+	 * @see #toIntervalTree(Collection)
 	 */
 	public static Calendar[] getLimits(Collection<Calendar[]> ps) {
 		Calendar[] out = new Calendar[2];
 		SetUtils.union(out, ps);
 		return out;
 	}
+
+	/**
+	 * Função que indexa uma série de períodos de tempo, designados pelos seus
+	 * instantes de tempo inicial e final, para consultas de sobreposição e de
+	 * cobertura
+	 * 
+	 * @param ps série de períodos de tempo (vetores de duas posições, completos)
+	 * @return índice dos períodos, designados pela sua posição na série; como em
+	 *         {@link #convertCalendarIntoRange(int, Calendar...)}, os períodos
+	 *         separados por até um minuto são contínuos na união
+	 */
+	public static IntervalTree toIntervalTree(Collection<Calendar[]> ps) {
+		long[] start = new long[ps.size()], end = new long[ps.size()];
+		int i = 0;
+		for (Calendar[] p : ps) {
+			start[i] = p[0].getTimeInMillis();
+			end[i++] = p[1].getTimeInMillis();
+		}
+		return new IntervalTree(start, end, 60_000L);
+	}
+
+	/**
+	 * Função que retorna os limites inferior e superior de uma série de períodos
+	 * de tempo indexada (ver {@link #getLimits(Collection)})
+	 * 
+	 * @param ps série de períodos de tempo indexada
+	 * @return vetor com duas posições com os limites inferior e superior (nulos se
+	 *         a série for vazia)
+	 */
+	public static Calendar[] getLimits(IntervalTree ps) {
+		Calendar[] out = new Calendar[2];
+		if (ps.size() > 0) {
+			out[0] = Calendar.getInstance();
+			out[0].setTimeInMillis(ps.min());
+			out[1] = Calendar.getInstance();
+			out[1].setTimeInMillis(ps.max());
+		}
+		return out;
+	}
+
+	/**
+	 * Função que converte uma matriz de intervalos em milissegundos (e.g.,
+	 * {@link IntervalTree#union()}) em períodos de tempo
+	 * 
+	 * @param ranges matriz de duas colunas (começo e fim de cada intervalo)
+	 * @return vetor de períodos de tempo (vetores de duas posições)
+	 */
+	public static Calendar[][] toCalendars(long[][] ranges) {
+		Calendar[][] out = new Calendar[ranges.length][2];
+		for (int i = 0; i < ranges.length; i++)
+			for (int j = 0; j < 2; j++) {
+				out[i][j] = Calendar.getInstance();
+				out[i][j].setTimeInMillis(ranges[i][j]);
+			}
+		return out;
+	}
 }
@@ -0,0 +1,224 @@
+package br.com.pereiraeng.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Agendador de tarefas por roda de tempo (<i>hashed timer wheel</i>), que
+ * permite que muitos {@link DefaultTimeMotor motores} compartilhem poucas
+ * <i>threads</i>: uma única <i>thread</i> avança a roda a cada
+ * <code>tick</code> e as tarefas vencidas são executadas por um pequeno
+ * <i>pool</i> de <i>threads</i>.
+ *
+ * A roda tem um número de posições potência de 2; cada tarefa é colocada na
+ * posição do seu instante de execução (módulo o tamanho da roda), com o número
+ * de voltas restantes. O custo de um agendamento ou de um cancelamento é
+ * constante, e a precisão é de um <code>tick</code>.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @see DefaultTimeMotor#setTimerWheel(TimerWheel)
+ */
+public final class TimerWheel implements AutoCloseable {
+
+	/**
+	 * Tarefa agendada
+	 */
+	public static final class Timeout {
+		private final Runnable task;
+
+		/**
+		 * Instante de execução ({@link System#nanoTime()})
+		 */
+		private final long deadline;
+
+		/**
+		 * Número de voltas da roda antes da execução
+		 */
+		private long rounds;
+
+		private volatile boolean cancelled;
+
+		private Timeout(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Função que cancela a tarefa, caso ela ainda não tenha sido executada
+		 */
+		public void cancel() {
+			cancelled = true;
+		}
+
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	private final long tickNanos;
+
+	private final int mask;
+
+	private final List<Timeout>[] wheel;
+
+	/**
+	 * Tarefas agendadas ainda não colocadas na roda
+	 */
+	private final ConcurrentLinkedQueue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+	private final ExecutorService workers;
+
+	private final Thread ticker;
+
+	private final long origin;
+
+	private volatile boolean closed;
+
+	/**
+	 * Construtor
+	 *
+	 * @param tick      duração de um <code>tick</code>, em milissegundos
+	 *                  (precisão da roda)
+	 * @param wheelSize número de posições da roda (arredondado para a potência de
+	 *                  2 seguinte)
+	 * @param workers   número de <i>threads</i> que executam as tarefas
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TimerWheel(long tick, int wheelSize, int workers) {
+		if (tick <= 0L || wheelSize <= 0 || workers <= 0)
+			throw new IllegalArgumentException("Parâmetros inválidos");
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tick);
+		int n = 1;
+		while (n < wheelSize)
+			n <<= 1;
+		this.wheel = new List[n];
+		for (int i = 0; i < n; i++)
+			wheel[i] = new ArrayList<>();
+		this.mask = n - 1;
+
+		AtomicInteger count = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(workers, r -> {
+			Thread t = new Thread(r, "timer-wheel-worker-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+
+		this.origin = System.nanoTime();
+		this.ticker = new Thread(this::loop, "timer-wheel");
+		this.ticker.setDaemon(true);
+		this.ticker.start();
+	}
+
+	private static final class Shared {
+		private static final TimerWheel INSTANCE = new TimerWheel(1L, 512,
+				Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+	}
+
+	/**
+	 * Função que retorna uma roda compartilhada, com <code>tick</code> de 1 ms e
+	 * até 4 <i>threads</i> de execução
+	 *
+	 * @return roda compartilhada
+	 */
+	public static TimerWheel shared() {
+		return Shared.INSTANCE;
+	}
+
+	/**
+	 * Função que agenda uma tarefa
+	 *
+	 * @param task  tarefa
+	 * @param delay atraso (se negativo ou nulo, a tarefa é executada no próximo
+	 *              <code>tick</code>)
+	 * @param unit  unidade do atraso
+	 * @return tarefa agendada
+	 */
+	public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+		return scheduleAt(task, System.nanoTime() + unit.toNanos(delay));
+	}
+
+	/**
+	 * Função que agenda uma tarefa para um instante
+	 *
+	 * @param task     tarefa
+	 * @param deadline instante de execução (ver {@link System#nanoTime()})
+	 * @return tarefa agendada
+	 */
+	public Timeout scheduleAt(Runnable task, long deadline) {
+		if (closed)
+			throw new IllegalStateException("Roda encerrada");
+		Timeout t = new Timeout(task, deadline);
+		pending.add(t);
+		return t;
+	}
+
+	private void loop() {
+		long tick = 0L;
+		while (!closed) {
+			// aguardar o fim do tick corrente
+			long end = origin + (tick + 1) * tickNanos;
+			long now;
+			while ((now = System.nanoTime()) - end < 0L) {
+				LockSupport.parkNanos(end - now);
+				if (closed)
+					return;
+			}
+
+			// colocar as novas tarefas na roda
+			Timeout t;
+			while ((t = pending.poll()) != null) {
+				if (t.cancelled)
+					continue;
+				long ticks = Math.max(tick, (t.deadline - origin) / tickNanos);
+				t.rounds = (ticks - tick) / wheel.length;
+				wheel[(int) (ticks & mask)].add(t);
+			}
+
+			// executar as tarefas vencidas da posição corrente
+			List<Timeout> bucket = wheel[(int) (tick & mask)];
+			int k = 0;
+			for (int i = 0; i < bucket.size(); i++) {
+				Timeout to = bucket.get(i);
+				if (to.cancelled)
+					continue;
+				if (to.rounds <= 0L) {
+					try {
+						workers.execute(to.task);
+					} catch (RuntimeException e) {
+						if (!closed)
+							throw e;
+					}
+				} else {
+					to.rounds--;
+					bucket.set(k++, to);
+				}
+			}
+			bucket.subList(k, bucket.size()).clear();
+			tick++;
+		}
+	}
+
+	/**
+	 * Função que encerra a roda: as tarefas agendadas são descartadas e as em
+	 * execução são aguardadas
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(ticker);
+		try {
+			ticker.join();
+			workers.shutdown();
+			workers.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package br.com.pereiraeng.core;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabela pré-calculada das transições de horário de verão (e demais mudanças
+ * de deslocamento com relação ao UTC) de um fuso horário, para a conversão de
+ * instantes (milissegundos desde 1970-01-01T00:00Z) em horário local sem a
+ * criação de objetos {@link java.util.Calendar Calendar}.
+ *
+ * A tabela cobre o período de {@link #FROM} a {@link #TO}; fora dele o
+ * deslocamento é obtido das {@link ZoneRules regras} do fuso. A tabela é
+ * imutável e, portanto, pode ser compartilhada entre <i>threads</i>.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public final class ZoneOffsetTable {
+
+	/**
+	 * Início do período coberto pela tabela (1900-01-01T00:00Z)
+	 */
+	public static final long FROM = -2208988800000L;
+
+	/**
+	 * Fim do período coberto pela tabela (2100-01-01T00:00Z)
+	 */
+	public static final long TO = 4102444800000L;
+
+	private static final ConcurrentHashMap<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>();
+
+	private final ZoneRules rules;
+
+	/**
+	 * Instantes das transições, em ordem crescente
+	 */
+	private final long[] transitions;
+
+	/**
+	 * Deslocamentos, em milissegundos: <code>offsets[i]</code> vale de
+	 * <code>transitions[i-1]</code> (inclusive) a <code>transitions[i]</code>
+	 * (exclusive)
+	 */
+	private final int[] offsets;
+
+	private ZoneOffsetTable(ZoneRules rules) {
+		this.rules = rules;
+		long[] tr = new long[16];
+		int[] off = new int[17];
+		off[0] = rules.getOffset(Instant.ofEpochMilli(FROM)).getTotalSeconds() * 1000;
+		int n = 0;
+		if (!rules.isFixedOffset()) {
+			ZoneOffsetTransition t = rules.nextTransition(Instant.ofEpochMilli(FROM));
+			while (t != null && t.getInstant().toEpochMilli() < TO) {
+				if (n == tr.length) {
+					tr = Arrays.copyOf(tr, 2 * n);
+					off = Arrays.copyOf(off, 2 * n + 1);
+				}
+				tr[n] = t.getInstant().toEpochMilli();
+				off[++n] = t.getOffsetAfter().getTotalSeconds() * 1000;
+				t = rules.nextTransition(t.getInstant());
+			}
+		}
+		this.transitions = Arrays.copyOf(tr, n);
+		this.offsets = Arrays.copyOf(off, n + 1);
+	}
+
+	/**
+	 * Função que retorna a tabela de um fuso horário (as tabelas são criadas uma
+	 * única vez por fuso)
+	 *
+	 * @param zone fuso horário
+	 * @return tabela
+	 */
+	public static ZoneOffsetTable of(ZoneId zone) {
+		return TABLES.computeIfAbsent(zone, z -> new ZoneOffsetTable(z.getRules()));
+	}
+
+	/**
+	 * Função que retorna a tabela de um fuso horário
+	 *
+	 * @param zone fuso horário
+	 * @return tabela
+	 */
+	public static ZoneOffsetTable of(TimeZone zone) {
+		return of(zone.toZoneId());
+	}
+
+	/**
+	 * Função que retorna a tabela do fuso horário padrão da JVM, no momento da
+	 * chamada
+	 *
+	 * @return tabela
+	 */
+	public static ZoneOffsetTable systemDefault() {
+		return of(TimeZone.getDefault());
+	}
+
+	/**
+	 * Função que retorna o índice do período de deslocamento constante que contém
+	 * um instante
+	 *
+	 * @param epochMillis instante
+	 * @return índice, entre 0 e o número de transições (inclusive)
+	 */
+	private int indexOf(long epochMillis) {
+		int i = Arrays.binarySearch(transitions, epochMillis);
+		// a transição pertence ao período que ela inicia
+		return i >= 0 ? i + 1 : -i - 1;
+	}
+
+	/**
+	 * Função que retorna o deslocamento do horário local com relação ao UTC em um
+	 * instante
+	 *
+	 * @param epochMillis instante, em milissegundos desde 1970-01-01T00:00Z
+	 * @return deslocamento, em milissegundos
+	 */
+	public int getOffset(long epochMillis) {
+		if (epochMillis < FROM || epochMillis >= TO)
+			return rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000;
+		return offsets[indexOf(epochMillis)];
+	}
+
+	/**
+	 * Função que retorna o instante da última transição anterior ou igual a um
+	 * instante, isto é, o início do período de deslocamento constante que o
+	 * contém
+	 *
+	 * @param epochMillis instante
+	 * @return instante da transição ({@link #FROM} se não houver transição
+	 *         anterior na tabela), ou {@link Long#MIN_VALUE} se o instante estiver
+	 *         fora da tabela
+	 */
+	public long previousTransition(long epochMillis) {
+		if (epochMillis < FROM || epochMillis >= TO)
+			return Long.MIN_VALUE;
+		int i = indexOf(epochMillis);
+		return i == 0 ? FROM : transitions[i - 1];
+	}
+
+	/**
+	 * Função que retorna o instante da primeira transição posterior a um
+	 * instante, isto é, o fim (exclusive) do período de deslocamento constante
+	 * que o contém
+	 *
+	 * @param epochMillis instante
+	 * @return instante da transição ({@link #TO} se não houver transição
+	 *         posterior na tabela), ou {@link Long#MAX_VALUE} se o instante
+	 *         estiver fora da tabela
+	 */
+	public long nextTransition(long epochMillis) {
+		if (epochMillis < FROM || epochMillis >= TO)
+			return Long.MAX_VALUE;
+		int i = indexOf(epochMillis);
+		return i == transitions.length ? TO : transitions[i];
+	}
+
+	/**
+	 * Função que converte um instante em horário local, em milissegundos desde
+	 * 1970-01-01T00:00 local
+	 *
+	 * @param epochMillis instante
+	 * @return horário local
+	 */
+	public long toLocal(long epochMillis) {
+		return epochMillis + getOffset(epochMillis);
+	}
+
+	/**
+	 * Função que converte um horário local em instante. Um horário inexistente
+	 * (no início do horário de verão) é avançado da duração da transição; um
+	 * horário ambíguo (no fim do horário de verão) é associado ao primeiro
+	 * instante (como em {@link LocalDateTime#atZone(ZoneId)}).
+	 *
+	 * @param localMillis horário local, em milissegundos desde 1970-01-01T00:00
+	 *                    local
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z
+	 */
+	public long toUtc(long localMillis) {
+		return toUtc(localMillis, false);
+	}
+
+	/**
+	 * Função que converte um horário local em instante. Um horário inexistente
+	 * (no início do horário de verão) é avançado da duração da transição.
+	 *
+	 * @param localMillis horário local, em milissegundos desde 1970-01-01T00:00
+	 *                    local
+	 * @param later       se um horário ambíguo (no fim do horário de verão) é
+	 *                    associado ao segundo instante, com o deslocamento
+	 *                    posterior à transição (como em
+	 *                    {@link java.util.GregorianCalendar GregorianCalendar} e
+	 *                    {@link java.text.SimpleDateFormat SimpleDateFormat}), e
+	 *                    não ao primeiro (como em
+	 *                    {@link LocalDateTime#atZone(ZoneId)})
+	 * @return instante, em milissegundos desde 1970-01-01T00:00Z
+	 */
+	public long toUtc(long localMillis, boolean later) {
+		long utc = localMillis - getOffset(localMillis - getOffset(localMillis));
+		// longe de uma transição (os deslocamentos não variam mais que um dia), o
+		// deslocamento é único
+		if (utc >= FROM && utc < TO && utc - previousTransition(utc) > 86400000L
+				&& nextTransition(utc) - utc > 86400000L)
+			return utc;
+		LocalDateTime ldt = LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis, 1000L),
+				(int) Math.floorMod(localMillis, 1000L) * 1000000, ZoneOffset.UTC);
+		List<ZoneOffset> valid = rules.getValidOffsets(ldt);
+		ZoneOffset o = valid.isEmpty() ? rules.getTransition(ldt).getOffsetBefore()
+				: valid.get(later ? valid.size() - 1 : 0);
+		return localMillis - o.getTotalSeconds() * 1000L;
+	}
+}
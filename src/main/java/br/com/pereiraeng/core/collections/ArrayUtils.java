@@ -239,43 +239,586 @@ public class ArrayUtils {
 	// ---------------------------------------------------
 
 	/**
-	 * Função que desloca os <code>bytes</code> de um vetor um dado número de
-	 * posições
+	 * Função que desloca os elementos de um vetor um dado número de posições. As
+	 * posições desocupadas mantêm os seus valores (ver
+	 * {@link #shift(byte[], int, byte)}).
 	 * 
-	 * @param array vetor com os <code>bytes</code>
+	 * @param array vetor
 	 * @param shift número de posições a serem deslocadas. A nova posição do
 	 *              elemento será a antiga acrescida do valor deste argumento
-	 * @return vetor com os bytes deslocados
 	 */
 	public static void shiftedArray(byte[] array, int shift) {
-		for (int i = 0; i < array.length; i++) {
-			int k = i - shift;
-			if (k >= 0 && k < array.length)
-				array[i] = array[k];
-		}
+		int n = array.length - Math.abs(shift);
+		if (n > 0)
+			System.arraycopy(array, Math.max(0, -shift), array, Math.max(0, shift), n);
 	}
 
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições. As
+	 * posições desocupadas mantêm os seus valores (ver
+	 * {@link #shift(float[], int, float)}).
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições a serem deslocadas. A nova posição do
+	 *              elemento será a antiga acrescida do valor deste argumento
+	 */
 	public static void shiftedArray(float[] array, int shift) {
-		for (int i = 0; i < array.length; i++) {
-			int k = i - shift;
-			if (k >= 0 && k < array.length)
-				array[i] = array[k];
-		}
+		int n = array.length - Math.abs(shift);
+		if (n > 0)
+			System.arraycopy(array, Math.max(0, -shift), array, Math.max(0, shift), n);
 	}
 
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições. As
+	 * posições desocupadas mantêm os seus valores (ver
+	 * {@link #shift(double[], int, double)}).
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições a serem deslocadas. A nova posição do
+	 *              elemento será a antiga acrescida do valor deste argumento
+	 */
 	public static void shiftedArray(double[] array, int shift) {
-		for (int i = 0; i < array.length; i++) {
-			int k = i - shift;
-			if (k >= 0 && k < array.length)
-				array[i] = array[k];
-		}
+		int n = array.length - Math.abs(shift);
+		if (n > 0)
+			System.arraycopy(array, Math.max(0, -shift), array, Math.max(0, shift), n);
 	}
 
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições. As
+	 * posições desocupadas mantêm os seus valores (ver
+	 * {@link #shift(Object[], int, Object)}).
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições a serem deslocadas. A nova posição do
+	 *              elemento será a antiga acrescida do valor deste argumento
+	 */
 	public static void shiftedArray(Object[] array, int shift) {
-		for (int i = 0; i < array.length; i++) {
-			int k = i - shift;
-			if (k >= 0 && k < array.length)
-				array[i] = array[k];
+		int n = array.length - Math.abs(shift);
+		if (n > 0)
+			System.arraycopy(array, Math.max(0, -shift), array, Math.max(0, shift), n);
+	}
+
+	// ---------------------------------------------------
+
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições, por
+	 * {@link System#arraycopy(Object, int, Object, int, int)}: os elementos que
+	 * saem do vetor são descartados e as posições desocupadas recebem um valor de
+	 * preenchimento
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições (a nova posição do elemento será a antiga
+	 *              acrescida deste valor)
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(byte[] array, int shift, byte fill) {
+		shift(array, 0, array.length, shift, fill);
+	}
+
+	/**
+	 * Função que desloca os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #shift(byte[], int, byte)})
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 * @param shift número de posições
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(byte[] array, int from, int to, int shift, byte fill) {
+		int len = to - from, d = Math.abs(shift);
+		if (d >= len) {
+			Arrays.fill(array, from, to, fill);
+		} else if (shift > 0) {
+			System.arraycopy(array, from, array, from + d, len - d);
+			Arrays.fill(array, from, from + d, fill);
+		} else if (shift < 0) {
+			System.arraycopy(array, from + d, array, from, len - d);
+			Arrays.fill(array, to - d, to, fill);
+		}
+	}
+
+	/**
+	 * Função que gira os elementos de um vetor um dado número de posições, por
+	 * três inversões (sem memória adicional): os elementos que saem por uma
+	 * extremidade entram pela outra
+	 * 
+	 * @param array    vetor
+	 * @param distance número de posições (a nova posição do elemento será a antiga
+	 *                 acrescida deste valor, módulo o comprimento do vetor)
+	 */
+	public static void rotate(byte[] array, int distance) {
+		rotate(array, 0, array.length, distance);
+	}
+
+	/**
+	 * Função que gira os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #rotate(byte[], int)})
+	 * 
+	 * @param array    vetor
+	 * @param from     começo do trecho
+	 * @param to       fim do trecho (exclusive)
+	 * @param distance número de posições
+	 */
+	public static void rotate(byte[] array, int from, int to, int distance) {
+		int len = to - from;
+		if (len < 2)
+			return;
+		int d = Math.floorMod(distance, len);
+		if (d == 0)
+			return;
+		reverse(array, from, to);
+		reverse(array, from, from + d);
+		reverse(array, from + d, to);
+	}
+
+	/**
+	 * Função que inverte a ordem dos elementos de um trecho de um vetor
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 */
+	public static void reverse(byte[] array, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			byte t = array[i];
+			array[i] = array[j];
+			array[j] = t;
+		}
+	}
+
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições, por
+	 * {@link System#arraycopy(Object, int, Object, int, int)}: os elementos que
+	 * saem do vetor são descartados e as posições desocupadas recebem um valor de
+	 * preenchimento
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições (a nova posição do elemento será a antiga
+	 *              acrescida deste valor)
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(int[] array, int shift, int fill) {
+		shift(array, 0, array.length, shift, fill);
+	}
+
+	/**
+	 * Função que desloca os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #shift(int[], int, int)})
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 * @param shift número de posições
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(int[] array, int from, int to, int shift, int fill) {
+		int len = to - from, d = Math.abs(shift);
+		if (d >= len) {
+			Arrays.fill(array, from, to, fill);
+		} else if (shift > 0) {
+			System.arraycopy(array, from, array, from + d, len - d);
+			Arrays.fill(array, from, from + d, fill);
+		} else if (shift < 0) {
+			System.arraycopy(array, from + d, array, from, len - d);
+			Arrays.fill(array, to - d, to, fill);
+		}
+	}
+
+	/**
+	 * Função que gira os elementos de um vetor um dado número de posições, por
+	 * três inversões (sem memória adicional): os elementos que saem por uma
+	 * extremidade entram pela outra
+	 * 
+	 * @param array    vetor
+	 * @param distance número de posições (a nova posição do elemento será a antiga
+	 *                 acrescida deste valor, módulo o comprimento do vetor)
+	 */
+	public static void rotate(int[] array, int distance) {
+		rotate(array, 0, array.length, distance);
+	}
+
+	/**
+	 * Função que gira os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #rotate(int[], int)})
+	 * 
+	 * @param array    vetor
+	 * @param from     começo do trecho
+	 * @param to       fim do trecho (exclusive)
+	 * @param distance número de posições
+	 */
+	public static void rotate(int[] array, int from, int to, int distance) {
+		int len = to - from;
+		if (len < 2)
+			return;
+		int d = Math.floorMod(distance, len);
+		if (d == 0)
+			return;
+		reverse(array, from, to);
+		reverse(array, from, from + d);
+		reverse(array, from + d, to);
+	}
+
+	/**
+	 * Função que inverte a ordem dos elementos de um trecho de um vetor
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 */
+	public static void reverse(int[] array, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			int t = array[i];
+			array[i] = array[j];
+			array[j] = t;
+		}
+	}
+
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições, por
+	 * {@link System#arraycopy(Object, int, Object, int, int)}: os elementos que
+	 * saem do vetor são descartados e as posições desocupadas recebem um valor de
+	 * preenchimento
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições (a nova posição do elemento será a antiga
+	 *              acrescida deste valor)
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(long[] array, int shift, long fill) {
+		shift(array, 0, array.length, shift, fill);
+	}
+
+	/**
+	 * Função que desloca os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #shift(long[], int, long)})
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 * @param shift número de posições
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(long[] array, int from, int to, int shift, long fill) {
+		int len = to - from, d = Math.abs(shift);
+		if (d >= len) {
+			Arrays.fill(array, from, to, fill);
+		} else if (shift > 0) {
+			System.arraycopy(array, from, array, from + d, len - d);
+			Arrays.fill(array, from, from + d, fill);
+		} else if (shift < 0) {
+			System.arraycopy(array, from + d, array, from, len - d);
+			Arrays.fill(array, to - d, to, fill);
+		}
+	}
+
+	/**
+	 * Função que gira os elementos de um vetor um dado número de posições, por
+	 * três inversões (sem memória adicional): os elementos que saem por uma
+	 * extremidade entram pela outra
+	 * 
+	 * @param array    vetor
+	 * @param distance número de posições (a nova posição do elemento será a antiga
+	 *                 acrescida deste valor, módulo o comprimento do vetor)
+	 */
+	public static void rotate(long[] array, int distance) {
+		rotate(array, 0, array.length, distance);
+	}
+
+	/**
+	 * Função que gira os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #rotate(long[], int)})
+	 * 
+	 * @param array    vetor
+	 * @param from     começo do trecho
+	 * @param to       fim do trecho (exclusive)
+	 * @param distance número de posições
+	 */
+	public static void rotate(long[] array, int from, int to, int distance) {
+		int len = to - from;
+		if (len < 2)
+			return;
+		int d = Math.floorMod(distance, len);
+		if (d == 0)
+			return;
+		reverse(array, from, to);
+		reverse(array, from, from + d);
+		reverse(array, from + d, to);
+	}
+
+	/**
+	 * Função que inverte a ordem dos elementos de um trecho de um vetor
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 */
+	public static void reverse(long[] array, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			long t = array[i];
+			array[i] = array[j];
+			array[j] = t;
+		}
+	}
+
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições, por
+	 * {@link System#arraycopy(Object, int, Object, int, int)}: os elementos que
+	 * saem do vetor são descartados e as posições desocupadas recebem um valor de
+	 * preenchimento
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições (a nova posição do elemento será a antiga
+	 *              acrescida deste valor)
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(float[] array, int shift, float fill) {
+		shift(array, 0, array.length, shift, fill);
+	}
+
+	/**
+	 * Função que desloca os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #shift(float[], int, float)})
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 * @param shift número de posições
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(float[] array, int from, int to, int shift, float fill) {
+		int len = to - from, d = Math.abs(shift);
+		if (d >= len) {
+			Arrays.fill(array, from, to, fill);
+		} else if (shift > 0) {
+			System.arraycopy(array, from, array, from + d, len - d);
+			Arrays.fill(array, from, from + d, fill);
+		} else if (shift < 0) {
+			System.arraycopy(array, from + d, array, from, len - d);
+			Arrays.fill(array, to - d, to, fill);
+		}
+	}
+
+	/**
+	 * Função que gira os elementos de um vetor um dado número de posições, por
+	 * três inversões (sem memória adicional): os elementos que saem por uma
+	 * extremidade entram pela outra
+	 * 
+	 * @param array    vetor
+	 * @param distance número de posições (a nova posição do elemento será a antiga
+	 *                 acrescida deste valor, módulo o comprimento do vetor)
+	 */
+	public static void rotate(float[] array, int distance) {
+		rotate(array, 0, array.length, distance);
+	}
+
+	/**
+	 * Função que gira os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #rotate(float[], int)})
+	 * 
+	 * @param array    vetor
+	 * @param from     começo do trecho
+	 * @param to       fim do trecho (exclusive)
+	 * @param distance número de posições
+	 */
+	public static void rotate(float[] array, int from, int to, int distance) {
+		int len = to - from;
+		if (len < 2)
+			return;
+		int d = Math.floorMod(distance, len);
+		if (d == 0)
+			return;
+		reverse(array, from, to);
+		reverse(array, from, from + d);
+		reverse(array, from + d, to);
+	}
+
+	/**
+	 * Função que inverte a ordem dos elementos de um trecho de um vetor
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 */
+	public static void reverse(float[] array, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			float t = array[i];
+			array[i] = array[j];
+			array[j] = t;
+		}
+	}
+
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições, por
+	 * {@link System#arraycopy(Object, int, Object, int, int)}: os elementos que
+	 * saem do vetor são descartados e as posições desocupadas recebem um valor de
+	 * preenchimento
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições (a nova posição do elemento será a antiga
+	 *              acrescida deste valor)
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(double[] array, int shift, double fill) {
+		shift(array, 0, array.length, shift, fill);
+	}
+
+	/**
+	 * Função que desloca os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #shift(double[], int, double)})
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 * @param shift número de posições
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static void shift(double[] array, int from, int to, int shift, double fill) {
+		int len = to - from, d = Math.abs(shift);
+		if (d >= len) {
+			Arrays.fill(array, from, to, fill);
+		} else if (shift > 0) {
+			System.arraycopy(array, from, array, from + d, len - d);
+			Arrays.fill(array, from, from + d, fill);
+		} else if (shift < 0) {
+			System.arraycopy(array, from + d, array, from, len - d);
+			Arrays.fill(array, to - d, to, fill);
+		}
+	}
+
+	/**
+	 * Função que gira os elementos de um vetor um dado número de posições, por
+	 * três inversões (sem memória adicional): os elementos que saem por uma
+	 * extremidade entram pela outra
+	 * 
+	 * @param array    vetor
+	 * @param distance número de posições (a nova posição do elemento será a antiga
+	 *                 acrescida deste valor, módulo o comprimento do vetor)
+	 */
+	public static void rotate(double[] array, int distance) {
+		rotate(array, 0, array.length, distance);
+	}
+
+	/**
+	 * Função que gira os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #rotate(double[], int)})
+	 * 
+	 * @param array    vetor
+	 * @param from     começo do trecho
+	 * @param to       fim do trecho (exclusive)
+	 * @param distance número de posições
+	 */
+	public static void rotate(double[] array, int from, int to, int distance) {
+		int len = to - from;
+		if (len < 2)
+			return;
+		int d = Math.floorMod(distance, len);
+		if (d == 0)
+			return;
+		reverse(array, from, to);
+		reverse(array, from, from + d);
+		reverse(array, from + d, to);
+	}
+
+	/**
+	 * Função que inverte a ordem dos elementos de um trecho de um vetor
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 */
+	public static void reverse(double[] array, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			double t = array[i];
+			array[i] = array[j];
+			array[j] = t;
+		}
+	}
+
+	/**
+	 * Função que desloca os elementos de um vetor um dado número de posições, por
+	 * {@link System#arraycopy(Object, int, Object, int, int)}: os elementos que
+	 * saem do vetor são descartados e as posições desocupadas recebem um valor de
+	 * preenchimento
+	 * 
+	 * @param array vetor
+	 * @param shift número de posições (a nova posição do elemento será a antiga
+	 *              acrescida deste valor)
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static <K> void shift(K[] array, int shift, K fill) {
+		shift(array, 0, array.length, shift, fill);
+	}
+
+	/**
+	 * Função que desloca os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #shift(Object[], int, Object)})
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 * @param shift número de posições
+	 * @param fill  valor das posições desocupadas
+	 */
+	public static <K> void shift(K[] array, int from, int to, int shift, K fill) {
+		int len = to - from, d = Math.abs(shift);
+		if (d >= len) {
+			Arrays.fill(array, from, to, fill);
+		} else if (shift > 0) {
+			System.arraycopy(array, from, array, from + d, len - d);
+			Arrays.fill(array, from, from + d, fill);
+		} else if (shift < 0) {
+			System.arraycopy(array, from + d, array, from, len - d);
+			Arrays.fill(array, to - d, to, fill);
+		}
+	}
+
+	/**
+	 * Função que gira os elementos de um vetor um dado número de posições, por
+	 * três inversões (sem memória adicional): os elementos que saem por uma
+	 * extremidade entram pela outra
+	 * 
+	 * @param array    vetor
+	 * @param distance número de posições (a nova posição do elemento será a antiga
+	 *                 acrescida deste valor, módulo o comprimento do vetor)
+	 */
+	public static void rotate(Object[] array, int distance) {
+		rotate(array, 0, array.length, distance);
+	}
+
+	/**
+	 * Função que gira os elementos de um trecho de um vetor um dado número de
+	 * posições (ver {@link #rotate(Object[], int)})
+	 * 
+	 * @param array    vetor
+	 * @param from     começo do trecho
+	 * @param to       fim do trecho (exclusive)
+	 * @param distance número de posições
+	 */
+	public static void rotate(Object[] array, int from, int to, int distance) {
+		int len = to - from;
+		if (len < 2)
+			return;
+		int d = Math.floorMod(distance, len);
+		if (d == 0)
+			return;
+		reverse(array, from, to);
+		reverse(array, from, from + d);
+		reverse(array, from + d, to);
+	}
+
+	/**
+	 * Função que inverte a ordem dos elementos de um trecho de um vetor
+	 * 
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 */
+	public static void reverse(Object[] array, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			Object t = array[i];
+			array[i] = array[j];
+			array[j] = t;
 		}
 	}
 
@@ -293,22 +836,22 @@ public class ArrayUtils {
 	 *                que o valor mais próximo seja retornado)
 	 * @return posição do vetor que com a entrada mais próxima do valor de
 	 *         referência
+	 * @see #nearestIndex(double[], double)
 	 */
 	public static int getNearestIndice(double[] vector, double value, boolean ordered) {
+		if (ordered)
+			return nearestIndex(vector, value);
 		int indice = -1;
-		double maxDelta = ordered ? vector[vector.length - 1] : Double.MAX_VALUE;
+		double maxDelta = Double.MAX_VALUE;
 
 		for (int i = 0; i < vector.length; i++) {
 			double distance = Math.abs(vector[i] - value);
 
 			if (distance == 0.) {
 				return i;
-			} else {
-				if (distance < maxDelta) {
-					indice = i;
-					maxDelta = distance;
-				} else if (ordered)
-					return indice;
+			} else if (distance < maxDelta) {
+				indice = i;
+				maxDelta = distance;
 			}
 		}
 		return indice;
@@ -330,6 +873,476 @@ public class ArrayUtils {
 		return vector[getNearestIndice(vector, value, ordered)];
 	}
 
+	// ------------------------- VETORES ORDENADOS -------------------------
+
+	/**
+	 * Função que retorna a primeira posição de um vetor ordenado (em ordem
+	 * crescente) cujo valor é maior ou igual a um valor de referência, por busca
+	 * binária
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou o comprimento do vetor se todos os valores forem
+	 *         menores que o de referência
+	 */
+	public static int ceilingIndex(double[] sorted, double value) {
+		return ceilingIndex(sorted, 0, sorted.length, value);
+	}
+
+	private static int ceilingIndex(double[] sorted, int lo, int hi, double value) {
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] < value)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Função que retorna a última posição de um vetor ordenado (em ordem
+	 * crescente) cujo valor é menor ou igual a um valor de referência, por busca
+	 * binária
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou -1 se todos os valores forem maiores que o de referência
+	 */
+	public static int floorIndex(double[] sorted, double value) {
+		int lo = 0, hi = sorted.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] <= value)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo - 1;
+	}
+
+	/**
+	 * Função que retorna a posição de um vetor ordenado (em ordem crescente) que
+	 * contém a entrada mais próxima de um valor de referência, por busca binária.
+	 * Em caso de empate, retorna-se a primeira posição do menor valor.
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou -1 se o vetor for vazio
+	 */
+	public static int nearestIndex(double[] sorted, double value) {
+		return nearest(sorted, ceilingIndex(sorted, value), value);
+	}
+
+	/**
+	 * Escolha entre as posições <code>i - 1</code> e <code>i</code>, sendo
+	 * <code>i</code> o resultado de {@link #ceilingIndex(double[], double)}
+	 */
+	private static int nearest(double[] sorted, int i, double value) {
+		if (i == sorted.length)
+			i--;
+		else if (i > 0 && value - sorted[i - 1] <= sorted[i] - value)
+			i--;
+		else
+			return i;
+		// primeira ocorrência do valor
+		if (i > 0 && sorted[i - 1] == sorted[i])
+			i = ceilingIndex(sorted, 0, i, sorted[i]);
+		return i;
+	}
+
+	/**
+	 * Função que retorna, para cada valor de uma série de valores de referência,
+	 * a posição de um vetor ordenado que contém a entrada mais próxima (ver
+	 * {@link #nearestIndex(double[], double)}). Se os valores de referência estiverem em
+	 * ordem crescente, os dois vetores são percorridos em conjunto, com busca
+	 * exponencial a partir da última posição encontrada.
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param values valores de referência (de preferência em ordem crescente)
+	 * @param out    posições (de comprimento maior ou igual ao dos valores)
+	 */
+	public static void nearestIndexes(double[] sorted, double[] values, int[] out) {
+		int i = 0;
+		for (int k = 0; k < values.length; k++) {
+			if (k > 0 && values[k] < values[k - 1])
+				i = 0;
+			i = gallop(sorted, i, values[k]);
+			out[k] = nearest(sorted, i, values[k]);
+		}
+	}
+
+	/**
+	 * {@link #ceilingIndex(double[], double)} a partir de uma posição cujos anteriores são
+	 * menores que o valor de referência, por busca exponencial
+	 */
+	private static int gallop(double[] sorted, int start, double value) {
+		int n = sorted.length, lo = start, hi = start, step = 1;
+		while (hi < n && sorted[hi] < value) {
+			lo = hi + 1;
+			hi = (int) Math.min(n, (long) hi + step);
+			step <<= 1;
+		}
+		return ceilingIndex(sorted, lo, Math.min(hi, n), value);
+	}
+
+	/**
+	 * Função que retorna a primeira posição de um vetor ordenado (em ordem
+	 * crescente) cujo valor é maior ou igual a um valor de referência, por busca
+	 * binária
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou o comprimento do vetor se todos os valores forem
+	 *         menores que o de referência
+	 */
+	public static int ceilingIndex(float[] sorted, float value) {
+		return ceilingIndex(sorted, 0, sorted.length, value);
+	}
+
+	private static int ceilingIndex(float[] sorted, int lo, int hi, float value) {
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] < value)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Função que retorna a última posição de um vetor ordenado (em ordem
+	 * crescente) cujo valor é menor ou igual a um valor de referência, por busca
+	 * binária
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou -1 se todos os valores forem maiores que o de referência
+	 */
+	public static int floorIndex(float[] sorted, float value) {
+		int lo = 0, hi = sorted.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] <= value)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo - 1;
+	}
+
+	/**
+	 * Função que retorna a posição de um vetor ordenado (em ordem crescente) que
+	 * contém a entrada mais próxima de um valor de referência, por busca binária.
+	 * Em caso de empate, retorna-se a primeira posição do menor valor.
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou -1 se o vetor for vazio
+	 */
+	public static int nearestIndex(float[] sorted, float value) {
+		return nearest(sorted, ceilingIndex(sorted, value), value);
+	}
+
+	/**
+	 * Escolha entre as posições <code>i - 1</code> e <code>i</code>, sendo
+	 * <code>i</code> o resultado de {@link #ceilingIndex(float[], float)}
+	 */
+	private static int nearest(float[] sorted, int i, float value) {
+		if (i == sorted.length)
+			i--;
+		else if (i > 0 && value - sorted[i - 1] <= sorted[i] - value)
+			i--;
+		else
+			return i;
+		// primeira ocorrência do valor
+		if (i > 0 && sorted[i - 1] == sorted[i])
+			i = ceilingIndex(sorted, 0, i, sorted[i]);
+		return i;
+	}
+
+	/**
+	 * Função que retorna, para cada valor de uma série de valores de referência,
+	 * a posição de um vetor ordenado que contém a entrada mais próxima (ver
+	 * {@link #nearestIndex(float[], float)}). Se os valores de referência estiverem em
+	 * ordem crescente, os dois vetores são percorridos em conjunto, com busca
+	 * exponencial a partir da última posição encontrada.
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param values valores de referência (de preferência em ordem crescente)
+	 * @param out    posições (de comprimento maior ou igual ao dos valores)
+	 */
+	public static void nearestIndexes(float[] sorted, float[] values, int[] out) {
+		int i = 0;
+		for (int k = 0; k < values.length; k++) {
+			if (k > 0 && values[k] < values[k - 1])
+				i = 0;
+			i = gallop(sorted, i, values[k]);
+			out[k] = nearest(sorted, i, values[k]);
+		}
+	}
+
+	/**
+	 * {@link #ceilingIndex(float[], float)} a partir de uma posição cujos anteriores são
+	 * menores que o valor de referência, por busca exponencial
+	 */
+	private static int gallop(float[] sorted, int start, float value) {
+		int n = sorted.length, lo = start, hi = start, step = 1;
+		while (hi < n && sorted[hi] < value) {
+			lo = hi + 1;
+			hi = (int) Math.min(n, (long) hi + step);
+			step <<= 1;
+		}
+		return ceilingIndex(sorted, lo, Math.min(hi, n), value);
+	}
+
+	/**
+	 * Função que retorna a primeira posição de um vetor ordenado (em ordem
+	 * crescente) cujo valor é maior ou igual a um valor de referência, por busca
+	 * binária
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou o comprimento do vetor se todos os valores forem
+	 *         menores que o de referência
+	 */
+	public static int ceilingIndex(long[] sorted, long value) {
+		return ceilingIndex(sorted, 0, sorted.length, value);
+	}
+
+	private static int ceilingIndex(long[] sorted, int lo, int hi, long value) {
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] < value)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Função que retorna a última posição de um vetor ordenado (em ordem
+	 * crescente) cujo valor é menor ou igual a um valor de referência, por busca
+	 * binária
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou -1 se todos os valores forem maiores que o de referência
+	 */
+	public static int floorIndex(long[] sorted, long value) {
+		int lo = 0, hi = sorted.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] <= value)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo - 1;
+	}
+
+	/**
+	 * Função que retorna a posição de um vetor ordenado (em ordem crescente) que
+	 * contém a entrada mais próxima de um valor de referência, por busca binária.
+	 * Em caso de empate, retorna-se a primeira posição do menor valor.
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param value  valor de referência
+	 * @return posição, ou -1 se o vetor for vazio
+	 */
+	public static int nearestIndex(long[] sorted, long value) {
+		return nearest(sorted, ceilingIndex(sorted, value), value);
+	}
+
+	/**
+	 * Escolha entre as posições <code>i - 1</code> e <code>i</code>, sendo
+	 * <code>i</code> o resultado de {@link #ceilingIndex(long[], long)}
+	 */
+	private static int nearest(long[] sorted, int i, long value) {
+		if (i == sorted.length)
+			i--;
+		else if (i > 0 && value - sorted[i - 1] <= sorted[i] - value)
+			i--;
+		else
+			return i;
+		// primeira ocorrência do valor
+		if (i > 0 && sorted[i - 1] == sorted[i])
+			i = ceilingIndex(sorted, 0, i, sorted[i]);
+		return i;
+	}
+
+	/**
+	 * Função que retorna, para cada valor de uma série de valores de referência,
+	 * a posição de um vetor ordenado que contém a entrada mais próxima (ver
+	 * {@link #nearestIndex(long[], long)}). Se os valores de referência estiverem em
+	 * ordem crescente, os dois vetores são percorridos em conjunto, com busca
+	 * exponencial a partir da última posição encontrada.
+	 * 
+	 * @param sorted vetor ordenado
+	 * @param values valores de referência (de preferência em ordem crescente)
+	 * @param out    posições (de comprimento maior ou igual ao dos valores)
+	 */
+	public static void nearestIndexes(long[] sorted, long[] values, int[] out) {
+		int i = 0;
+		for (int k = 0; k < values.length; k++) {
+			if (k > 0 && values[k] < values[k - 1])
+				i = 0;
+			i = gallop(sorted, i, values[k]);
+			out[k] = nearest(sorted, i, values[k]);
+		}
+	}
+
+	/**
+	 * {@link #ceilingIndex(long[], long)} a partir de uma posição cujos anteriores são
+	 * menores que o valor de referência, por busca exponencial
+	 */
+	private static int gallop(long[] sorted, int start, long value) {
+		int n = sorted.length, lo = start, hi = start, step = 1;
+		while (hi < n && sorted[hi] < value) {
+			lo = hi + 1;
+			hi = (int) Math.min(n, (long) hi + step);
+			step <<= 1;
+		}
+		return ceilingIndex(sorted, lo, Math.min(hi, n), value);
+	}
+
+	/**
+	 * Função que calcula, por interpolação linear, o valor de uma função tabelada
+	 * 
+	 * @param xs abscissas, em ordem crescente
+	 * @param ys ordenadas
+	 * @param x  abscissa
+	 * @return valor interpolado (fora do intervalo das abscissas, o valor da
+	 *         extremidade mais próxima)
+	 */
+	public static double interpolate(double[] xs, double[] ys, double x) {
+		return interpolate(xs, ys, ceilingIndex(xs, x), x);
+	}
+
+	/**
+	 * Função que calcula, por interpolação linear, os valores de uma função
+	 * tabelada em uma série de abscissas (ver {@link #interpolate(double[], double[], double)}),
+	 * percorrendo os vetores em conjunto se estas estiverem em ordem crescente
+	 * 
+	 * @param xs  abscissas, em ordem crescente
+	 * @param ys  ordenadas
+	 * @param x   abscissas dos valores procurados (de preferência em ordem
+	 *            crescente)
+	 * @param out valores interpolados (de comprimento maior ou igual ao das
+	 *            abscissas procuradas)
+	 */
+	public static void interpolate(double[] xs, double[] ys, double[] x, double[] out) {
+		int i = 0;
+		for (int k = 0; k < x.length; k++) {
+			if (k > 0 && x[k] < x[k - 1])
+				i = 0;
+			i = gallop(xs, i, x[k]);
+			out[k] = interpolate(xs, ys, i, x[k]);
+		}
+	}
+
+	private static double interpolate(double[] xs, double[] ys, int i, double x) {
+		if (i == 0)
+			return ys[0];
+		if (i == xs.length)
+			return ys[i - 1];
+		if (xs[i] == x)
+			return ys[i];
+		return ys[i - 1] + (ys[i] - ys[i - 1]) * ((x - xs[i - 1]) / (xs[i] - xs[i - 1]));
+	}
+
+	/**
+	 * Função que calcula, por interpolação linear, o valor de uma função tabelada
+	 * 
+	 * @param xs abscissas, em ordem crescente
+	 * @param ys ordenadas
+	 * @param x  abscissa
+	 * @return valor interpolado (fora do intervalo das abscissas, o valor da
+	 *         extremidade mais próxima)
+	 */
+	public static float interpolate(float[] xs, float[] ys, float x) {
+		return interpolate(xs, ys, ceilingIndex(xs, x), x);
+	}
+
+	/**
+	 * Função que calcula, por interpolação linear, os valores de uma função
+	 * tabelada em uma série de abscissas (ver {@link #interpolate(float[], float[], float)}),
+	 * percorrendo os vetores em conjunto se estas estiverem em ordem crescente
+	 * 
+	 * @param xs  abscissas, em ordem crescente
+	 * @param ys  ordenadas
+	 * @param x   abscissas dos valores procurados (de preferência em ordem
+	 *            crescente)
+	 * @param out valores interpolados (de comprimento maior ou igual ao das
+	 *            abscissas procuradas)
+	 */
+	public static void interpolate(float[] xs, float[] ys, float[] x, float[] out) {
+		int i = 0;
+		for (int k = 0; k < x.length; k++) {
+			if (k > 0 && x[k] < x[k - 1])
+				i = 0;
+			i = gallop(xs, i, x[k]);
+			out[k] = interpolate(xs, ys, i, x[k]);
+		}
+	}
+
+	private static float interpolate(float[] xs, float[] ys, int i, float x) {
+		if (i == 0)
+			return ys[0];
+		if (i == xs.length)
+			return ys[i - 1];
+		if (xs[i] == x)
+			return ys[i];
+		return (float) (ys[i - 1] + (ys[i] - ys[i - 1]) * ((double) (x - xs[i - 1]) / (xs[i] - xs[i - 1])));
+	}
+
+	/**
+	 * Função que calcula, por interpolação linear, o valor de uma função tabelada
+	 * 
+	 * @param xs abscissas, em ordem crescente
+	 * @param ys ordenadas
+	 * @param x  abscissa
+	 * @return valor interpolado (fora do intervalo das abscissas, o valor da
+	 *         extremidade mais próxima)
+	 */
+	public static double interpolate(long[] xs, double[] ys, long x) {
+		return interpolate(xs, ys, ceilingIndex(xs, x), x);
+	}
+
+	/**
+	 * Função que calcula, por interpolação linear, os valores de uma função
+	 * tabelada em uma série de abscissas (ver {@link #interpolate(long[], double[], long)}),
+	 * percorrendo os vetores em conjunto se estas estiverem em ordem crescente
+	 * 
+	 * @param xs  abscissas, em ordem crescente
+	 * @param ys  ordenadas
+	 * @param x   abscissas dos valores procurados (de preferência em ordem
+	 *            crescente)
+	 * @param out valores interpolados (de comprimento maior ou igual ao das
+	 *            abscissas procuradas)
+	 */
+	public static void interpolate(long[] xs, double[] ys, long[] x, double[] out) {
+		int i = 0;
+		for (int k = 0; k < x.length; k++) {
+			if (k > 0 && x[k] < x[k - 1])
+				i = 0;
+			i = gallop(xs, i, x[k]);
+			out[k] = interpolate(xs, ys, i, x[k]);
+		}
+	}
+
+	private static double interpolate(long[] xs, double[] ys, int i, long x) {
+		if (i == 0)
+			return ys[0];
+		if (i == xs.length)
+			return ys[i - 1];
+		if (xs[i] == x)
+			return ys[i];
+		return ys[i - 1] + (ys[i] - ys[i - 1]) * ((double) (x - xs[i - 1]) / (xs[i] - xs[i - 1]));
+	}
+
 	/**
 	 * Função que indica em qual intervalo se encontra um dado valor dentre de um
 	 * seqüencia
@@ -343,11 +1356,8 @@ public class ArrayUtils {
 			throw new IllegalArgumentException("O vetor que descreve a partição deve ter ao menos duas posições");
 		if (x < xs[0])
 			return 0;
-		int i;
-		for (i = 1; i < xs.length; i++)
-			if (x <= xs[i]) // se estiver em [x(i-1); x(i)]...
-				return i;
-		return i;
+		// primeiro i tal que x esteja em ]x(i-1); x(i)] (ou [x(0); x(1)])
+		return Math.max(1, ceilingIndex(xs, x));
 	}
 
 	@SafeVarargs
@@ -12,6 +12,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import br.com.pereiraeng.core.collections.comparison.AlphabeticalOrder;
+
 /**
  * Collections utils (list and set)
  * 
@@ -327,6 +329,18 @@ public class ListUtils {
 		return out;
 	}
 
+	/**
+	 * Função que ordena uma lista em ordem alfabética (ver
+	 * {@link AlphabeticalOrder#sort(List, boolean)})
+	 * 
+	 * @param list    lista a ser ordenada
+	 * @param prepare se <code>true</code>, os artigos e os acentos são
+	 *                desconsiderados
+	 */
+	public static <E> void sortByAlphabeticalOrder(List<E> list, boolean prepare) {
+		AlphabeticalOrder.sort(list, prepare);
+	}
+
 	public static <E> LinkedHashSet<E> sortMap(Set<E> set, Comparator<E> comparator) {
 		// ordena os valores
 		List<E> list = new ArrayList<E>(set);
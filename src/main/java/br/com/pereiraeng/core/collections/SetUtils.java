@@ -11,6 +11,7 @@ public class SetUtils {
 	 * @param out vetor de duas posições a ser carregado com os objetos mínimos e
 	 *            máximos
 	 * @param ps  relação de períodos
+	 * @see br.com.pereiraeng.core.collections.set.IntervalTree
 	 */
 	public static <K extends Comparable<K>> void union(K[] out, Collection<K[]> ps) {
 		if (ps != null)
@@ -1,6 +1,10 @@
 package br.com.pereiraeng.core.collections.comparison;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
 
 import br.com.pereiraeng.core.StringUtils;
 
@@ -24,7 +28,79 @@ public class AlphabeticalOrder implements Comparator<Object> {
 
 	@Override
 	public int compare(Object p1, Object p2) {
-		return prepareWord(p1.toString()).compareTo(prepareWord(p2.toString()));
+		return getKey(p1).compareTo(getKey(p2));
+	}
+
+	/**
+	 * Função que retorna a chave de ordenação de um objeto: a comparação de dois
+	 * objetos por este comparador equivale à comparação das suas chaves. Para
+	 * ordenar muitos elementos, é preferível calcular as chaves uma única vez
+	 * (ver {@link #sort(List, boolean)}).
+	 * 
+	 * @param obj objeto
+	 * @return chave de ordenação
+	 */
+	public String getKey(Object obj) {
+		return prepareWord(obj.toString());
+	}
+
+	/**
+	 * Número de elementos a partir do qual a ordenação é feita em paralelo
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	/**
+	 * Função que ordena uma lista em ordem alfabética. O resultado é o mesmo de
+	 * {@link java.util.Collections#sort(List, Comparator)} com este comparador,
+	 * porém cada elemento é {@link #getKey(Object) preparado} uma única vez (e
+	 * não a cada comparação); as listas grandes são preparadas e ordenadas em
+	 * paralelo.
+	 * 
+	 * @param list    lista a ser ordenada
+	 * @param prepare se <code>true</code>, os artigos e os acentos são
+	 *                desconsiderados
+	 */
+	public static <E> void sort(List<E> list, boolean prepare) {
+		AlphabeticalOrder order = new AlphabeticalOrder(prepare);
+		int n = list.size();
+		boolean parallel = n >= PARALLEL_THRESHOLD;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Keyed<E>[] ks = new Keyed[n];
+		Iterator<E> it = list.iterator();
+		for (int i = 0; i < n; i++)
+			ks[i] = new Keyed<>(it.next());
+		if (parallel)
+			Arrays.stream(ks).parallel().forEach(k -> k.key = order.getKey(k.element));
+		else
+			for (Keyed<E> k : ks)
+				k.key = order.getKey(k.element);
+
+		// ambas as ordenações são estáveis, como a de Collections.sort
+		if (parallel)
+			Arrays.parallelSort(ks);
+		else
+			Arrays.sort(ks);
+
+		ListIterator<E> li = list.listIterator();
+		for (Keyed<E> k : ks) {
+			li.next();
+			li.set(k.element);
+		}
+	}
+
+	private static final class Keyed<E> implements Comparable<Keyed<E>> {
+		private final E element;
+		private String key;
+
+		private Keyed(E element) {
+			this.element = element;
+		}
+
+		@Override
+		public int compareTo(Keyed<E> o) {
+			return key.compareTo(o.key);
+		}
 	}
 
 	/**
@@ -47,7 +123,7 @@ public class AlphabeticalOrder implements Comparator<Object> {
 				out = out.substring(4);
 
 			// passar para letras minúsculas e retirar os acentos
-			out = StringUtils.removeAccent(out.toLowerCase());
+			out = StringUtils.removeAccent(out, true);
 		}
 
 		return out;
@@ -0,0 +1,332 @@
+package br.com.pereiraeng.core.collections.list;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Versão de {@link CircularQueue} armazenada em um vetor circular (de
+ * capacidade igual a uma potência de 2, dobrada quando necessário), sem a
+ * alocação de um nó por elemento. A semântica é a mesma: os elementos são
+ * inseridos no fim da lista, {@link #peek()} e {@link #poll()} se referem ao
+ * último elemento inserido e {@link #infiniteIterator(int)} percorre a lista
+ * indefinidamente a partir de uma posição relativa ao primeiro elemento.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @param <T> classe dos objetos que ela contem
+ */
+public class ArrayCircularQueue<T> extends AbstractCollection<T> implements Queue<T>, Cloneable, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Vetor circular (comprimento potência de 2)
+	 */
+	private transient Object[] elements;
+
+	/**
+	 * Índice do primeiro elemento no vetor
+	 */
+	private transient int head;
+
+	/**
+	 * Número de elementos
+	 */
+	private transient int size;
+
+	/**
+	 * Número de modificações estruturais, para a detecção de modificações
+	 * concorrentes pelos iteradores
+	 */
+	private transient int modCount;
+
+	public ArrayCircularQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Construtor
+	 *
+	 * @param initialCapacity capacidade inicial (arredondada para a potência de 2
+	 *                        seguinte)
+	 */
+	public ArrayCircularQueue(int initialCapacity) {
+		this.elements = new Object[ceilPow2(initialCapacity)];
+	}
+
+	/**
+	 * Função que retorna a menor potência de 2 maior ou igual a um número
+	 *
+	 * @param n número (positivo)
+	 * @return potência de 2
+	 */
+	static int ceilPow2(int n) {
+		if (n <= 1)
+			return 1;
+		if (n > 1 << 30)
+			throw new IllegalArgumentException("Capacidade grande demais: " + n);
+		return Integer.highestOneBit(n - 1) << 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T at(int i) {
+		return (T) elements[(head + i) & (elements.length - 1)];
+	}
+
+	private void grow() {
+		int n = elements.length;
+		Object[] a = new Object[ceilPow2(n + 1)];
+		// desenrolar o vetor circular
+		int r = n - head;
+		System.arraycopy(elements, head, a, 0, r);
+		System.arraycopy(elements, 0, a, r, head);
+		elements = a;
+		head = 0;
+	}
+
+	@Override
+	public boolean add(T o) {
+		return offer(o);
+	}
+
+	@Override
+	public boolean offer(T o) {
+		if (size == elements.length)
+			grow();
+		elements[(head + size) & (elements.length - 1)] = o;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public T element() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return at(size - 1);
+	}
+
+	@Override
+	public T peek() {
+		return size == 0 ? null : at(size - 1);
+	}
+
+	@Override
+	public T poll() {
+		if (size == 0)
+			return null;
+		int i = (head + size - 1) & (elements.length - 1);
+		@SuppressWarnings("unchecked")
+		T t = (T) elements[i];
+		elements[i] = null;
+		size--;
+		modCount++;
+		return t;
+	}
+
+	@Override
+	public T remove() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return poll();
+	}
+
+	/**
+	 * Função que retorna um elemento da lista
+	 *
+	 * @param index posição do elemento, com relação ao primeiro (qualquer inteiro,
+	 *              tomado módulo o tamanho da lista)
+	 * @return elemento
+	 */
+	public T get(int index) {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return at(Math.floorMod(index, size));
+	}
+
+	/**
+	 * Função que remove o elemento de uma posição, deslocando os seguintes
+	 */
+	private void removeAt(int index) {
+		int mask = elements.length - 1;
+		for (int i = index; i < size - 1; i++)
+			elements[(head + i) & mask] = elements[(head + i + 1) & mask];
+		elements[(head + size - 1) & mask] = null;
+		size--;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, null);
+		head = size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Itr(0, false);
+	}
+
+	/**
+	 * Returns an iterator that goes round the list forever.
+	 *
+	 * @param start posição inicial, com relação ao elemento tido como inicial
+	 * @return iterator
+	 */
+	public Iterator<T> infiniteIterator(int start) {
+		return new Itr(start, true);
+	}
+
+	private class Itr implements Iterator<T> {
+		/**
+		 * Posição (com relação ao primeiro elemento) do próximo elemento
+		 */
+		private int cursor;
+
+		/**
+		 * Número de elementos já retornados (iteração finita)
+		 */
+		private int count;
+
+		private int lastRet = -1;
+
+		private int expectedModCount = modCount;
+
+		private final boolean infinite;
+
+		private Itr(int start, boolean infinite) {
+			this.infinite = infinite;
+			this.cursor = size == 0 ? 0 : Math.floorMod(start, size);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return infinite || count < size;
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (size == 0 || !hasNext())
+				throw new NoSuchElementException();
+			if (cursor >= size)
+				cursor = 0;
+			lastRet = cursor;
+			count++;
+			return at(cursor++);
+		}
+
+		@Override
+		public void remove() {
+			if (lastRet < 0)
+				throw new IllegalStateException();
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			removeAt(lastRet);
+			cursor = lastRet;
+			count--;
+			lastRet = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] out = new Object[size];
+		for (int i = 0; i < size; i++)
+			out[i] = at(i);
+		return out;
+	}
+
+	/**
+	 * Duas listas circulares são iguais se uma for uma rotação da outra
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof ArrayCircularQueue))
+			return false;
+		ArrayCircularQueue<?> cq = (ArrayCircularQueue<?>) o;
+		if (size != cq.size)
+			return false;
+		if (size == 0)
+			return true;
+
+		T root = at(0);
+		loop: for (int j = 0; j < size; j++)
+			if (equals(root, cq.at(j))) {
+				for (int i = 1; i < size; i++)
+					if (!equals(at(i), cq.at((j + i) % size)))
+						continue loop;
+				return true;
+			}
+		return false;
+	}
+
+	/**
+	 * O código é independente da rotação, de forma a ser coerente com
+	 * {@link #equals(Object)}
+	 */
+	@Override
+	public int hashCode() {
+		int hashCode = 0;
+		for (int i = 0; i < size; i++)
+			hashCode += hashCode(at(i));
+		return hashCode;
+	}
+
+	private static final boolean equals(Object o1, Object o2) {
+		return o1 == null ? o2 == null : o1.equals(o2);
+	}
+
+	private static final int hashCode(Object o) {
+		return o == null ? 0 : o.hashCode();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ArrayCircularQueue<T> clone() {
+		try {
+			ArrayCircularQueue<T> out = (ArrayCircularQueue<T>) super.clone();
+			out.elements = elements.clone();
+			out.modCount = 0;
+			return out;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		s.writeInt(size);
+		for (int i = 0; i < size; i++)
+			s.writeObject(at(i));
+	}
+
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		int n = s.readInt();
+		elements = new Object[ceilPow2(Math.max(n, 1))];
+		for (int i = 0; i < n; i++)
+			elements[i] = s.readObject();
+		head = 0;
+		size = n;
+	}
+}
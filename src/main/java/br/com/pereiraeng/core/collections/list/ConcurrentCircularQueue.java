@@ -0,0 +1,235 @@
+package br.com.pereiraeng.core.collections.list;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import br.com.pereiraeng.core.Flow;
+
+/**
+ * Fila circular limitada e sem <i>locks</i>, para a passagem de dados entre
+ * <i>threads</i> produtoras (e.g., de aquisição) e uma única <i>thread</i>
+ * consumidora (e.g., de processamento). Ao contrário de {@link CircularQueue},
+ * a ordem é FIFO: {@link #poll()} retorna o elemento mais antigo.
+ *
+ * Os índices do produtor e do consumidor ficam em linhas de cache distintas
+ * (ver {@link Sequence}) e são publicados por escritas ordenadas. Um elemento
+ * só é visível ao consumidor após ter sido escrito na sua posição do vetor,
+ * que é anulada pelo consumidor antes de ser liberada aos produtores; por isso
+ * os elementos não podem ser nulos.
+ *
+ * As operações bloqueantes ({@link #put(Object)}, {@link #take()} e
+ * {@link #incomingData(Object)}) aguardam segundo uma {@link WaitStrategy}.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @param <T> classe dos objetos que ela contem
+ *
+ * @see SpscCircularQueue
+ * @see MpscCircularQueue
+ */
+public abstract class ConcurrentCircularQueue<T> implements Flow<T> {
+
+	/**
+	 * Vetor circular (comprimento potência de 2)
+	 */
+	final AtomicReferenceArray<T> buffer;
+
+	final int mask;
+
+	/**
+	 * Número máximo de elementos
+	 */
+	final int capacity;
+
+	/**
+	 * Índice do próximo elemento a ser inserido
+	 */
+	final Sequence producer = new Sequence();
+
+	/**
+	 * Índice do próximo elemento a ser retirado
+	 */
+	final Sequence consumer = new Sequence();
+
+	final WaitStrategy waitStrategy;
+
+	/**
+	 * Construtor
+	 *
+	 * @param capacity     número máximo de elementos
+	 * @param waitStrategy estratégia de espera das operações bloqueantes
+	 */
+	ConcurrentCircularQueue(int capacity, WaitStrategy waitStrategy) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+		int length = ArrayCircularQueue.ceilPow2(capacity);
+		this.buffer = new AtomicReferenceArray<>(length);
+		this.mask = length - 1;
+		this.capacity = capacity;
+		this.waitStrategy = waitStrategy;
+	}
+
+	/**
+	 * Função que insere um elemento no fim da fila, caso esta não esteja cheia
+	 *
+	 * @param e elemento (não nulo)
+	 * @return <code>true</code> se o elemento foi inserido
+	 */
+	public abstract boolean offer(T e);
+
+	/**
+	 * Função que insere um elemento no fim da fila, aguardando enquanto esta
+	 * estiver cheia
+	 *
+	 * @param e elemento (não nulo)
+	 * @throws InterruptedException se a <i>thread</i> for interrompida durante a
+	 *                              espera
+	 */
+	public void put(T e) throws InterruptedException {
+		while (!offer(e))
+			waitStrategy.await(this::hasSpace);
+	}
+
+	/**
+	 * Função que insere um dado recebido na fila, aguardando enquanto esta
+	 * estiver cheia. Uma eventual interrupção durante a espera é repassada à
+	 * <i>thread</i> e o dado é descartado.
+	 */
+	@Override
+	public void incomingData(T data) {
+		try {
+			put(data);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Função que retira o primeiro elemento da fila (somente pela <i>thread</i>
+	 * consumidora)
+	 *
+	 * @return elemento, ou <code>null</code> se a fila estiver vazia
+	 */
+	public T poll() {
+		long c = consumer.get();
+		int i = (int) c & mask;
+		T e = published(i, c);
+		if (e == null)
+			return null;
+		buffer.lazySet(i, null);
+		consumer.setOrdered(c + 1);
+		waitStrategy.signal();
+		return e;
+	}
+
+	/**
+	 * Função que retorna o primeiro elemento da fila, sem retirá-lo (somente pela
+	 * <i>thread</i> consumidora)
+	 *
+	 * @return elemento, ou <code>null</code> se a fila estiver vazia
+	 */
+	public T peek() {
+		long c = consumer.get();
+		return published((int) c & mask, c);
+	}
+
+	/**
+	 * Função que retira o primeiro elemento da fila, aguardando enquanto esta
+	 * estiver vazia (somente pela <i>thread</i> consumidora)
+	 *
+	 * @return elemento
+	 * @throws InterruptedException se a <i>thread</i> for interrompida durante a
+	 *                              espera
+	 */
+	public T take() throws InterruptedException {
+		T e;
+		while ((e = poll()) == null)
+			waitStrategy.await(() -> !isEmpty());
+		return e;
+	}
+
+	/**
+	 * Função que retorna o elemento da posição <code>i</code> do vetor, de índice
+	 * <code>c</code>, caso ele já tenha sido publicado
+	 */
+	T published(int i, long c) {
+		return buffer.get(i);
+	}
+
+	/**
+	 * Função que retira em bloco os elementos disponíveis da fila (somente pela
+	 * <i>thread</i> consumidora). O índice do consumidor é publicado uma única vez,
+	 * ao fim da retirada.
+	 *
+	 * @param sink destino dos elementos
+	 * @param max  número máximo de elementos retirados
+	 * @return número de elementos retirados
+	 */
+	public int drainTo(Consumer<? super T> sink, int max) {
+		long c = consumer.get();
+		int n = 0;
+		try {
+			while (n < max) {
+				int i = (int) (c + n) & mask;
+				T e = buffer.get(i);
+				if (e == null)
+					break;
+				buffer.lazySet(i, null);
+				n++;
+				sink.accept(e);
+			}
+		} finally {
+			if (n > 0) {
+				consumer.setOrdered(c + n);
+				waitStrategy.signal();
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Função que retira em bloco os elementos disponíveis da fila para uma
+	 * coleção (somente pela <i>thread</i> consumidora)
+	 *
+	 * @param c   coleção de destino
+	 * @param max número máximo de elementos retirados
+	 * @return número de elementos retirados
+	 */
+	public int drainTo(Collection<? super T> c, int max) {
+		return drainTo((Consumer<? super T>) c::add, max);
+	}
+
+	/**
+	 * Função que retira em bloco todos os elementos disponíveis da fila para uma
+	 * coleção (somente pela <i>thread</i> consumidora)
+	 *
+	 * @param c coleção de destino
+	 * @return número de elementos retirados
+	 */
+	public int drainTo(Collection<? super T> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Número (aproximado, se houver escritas concorrentes) de elementos da fila
+	 */
+	public int size() {
+		// ler o consumidor primeiro, para que o tamanho nunca seja negativo
+		long c = consumer.get();
+		long p = producer.get();
+		return (int) Math.max(0L, Math.min(capacity, p - c));
+	}
+
+	public boolean isEmpty() {
+		return producer.get() == consumer.get();
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	boolean hasSpace() {
+		return producer.get() - consumer.get() < capacity;
+	}
+}
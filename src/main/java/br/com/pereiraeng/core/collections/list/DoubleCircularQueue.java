@@ -0,0 +1,245 @@
+package br.com.pereiraeng.core.collections.list;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Lista circular de decimais de capacidade fixa, própria para janelas
+ * deslizantes sobre amostras numéricas: quando cheia, cada inserção descarta o
+ * elemento mais antigo. Os valores são armazenados em um vetor circular (de
+ * comprimento potência de 2), sem a alocação de objetos.
+ *
+ * Como em {@link CircularQueue}, os elementos são inseridos no fim da lista,
+ * {@link #peek()} e {@link #poll()} se referem ao último elemento inserido e
+ * {@link #infiniteIterator(int)} percorre a lista indefinidamente.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @see DoubleCircularQueue
+ */
+public class DoubleCircularQueue implements Cloneable, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private double[] elements;
+
+	private final int capacity;
+
+	private int head, size;
+
+	private transient int modCount;
+
+	/**
+	 * Construtor
+	 *
+	 * @param capacity número máximo de elementos (tamanho da janela)
+	 */
+	public DoubleCircularQueue(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+		this.capacity = capacity;
+		this.elements = new double[ArrayCircularQueue.ceilPow2(capacity)];
+	}
+
+	private double at(int i) {
+		return elements[(head + i) & (elements.length - 1)];
+	}
+
+	/**
+	 * Função que insere um elemento no fim da lista, descartando o primeiro
+	 * elemento caso a lista esteja cheia
+	 *
+	 * @param v elemento
+	 * @return <code>true</code> se um elemento foi descartado
+	 */
+	public boolean add(double v) {
+		boolean full = size == capacity;
+		if (full) {
+			elements[(head + size) & (elements.length - 1)] = v;
+			head = (head + 1) & (elements.length - 1);
+		} else
+			elements[(head + size++) & (elements.length - 1)] = v;
+		modCount++;
+		return full;
+	}
+
+	/**
+	 * Função que insere um elemento no fim da lista, caso esta não esteja cheia
+	 *
+	 * @param v elemento
+	 * @return <code>true</code> se o elemento foi inserido
+	 */
+	public boolean offer(double v) {
+		if (size == capacity)
+			return false;
+		elements[(head + size++) & (elements.length - 1)] = v;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Função que retorna o último elemento inserido
+	 */
+	public double peek() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return at(size - 1);
+	}
+
+	/**
+	 * Função que remove e retorna o último elemento inserido
+	 */
+	public double poll() {
+		double v = peek();
+		size--;
+		modCount++;
+		return v;
+	}
+
+	/**
+	 * Função que retorna o primeiro (mais antigo) elemento
+	 */
+	public double peekFirst() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return elements[head];
+	}
+
+	/**
+	 * Função que remove e retorna o primeiro (mais antigo) elemento
+	 */
+	public double pollFirst() {
+		double v = peekFirst();
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		modCount++;
+		return v;
+	}
+
+	/**
+	 * Função que retorna um elemento da lista
+	 *
+	 * @param index posição do elemento, com relação ao primeiro (qualquer inteiro,
+	 *              tomado módulo o tamanho da lista)
+	 * @return elemento
+	 */
+	public double get(int index) {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return at(Math.floorMod(index, size));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean isFull() {
+		return size == capacity;
+	}
+
+	public void clear() {
+		head = size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Função que copia os elementos, do primeiro ao último, para um vetor
+	 *
+	 * @param dst    vetor de destino
+	 * @param dstOff posição inicial em <code>dst</code>
+	 * @return número de elementos copiados
+	 */
+	public int copyTo(double[] dst, int dstOff) {
+		int r = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, dst, dstOff, r);
+		System.arraycopy(elements, 0, dst, dstOff + r, size - r);
+		return size;
+	}
+
+	public double[] toArray() {
+		double[] out = new double[size];
+		copyTo(out, 0);
+		return out;
+	}
+
+	/**
+	 * Função que retorna a soma dos elementos
+	 */
+	public double sum() {
+		double s = 0.0;
+		for (int i = 0; i < size; i++)
+			s += at(i);
+		return s;
+	}
+
+	public PrimitiveIterator.OfDouble iterator() {
+		return new Itr(0, false);
+	}
+
+	/**
+	 * Returns an iterator that goes round the list forever.
+	 *
+	 * @param start posição inicial, com relação ao primeiro elemento
+	 * @return iterator
+	 */
+	public PrimitiveIterator.OfDouble infiniteIterator(int start) {
+		return new Itr(start, true);
+	}
+
+	private class Itr implements PrimitiveIterator.OfDouble {
+		private int cursor, count;
+
+		private final int expectedModCount = modCount;
+
+		private final boolean infinite;
+
+		private Itr(int start, boolean infinite) {
+			this.infinite = infinite;
+			this.cursor = size == 0 ? 0 : Math.floorMod(start, size);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return infinite || count < size;
+		}
+
+		@Override
+		public double nextDouble() {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (size == 0 || !hasNext())
+				throw new NoSuchElementException();
+			if (cursor >= size)
+				cursor = 0;
+			count++;
+			return at(cursor++);
+		}
+	}
+
+	@Override
+	public DoubleCircularQueue clone() {
+		try {
+			DoubleCircularQueue out = (DoubleCircularQueue) super.clone();
+			out.elements = elements.clone();
+			out.modCount = 0;
+			return out;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
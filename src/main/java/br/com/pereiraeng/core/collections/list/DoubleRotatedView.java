@@ -0,0 +1,161 @@
+package br.com.pereiraeng.core.collections.list;
+
+import java.util.Arrays;
+
+import br.com.pereiraeng.core.collections.ArrayUtils;
+
+/**
+ * Visão girada de um trecho de um vetor de decimais: a posição lógica
+ * <code>i</code> corresponde à posição física
+ * <code>from + (head + i) mod length</code>, sendo <code>head</code> a posição
+ * do primeiro elemento, de modo que os elementos podem ser girados
+ * ({@link #rotate(int)}) sem ser movidos, e deslocados
+ * ({@link #shift(int, double)}) escrevendo-se somente as posições desocupadas. É
+ * própria para janelas de amostras deslocadas a cada instante, lidas sem
+ * cópias.
+ *
+ * O vetor não é copiado: as alterações feitas por meio da visão são escritas
+ * nele, e {@link #apply()} o reordena fisicamente.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @see ArrayUtils#rotate(double[], int, int, int)
+ */
+public class DoubleRotatedView {
+
+	private final double[] array;
+
+	private final int from, length;
+
+	/**
+	 * Posição física (relativa ao começo do trecho) do primeiro elemento lógico
+	 */
+	private int head;
+
+	/**
+	 * Construtor
+	 *
+	 * @param array vetor
+	 */
+	public DoubleRotatedView(double[] array) {
+		this(array, 0, array.length);
+	}
+
+	/**
+	 * Construtor
+	 *
+	 * @param array vetor
+	 * @param from  começo do trecho
+	 * @param to    fim do trecho (exclusive)
+	 */
+	public DoubleRotatedView(double[] array, int from, int to) {
+		if (from < 0 || to > array.length || from > to)
+			throw new IndexOutOfBoundsException("Trecho inválido: [" + from + ", " + to + "[");
+		this.array = array;
+		this.from = from;
+		this.length = to - from;
+	}
+
+	/**
+	 * Posição física de uma posição lógica (de 0 a <code>length - 1</code>)
+	 */
+	private int physical(int index) {
+		if (index < 0 || index >= length)
+			throw new IndexOutOfBoundsException("Posição inválida: " + index);
+		int p = head + index;
+		return from + (p >= length ? p - length : p);
+	}
+
+	public int length() {
+		return length;
+	}
+
+	public double get(int index) {
+		return array[physical(index)];
+	}
+
+	public void set(int index, double value) {
+		array[physical(index)] = value;
+	}
+
+	/**
+	 * Função que gira os elementos, sem movê-los
+	 *
+	 * @param distance número de posições (a nova posição lógica do elemento será a
+	 *                 antiga acrescida deste valor, módulo o comprimento)
+	 */
+	public void rotate(int distance) {
+		if (length > 0)
+			head = Math.floorMod(head - distance, length);
+	}
+
+	/**
+	 * Função que desloca os elementos: os que saem por uma extremidade são
+	 * descartados e as posições desocupadas recebem um valor de preenchimento.
+	 * Somente as posições desocupadas são escritas.
+	 *
+	 * @param shift número de posições (a nova posição lógica do elemento será a
+	 *              antiga acrescida deste valor)
+	 * @param fill  valor das posições desocupadas
+	 */
+	public void shift(int shift, double fill) {
+		int d = Math.min(Math.abs(shift), length);
+		rotate(shift);
+		if (shift > 0)
+			fill(0, d, fill);
+		else
+			fill(length - d, length, fill);
+	}
+
+	/**
+	 * Preenchimento das posições lógicas <code>[i, j[</code>, em até dois trechos
+	 * físicos
+	 */
+	private void fill(int i, int j, double value) {
+		if (i >= j)
+			return;
+		int a = (head + i) % length, n = j - i, r = Math.min(n, length - a);
+		Arrays.fill(array, from + a, from + a + r, value);
+		Arrays.fill(array, from, from + n - r, value);
+	}
+
+	/**
+	 * Função que insere um elemento no fim, descartando o primeiro (deslocamento
+	 * de uma posição para trás)
+	 *
+	 * @param value elemento
+	 */
+	public void push(double value) {
+		if (length == 0)
+			return;
+		array[from + head] = value;
+		head = head + 1 == length ? 0 : head + 1;
+	}
+
+	/**
+	 * Função que copia os elementos, na ordem lógica, para um vetor
+	 *
+	 * @param dst    vetor de destino
+	 * @param dstOff posição inicial em <code>dst</code>
+	 */
+	public void copyTo(double[] dst, int dstOff) {
+		int r = length - head;
+		System.arraycopy(array, from + head, dst, dstOff, r);
+		System.arraycopy(array, from, dst, dstOff + r, head);
+	}
+
+	public double[] toArray() {
+		double[] out = new double[length];
+		copyTo(out, 0);
+		return out;
+	}
+
+	/**
+	 * Função que reordena fisicamente o trecho do vetor na ordem lógica (por
+	 * {@link ArrayUtils#rotate(double[], int, int, int)}, sem memória adicional)
+	 */
+	public void apply() {
+		ArrayUtils.rotate(array, from, from + length, -head);
+		head = 0;
+	}
+}
@@ -0,0 +1,53 @@
+package br.com.pereiraeng.core.collections.list;
+
+/**
+ * Fila circular limitada e sem <i>locks</i> para várias <i>threads</i>
+ * produtoras e uma única <i>thread</i> consumidora. Cada produtor reserva uma
+ * posição por CAS sobre o índice do produtor e só então escreve o elemento;
+ * o consumidor aguarda a escrita de uma posição já reservada.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @param <T> classe dos objetos que ela contem
+ */
+public class MpscCircularQueue<T> extends ConcurrentCircularQueue<T> {
+
+	public MpscCircularQueue(int capacity) {
+		this(capacity, WaitStrategy.yielding());
+	}
+
+	/**
+	 * Construtor
+	 *
+	 * @param capacity     número máximo de elementos
+	 * @param waitStrategy estratégia de espera das operações bloqueantes
+	 */
+	public MpscCircularQueue(int capacity, WaitStrategy waitStrategy) {
+		super(capacity, waitStrategy);
+	}
+
+	@Override
+	public boolean offer(T e) {
+		if (e == null)
+			throw new NullPointerException();
+		long p;
+		do {
+			p = producer.get();
+			if (p - consumer.get() >= capacity)
+				return false;
+		} while (!producer.compareAndSet(p, p + 1));
+		buffer.lazySet((int) p & mask, e);
+		waitStrategy.signal();
+		return true;
+	}
+
+	@Override
+	T published(int i, long c) {
+		T e = buffer.get(i);
+		if (e == null && producer.get() != c)
+			// posição reservada, mas ainda não escrita
+			while ((e = buffer.get(i)) == null)
+				Thread.yield();
+		return e;
+	}
+}
@@ -0,0 +1,45 @@
+package br.com.pereiraeng.core.collections.list;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Contador de 64 bits isolado em sua própria linha de cache (os campos de
+ * preenchimento das superclasses e da subclasse evitam que outro valor muito
+ * escrito compartilhe a mesma linha, o <i>false sharing</i>)
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+final class Sequence extends SequenceRhsPadding {
+
+	private static final AtomicLongFieldUpdater<SequenceValue> UPDATER = AtomicLongFieldUpdater.newUpdater(SequenceValue.class,
+			"value");
+
+	long get() {
+		return value;
+	}
+
+	/**
+	 * Escrita ordenada (sem barreira completa): visível às outras <i>threads</i>
+	 * depois das escritas que a precedem
+	 */
+	void setOrdered(long v) {
+		UPDATER.lazySet(this, v);
+	}
+
+	boolean compareAndSet(long expected, long v) {
+		return UPDATER.compareAndSet(this, expected, v);
+	}
+}
+
+class SequenceLhsPadding {
+	long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class SequenceValue extends SequenceLhsPadding {
+	volatile long value;
+}
+
+class SequenceRhsPadding extends SequenceValue {
+	long p9, p10, p11, p12, p13, p14, p15;
+}
@@ -0,0 +1,55 @@
+package br.com.pereiraeng.core.collections.list;
+
+/**
+ * Fila circular limitada e sem <i>locks</i> para uma única <i>thread</i>
+ * produtora e uma única <i>thread</i> consumidora. O produtor guarda uma cópia
+ * do limite de inserção, relendo o índice do consumidor somente quando esta se
+ * esgota.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @param <T> classe dos objetos que ela contem
+ */
+public class SpscCircularQueue<T> extends ConcurrentCircularQueue<T> {
+
+	/**
+	 * Cópia, mantida pelo produtor, do índice a partir do qual a fila estaria
+	 * cheia
+	 */
+	private long producerLimit;
+
+	public SpscCircularQueue(int capacity) {
+		this(capacity, WaitStrategy.yielding());
+	}
+
+	/**
+	 * Construtor
+	 *
+	 * @param capacity     número máximo de elementos
+	 * @param waitStrategy estratégia de espera das operações bloqueantes
+	 */
+	public SpscCircularQueue(int capacity, WaitStrategy waitStrategy) {
+		super(capacity, waitStrategy);
+		this.producerLimit = capacity;
+	}
+
+	/**
+	 * Função que insere um elemento no fim da fila (somente pela <i>thread</i>
+	 * produtora)
+	 */
+	@Override
+	public boolean offer(T e) {
+		if (e == null)
+			throw new NullPointerException();
+		long p = producer.get();
+		if (p >= producerLimit) {
+			producerLimit = consumer.get() + capacity;
+			if (p >= producerLimit)
+				return false;
+		}
+		buffer.lazySet((int) p & mask, e);
+		producer.setOrdered(p + 1);
+		waitStrategy.signal();
+		return true;
+	}
+}
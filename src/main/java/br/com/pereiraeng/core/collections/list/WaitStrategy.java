@@ -0,0 +1,121 @@
+package br.com.pereiraeng.core.collections.list;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Estratégia de espera das operações bloqueantes das filas concorrentes
+ * ({@link ConcurrentCircularQueue#put(Object)},
+ * {@link ConcurrentCircularQueue#take()}), isto é, o que fazer enquanto a fila
+ * está cheia (produtor) ou vazia (consumidor)
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public interface WaitStrategy {
+
+	/**
+	 * Função que aguarda até que uma condição seja satisfeita
+	 *
+	 * @param ready condição
+	 * @throws InterruptedException se a <i>thread</i> for interrompida durante a
+	 *                              espera
+	 */
+	public void await(BooleanSupplier ready) throws InterruptedException;
+
+	/**
+	 * Função chamada após cada alteração da fila, para acordar as
+	 * <i>threads</i> em espera
+	 */
+	public void signal();
+
+	/**
+	 * Espera ativa: menor latência, ao custo de ocupar um núcleo
+	 */
+	public static WaitStrategy spinning() {
+		return new WaitStrategy() {
+			@Override
+			public void await(BooleanSupplier ready) throws InterruptedException {
+				while (!ready.getAsBoolean())
+					if (Thread.interrupted())
+						throw new InterruptedException();
+			}
+
+			@Override
+			public void signal() {
+			}
+		};
+	}
+
+	/**
+	 * Espera ativa durante algumas tentativas, cedendo depois o processador às
+	 * outras <i>threads</i> a cada tentativa
+	 */
+	public static WaitStrategy yielding() {
+		return new WaitStrategy() {
+			private static final int SPINS = 100;
+
+			@Override
+			public void await(BooleanSupplier ready) throws InterruptedException {
+				int attempt = 0;
+				while (!ready.getAsBoolean()) {
+					if (Thread.interrupted())
+						throw new InterruptedException();
+					if (++attempt > SPINS)
+						Thread.yield();
+				}
+			}
+
+			@Override
+			public void signal() {
+			}
+		};
+	}
+
+	/**
+	 * Espera bloqueada em uma {@link Condition}: não consome processador, mas o
+	 * aviso custa a aquisição de um <i>lock</i> quando há <i>threads</i> em
+	 * espera. Como as filas publicam os seus índices sem barreira completa, a
+	 * espera é limitada a 1 ms por vez, o que limita a latência de um eventual
+	 * aviso perdido.
+	 */
+	public static WaitStrategy blocking() {
+		return new WaitStrategy() {
+			private final ReentrantLock lock = new ReentrantLock();
+
+			private final Condition changed = lock.newCondition();
+
+			private final AtomicInteger waiters = new AtomicInteger();
+
+			@Override
+			public void await(BooleanSupplier ready) throws InterruptedException {
+				if (ready.getAsBoolean())
+					return;
+				lock.lock();
+				waiters.incrementAndGet();
+				try {
+					while (!ready.getAsBoolean())
+						changed.await(1, TimeUnit.MILLISECONDS);
+				} finally {
+					waiters.decrementAndGet();
+					lock.unlock();
+				}
+			}
+
+			@Override
+			public void signal() {
+				if (waiters.get() > 0) {
+					lock.lock();
+					try {
+						changed.signalAll();
+					} finally {
+						lock.unlock();
+					}
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,442 @@
+package br.com.pereiraeng.core.collections.map;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+
+import br.com.pereiraeng.core.StringUtils;
+
+/**
+ * Classe do objeto que representa um dicionário indexado para busca aproximada
+ * de palavras. É a alternativa a
+ * {@link StringUtils#searchDictionary(String, Map, boolean, boolean)} quando
+ * um mesmo dicionário é consultado várias vezes: as palavras são
+ * normalizadas uma única vez (na inserção) e organizadas em uma <a
+ * href="https://en.wikipedia.org/wiki/BK-tree">BK-tree</a> sobre a distância
+ * de Levenshtein, de modo que cada consulta visita somente os ramos que podem
+ * conter uma palavra mais {@link StringUtils#relevancia(String, String)
+ * relevante} do que a melhor encontrada até então.
+ *
+ * A semântica é a mesma de
+ * {@link StringUtils#searchDictionary(String, Map, boolean, boolean)}: só são
+ * retornadas as chaves cuja relevância seja estritamente superior à
+ * {@link StringUtils#threshold constante de proximidade} (ou ao limite
+ * indicado na consulta).
+ *
+ * Este objeto não é sincronizado.
+ *
+ * @author Philipe PEREIRA
+ *
+ * @param <K> classe das chaves do dicionário
+ */
+public class FuzzyDictionary<K> {
+
+	private final boolean caseIgnore, diacRmv;
+
+	/**
+	 * Raiz da árvore
+	 */
+	private Node<K> root;
+
+	/**
+	 * Tabela palavra normalizada -> nó da árvore (inclusive os nós sem chaves)
+	 */
+	private final Map<String, Node<K>> words = new HashMap<>();
+
+	/**
+	 * Tabela chave -> nó da árvore
+	 */
+	private final Map<K, Node<K>> keys = new HashMap<>();
+
+	/**
+	 * Número de nós da árvore que não possuem mais chaves
+	 */
+	private int dead = 0;
+
+	/**
+	 * Construtor do dicionário vazio
+	 *
+	 * @param caseIgnore se <code>true</code>, ignorar-se-á as diferenças entre
+	 *                   maiúsculas e minúsculas
+	 * @param diacRmv    se <code>true</code>, remover-se-á os acentos das palavras
+	 *                   comparadas
+	 */
+	public FuzzyDictionary(boolean caseIgnore, boolean diacRmv) {
+		this.caseIgnore = caseIgnore;
+		this.diacRmv = diacRmv;
+	}
+
+	/**
+	 * Construtor do dicionário a partir de uma tabela de dispersão
+	 *
+	 * @param dictionary tabela com as chaves e objetos
+	 * @param caseIgnore se <code>true</code>, ignorar-se-á as diferenças entre
+	 *                   maiúsculas e minúsculas
+	 * @param diacRmv    se <code>true</code>, remover-se-á os acentos das palavras
+	 *                   comparadas
+	 */
+	public FuzzyDictionary(Map<K, String> dictionary, boolean caseIgnore, boolean diacRmv) {
+		this(caseIgnore, diacRmv);
+		putAll(dictionary);
+	}
+
+	/**
+	 * Nó da árvore: uma palavra normalizada, as chaves associadas a ela e os
+	 * filhos indexados pela distância à palavra
+	 */
+	private static final class Node<K> {
+		private final String word;
+
+		private final List<K> keys = new ArrayList<>(1);
+
+		private int[] dists;
+
+		private Node<K>[] children;
+
+		private int n = 0;
+
+		private Node(String word) {
+			this.word = word;
+		}
+
+		private Node<K> getChild(int d) {
+			for (int i = 0; i < n; i++)
+				if (dists[i] == d)
+					return children[i];
+			return null;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void addChild(int d, Node<K> child) {
+			if (children == null) {
+				dists = new int[2];
+				children = new Node[2];
+			} else if (n == children.length) {
+				int[] ds = new int[2 * n];
+				System.arraycopy(dists, 0, ds, 0, n);
+				dists = ds;
+				Node<K>[] cs = new Node[2 * n];
+				System.arraycopy(children, 0, cs, 0, n);
+				children = cs;
+			}
+			dists[n] = d;
+			children[n++] = child;
+		}
+	}
+
+	private String normalize(String s) {
+		return StringUtils.normalize(s, caseIgnore, diacRmv);
+	}
+
+	private static int distance(String s1, String s2) {
+		return StringUtils.levenshteinDistance(s1, s2);
+	}
+
+	/**
+	 * Distância fictícia de um nó que está fora do alcance da busca
+	 */
+	private static final int FAR = Integer.MAX_VALUE / 2;
+
+	/**
+	 * Função que retorna a distância entre a palavra procurada e a de um nó, caso
+	 * esta seja necessária para a busca: se ela for superior ao maior índice dos
+	 * filhos acrescido do raio de busca, nem o nó nem os seus filhos interessam
+	 * (e retorna-se {@link #FAR})
+	 */
+	private static <K> int distance(String q, Node<K> node, float radius) {
+		if (radius == Float.POSITIVE_INFINITY)
+			return distance(q, node.word);
+		int max = 0;
+		for (int i = 0; i < node.n; i++)
+			max = Math.max(max, node.dists[i]);
+		max += (int) Math.ceil(radius);
+		int d = StringUtils.levenshteinDistance(q, node.word, max);
+		return d > max ? FAR : d;
+	}
+
+
+	// ============================== inserção ==============================
+
+	/**
+	 * Função que insere (ou substitui) uma palavra no dicionário
+	 *
+	 * @param key   chave
+	 * @param value palavra
+	 */
+	public void put(K key, String value) {
+		remove(key);
+		String word = normalize(value);
+		Node<K> node = words.get(word);
+		if (node == null) {
+			node = new Node<>(word);
+			words.put(word, node);
+			insert(node);
+		} else if (node.keys.isEmpty())
+			dead--;
+		node.keys.add(key);
+		keys.put(key, node);
+	}
+
+	/**
+	 * Função que insere todas as palavras de uma tabela de dispersão
+	 *
+	 * @param dictionary tabela com as chaves e objetos
+	 */
+	public void putAll(Map<K, String> dictionary) {
+		for (Entry<K, String> e : dictionary.entrySet())
+			put(e.getKey(), e.getValue());
+	}
+
+	private void insert(Node<K> node) {
+		if (root == null) {
+			root = node;
+			return;
+		}
+		Node<K> parent = root;
+		while (true) {
+			int d = distance(node.word, parent.word);
+			Node<K> child = parent.getChild(d);
+			if (child == null) {
+				parent.addChild(d, node);
+				return;
+			}
+			parent = child;
+		}
+	}
+
+	// =============================== remoção ===============================
+
+	/**
+	 * Função que remove uma chave do dicionário. O nó da palavra permanece na
+	 * árvore (para não desfazer a sua estrutura) até que a quantidade de nós
+	 * vazios justifique a reconstrução da mesma.
+	 *
+	 * @param key chave
+	 * @return <code>true</code> se a chave estava presente
+	 */
+	public boolean remove(Object key) {
+		Node<K> node = keys.remove(key);
+		if (node == null)
+			return false;
+		node.keys.remove(key);
+		if (node.keys.isEmpty() && ++dead > words.size() / 2)
+			rebuild();
+		return true;
+	}
+
+	/**
+	 * Função que remove todas as palavras do dicionário
+	 */
+	public void clear() {
+		root = null;
+		words.clear();
+		keys.clear();
+		dead = 0;
+	}
+
+	private void rebuild() {
+		List<Node<K>> alive = new ArrayList<>(words.size() - dead);
+		for (Node<K> node : words.values())
+			if (!node.keys.isEmpty()) {
+				Node<K> copy = new Node<>(node.word);
+				copy.keys.addAll(node.keys);
+				alive.add(copy);
+			}
+		clear();
+		for (Node<K> node : alive) {
+			words.put(node.word, node);
+			for (K key : node.keys)
+				keys.put(key, node);
+			insert(node);
+		}
+	}
+
+	// ================================ acesso ================================
+
+	public int size() {
+		return keys.size();
+	}
+
+	public boolean isEmpty() {
+		return keys.isEmpty();
+	}
+
+	public boolean containsKey(Object key) {
+		return keys.containsKey(key);
+	}
+
+	/**
+	 * Função que retorna a palavra <strong>normalizada</strong> associada a uma
+	 * chave
+	 *
+	 * @param key chave
+	 * @return palavra normalizada, ou <code>null</code> se a chave não estiver no
+	 *         dicionário
+	 */
+	public String get(Object key) {
+		Node<K> node = keys.get(key);
+		return node == null ? null : node.word;
+	}
+
+	// ================================ busca ================================
+
+	/**
+	 * Função que busca no dicionário a chave da palavra mais semelhante a uma
+	 * dada, usando a {@link StringUtils#threshold constante de proximidade}
+	 *
+	 * @param string palavra procurada
+	 * @return a chave da palavra mais semelhante, ou <code>null</code> se nenhuma
+	 *         superar a constante de proximidade
+	 */
+	public K search(String string) {
+		return search(string, StringUtils.threshold);
+	}
+
+	/**
+	 * Função que busca no dicionário a chave da palavra mais semelhante a uma
+	 * dada
+	 *
+	 * @param string    palavra procurada
+	 * @param threshold relevância mínima (exclusiva)
+	 * @return a chave da palavra mais semelhante, ou <code>null</code> se nenhuma
+	 *         superar a relevância mínima
+	 */
+	public K search(String string, float threshold) {
+		List<K> out = search(string, 1, threshold);
+		return out.isEmpty() ? null : out.get(0);
+	}
+
+	/**
+	 * Função que busca no dicionário as chaves das <code>k</code> palavras mais
+	 * semelhantes a uma dada, usando a {@link StringUtils#threshold constante de
+	 * proximidade}
+	 *
+	 * @param string palavra procurada
+	 * @param k      número máximo de chaves retornadas
+	 * @return lista das chaves, em ordem decrescente de relevância
+	 */
+	public List<K> search(String string, int k) {
+		return search(string, k, StringUtils.threshold);
+	}
+
+	/**
+	 * Função que busca no dicionário as chaves das <code>k</code> palavras mais
+	 * semelhantes a uma dada
+	 *
+	 * @param string    palavra procurada
+	 * @param k         número máximo de chaves retornadas
+	 * @param threshold relevância mínima (exclusiva)
+	 * @return lista das chaves, em ordem decrescente de relevância
+	 */
+	public List<K> search(String string, int k, float threshold) {
+		if (k <= 0 || root == null)
+			return Collections.emptyList();
+
+		String q = normalize(string);
+		int lq = q.length();
+
+		// melhores candidatos até então (o pior no topo)
+		PriorityQueue<Candidate<K>> best = new PriorityQueue<>(k + 1);
+
+		// a palavra idêntica, se existir, é a mais relevante possível
+		Node<K> exact = words.get(q);
+		if (exact != null && lq > 0 && exact.keys.size() >= k) {
+			List<K> out = new ArrayList<>(k);
+			for (int i = 0; i < k; i++)
+				out.add(exact.keys.get(i));
+			return out;
+		}
+
+		// busca pelo melhor primeiro, sendo a prioridade o limite inferior da
+		// distância entre a palavra procurada e as palavras do ramo
+		PriorityQueue<Branch<K>> branches = new PriorityQueue<>();
+		branches.add(new Branch<>(root, 0));
+		while (!branches.isEmpty()) {
+			Branch<K> b = branches.poll();
+
+			float min = best.size() < k ? threshold : best.peek().relevance;
+			float radius = radius(lq, min);
+			if (b.lower >= radius)
+				break; // nenhum ramo restante pode conter palavra mais relevante
+
+			Node<K> node = b.node;
+			int d = distance(q, node, radius);
+
+			if (!node.keys.isEmpty()) {
+				int maxLength = Math.max(lq, node.word.length());
+				float relevance = (maxLength - d + 0f) / maxLength;
+				if (relevance > min) {
+					for (K key : node.keys) {
+						best.add(new Candidate<>(key, relevance));
+						if (best.size() > k)
+							best.poll();
+					}
+					min = best.size() < k ? threshold : best.peek().relevance;
+					radius = radius(lq, min);
+				}
+			}
+
+			for (int i = 0; i < node.n; i++) {
+				int lower = Math.max(b.lower, Math.abs(node.dists[i] - d));
+				if (lower < radius)
+					branches.add(new Branch<>(node.children[i], lower));
+			}
+		}
+
+		List<K> out = new ArrayList<>(best.size());
+		while (!best.isEmpty())
+			out.add(best.poll().key);
+		Collections.reverse(out);
+		return out;
+	}
+
+	/**
+	 * Função que retorna o limite superior (exclusivo) da distância de
+	 * Levenshtein para que uma palavra qualquer tenha relevância superior a
+	 * <code>min</code>. Sendo <i>L</i> o tamanho da palavra e <i>l</i> o da palavra
+	 * procurada, exige-se <i>d &lt; max(l,L)(1-min)</i> e <i>d &ge; |L-l|</i>, o
+	 * que implica <i>d &lt; l(1-min)/min</i> (acrescido de uma folga para os
+	 * arredondamentos, já que as distâncias são inteiras).
+	 */
+	private static float radius(int lq, float min) {
+		if (min <= 0f)
+			return Float.POSITIVE_INFINITY;
+		if (min >= 1f)
+			return 0f;
+		return lq * (1f - min) / min + 1e-3f;
+	}
+
+	private static final class Branch<K> implements Comparable<Branch<K>> {
+		private final Node<K> node;
+		private final int lower;
+
+		private Branch(Node<K> node, int lower) {
+			this.node = node;
+			this.lower = lower;
+		}
+
+		@Override
+		public int compareTo(Branch<K> o) {
+			return Integer.compare(lower, o.lower);
+		}
+	}
+
+	private static final class Candidate<K> implements Comparable<Candidate<K>> {
+		private final K key;
+		private final float relevance;
+
+		private Candidate(K key, float relevance) {
+			this.key = key;
+			this.relevance = relevance;
+		}
+
+		@Override
+		public int compareTo(Candidate<K> o) {
+			return Float.compare(relevance, o.relevance);
+		}
+	}
+}
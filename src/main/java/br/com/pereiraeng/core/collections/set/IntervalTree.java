@@ -0,0 +1,343 @@
+package br.com.pereiraeng.core.collections.set;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Índice imutável de intervalos fechados <code>[começo, fim]</code> de limites
+ * inteiros (e.g., instantes em milissegundos).
+ *
+ * Os intervalos são ordenados pelo começo e organizados em uma árvore binária
+ * implícita sobre o vetor ordenado, em que cada nó guarda o maior fim da sua
+ * sub-árvore; as consultas de sobreposição percorrem somente as sub-árvores que
+ * podem conter resultados. As contagens são feitas por busca binária sobre os
+ * começos e os fins ordenados, e as consultas de cobertura sobre a união dos
+ * intervalos, calculada na construção.
+ *
+ * Na união, os intervalos que se sobrepõem ou que são contíguos (por padrão,
+ * como intervalos fechados de limites inteiros: <code>[0, 9]</code> e
+ * <code>[10, 19]</code> formam <code>[0, 19]</code>) são fundidos.
+ *
+ * Os intervalos são designados pelo seu índice no vetor de construção.
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+public final class IntervalTree {
+
+	/**
+	 * Limites, na ordem de construção
+	 */
+	private final long[] start, end;
+
+	/**
+	 * Índices dos intervalos ordenados pelo começo, e os seus limites nesta ordem
+	 */
+	private final int[] ids;
+	private final long[] sortedStart, sortedEnd;
+
+	/**
+	 * Maior fim da sub-árvore de cada nó (ver {@link #build(int, int)})
+	 */
+	private final long[] maxEnd;
+
+	/**
+	 * Fins em ordem crescente (para as contagens)
+	 */
+	private final long[] ends;
+
+	/**
+	 * União dos intervalos (disjuntos e ordenados) e medida acumulada da união
+	 * antes de cada um
+	 */
+	private final long[] unionStart, unionEnd, unionPrefix;
+
+	/**
+	 * Construtor, em que os intervalos contíguos (o começo de um igual ao fim do
+	 * anterior mais um) são fundidos na união
+	 *
+	 * @param start começos dos intervalos
+	 * @param end   fins dos intervalos (inclusive; maiores ou iguais aos começos)
+	 */
+	public IntervalTree(long[] start, long[] end) {
+		this(start, end, 1L);
+	}
+
+	/**
+	 * Construtor
+	 *
+	 * @param start começos dos intervalos
+	 * @param end   fins dos intervalos (inclusive; maiores ou iguais aos começos)
+	 * @param gap   maior distância entre o fim de um intervalo e o começo do
+	 *              seguinte para que sejam fundidos na união (e.g., 60000 para
+	 *              períodos que terminam no último minuto, como em
+	 *              {@link br.com.pereiraeng.core.TimeUtils#convertCalendarIntoRange(int, java.util.Calendar...)})
+	 */
+	public IntervalTree(long[] start, long[] end, long gap) {
+		int n = start.length;
+		if (end.length != n)
+			throw new IllegalArgumentException("Vetores de comprimentos diferentes");
+		if (gap < 0L)
+			throw new IllegalArgumentException("Distância negativa: " + gap);
+		for (int i = 0; i < n; i++)
+			if (end[i] < start[i])
+				throw new IllegalArgumentException("Intervalo inválido: " + i);
+		this.start = start.clone();
+		this.end = end.clone();
+
+		// ordenação dos índices pelo começo (e pelo fim)
+		long[] keys = new long[n];
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+		Arrays.sort(order, (a, b) -> {
+			int c = Long.compare(start[a], start[b]);
+			return c != 0 ? c : Long.compare(end[a], end[b]);
+		});
+		this.ids = new int[n];
+		this.sortedStart = new long[n];
+		this.sortedEnd = new long[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = order[i];
+			sortedStart[i] = start[ids[i]];
+			sortedEnd[i] = end[ids[i]];
+			keys[i] = sortedEnd[i];
+		}
+		Arrays.sort(keys);
+		this.ends = keys;
+
+		this.maxEnd = new long[n];
+		build(0, n);
+
+		// união
+		long[] us = new long[n], ue = new long[n];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			// distância sem sinal (o começo é maior que o fim anterior)
+			if (m > 0 && (sortedStart[i] <= ue[m - 1]
+					|| Long.compareUnsigned(sortedStart[i] - ue[m - 1], gap) <= 0)) {
+				if (sortedEnd[i] > ue[m - 1])
+					ue[m - 1] = sortedEnd[i];
+			} else {
+				us[m] = sortedStart[i];
+				ue[m++] = sortedEnd[i];
+			}
+		}
+		this.unionStart = Arrays.copyOf(us, m);
+		this.unionEnd = Arrays.copyOf(ue, m);
+		this.unionPrefix = new long[m + 1];
+		for (int i = 0; i < m; i++)
+			unionPrefix[i + 1] = unionPrefix[i] + (unionEnd[i] - unionStart[i]);
+	}
+
+	/**
+	 * Cálculo do maior fim da sub-árvore de <code>[lo, hi[</code>, cuja raiz é o
+	 * elemento central
+	 */
+	private long build(int lo, int hi) {
+		if (lo >= hi)
+			return Long.MIN_VALUE;
+		int mid = (lo + hi) >>> 1;
+		long m = Math.max(sortedEnd[mid], Math.max(build(lo, mid), build(mid + 1, hi)));
+		maxEnd[mid] = m;
+		return m;
+	}
+
+	/**
+	 * Número de intervalos
+	 */
+	public int size() {
+		return start.length;
+	}
+
+	public long getStart(int id) {
+		return start[id];
+	}
+
+	public long getEnd(int id) {
+		return end[id];
+	}
+
+	/**
+	 * Menor começo dos intervalos (ver
+	 * {@link br.com.pereiraeng.core.collections.SetUtils#union(Comparable[], java.util.Collection)})
+	 *
+	 * @return menor começo, ou {@link Long#MAX_VALUE} se não houver intervalos
+	 */
+	public long min() {
+		return sortedStart.length == 0 ? Long.MAX_VALUE : sortedStart[0];
+	}
+
+	/**
+	 * Maior fim dos intervalos
+	 *
+	 * @return maior fim, ou {@link Long#MIN_VALUE} se não houver intervalos
+	 */
+	public long max() {
+		return ends.length == 0 ? Long.MIN_VALUE : ends[ends.length - 1];
+	}
+
+	// -------------------------- SOBREPOSIÇÃO --------------------------
+
+	/**
+	 * Função que percorre os intervalos que se sobrepõem a um intervalo
+	 *
+	 * @param from     começo do intervalo
+	 * @param to       fim do intervalo (inclusive)
+	 * @param consumer função que recebe os índices dos intervalos, em ordem
+	 *                 crescente de começo
+	 */
+	public void overlapping(long from, long to, IntConsumer consumer) {
+		if (from <= to)
+			query(0, ids.length, from, to, consumer);
+	}
+
+	private void query(int lo, int hi, long from, long to, IntConsumer consumer) {
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			// nenhum intervalo da sub-árvore termina depois do começo
+			if (maxEnd[mid] < from)
+				return;
+			query(lo, mid, from, to, consumer);
+			// os intervalos à direita começam depois do fim
+			if (sortedStart[mid] > to)
+				return;
+			if (sortedEnd[mid] >= from)
+				consumer.accept(ids[mid]);
+			lo = mid + 1;
+		}
+	}
+
+	/**
+	 * Função que retorna os intervalos que se sobrepõem a um intervalo
+	 *
+	 * @param from começo do intervalo
+	 * @param to   fim do intervalo (inclusive)
+	 * @return índices dos intervalos, em ordem crescente de começo
+	 */
+	public int[] overlapping(long from, long to) {
+		int[] out = new int[countOverlapping(from, to)];
+		int[] n = new int[1];
+		overlapping(from, to, id -> out[n[0]++] = id);
+		return out;
+	}
+
+	/**
+	 * Função que retorna os intervalos que contêm um ponto
+	 *
+	 * @param t ponto
+	 * @return índices dos intervalos, em ordem crescente de começo
+	 */
+	public int[] stabbing(long t) {
+		return overlapping(t, t);
+	}
+
+	/**
+	 * Função que conta os intervalos que se sobrepõem a um intervalo, por duas
+	 * buscas binárias
+	 *
+	 * @param from começo do intervalo
+	 * @param to   fim do intervalo (inclusive)
+	 * @return número de intervalos
+	 */
+	public int countOverlapping(long from, long to) {
+		if (from > to)
+			return 0;
+		// os que começam até o fim, menos os que terminam antes do começo
+		return upperBound(sortedStart, to) - lowerBound(ends, from);
+	}
+
+	/**
+	 * Função que conta os intervalos que contêm um ponto
+	 *
+	 * @param t ponto
+	 * @return número de intervalos
+	 */
+	public int countStabbing(long t) {
+		return countOverlapping(t, t);
+	}
+
+	/**
+	 * Número de elementos menores que <code>key</code>
+	 */
+	private static int lowerBound(long[] a, long key) {
+		int lo = 0, hi = a.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (a[mid] < key)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Número de elementos menores ou iguais a <code>key</code>
+	 */
+	private static int upperBound(long[] a, long key) {
+		int lo = 0, hi = a.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (a[mid] <= key)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	// -------------------------- UNIÃO --------------------------
+
+	/**
+	 * Função que retorna a união dos intervalos: os intervalos que se sobrepõem ou
+	 * que são contíguos são fundidos
+	 *
+	 * @return matriz de duas colunas com os começos e fins dos intervalos
+	 *         disjuntos, em ordem crescente
+	 */
+	public long[][] union() {
+		long[][] out = new long[unionStart.length][];
+		for (int i = 0; i < out.length; i++)
+			out[i] = new long[] { unionStart[i], unionEnd[i] };
+		return out;
+	}
+
+	/**
+	 * Função que avalia se um intervalo está inteiramente contido na união dos
+	 * intervalos
+	 *
+	 * @param from começo do intervalo
+	 * @param to   fim do intervalo (inclusive)
+	 * @return <code>true</code> se estiver coberto
+	 */
+	public boolean covers(long from, long to) {
+		int i = upperBound(unionStart, from) - 1;
+		return i >= 0 && unionEnd[i] >= to;
+	}
+
+	/**
+	 * Função que calcula a medida (soma das diferenças entre fim e começo) da
+	 * parte de um intervalo coberta pela união dos intervalos (incluindo o espaço
+	 * entre os intervalos contíguos fundidos)
+	 *
+	 * @param from começo do intervalo
+	 * @param to   fim do intervalo
+	 * @return medida da parte coberta
+	 */
+	public long coverage(long from, long to) {
+		if (from >= to)
+			return 0L;
+		// primeiro intervalo da união que termina depois do começo e último que
+		// começa antes do fim
+		int a = lowerBound(unionEnd, from + 1), b = lowerBound(unionStart, to) - 1;
+		if (a > b)
+			return 0L;
+		long out = unionPrefix[b + 1] - unionPrefix[a];
+		if (unionStart[a] < from)
+			out -= from - unionStart[a];
+		if (unionEnd[b] > to)
+			out -= unionEnd[b] - to;
+		return out;
+	}
+}
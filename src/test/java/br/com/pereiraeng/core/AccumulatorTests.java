@@ -0,0 +1,59 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AccumulatorTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testSpill() throws IOException {
+		StringBuilder expected = new StringBuilder();
+		try (Accumulator acc = new Accumulator(50, dir)) {
+			for (int i = 0; i < 200; i++) {
+				String line = "linha " + i + (i % 7 == 0 ? " ação 😀" : "");
+				acc.incomingData(line);
+				expected.append(line).append('\n');
+			}
+			assertTrue(acc.isSpilled());
+			assertEquals(expected.length(), acc.length());
+			assertEquals(expected.toString(), acc.get());
+
+			StringBuilder read = new StringBuilder();
+			char[] buf = new char[37];
+			try (Reader r = acc.reader()) {
+				int n;
+				while ((n = r.read(buf)) >= 0)
+					read.append(buf, 0, n);
+			}
+			assertEquals(expected.toString(), read.toString());
+
+			CharSequence view = acc.asCharSequence();
+			assertEquals(expected.length(), view.length());
+			for (int i = view.length() - 1; i >= 0; i -= 13)
+				assertEquals(expected.charAt(i), view.charAt(i));
+			assertEquals(expected.substring(100, 400), view.subSequence(100, 400).toString());
+		}
+		try (Stream<Path> files = Files.list(dir)) {
+			assertEquals(0, files.count());
+		}
+
+		Accumulator unbounded = new Accumulator();
+		unbounded.incomingData("a");
+		unbounded.incomingData("b");
+		assertFalse(unbounded.isSpilled());
+		assertEquals("a\nb\n", unbounded.get());
+	}
+}
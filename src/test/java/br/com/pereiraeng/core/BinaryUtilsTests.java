@@ -0,0 +1,74 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class BinaryUtilsTests {
+
+	@Test
+	void testBulkConversions() {
+		int[] is = { 1, -2, 0x12345678, Integer.MIN_VALUE };
+		byte[] bs = BinaryUtils.ints2bytes(is);
+		assertEquals(0x12, bs[8]);
+		assertArrayEquals(is, BinaryUtils.bytes2ints(bs));
+
+		byte[] le = new byte[2 + 8 * 3];
+		double[] ds = { 1.5, -Math.PI, Double.MAX_VALUE };
+		BinaryUtils.doubles2bytes(ds, 0, le, 2, 3, ByteOrder.LITTLE_ENDIAN);
+		assertEquals(ByteBuffer.wrap(le, 10, 8).order(ByteOrder.LITTLE_ENDIAN).getDouble(), -Math.PI);
+		double[] back = new double[4];
+		BinaryUtils.bytes2doubles(le, 2, back, 1, 3, ByteOrder.LITTLE_ENDIAN);
+		assertArrayEquals(new double[] { 0, 1.5, -Math.PI, Double.MAX_VALUE }, back);
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(16).order(ByteOrder.LITTLE_ENDIAN);
+		short[] ss = { 1, -1, 300 };
+		BinaryUtils.shorts2bytes(ss, 0, direct, 3);
+		assertEquals(6, direct.position());
+		direct.flip();
+		short[] ss2 = new short[3];
+		BinaryUtils.bytes2shorts(direct, ss2, 0, 3);
+		assertArrayEquals(ss, ss2);
+	}
+
+	@Test
+	void testVaxConversions() throws IOException {
+		// 1.0 em VAX D: expoente 129, fração nula
+		assertArrayEquals(new byte[] { (byte) 0x80, 0x40, 0, 0, 0, 0, 0, 0 }, BinaryUtils.IEEE2vax(1.0));
+		assertEquals(1.0, BinaryUtils.vax2IEEE(new byte[] { (byte) 0x80, 0x40, 0, 0, 0, 0, 0, 0 }));
+
+		double[] ds = { 1.0, -2.5, Math.PI, 1e-30, -123456.789, 0.0 };
+		byte[] vax = new byte[8 * ds.length];
+		BinaryUtils.IEEE2vax(ds, 0, vax, 0, ds.length);
+		for (int i = 0; i < ds.length; i++)
+			assertArrayEquals(BinaryUtils.IEEE2vax(ds[i]), Arrays.copyOfRange(vax, 8 * i, 8 * i + 8));
+
+		double[] back = new double[ds.length];
+		BinaryUtils.vax2IEEE(vax, 0, back, 0, ds.length);
+		assertArrayEquals(ds, back);
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(vax.length);
+		direct.put(vax).flip();
+		Arrays.fill(back, 0.0);
+		BinaryUtils.vax2IEEE(direct, back, 0, ds.length);
+		assertArrayEquals(ds, back);
+		assertEquals(vax.length, direct.position());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long n = BinaryUtils.vax2IEEE(Channels.newChannel(new ByteArrayInputStream(vax)), Channels.newChannel(out),
+				ByteOrder.LITTLE_ENDIAN);
+		assertEquals(ds.length, n);
+		double[] streamed = new double[ds.length];
+		BinaryUtils.bytes2doubles(out.toByteArray(), 0, streamed, 0, ds.length, ByteOrder.LITTLE_ENDIAN);
+		assertArrayEquals(ds, streamed);
+	}
+}
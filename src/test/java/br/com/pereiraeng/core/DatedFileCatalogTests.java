@@ -0,0 +1,77 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DatedFileCatalogTests {
+
+	private static int day(String iso) {
+		return (int) LocalDate.parse(iso).toEpochDay();
+	}
+
+	@Test
+	void testScanAndQueries(@TempDir Path root) throws IOException {
+		Files.createFile(root.resolve("med200105.csv"));
+		Files.createFile(root.resolve("med200103.csv"));
+		Files.createFile(root.resolve("med201301.csv")); // data inválida
+		Files.createFile(root.resolve("other200104.csv"));
+		Path y = Files.createDirectories(root.resolve("2021").resolve("01"));
+		Files.createFile(y.resolve("med210110.csv"));
+		Files.createFile(root.resolve("2021").resolve("med210101.csv"));
+
+		try (DatedFileCatalog c = new DatedFileCatalog(root, "med", ".csv")) {
+			assertEquals(4, c.size());
+			assertEquals(day("2020-01-03"), c.getFirstDay());
+			assertEquals(day("2021-01-10"), c.getLastDay());
+			assertArrayEquals(new Path[] { root.resolve("med200103.csv"), root.resolve("med200105.csv") },
+					c.getFiles(day("2020-01-01"), day("2020-12-31")));
+			assertEquals(0, c.getFiles(day("2020-01-04")).length);
+			assertArrayEquals(new int[][] { { day("2020-01-04"), day("2020-01-04") },
+					{ day("2020-01-06"), day("2020-12-31") }, { day("2021-01-02"), day("2021-01-09") } }, c.getGaps());
+			assertArrayEquals(new int[][] { { day("2019-12-30"), day("2020-01-02") } },
+					c.getGaps(day("2019-12-30"), day("2020-01-03")));
+
+			Calendar[] expected = TimeUtils.getPeriod(root.toString(), "med", ".csv");
+			Calendar[] period = c.getPeriod();
+			assertEquals(expected[0], period[0]);
+			// a varredura antiga não percorre os subdiretórios
+			assertEquals(day("2021-01-10"), DatedFileCatalog.epochDay(period[1]));
+		}
+	}
+
+	@Test
+	void testWatch(@TempDir Path root) throws Exception {
+		Files.createFile(root.resolve("med200105.csv"));
+		try (DatedFileCatalog c = new DatedFileCatalog(root, "med", ".csv")) {
+			c.watch();
+			Files.createFile(root.resolve("med200101.csv"));
+			Path sub = Files.createDirectory(root.resolve("sub"));
+			Files.createFile(sub.resolve("med200201.csv"));
+			await(() -> c.size() == 3);
+			assertEquals(day("2020-01-01"), c.getFirstDay());
+			assertEquals(day("2020-02-01"), c.getLastDay());
+
+			Files.delete(root.resolve("med200101.csv"));
+			await(() -> c.size() == 2);
+			assertEquals(day("2020-01-05"), c.getFirstDay());
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long limit = System.currentTimeMillis() + 30_000L;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < limit)
+			Thread.sleep(20L);
+		assertTrue(condition.getAsBoolean());
+	}
+}
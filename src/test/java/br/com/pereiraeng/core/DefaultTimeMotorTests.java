@@ -0,0 +1,218 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.DefaultTimeMotor.Scheduling;
+
+class DefaultTimeMotorTests {
+
+	private static TimeRefresh counter(AtomicInteger count, long work) {
+		return new TimeRefresh() {
+			@Override
+			public void fireTimeRefresh() {
+				count.incrementAndGet();
+				if (work > 0)
+					try {
+						Thread.sleep(work);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+			}
+
+			@Override
+			public int getUnit() {
+				return TimeRefresh.NOT;
+			}
+
+			@Override
+			public int getWindow() {
+				return TimeRefresh.NOT;
+			}
+		};
+	}
+
+	@Test
+	void testFixedRate() throws InterruptedException {
+		AtomicInteger count = new AtomicInteger();
+		DefaultTimeMotor motor = new DefaultTimeMotor();
+		motor.setTimeRefresh(counter(count, 0));
+		motor.setScheduling(Scheduling.CATCH_UP);
+		motor.setStep(10L);
+		motor.play();
+		Thread.sleep(300L);
+		motor.stop();
+		assertFalse(motor.isOn());
+
+		int n = count.get();
+		assertTrue(n >= 10, "ticks: " + n);
+		assertEquals(n, motor.getTicks());
+		// parada determinística: nenhuma execução após stop()
+		Thread.sleep(50L);
+		assertEquals(n, count.get());
+	}
+
+	@Test
+	void testPlayStop() throws InterruptedException {
+		AtomicInteger count = new AtomicInteger();
+		DefaultTimeMotor motor = new DefaultTimeMotor();
+		motor.setTimeRefresh(counter(count, 0));
+		motor.setStep(1L);
+		for (int i = 0; i < 200; i++) {
+			motor.play();
+			// a segunda chamada não cria outra thread
+			motor.play();
+			if (i % 2 == 0) {
+				// pausa e retomada imediatas
+				motor.pause();
+				motor.pause();
+			}
+			motor.stop();
+			assertFalse(motor.isOn());
+		}
+		// parada determinística: nenhuma execução após stop(), mesmo que a thread
+		// ainda não tivesse começado
+		int n = count.get();
+		Thread.sleep(50L);
+		assertEquals(n, count.get());
+	}
+
+	@Test
+	void testSkip() throws InterruptedException {
+		AtomicInteger count = new AtomicInteger();
+		DefaultTimeMotor motor = new DefaultTimeMotor();
+		motor.setTimeRefresh(counter(count, 25L));
+		motor.setScheduling(Scheduling.SKIP);
+		motor.setStep(10L);
+		motor.play();
+		Thread.sleep(200L);
+		motor.stop();
+
+		assertTrue(motor.getOverruns() > 0);
+		assertTrue(motor.getSkipped() > 0);
+		assertTrue(motor.getMaxJitter() >= 0L);
+	}
+
+	@Test
+	void testTimerWheel() throws InterruptedException {
+		try (TimerWheel wheel = new TimerWheel(1L, 64, 2)) {
+			AtomicInteger[] counts = new AtomicInteger[50];
+			DefaultTimeMotor[] motors = new DefaultTimeMotor[counts.length];
+			for (int i = 0; i < motors.length; i++) {
+				counts[i] = new AtomicInteger();
+				motors[i] = new DefaultTimeMotor();
+				motors[i].setTimeRefresh(counter(counts[i], 0));
+				motors[i].setStep(5L + i % 3 * 5L);
+				motors[i].setTimerWheel(wheel);
+				motors[i].play();
+			}
+			Thread.sleep(200L);
+			motors[0].pause();
+			int paused = counts[0].get();
+			Thread.sleep(100L);
+			assertEquals(paused, counts[0].get());
+			for (DefaultTimeMotor m : motors)
+				m.stop();
+			// passos de 5, 10 e 15 ms: os motores mais rápidos executam mais vezes
+			assertTrue(counts[3].get() > 10);
+			assertTrue(counts[3].get() > counts[2].get());
+		}
+	}
+
+	@Test
+	void testZoneOffsetTable() {
+		Random r = new Random(7L);
+		for (String id : new String[] { "America/Sao_Paulo", "Europe/Paris", "Australia/Lord_Howe", "UTC" }) {
+			TimeZone tz = TimeZone.getTimeZone(id);
+			ZoneOffsetTable table = ZoneOffsetTable.of(tz);
+			for (int i = 0; i < 10000; i++) {
+				long ms = ZoneOffsetTable.FROM + 86400000L * 365 * 80 + (long) (r.nextDouble() * 86400000L * 365 * 120);
+				assertEquals(tz.getOffset(ms), table.getOffset(ms), id + " " + ms);
+				long from = table.previousTransition(ms), until = table.nextTransition(ms);
+				assertTrue(from <= ms && ms < until);
+				assertEquals(table.getOffset(from), table.getOffset(until - 1));
+			}
+		}
+	}
+
+	@Test
+	void testCounter() {
+		Calendar c = Calendar.getInstance(TimeZone.getTimeZone("Europe/Paris"));
+		c.set(2024, Calendar.MARCH, 31, 3, 7, 42);
+		int h = c.get(Calendar.HOUR_OF_DAY), m = c.get(Calendar.MINUTE), s = c.get(Calendar.SECOND);
+		int sod = (h * 60 + m) * 60 + s;
+		assertEquals(sod, DefaultTimeMotor.counter(Calendar.SECOND, Calendar.DAY_OF_MONTH, sod));
+		assertEquals(m * 60 + s, DefaultTimeMotor.counter(Calendar.SECOND, Calendar.HOUR_OF_DAY, sod));
+		assertEquals(s, DefaultTimeMotor.counter(Calendar.SECOND, Calendar.MINUTE, sod));
+		assertEquals(h * 60 + m, DefaultTimeMotor.counter(Calendar.MINUTE, Calendar.DAY_OF_MONTH, sod));
+		assertEquals(m, DefaultTimeMotor.counter(Calendar.MINUTE, Calendar.HOUR_OF_DAY, sod));
+		assertEquals(h, DefaultTimeMotor.counter(Calendar.HOUR_OF_DAY, Calendar.DAY_OF_MONTH, sod));
+		assertTrue(DefaultTimeMotor.counter(Calendar.HOUR_OF_DAY, Calendar.MINUTE, sod) < 0);
+
+		// janela incompatível com a unidade: recusada uma única vez, e não a cada
+		// execução
+		DefaultTimeMotor invalid = new DefaultTimeMotor();
+		assertThrows(IllegalArgumentException.class, () -> invalid.setTimeRefresh(new TimeRefresh() {
+			@Override
+			public void fireTimeRefresh() {
+			}
+
+			@Override
+			public int getUnit() {
+				return Calendar.HOUR_OF_DAY;
+			}
+
+			@Override
+			public int getWindow() {
+				return Calendar.MINUTE;
+			}
+		}));
+
+		// contador do motor, comparado aos campos do Calendar do mesmo instante
+		DefaultTimeMotor motor = new DefaultTimeMotor();
+		motor.setTimeZone(TimeZone.getTimeZone("America/Sao_Paulo"));
+		motor.setOffset(-5 * 3600 * 1000);
+		AtomicInteger errors = new AtomicInteger(), count = new AtomicInteger();
+		motor.setTimeRefresh(new TimeRefresh() {
+			@Override
+			public void fireTimeRefresh() {
+				Calendar now = motor.getNow();
+				int expected = (now.get(Calendar.HOUR_OF_DAY) * 60 + now.get(Calendar.MINUTE)) * 60
+						+ now.get(Calendar.SECOND);
+				if (motor.getT() != expected || now.getTimeInMillis() != motor.getNowMillis())
+					errors.incrementAndGet();
+				count.incrementAndGet();
+			}
+
+			@Override
+			public int getUnit() {
+				return Calendar.SECOND;
+			}
+
+			@Override
+			public int getWindow() {
+				return Calendar.DAY_OF_MONTH;
+			}
+		});
+		motor.setScheduling(Scheduling.CATCH_UP);
+		motor.setStep(5L);
+		motor.play();
+		try {
+			Thread.sleep(100L);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		motor.stop();
+		assertTrue(count.get() > 0);
+		assertEquals(0, errors.get());
+	}
+}
@@ -0,0 +1,216 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.FlowPipeline.Overflow;
+
+class FlowPipelineTests {
+
+	@Test
+	void testSyncStages() {
+		List<List<Integer>> batches = new ArrayList<>();
+		Flow<Integer> sink = new Flow<Integer>() {
+			@Override
+			public void incomingData(Integer data) {
+				batches.add(Collections.singletonList(data));
+			}
+
+			@Override
+			public void incomingBatch(List<? extends Integer> batch) {
+				batches.add(new ArrayList<>(batch));
+			}
+		};
+		try (FlowStage<String> in = FlowPipeline.<String>start().filter(s -> !s.isEmpty()).map(Integer::parseInt)
+				.buffer(3).to(sink)) {
+			in.incomingBatch(Arrays.asList("1", "", "2", "3", "4"));
+			in.incomingData("5");
+			assertEquals(Arrays.asList(Arrays.asList(1, 2, 3)), batches);
+		}
+		assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5)), batches);
+
+		List<List<Integer>> windows = new ArrayList<>();
+		FlowStage<Integer> w = FlowPipeline.<Integer>start().window(3, 2).to(windows::add);
+		for (int i = 0; i < 7; i++)
+			w.incomingData(i);
+		assertEquals(Arrays.asList(Arrays.asList(0, 1, 2), Arrays.asList(2, 3, 4), Arrays.asList(4, 5, 6)), windows);
+	}
+
+	@Test
+	void testAsync() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+			AtomicInteger signals = new AtomicInteger();
+			FlowStage<Integer> in = FlowPipeline.<Integer>start().async(16, executor, Overflow.BLOCK, on -> {
+				if (on)
+					signals.incrementAndGet();
+			}).map(i -> 2 * i).to(received::add);
+
+			Thread[] producers = new Thread[3];
+			for (int p = 0; p < producers.length; p++) {
+				final int base = 100_000 * p;
+				producers[p] = new Thread(() -> {
+					for (int i = 0; i < 20_000; i++)
+						in.incomingData(base + i);
+				});
+				producers[p].start();
+			}
+			for (Thread t : producers)
+				try {
+					t.join();
+				} catch (InterruptedException e) {
+					throw new AssertionError(e);
+				}
+			in.close();
+
+			assertEquals(60_000, received.size());
+			// a ordem de cada produtor é preservada
+			int[] last = { -2, 99_998, 199_998 };
+			for (int v : received) {
+				int p = v / 200_000;
+				assertTrue(v > last[p]);
+				last[p] = v;
+			}
+			assertTrue(signals.get() > 0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testInterruptedProducer() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+			FlowStage<Integer> in = FlowPipeline.<Integer>start().async(2, executor, Overflow.BLOCK, null)
+					.to(i -> {
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						received.add(i);
+					});
+
+			AtomicInteger delivered = new AtomicInteger();
+			AtomicReference<RuntimeException> error = new AtomicReference<>();
+			AtomicBoolean interrupted = new AtomicBoolean();
+			Thread producer = new Thread(() -> {
+				try {
+					for (int i = 0; i < 100; i++) {
+						in.incomingData(i);
+						delivered.incrementAndGet();
+					}
+				} catch (IllegalStateException e) {
+					error.set(e);
+					interrupted.set(Thread.currentThread().isInterrupted());
+				}
+			});
+			producer.start();
+			// o consumidor está bloqueado, logo a fila enche e o produtor aguarda
+			long limit = System.currentTimeMillis() + 30_000L;
+			while (producer.getState() != Thread.State.TIMED_WAITING && producer.getState() != Thread.State.WAITING
+					&& System.currentTimeMillis() < limit)
+				Thread.sleep(5L);
+			Thread.sleep(50L);
+			producer.interrupt();
+			producer.join(30_000L);
+
+			assertNotNull(error.get());
+			assertTrue(interrupted.get());
+			release.countDown();
+			in.close();
+			// o dado não entregue não chega ao consumidor
+			assertEquals(delivered.get(), received.size());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testFailingConsumer() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// falha permanente: flush() lança a falha após algumas tentativas
+			AtomicInteger calls = new AtomicInteger();
+			FlowStage<Integer> in = FlowPipeline.<Integer>start().async(16, executor, Overflow.BLOCK, null).to(i -> {
+				calls.incrementAndGet();
+				throw new UnsupportedOperationException("falha " + i);
+			});
+			in.incomingData(1);
+			IllegalStateException e = assertThrows(IllegalStateException.class, in::flush);
+			assertTrue(e.getCause() instanceof UnsupportedOperationException);
+			assertThrows(IllegalStateException.class, in::close);
+			assertTrue(calls.get() >= 3);
+
+			// falha transitória: o lote é entregue novamente, antes dos seguintes
+			List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+			AtomicInteger failures = new AtomicInteger(2);
+			FlowStage<Integer> retry = FlowPipeline.<Integer>start().async(16, executor, Overflow.BLOCK, null)
+					.to(i -> {
+						if (i == 3 && failures.getAndDecrement() > 0)
+							throw new UnsupportedOperationException();
+						received.add(i);
+					});
+			for (int i = 0; i < 3; i++)
+				retry.incomingData(i);
+			retry.flush();
+			for (int i = 3; i < 6; i++)
+				retry.incomingData(i);
+			retry.close();
+			assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), received);
+			assertTrue(failures.get() < 0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testDropped() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			AtomicInteger received = new AtomicInteger();
+			FlowStage<Integer> in = FlowPipeline.<Integer>start().map(i -> i + 1)
+					.async(4, executor, Overflow.DROP, null).to(i -> {
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						received.incrementAndGet();
+					});
+			// o consumidor está bloqueado: a fila enche e os demais dados são
+			// descartados
+			for (int i = 0; i < 100; i++)
+				in.incomingData(i);
+			long dropped = in.getDropped();
+			assertTrue(dropped > 0);
+			release.countDown();
+			in.close();
+			assertEquals(100, received.get() + dropped);
+			assertEquals(dropped, in.getDropped());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HexCodecTests {
+
+	@Test
+	void testEncodeDecode() {
+		byte[] bs = { 0, 1, 0x7f, (byte) 0x80, (byte) 0xff, 0x2a };
+		assertEquals("00017f80ff2a", StringUtils.toHex(bs));
+		assertArrayEquals(bs, StringUtils.fromHex("00017F80ff2a"));
+		assertEquals("ff7f0001", StringUtils.toHex(new short[] { (short) 0xff7f, 1 }));
+		assertEquals("deadbeef0000002a", StringUtils.toHex(new int[] { 0xdeadbeef, 42 }));
+		assertThrows(NumberFormatException.class, () -> StringUtils.fromHex("0g"));
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(bs.length);
+		direct.put(bs).flip();
+		assertEquals("00017f80ff2a", HexCodec.encode(direct));
+		direct.clear();
+		assertEquals(bs.length, HexCodec.decode("00017f80ff2a", direct));
+	}
+
+	@Test
+	void testStreams() throws IOException {
+		byte[] bs = new byte[100_000];
+		new Random(1).nextBytes(bs);
+
+		ByteArrayOutputStream hex = new ByteArrayOutputStream();
+		assertEquals(bs.length, HexCodec.encode(new ByteArrayInputStream(bs), hex));
+		assertEquals(HexCodec.encode(bs), new String(hex.toByteArray(), StandardCharsets.US_ASCII));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(bs.length, HexCodec.decode(new ByteArrayInputStream(hex.toByteArray()), out));
+		assertArrayEquals(bs, out.toByteArray());
+	}
+}
@@ -0,0 +1,96 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.HolidayCalendar.HolidaySet;
+
+class HolidayCalendarTests {
+
+	private static long day(int y, int m, int d) {
+		return LocalDate.of(y, m, d).toEpochDay();
+	}
+
+	@Test
+	void testNationalHolidays() {
+		HolidayCalendar hc = HolidayCalendar.national();
+		// 2024: carnaval 13/02, Paixão 29/03, Corpus Christi 30/05
+		for (long d : new long[] { day(2024, 1, 1), day(2024, 2, 13), day(2024, 3, 29), day(2024, 4, 21),
+				day(2024, 5, 30), day(2024, 11, 15), day(2024, 12, 25) })
+			assertTrue(hc.isHoliday(d), LocalDate.ofEpochDay(d).toString());
+		assertFalse(hc.isHoliday(day(2024, 2, 12)));
+		assertEquals(11, hc.getHolidays(2024).length);
+		assertTrue(TimeUtils.isFeriadoNacional(new GregorianCalendar(2024, Calendar.MAY, 30)));
+		assertFalse(TimeUtils.isFeriadoNacional(new GregorianCalendar(2024, Calendar.MAY, 31)));
+		assertEquals(new GregorianCalendar(2024, Calendar.MARCH, 31), TimeUtils.getPascoa(2024));
+
+		HolidayCalendar sp = hc.with(HolidaySet.fixed(Calendar.JANUARY, 25), HolidaySet.fixed(Calendar.NOVEMBER, 20, 2024, 9999));
+		assertTrue(sp.isHoliday(day(2024, 11, 20)));
+		assertFalse(sp.isHoliday(day(2023, 11, 20)));
+		assertFalse(hc.isHoliday(day(2024, 1, 25)));
+	}
+
+	@Test
+	void testBusinessDays() {
+		HolidayCalendar hc = HolidayCalendar.national();
+		Random r = new Random(3L);
+		for (int k = 0; k < 300; k++) {
+			long from = day(1895, 1, 1) + r.nextInt(320 * 365), to = from + r.nextInt(3 * 365);
+			int expected = 0;
+			for (long d = from; d < to; d++)
+				if (isBusinessDay(hc, d))
+					expected++;
+			assertEquals(expected, hc.businessDaysBetween(from, to));
+			assertEquals(-expected, hc.businessDaysBetween(to, from));
+
+			int n = 1 + r.nextInt(400);
+			long d = from;
+			for (int i = 0; i < n;)
+				if (isBusinessDay(hc, ++d))
+					i++;
+			assertEquals(d, hc.addBusinessDays(from, n));
+			assertEquals(hc.businessDaysBetween(from + 1, d + 1), n);
+			d = from;
+			for (int i = 0; i < n;)
+				if (isBusinessDay(hc, --d))
+					i++;
+			assertEquals(d, hc.addBusinessDays(from, -n));
+		}
+		// sexta-feira 29/03/2024 é feriado: o próximo dia útil é segunda-feira 01/04
+		assertEquals(day(2024, 4, 1), hc.nextBusinessDay(day(2024, 3, 28)));
+		assertEquals(day(2024, 3, 28), hc.previousBusinessDay(day(2024, 4, 1)));
+		assertEquals(day(2024, 12, 31), hc.previousBusinessDay(day(2025, 1, 2)));
+	}
+
+	@Test
+	void testNoBusinessDay() {
+		// todos os dias são feriados a partir de 2030
+		HolidayCalendar hc = new HolidayCalendar((y, d) -> {
+			if (y >= 2030)
+				for (long e = TimeUtils.epochDay(y, 1, 1); e < TimeUtils.epochDay(y + 1, 1, 1); e++)
+					d.addEpochDay(e);
+		});
+		assertEquals(day(2029, 12, 31), hc.addBusinessDays(day(2029, 12, 28), 1));
+		assertThrows(IllegalStateException.class, () -> hc.addBusinessDays(day(2029, 12, 28), 2));
+		assertThrows(IllegalStateException.class, () -> hc.nextBusinessDay(day(2031, 6, 1)));
+		assertThrows(IllegalStateException.class, () -> hc.previousBusinessDay(day(2031, 6, 1)));
+		assertEquals(day(2029, 12, 31), hc.addBusinessDays(day(2030, 6, 1), -1));
+	}
+
+	private static boolean isBusinessDay(HolidayCalendar hc, long d) {
+		DayOfWeek w = LocalDate.ofEpochDay(d).getDayOfWeek();
+		boolean b = w != DayOfWeek.SATURDAY && w != DayOfWeek.SUNDAY && !hc.isHoliday(d);
+		assertEquals(b, hc.isBusinessDay(d));
+		return b;
+	}
+}
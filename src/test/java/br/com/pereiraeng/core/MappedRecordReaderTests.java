@@ -0,0 +1,64 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.pereiraeng.core.MappedRecordReader.Layout;
+import br.com.pereiraeng.core.MappedRecordReader.Record;
+import br.com.pereiraeng.core.MappedRecordReader.Type;
+
+class MappedRecordReaderTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testRecords() throws IOException {
+		// cabeçalho de 3 bytes + registros de 20 bytes: ME-int, VAX D, RAD-50 (2
+		// palavras), unsigned short + um registro incompleto no fim
+		int n = 100;
+		byte[] data = new byte[3 + 20 * n + 7];
+		for (int i = 0; i < n; i++) {
+			int p = 3 + 20 * i;
+			BinaryUtils.getBytesME(-1000 * i, data, p);
+			BinaryUtils.IEEE2vax(i + 0.25, data, p + 4);
+			System.arraycopy(BinaryUtils.DGNAsciiToRad50b("AB" + (i % 10)), 0, data, p + 12, 2);
+			System.arraycopy(BinaryUtils.DGNAsciiToRad50b("9$."), 0, data, p + 14, 2);
+			data[p + 16] = (byte) 0xff;
+			data[p + 17] = (byte) 0xfe;
+		}
+		Path file = dir.resolve("records.dat");
+		Files.write(file, data);
+
+		Layout layout = new Layout(20).field("id", 0, Type.INT_ME).field("value", 4, Type.VAX_DOUBLE)
+				.field("name", 12, Type.RAD50, 2).field("flags", 16, Type.UNSIGNED_SHORT);
+		try (MappedRecordReader reader = new MappedRecordReader(file, 3, layout)) {
+			assertEquals(n, reader.size());
+
+			Record r = reader.get(42);
+			assertEquals(-42000, r.getInt("id"));
+			assertEquals(42.25, r.getDouble("value"));
+			assertEquals("AB29$.", r.getString("name"));
+			assertEquals(0xfeff, r.getInt("flags"));
+
+			int value = layout.indexOf("value");
+			long i = 0;
+			for (Record rec : reader) {
+				assertEquals(i, rec.getIndex());
+				assertEquals(i + 0.25, rec.getDouble(value));
+				i++;
+			}
+			assertEquals(n, i);
+
+			assertThrows(IndexOutOfBoundsException.class, () -> reader.get(n));
+			assertThrows(IllegalArgumentException.class, () -> r.getString("id"));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.PeriodBucketer.Buckets;
+import br.com.pereiraeng.core.PeriodBucketer.Statistics;
+
+class PeriodBucketerTests {
+
+	private static long[] instants(int n, long maxStep) {
+		Random r = new Random(5L);
+		long[] t = new long[n];
+		long ms = 946684800000L; // 2000
+		for (int i = 0; i < n; i++)
+			t[i] = ms += (long) (r.nextDouble() * maxStep);
+		return t;
+	}
+
+	@Test
+	void testBucket() {
+		ZoneOffsetTable zone = ZoneOffsetTable.of(ZoneId.of("America/Sao_Paulo"));
+		long[] t = instants(20000, 6 * 3_600_000L);
+		for (int per : new int[] { Calendar.HOUR_OF_DAY, Calendar.DAY_OF_MONTH, Calendar.WEEK_OF_MONTH,
+				Calendar.MONTH, Calendar.YEAR }) {
+			Buckets b = new PeriodBucketer(per, zone).bucket(t);
+			int[] ids = b.getIds();
+			for (int i = 0; i < t.length; i++) {
+				int id = ids[i];
+				long start = per == Calendar.HOUR_OF_DAY ? t[i] - Math.floorMod(zone.toLocal(t[i]), 3_600_000L)
+						: TimeUtils.getLowerBoundary(t[i], per, zone);
+				assertEquals(start, b.start(id));
+				assertEquals(true, t[i] >= b.start(id) && t[i] < b.end(id));
+				assertEquals(true, i >= b.from(id) && i < b.to(id));
+			}
+			assertEquals(t.length, b.to(b.size() - 1));
+		}
+		assertThrows(IllegalArgumentException.class,
+				() -> new PeriodBucketer(Calendar.DAY_OF_MONTH, zone).bucket(new long[] { 2L, 1L }));
+		assertEquals(0, new PeriodBucketer(Calendar.DAY_OF_MONTH, zone).bucket(new long[0]).size());
+	}
+
+	@Test
+	void testParallelAndAggregate() {
+		ZoneOffsetTable zone = ZoneOffsetTable.of(ZoneId.of("Europe/Paris"));
+		long[] t = instants(300000, 120_000L);
+		double[] v = new double[t.length];
+		for (int i = 0; i < v.length; i++)
+			v[i] = Math.sin(i);
+		PeriodBucketer pb = new PeriodBucketer(Calendar.DAY_OF_MONTH, zone);
+		Buckets seq = pb.bucket(t), par = pb.bucketParallel(t);
+		assertArrayEquals(seq.getStarts(), par.getStarts());
+		assertArrayEquals(seq.getEnds(), par.getEnds());
+		assertArrayEquals(seq.getIds(), par.getIds());
+
+		Statistics s = par.aggregate(v, true);
+		for (int b = 0; b < par.size(); b++) {
+			double sum = 0.0, min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+			for (int i = par.from(b); i < par.to(b); i++) {
+				sum += v[i];
+				min = Math.min(min, v[i]);
+				max = Math.max(max, v[i]);
+			}
+			assertEquals(par.to(b) - par.from(b), s.getCount()[b]);
+			assertEquals(sum, s.getSum()[b], 1e-9);
+			assertEquals(min, s.getMin()[b]);
+			assertEquals(max, s.getMax()[b]);
+		}
+	}
+
+	@Test
+	void testRanges() {
+		ZoneOffsetTable zone = ZoneOffsetTable.systemDefault();
+		Calendar[] cs = new Calendar[6];
+		int[] days = { 1, 2, 3, 7, 8, 20 };
+		long[] ts = new long[cs.length];
+		for (int i = 0; i < cs.length; i++) {
+			cs[i] = Calendar.getInstance();
+			cs[i].clear();
+			cs[i].set(2021, Calendar.MARCH, days[i], 10, 30);
+			ts[i] = cs[i].getTimeInMillis();
+		}
+		Calendar[][] expected = TimeUtils.convertCalendarIntoRange(Calendar.DAY_OF_MONTH, cs);
+		long[][] actual = TimeUtils.convertIntoRange(Calendar.DAY_OF_MONTH, zone, ts);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < actual.length; i++) {
+			assertEquals(expected[i][0].getTimeInMillis(), actual[i][0]);
+			assertEquals(expected[i][1].getTimeInMillis(), actual[i][1]);
+		}
+		int[] months = { TimeUtils.month2int(2021, 0), TimeUtils.month2int(2021, 1), TimeUtils.month2int(2021, 5) };
+		long[][] mr = TimeUtils.convertIntsIntoRange(Calendar.MONTH, zone, months);
+		assertEquals(2, mr.length);
+		assertEquals(TimeUtils.getLowerBoundary(ts[0], Calendar.YEAR, zone), mr[0][0]);
+		assertEquals(TimeUtils.getLowerBoundary(ts[0], Calendar.MONTH, zone) - 60_000L, mr[0][1]);
+	}
+}
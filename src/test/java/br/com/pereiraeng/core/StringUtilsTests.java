@@ -0,0 +1,89 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class StringUtilsTests {
+
+	@Test
+	void testLevenshteinDistance() {
+		assertEquals(3, StringUtils.levenshteinDistance("kitten", "sitting"));
+		assertEquals(0, StringUtils.levenshteinDistance("", ""));
+		assertEquals(4, StringUtils.levenshteinDistance("", "abcd"));
+		assertEquals(2, StringUtils.levenshteinDistance("flaw", "lawn"));
+		assertEquals(3, StringUtils.levenshteinDistance("kitten", "sitting", 5));
+		assertEquals(3, StringUtils.levenshteinDistance("kitten", "sitting", 2));
+	}
+
+	@Test
+	void testLevenshteinDistanceRandom() {
+		Random r = new Random(7);
+		for (int i = 0; i < 2000; i++) {
+			String s1 = randomWord(r, r.nextInt(i < 1000 ? 20 : 200));
+			String s2 = randomWord(r, r.nextInt(i < 1000 ? 20 : 200));
+			int expected = naive(s1, s2);
+			assertEquals(expected, StringUtils.levenshteinDistance(s1, s2));
+			int max = r.nextInt(expected + 3);
+			assertEquals(Math.min(expected, max + 1), StringUtils.levenshteinDistance(s1, s2, max));
+		}
+	}
+
+	@Test
+	void testRemoveAccent() {
+		assertEquals("Sao Joao", StringUtils.removeAccent("São João"));
+		assertEquals("sao joao", StringUtils.removeAccent("São João", true));
+		assertEquals("aeiouc AEIOUC", StringUtils.removeAccent("áêïõùç ÁÊÏÕÙÇ"));
+		String ascii = "plain ascii";
+		assertSame(ascii, StringUtils.removeAccent(ascii));
+		// fora da tabela: mesmo comportamento da decomposição canônica
+		assertEquals("\u03b1\u03b1\u0313\u0301", StringUtils.removeAccent("\u03ac\u1f04"));
+	}
+
+	@Test
+	void testAssociateDictionaryOptimal() {
+		Map<String, String> dic = new HashMap<>();
+		dic.put("A", "ana maria");
+		dic.put("B", "mariana");
+		dic.put("C", "joão");
+		List<String> strings = Arrays.asList("Mariana", "Ana Maria", "Pedro", "JOAO");
+
+		List<String> expected = Arrays.asList("B", "A", null, "C");
+		assertEquals(expected, StringUtils.associateDictionaryOptimal(strings, dic, true, true));
+
+		long cells = StringUtils.associationMaxCells;
+		try {
+			StringUtils.associationMaxCells = 0;
+			assertEquals(expected, StringUtils.associateDictionaryOptimal(strings, dic, true, true));
+		} finally {
+			StringUtils.associationMaxCells = cells;
+		}
+	}
+
+	private static String randomWord(Random r, int length) {
+		char[] cs = new char[length];
+		for (int i = 0; i < length; i++)
+			cs[i] = r.nextInt(10) == 0 ? (char) (0x3B1 + r.nextInt(3)) : (char) ('a' + r.nextInt(4));
+		return new String(cs);
+	}
+
+	private static int naive(String s1, String s2) {
+		int[][] d = new int[s1.length() + 1][s2.length() + 1];
+		for (int i = 0; i <= s1.length(); i++)
+			d[i][0] = i;
+		for (int j = 0; j <= s2.length(); j++)
+			d[0][j] = j;
+		for (int i = 1; i <= s1.length(); i++)
+			for (int j = 1; j <= s2.length(); j++)
+				d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+						d[i - 1][j - 1] + (s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1));
+		return d[s1.length()][s2.length()];
+	}
+}
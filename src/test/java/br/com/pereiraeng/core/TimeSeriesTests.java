@@ -0,0 +1,103 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.TimeSeries.Aggregation;
+import br.com.pereiraeng.core.TimeSeries.Type;
+
+class TimeSeriesTests {
+
+	private static final long T0 = 1_600_000_000_000L; // 2020-09-13T12:26:40Z
+
+	@Test
+	void testAppendAndSlice() {
+		TimeSeries ts = new TimeSeries(2, Type.DOUBLE, Type.FLOAT, Type.INT);
+		for (int i = 0; i < 1000; i++)
+			ts.appendMillis(T0 + 60_000L * i, i * 0.5, i, i * 2.4);
+		assertEquals(1000, ts.size());
+		assertEquals(T0 + 60_000L * 7, ts.getMillis(7));
+		assertEquals(3.5, ts.getDouble(7, 0));
+		assertEquals(7f, ts.getFloat(7, 1));
+		assertEquals(17, ts.getInt(7, 2));
+		assertThrows(IllegalArgumentException.class, () -> ts.appendMillis(T0, 0.0));
+
+		TimeSeries s = ts.sliceMillis(T0 + 60_000L * 10 - 500, T0 + 60_000L * 20);
+		assertEquals(11, s.size());
+		assertEquals(T0 + 60_000L * 10, s.getMillis(0));
+		assertEquals(10f, s.getFloat(0, 1));
+		Calendar from = Calendar.getInstance(), to = Calendar.getInstance();
+		from.setTimeInMillis(T0 + 60_000L * 10 + 1);
+		to.setTimeInMillis(T0 + 60_000L * 10 + 59_999L);
+		assertEquals(0, ts.slice(from, to).size());
+		assertEquals(0, ts.slice(ts.getTime(999) + 1, Integer.MAX_VALUE).size());
+	}
+
+	@Test
+	void testDownsample() {
+		ZoneOffsetTable zone = ZoneOffsetTable.of(ZoneId.of("America/Sao_Paulo"));
+		TimeSeries ts = new TimeSeries(Type.DOUBLE, Type.INT);
+		for (int i = 0; i < 72 * 60; i++)
+			ts.appendMillis(T0 + 60_000L * i + 15_000L, i, 1);
+
+		TimeSeries h = ts.downsample(Calendar.HOUR_OF_DAY, Aggregation.SUM, zone);
+		assertEquals(73, h.size()); // a primeira e a última hora são parciais
+		assertEquals(60, h.getInt(1, 1));
+
+		TimeSeries d = ts.downsample(Calendar.DAY_OF_MONTH, Aggregation.MEAN, zone);
+		long[] ms = new long[ts.size()];
+		for (int i = 0; i < ms.length; i++)
+			ms[i] = ts.getMillis(i);
+		PeriodBucketer.Buckets b = new PeriodBucketer(Calendar.DAY_OF_MONTH, zone).bucket(ms);
+		assertEquals(b.size(), d.size());
+		assertEquals(b.start(1), d.getMillis(1));
+		assertEquals((b.from(1) + b.to(1) - 1) / 2.0, d.getDouble(1, 0));
+
+		TimeSeries m = ts.downsample(Calendar.MINUTE, Aggregation.LAST, zone);
+		assertEquals(ts.size(), m.size());
+		assertEquals(TimeUtils.toInt(ts.getMillis(5) / 60_000L * 60_000L), m.getTime(5));
+		assertEquals(5.0, m.getDouble(5, 0));
+	}
+
+	@Test
+	void testPersistence() throws IOException {
+		TimeSeries ts = new TimeSeries(Type.DOUBLE, Type.FLOAT, Type.INT);
+		for (int i = 0; i < 20_000; i++)
+			ts.append(i * 3, Math.sqrt(i), i / 3f, -i);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ts.write(out);
+		assertEquals(12 + 3 + 20_000 * (4 + 8 + 4 + 4), out.size());
+		TimeSeries r = TimeSeries.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(ts.size(), r.size());
+		assertArrayEquals(Arrays.copyOf(ts.getTimes(), ts.size()), Arrays.copyOf(r.getTimes(), r.size()));
+		assertArrayEquals(Arrays.copyOf(ts.getDoubles(0), ts.size()), Arrays.copyOf(r.getDoubles(0), r.size()));
+		assertArrayEquals(Arrays.copyOf(ts.getFloats(1), ts.size()), Arrays.copyOf(r.getFloats(1), r.size()));
+		assertArrayEquals(Arrays.copyOf(ts.getInts(2), ts.size()), Arrays.copyOf(r.getInts(2), r.size()));
+		assertThrows(IOException.class, () -> TimeSeries.read(new ByteArrayInputStream(new byte[12])));
+	}
+
+	@Test
+	void testFromMap() {
+		TreeMap<Calendar, Double> map = new TreeMap<>();
+		for (int i = 0; i < 10; i++) {
+			Calendar c = Calendar.getInstance();
+			c.setTimeInMillis(T0 - 1000L * i);
+			map.put(c, (double) i);
+		}
+		TimeSeries ts = TimeSeries.of(map);
+		assertEquals(10, ts.size());
+		assertEquals(T0 - 9000L, ts.getMillis(0));
+		assertEquals(9.0, ts.getDouble(0, 0));
+	}
+}
@@ -0,0 +1,212 @@
+package br.com.pereiraeng.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TimeUtilsTests {
+
+	@Test
+	void testString2Date() throws ParseException {
+		String[][] cases = { { "2021-03-14", "yyyy-MM-dd" }, { "2021-02-30", "yyyy-MM-dd" },
+				{ "14/03/2021 17:05", "dd/MM/yyyy HH:mm" }, { "20210314", "yyyyMMdd" },
+				{ "2021-03-14T17:05:09.123", TimeUtils.ISO8601_SSS_STR }, { "14/03/21", "dd/MM/yy" },
+				{ "17:05", "HH:mm" }, { "mar 2021", "MMM yyyy" }, { "2021-03-14 17:05 -0500", "yyyy-MM-dd HH:mm Z" } };
+		for (String[] c : cases) {
+			Date expected = new SimpleDateFormat(c[1], Locale.US).parse(c[0]);
+			assertEquals(expected, TimeUtils.string2Date(c[0], c[1], Locale.US), c[0]);
+		}
+		assertSame(TimeUtils.getFormatter("yyyy-MM-dd", Locale.US), TimeUtils.getFormatter("yyyy-MM-dd", Locale.US));
+		assertNull(TimeUtils.getFormatter("dd/MM/yy", Locale.US));
+		assertThrows(DateTimeParseException.class, () -> TimeUtils.string2millis("xyz", "yyyy-MM-dd", null));
+	}
+
+	@Test
+	void testString2DateAsSimpleDateFormat() throws ParseException {
+		TimeZone tz = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+		try {
+			// horário ambíguo (fim do horário de verão) e milissegundos com um, dois e
+			// quatro dígitos
+			String[][] cases = { { "2019-02-16 23:30:00", "yyyy-MM-dd HH:mm:ss" },
+					{ "2019-02-16 23:30:00.5", "yyyy-MM-dd HH:mm:ss.SSS" },
+					{ "2021-03-14 17:05:09.5", "yyyy-MM-dd HH:mm:ss.SSS" },
+					{ "2021-03-14 17:05:09.05", "yyyy-MM-dd HH:mm:ss.SSS" },
+					{ "2021-03-14 17:05:09.050", "yyyy-MM-dd HH:mm:ss.SSS" },
+					{ "2021-03-14 17:05:09.5000", "yyyy-MM-dd HH:mm:ss.SSS" },
+					{ "20210314170509123", "yyyyMMddHHmmssSSS" } };
+			for (String[] c : cases) {
+				Date expected = new SimpleDateFormat(c[1], Locale.US).parse(c[0]);
+				assertEquals(expected, TimeUtils.string2Date(c[0], c[1], Locale.US), c[0]);
+				assertEquals(expected.getTime(), TimeUtils.string2millis(c[0], c[1], Locale.US), c[0]);
+			}
+		} finally {
+			TimeZone.setDefault(tz);
+		}
+	}
+
+	@Test
+	void testConcurrentParsing() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] fs = new Future<?>[4];
+			for (int t = 0; t < fs.length; t++) {
+				final int d0 = t;
+				fs[t] = pool.submit(() -> {
+					for (int i = 0; i < 2000; i++) {
+						int d = 1 + (d0 * 7 + i) % 28;
+						String s = String.format("2020-02-%02dT10:%02d:00", d, i % 60);
+						long expected = LocalDateTime.of(2020, 2, d, 10, i % 60).atZone(ZoneId.systemDefault())
+								.toInstant().toEpochMilli();
+						assertEquals(expected, TimeUtils.string2millis(s, TimeUtils.ISO8601_STR, null));
+						assertEquals(expected, TimeUtils.iso2millis(s));
+					}
+				});
+			}
+			for (Future<?> f : fs)
+				f.get(1, TimeUnit.MINUTES);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testIso2millis() {
+		ZoneOffsetTable sp = ZoneOffsetTable.of(ZoneId.of("America/Sao_Paulo"));
+		ZoneOffsetTable paris = ZoneOffsetTable.of(ZoneId.of("Europe/Paris"));
+		assertEquals(OffsetDateTime.parse("2021-03-14T17:05:09.123Z").toInstant().toEpochMilli(),
+				TimeUtils.iso2millis("2021-03-14T17:05:09.123Z", sp));
+		assertEquals(OffsetDateTime.parse("2021-03-14T17:05:09.123456-03:30").toInstant().toEpochMilli(),
+				TimeUtils.iso2millis("2021-03-14T17:05:09.123456-0330", sp));
+		assertEquals(OffsetDateTime.parse("1999-12-31T23:59+01:00").toInstant().toEpochMilli(),
+				TimeUtils.iso2millis("1999-12-31 23:59+01", sp));
+		for (String s : new String[] { "2016-01-01", "2018-11-04T00:30", "2019-02-16T23:30:00", "1850-06-01T12:00",
+				"2150-06-01T12:00" })
+			assertEquals(LocalDateTime.parse(s.length() == 10 ? s + "T00:00" : s).atZone(ZoneId.of("America/Sao_Paulo"))
+					.toInstant().toEpochMilli(), TimeUtils.iso2millis(s, sp), s);
+		// horário inexistente e horário ambíguo
+		for (String s : new String[] { "2024-03-31T02:30", "2024-10-27T02:30" })
+			assertEquals(LocalDateTime.parse(s).atZone(ZoneId.of("Europe/Paris")).toInstant().toEpochMilli(),
+					TimeUtils.iso2millis(s, paris), s);
+		assertEquals(TimeUtils.toInt(new Date(TimeUtils.iso2millis("2016-01-01T00:00:10Z", sp))),
+				TimeUtils.iso2int("2016-01-01T00:00:10Z", sp));
+
+		for (String s : new String[] { "2021-3-14", "2021-02-30", "2021-03-14T25:00", "2021-03-14T10:00:00.",
+				"2021-03-14T10:00X", "2021-03-14T10" })
+			assertThrows(DateTimeParseException.class, () -> TimeUtils.iso2millis(s, sp), s);
+	}
+
+	@Test
+	void testDefaultZone() {
+		TimeZone tz = TimeZone.getDefault();
+		assertEquals(LocalDateTime.of(2021, 7, 1, 8, 0).atZone(tz.toZoneId()).toInstant().toEpochMilli(),
+				TimeUtils.iso2millis("2021-07-01T08:00"));
+	}
+
+	@Test
+	void testAmbiguousBoundaries() {
+		TimeZone tz = TimeZone.getDefault();
+		try {
+			// 0h00 ambíguo (Paris, 26/09/1976) e 23h59 ambíguo (São Paulo, 16/02/2019):
+			// o segundo instante, como no Calendar
+			String[][] cases = { { "Europe/Paris", "1976-09-26T12:00" }, { "America/Sao_Paulo", "2019-02-16T12:00" },
+					{ "America/Sao_Paulo", "2000-02-26T12:00" } };
+			for (String[] c : cases) {
+				TimeZone.setDefault(TimeZone.getTimeZone(c[0]));
+				ZoneOffsetTable zone = ZoneOffsetTable.systemDefault();
+				long ms = LocalDateTime.parse(c[1]).atZone(ZoneId.of(c[0])).toInstant().toEpochMilli();
+				Calendar cal = Calendar.getInstance();
+				cal.setTimeInMillis(ms);
+				for (int per : new int[] { Calendar.YEAR, Calendar.MONTH, Calendar.DAY_OF_MONTH }) {
+					assertEquals(TimeUtils.getLowerBoundary(cal, per).getTimeInMillis(),
+							TimeUtils.getLowerBoundary(ms, per, zone), c[1] + " " + per);
+					assertEquals(TimeUtils.getUpperBoundary(cal, per).getTimeInMillis(),
+							TimeUtils.getUpperBoundary(ms, per, zone), c[1] + " " + per);
+				}
+			}
+			assertEquals(OffsetDateTime.parse("1976-09-26T00:00+01:00").toInstant().toEpochMilli(), TimeUtils
+					.getLowerBoundary(OffsetDateTime.parse("1976-09-26T12:00+01:00").toInstant().toEpochMilli(),
+							Calendar.DAY_OF_MONTH, ZoneOffsetTable.of(ZoneId.of("Europe/Paris"))));
+
+			// semana de um dia sem 0h00 (São Paulo, 02/11/1985): 0h00 do domingo, e não
+			// 1h00 como no Calendar
+			TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+			long ms = OffsetDateTime.parse("1985-11-02T12:00-02:00").toInstant().toEpochMilli();
+			Calendar cal = Calendar.getInstance();
+			cal.setTimeInMillis(ms);
+			long lower = TimeUtils.getLowerBoundary(ms, Calendar.WEEK_OF_MONTH, ZoneOffsetTable.systemDefault());
+			assertEquals(OffsetDateTime.parse("1985-10-27T00:00-03:00").toInstant().toEpochMilli(), lower);
+			assertEquals(lower + 3600000L, TimeUtils.getLowerBoundary(cal, Calendar.WEEK_OF_MONTH).getTimeInMillis());
+		} finally {
+			TimeZone.setDefault(tz);
+		}
+	}
+
+	@Test
+	void testEpochApi() {
+		ZoneOffsetTable zone = ZoneOffsetTable.systemDefault();
+		Random r = new Random(11L);
+		long[] in = new long[5000];
+		long t = 631152000000L; // 1990
+		for (int i = 0; i < in.length; i++)
+			in[i] = t += (long) (r.nextDouble() * 6 * 86400000L);
+		int[] days = new int[in.length], months = new int[in.length], weeks = new int[in.length];
+		long[] lowers = new long[in.length];
+		TimeUtils.date2int(in, days);
+		TimeUtils.month2int(in, months, zone);
+		TimeUtils.week2int(in, weeks, zone);
+		TimeUtils.getLowerBoundary(in, Calendar.MONTH, lowers, zone);
+
+		int[] pers = { Calendar.YEAR, Calendar.MONTH, Calendar.WEEK_OF_MONTH, Calendar.DAY_OF_MONTH };
+		for (int i = 0; i < in.length; i++) {
+			Calendar c = Calendar.getInstance(new Locale("pt", "BR"));
+			c.setTimeInMillis(in[i]);
+			assertEquals(TimeUtils.date2int(c), days[i]);
+			assertEquals(TimeUtils.date2int(c), TimeUtils.date2int(in[i]));
+			assertEquals(TimeUtils.month2int(c), months[i]);
+			assertEquals(TimeUtils.week2int(c), weeks[i], c.getTime().toString());
+			assertEquals(TimeUtils.getLowerBoundary(c, Calendar.MONTH).getTimeInMillis(), lowers[i]);
+			for (int per : pers) {
+				Calendar[] range = TimeUtils.getRange(c, per);
+				// começo inexistente (horário de verão à meia-noite): o Calendar mantém 1h00 no
+				// fim do período
+				if (range[0].get(Calendar.HOUR_OF_DAY) != 0)
+					continue;
+				assertArrayEquals(new long[] { range[0].getTimeInMillis(), range[1].getTimeInMillis() },
+						TimeUtils.getRange(in[i], per, zone));
+				// 23h59 locais do mesmo dia (que pode ser ambíguo no fim do horário de verão)
+				Calendar upper = Calendar.getInstance();
+				upper.setTimeInMillis(TimeUtils.getUpperBoundary(in[i], per, zone));
+				assertEquals(String.format("%tF %<tR", TimeUtils.getUpperBoundary(c, per)),
+						String.format("%tF %<tR", upper));
+			}
+			if (i > 0)
+				assertEquals(days[i] == days[i - 1], TimeUtils.isSameDay(in[i], in[i - 1], zone));
+		}
+		int[] ints = new int[in.length];
+		TimeUtils.toInt(in, ints);
+		assertEquals(TimeUtils.toInt(new Date(in[7])), ints[7]);
+		assertEquals(in[7] / 1000 * 1000, TimeUtils.toLong(ints[7]));
+		assertEquals(days[7], TimeUtils.date2int(TimeUtils.int2millis(days[7], zone), zone));
+	}
+}
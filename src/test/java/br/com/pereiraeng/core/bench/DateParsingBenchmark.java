@@ -0,0 +1,60 @@
+package br.com.pereiraeng.core.bench;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.pereiraeng.core.TimeUtils;
+
+/**
+ * Comparação entre a leitura de datas ISO 8601 por um {@link SimpleDateFormat}
+ * criado a cada chamada (como antes em
+ * {@link TimeUtils#string2Date(String, String, java.util.Locale)}), pelo
+ * formatador da cache e pela leitura direta de
+ * {@link TimeUtils#iso2millis(CharSequence)}
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+
+	private final String date = "2021-03-14T17:05:09";
+
+	@Benchmark
+	public long simpleDateFormat() throws ParseException {
+		return new SimpleDateFormat(TimeUtils.ISO8601_STR).parse(date).getTime();
+	}
+
+	@Benchmark
+	public long cachedFormatter() {
+		return TimeUtils.string2millis(date, TimeUtils.ISO8601_STR, null);
+	}
+
+	@Benchmark
+	public long iso2millis() {
+		return TimeUtils.iso2millis(date);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DateParsingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
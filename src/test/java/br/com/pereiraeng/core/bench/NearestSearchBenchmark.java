@@ -0,0 +1,102 @@
+package br.com.pereiraeng.core.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.pereiraeng.core.collections.ArrayUtils;
+
+/**
+ * Comparação entre a busca do valor mais próximo em um eixo ordenado de um
+ * milhão de posições pela varredura linear de
+ * {@link ArrayUtils#getNearestIndice(double[], double, boolean)}, como antes,
+ * pela busca binária e pela busca em lote de valores ordenados (1000 buscas por
+ * execução, exceto na varredura linear, com 100)
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearestSearchBenchmark {
+
+	private double[] axis, queries;
+
+	private int[] out;
+
+	@Setup
+	public void setup() {
+		axis = new double[1_000_000];
+		for (int i = 0; i < axis.length; i++)
+			axis[i] = 0.5 * i;
+		queries = new double[1000];
+		Random r = new Random(1L);
+		for (int k = 0; k < queries.length; k++)
+			queries[k] = r.nextDouble() * 0.5 * axis.length;
+		Arrays.sort(queries);
+		out = new int[queries.length];
+	}
+
+	/**
+	 * Varredura linear com parada no primeiro afastamento
+	 */
+	private static int linear(double[] vector, double value) {
+		int indice = -1;
+		double maxDelta = Double.MAX_VALUE;
+		for (int i = 0; i < vector.length; i++) {
+			double distance = Math.abs(vector[i] - value);
+			if (distance == 0.)
+				return i;
+			else if (distance < maxDelta) {
+				indice = i;
+				maxDelta = distance;
+			} else
+				return indice;
+		}
+		return indice;
+	}
+
+	@Benchmark
+	public int linear() {
+		int s = 0;
+		for (int k = 0; k < queries.length; k += 10)
+			s += linear(axis, queries[k]);
+		return s;
+	}
+
+	@Benchmark
+	public int binary() {
+		int s = 0;
+		for (double q : queries)
+			s += ArrayUtils.nearestIndex(axis, q);
+		return s;
+	}
+
+	@Benchmark
+	public int[] batch() {
+		ArrayUtils.nearestIndexes(axis, queries, out);
+		return out;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(NearestSearchBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,67 @@
+package br.com.pereiraeng.core.bench;
+
+import java.text.Normalizer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.pereiraeng.core.StringUtils;
+
+/**
+ * Comparação entre a remoção de acentos por tabela de
+ * {@link StringUtils#removeAccent(String, boolean)} e a implementação anterior
+ * (normalização caracter a caracter)
+ * 
+ * @author Philipe PEREIRA
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoveAccentBenchmark {
+
+	@Param({ "Sao Paulo - Rio de Janeiro", "São João da Boa Vista - Conceição do Araguaia" })
+	public String text;
+
+	@Benchmark
+	public String legacy() {
+		return legacyRemoveAccent(text.toLowerCase());
+	}
+
+	@Benchmark
+	public String table() {
+		return StringUtils.removeAccent(text, true);
+	}
+
+	private static String legacyRemoveAccent(String text) {
+		StringBuilder out = new StringBuilder();
+		String[] ss = text.split("");
+		for (String s : ss) {
+			s = Normalizer.normalize(s, Normalizer.Form.NFD);
+			if (s.length() == 2)
+				out.append(s.charAt(0));
+			else
+				out.append(s);
+		}
+		return out.toString();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RemoveAccentBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,121 @@
+package br.com.pereiraeng.core.bench;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.pereiraeng.core.PeriodBucketer;
+import br.com.pereiraeng.core.TimeUtils;
+import br.com.pereiraeng.core.ZoneOffsetTable;
+
+/**
+ * Comparação entre a classificação de instantes ordenados em dias e em meses
+ * por objetos {@link Calendar} ({@link TimeUtils#date2int(Calendar)} e
+ * {@link TimeUtils#month2int(Calendar)}) e pelas funções em lote sobre
+ * instantes em milissegundos, e entre a determinação dos intervalos diários
+ * por {@link TimeUtils#convertCalendarIntoRange(int, Calendar...)} e por
+ * {@link PeriodBucketer}
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeBucketingBenchmark {
+
+	@Param({ "65536" })
+	public int size;
+
+	private long[] instants;
+
+	private int[] out;
+
+	private Calendar[] calendars;
+
+	private final ZoneOffsetTable zone = ZoneOffsetTable.systemDefault();
+
+	@Setup
+	public void setup() {
+		Random r = new Random(42);
+		instants = new long[size];
+		long t = 1451613600000L;
+		for (int i = 0; i < size; i++)
+			instants[i] = t += r.nextInt(3_600_000);
+		out = new int[size];
+		calendars = new Calendar[size];
+		for (int i = 0; i < size; i++) {
+			calendars[i] = Calendar.getInstance();
+			calendars[i].setTimeInMillis(instants[i]);
+		}
+	}
+
+	@Benchmark
+	public int[] calendarDays() {
+		for (int i = 0; i < size; i++) {
+			Calendar c = Calendar.getInstance();
+			c.setTimeInMillis(instants[i]);
+			out[i] = TimeUtils.date2int(c);
+		}
+		return out;
+	}
+
+	@Benchmark
+	public int[] batchDays() {
+		TimeUtils.date2int(instants, out, zone);
+		return out;
+	}
+
+	@Benchmark
+	public int[] calendarMonths() {
+		for (int i = 0; i < size; i++) {
+			Calendar c = Calendar.getInstance();
+			c.setTimeInMillis(instants[i]);
+			out[i] = TimeUtils.month2int(c);
+		}
+		return out;
+	}
+
+	@Benchmark
+	public int[] batchMonths() {
+		TimeUtils.month2int(instants, out, zone);
+		return out;
+	}
+
+	@Benchmark
+	public Calendar[][] calendarRanges() {
+		return TimeUtils.convertCalendarIntoRange(Calendar.DAY_OF_MONTH, calendars);
+	}
+
+	@Benchmark
+	public long[][] bucketerRanges() {
+		return TimeUtils.convertIntoRange(Calendar.DAY_OF_MONTH, zone, instants);
+	}
+
+	@Benchmark
+	public PeriodBucketer.Statistics bucketerAggregate() {
+		return new PeriodBucketer(Calendar.DAY_OF_MONTH, zone).bucket(instants).aggregate(new double[size], false);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TimeBucketingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,62 @@
+package br.com.pereiraeng.core.bench;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.pereiraeng.core.DefaultTimeMotor;
+import br.com.pereiraeng.core.ZoneOffsetTable;
+
+/**
+ * Comparação entre o cálculo do segundo do dia (contador do
+ * {@link DefaultTimeMotor} em segundos com janela diária) por um
+ * {@link Calendar} criado a cada execução, como antes, e pela
+ * {@link ZoneOffsetTable tabela} de deslocamentos do fuso
+ *
+ * @author Philipe PEREIRA
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeCounterBenchmark {
+
+	private final TimeZone zone = TimeZone.getTimeZone("America/Sao_Paulo");
+
+	private final ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+
+	private int offset = 1000;
+
+	@Benchmark
+	public int calendar() {
+		Calendar now = Calendar.getInstance(zone);
+		now.add(Calendar.MILLISECOND, offset);
+		return (now.get(Calendar.HOUR_OF_DAY) * 60 + now.get(Calendar.MINUTE)) * 60 + now.get(Calendar.SECOND);
+	}
+
+	@Benchmark
+	public int table() {
+		long ms = System.currentTimeMillis() + offset;
+		return (int) (Math.floorMod(table.toLocal(ms), 86400000L) / 1000L);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TimeCounterBenchmark.class.getSimpleName()).build()).run();
+	}
+}
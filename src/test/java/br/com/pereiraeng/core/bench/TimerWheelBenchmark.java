@@ -0,0 +1,105 @@
+package br.com.pereiraeng.core.bench;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.pereiraeng.core.DefaultTimeMotor;
+import br.com.pereiraeng.core.TimeRefresh;
+import br.com.pereiraeng.core.TimerWheel;
+
+/**
+ * Comparação entre 1000 {@link DefaultTimeMotor motores}, cada um com a sua
+ * <i>thread</i>, e os mesmos motores agendados em uma {@link TimerWheel}
+ * compartilhada: tempo para que todos os motores façam 20 execuções com passo
+ * de 10 ms (o ideal é 200 ms; o excedente é o atraso acumulado)
+ * 
+ * @author Philipe PEREIRA
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimerWheelBenchmark {
+
+	private static final int TICKS = 20;
+
+	@Param({ "1000" })
+	public int motors;
+
+	@Param({ "THREAD", "WHEEL" })
+	public String mode;
+
+	private TimerWheel wheel;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if ("WHEEL".equals(mode))
+			wheel = new TimerWheel(1L, 512, 4);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (wheel != null)
+			wheel.close();
+	}
+
+	@Benchmark
+	public void run() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(motors);
+		DefaultTimeMotor[] ms = new DefaultTimeMotor[motors];
+		for (int i = 0; i < motors; i++) {
+			DefaultTimeMotor m = new DefaultTimeMotor();
+			m.setStep(10L);
+			m.setTimeRefresh(new TimeRefresh() {
+				private int count;
+
+				@Override
+				public void fireTimeRefresh() {
+					if (++count == TICKS)
+						done.countDown();
+				}
+
+				@Override
+				public int getUnit() {
+					return TimeRefresh.NOT;
+				}
+
+				@Override
+				public int getWindow() {
+					return TimeRefresh.NOT;
+				}
+			});
+			m.setTimerWheel(wheel);
+			ms[i] = m;
+		}
+		for (DefaultTimeMotor m : ms)
+			m.play();
+		done.await();
+		for (DefaultTimeMotor m : ms)
+			m.stop();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TimerWheelBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,209 @@
+package br.com.pereiraeng.core.bench;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.pereiraeng.core.BinaryUtils;
+
+/**
+ * Comparação entre as conversões em lote VAX D &lt;-&gt; IEEE 754 de
+ * {@link BinaryUtils} e a implementação anterior (um decimal por vez, com
+ * vetores e {@link ByteBuffer} intermediários)
+ * 
+ * @author Philipe PEREIRA
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VaxConversionBenchmark {
+
+	@Param({ "1024", "65536" })
+	public int size;
+
+	private double[] ieee;
+
+	private byte[] vax;
+
+	@Setup
+	public void setup() {
+		Random r = new Random(42);
+		ieee = new double[size];
+		for (int i = 0; i < size; i++)
+			ieee[i] = (r.nextDouble() - 0.5) * Math.pow(10, r.nextInt(60) - 30);
+		vax = new byte[8 * size];
+		BinaryUtils.IEEE2vax(ieee, 0, vax, 0, size);
+	}
+
+	@Benchmark
+	public double[] legacyDecode() {
+		double[] out = new double[size];
+		for (int i = 0; i < size; i++)
+			out[i] = legacyVax2IEEE(vax, 8 * i);
+		return out;
+	}
+
+	@Benchmark
+	public double[] batchDecode() {
+		double[] out = new double[size];
+		BinaryUtils.vax2IEEE(vax, 0, out, 0, size);
+		return out;
+	}
+
+	@Benchmark
+	public byte[] legacyEncode() {
+		byte[] out = new byte[8 * size];
+		for (int i = 0; i < size; i++)
+			System.arraycopy(legacyIEEE2vax(ieee[i]), 0, out, 8 * i, 8);
+		return out;
+	}
+
+	@Benchmark
+	public byte[] batchEncode() {
+		byte[] out = new byte[8 * size];
+		BinaryUtils.IEEE2vax(ieee, 0, out, 0, size);
+		return out;
+	}
+
+	static double legacyVax2IEEE(byte[] dbl, int offset) {
+		long[] dt = new long[2];
+
+		// Arrange the VAX double so that it may be accessed by a double64_t
+		// structure, (two GUInt32s).
+
+		byte[] ib = new byte[8];
+
+		ib[2] = dbl[4 + offset];
+		ib[3] = dbl[5 + offset];
+		ib[0] = dbl[6 + offset];
+		ib[1] = dbl[7 + offset];
+		dt[0] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
+
+		ib[2] = dbl[offset];
+		ib[3] = dbl[1 + offset];
+		ib[0] = dbl[2 + offset];
+		ib[1] = dbl[3 + offset];
+		dt[1] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
+
+		// Save the sign of the double
+		int sign = (int) (dt[1] & 0x80000000);
+
+		// Adjust the exponent so that we may work with it
+		int exponent = (int) (dt[1] >> 23);
+		exponent &= 0x000000ff;
+
+		if (exponent != 0)
+			exponent = exponent - 129 + 1023;
+
+		// Save the bits that we are discarding so we can round properly
+		int rndbits = (int) (dt[0] & 0x00000007);
+
+		dt[0] >>= 3;
+		dt[0] = (dt[0] & 0x1fffffff) | (dt[1] << 29);
+
+		if (rndbits != 0) // que resto é esse? Um dia descubro...
+			dt[0] |= 0x00000001;
+
+		// Shift the hi-order int over 3 and insert the exponent and sign
+		dt[1] >>= 3;
+		dt[1] &= 0x000fffff;
+		dt[1] |= (exponent << 20) | sign;
+
+		byte[] db = new byte[8];
+
+		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putLong(dt[0]);
+		System.arraycopy(ib, 0, db, 0, 4);
+
+		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putLong(dt[1]);
+		System.arraycopy(ib, 0, db, 4, 4);
+
+		return ByteBuffer.wrap(db).order(ByteOrder.LITTLE_ENDIAN).getDouble();
+	}
+
+	static byte[] legacyIEEE2vax(double d) {
+		long[] dt = new long[2];
+
+		byte[] db = new byte[8];
+		ByteBuffer.wrap(db).order(ByteOrder.LITTLE_ENDIAN).putDouble(d);
+
+		byte[] ib = new byte[8];
+		System.arraycopy(db, 0, ib, 0, 4);
+		dt[0] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
+
+		System.arraycopy(db, 4, ib, 0, 4);
+		dt[1] = ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).getLong();
+
+		int sign = (int) (dt[1] & 0x80000000);
+		int exponent = (int) (dt[1] >> 20);
+		exponent &= 0x000007ff;
+
+		// An exponent of zero means a zero value.
+		if (exponent != 0)
+			exponent = exponent - 1023 + 129;
+
+		// In the case of overflow, return the largest number we can
+		if (exponent > 255) {
+			byte[] out = new byte[8];
+			Arrays.fill(out, (byte) 0xff);
+
+			if (sign == 0)
+				out[1] = (byte) 0x7f;
+
+			return out;
+		}
+
+		// In the case of of underflow return zero
+		else if ((exponent < 0) || (exponent == 0 && sign == 0)) {
+			return new byte[8];
+		} else {
+			// Shift the fraction 3 bits left and set the exponent and sign
+			dt[1] <<= 3;
+			dt[1] |= (dt[0] >> 29);
+			dt[1] &= 0x007fffff;
+			dt[1] = dt[1] | (exponent << 23) | sign;
+
+			dt[0] <<= 3;
+		}
+
+		// Convert the double back to VAX format
+
+		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putInt((int) dt[1]);
+		db[0] = ib[2];
+		db[1] = ib[3];
+		db[2] = ib[0];
+		db[3] = ib[1];
+
+		ByteBuffer.wrap(ib).order(ByteOrder.LITTLE_ENDIAN).putInt((int) dt[0]);
+		db[4] = ib[2];
+		db[5] = ib[3];
+		db[6] = ib[0];
+		db[7] = ib[1];
+
+		return db;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(VaxConversionBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,145 @@
+package br.com.pereiraeng.core.collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayUtilsTests {
+
+	/**
+	 * Busca linear (primeira posição da menor distância)
+	 */
+	private static int linearNearest(double[] a, double v) {
+		int out = -1;
+		for (int i = 0; i < a.length; i++)
+			if (out < 0 || Math.abs(a[i] - v) < Math.abs(a[out] - v))
+				out = i;
+		return out;
+	}
+
+	@Test
+	void testSortedSearch() {
+		Random r = new Random(24L);
+		double[] a = new double[1000];
+		for (int i = 0; i < a.length; i++)
+			a[i] = r.nextInt(3000) / 2.0; // com repetições e empates
+		Arrays.sort(a);
+		float[] f = new float[a.length];
+		long[] l = new long[a.length];
+		for (int i = 0; i < a.length; i++) {
+			f[i] = (float) a[i];
+			l[i] = (long) (2 * a[i]);
+		}
+
+		double[] qs = new double[5000];
+		for (int k = 0; k < qs.length; k++)
+			qs[k] = r.nextInt(3200) / 2.0 - 50;
+		int[] batch = new int[qs.length];
+		for (double q : qs) {
+			int expected = linearNearest(a, q);
+			assertEquals(expected, ArrayUtils.nearestIndex(a, q), "" + q);
+			assertEquals(expected, ArrayUtils.getNearestIndice(a, q, true));
+			assertEquals(expected, ArrayUtils.getNearestIndice(a, q, false));
+			assertEquals(expected, ArrayUtils.nearestIndex(f, (float) q));
+			assertEquals(expected, ArrayUtils.nearestIndex(l, (long) (2 * q)));
+
+			int floor = -1, ceil = a.length;
+			for (int i = 0; i < a.length; i++) {
+				if (a[i] <= q)
+					floor = i;
+				if (a[i] >= q && ceil == a.length)
+					ceil = i;
+			}
+			assertEquals(floor, ArrayUtils.floorIndex(a, q));
+			assertEquals(ceil, ArrayUtils.ceilingIndex(a, q));
+			assertEquals(floor, ArrayUtils.floorIndex(l, (long) (2 * q)));
+			assertEquals(ceil, ArrayUtils.ceilingIndex(f, (float) q));
+		}
+
+		// em lote, com valores ordenados ou não
+		ArrayUtils.nearestIndexes(a, qs, batch);
+		for (int k = 0; k < qs.length; k++)
+			assertEquals(linearNearest(a, qs[k]), batch[k]);
+		double[] sorted = qs.clone();
+		Arrays.sort(sorted);
+		ArrayUtils.nearestIndexes(a, sorted, batch);
+		for (int k = 0; k < qs.length; k++)
+			assertEquals(linearNearest(a, sorted[k]), batch[k]);
+		assertEquals(-1, ArrayUtils.nearestIndex(new double[0], 1.0));
+	}
+
+	@Test
+	void testInterpolate() {
+		double[] xs = { 0, 1, 1, 3 }, ys = { 0, 10, 20, 40 };
+		assertEquals(0.0, ArrayUtils.interpolate(xs, ys, -1.0));
+		assertEquals(5.0, ArrayUtils.interpolate(xs, ys, 0.5));
+		assertEquals(30.0, ArrayUtils.interpolate(xs, ys, 2.0));
+		assertEquals(40.0, ArrayUtils.interpolate(xs, ys, 4.0));
+		double[] out = new double[3];
+		ArrayUtils.interpolate(xs, ys, new double[] { 0.5, 2.0, 0.25 }, out);
+		assertArrayEquals(new double[] { 5.0, 30.0, 2.5 }, out);
+
+		assertEquals(2.5f, ArrayUtils.interpolate(new float[] { 0f, 2f }, new float[] { 0f, 5f }, 1f));
+		assertEquals(7.5, ArrayUtils.interpolate(new long[] { 1000L, 2000L }, new double[] { 5.0, 10.0 }, 1500L));
+	}
+
+	@Test
+	void testContains() {
+		double[] xs = { 0, 1, 2, 2, 5 };
+		double[] x = { -1, 0, 0.5, 1, 2, 3, 5, 6 };
+		int[] expected = { 0, 1, 1, 1, 2, 4, 4, 5 };
+		for (int k = 0; k < x.length; k++)
+			assertEquals(expected[k], ArrayUtils.contains(x[k], xs), "" + x[k]);
+	}
+
+	/**
+	 * Deslocamento elemento a elemento, a partir de uma cópia
+	 */
+	private static double[] naiveShift(double[] a, int from, int to, int shift, double fill) {
+		double[] out = a.clone();
+		for (int i = from; i < to; i++) {
+			int k = i - shift;
+			out[i] = k >= from && k < to ? a[k] : fill;
+		}
+		return out;
+	}
+
+	@Test
+	void testShiftAndRotate() {
+		double[] a = new double[11];
+		for (int i = 0; i < a.length; i++)
+			a[i] = i;
+		for (int shift = -13; shift <= 13; shift++) {
+			double[] b = a.clone();
+			ArrayUtils.shift(b, 2, 9, shift, -1.0);
+			assertArrayEquals(naiveShift(a, 2, 9, shift, -1.0), b, "" + shift);
+
+			b = a.clone();
+			ArrayUtils.rotate(b, 2, 9, shift);
+			for (int i = 2; i < 9; i++)
+				assertEquals(a[i], b[2 + Math.floorMod(i - 2 + shift, 7)]);
+			assertEquals(a[1], b[1]);
+			assertEquals(a[9], b[9]);
+
+			// vetor inteiro: as posições desocupadas mantêm os seus valores
+			b = a.clone();
+			ArrayUtils.shiftedArray(b, shift);
+			double[] expected = naiveShift(a, 0, a.length, shift, Double.NaN);
+			for (int i = 0; i < a.length; i++)
+				assertEquals(Double.isNaN(expected[i]) ? a[i] : expected[i], b[i]);
+		}
+
+		String[] s = { "a", "b", "c", "d" };
+		ArrayUtils.rotate(s, 1);
+		assertArrayEquals(new String[] { "d", "a", "b", "c" }, s);
+		ArrayUtils.shift(s, -2, "");
+		assertArrayEquals(new String[] { "b", "c", "", "" }, s);
+		int[] is = { 1, 2, 3 };
+		ArrayUtils.shift(is, 5, 0);
+		assertArrayEquals(new int[3], is);
+	}
+}
@@ -0,0 +1,69 @@
+package br.com.pereiraeng.core.collections.comparison;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.collections.ListUtils;
+
+class AlphabeticalOrderTests {
+
+	/**
+	 * Elemento cuja chave se repete (mesmo texto), para verificar a estabilidade
+	 */
+	private static final class Item {
+		private final String name;
+		private final int id;
+
+		private Item(String name, int id) {
+			this.name = name;
+			this.id = id;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	private static final String[] WORDS = { "la Été", "ete", "été", "Le chat", "chat", "l'arbre", "arbre", "une île",
+			"ile", "Zèbre", "zebre", "des ânes", "anes", "to be", "be", "Ça" };
+
+	private static List<Item> items(int n) {
+		Random r = new Random(5L);
+		List<Item> out = new ArrayList<>(n);
+		for (int i = 0; i < n; i++)
+			out.add(new Item(WORDS[r.nextInt(WORDS.length)], i));
+		return out;
+	}
+
+	private static void assertSameOrder(List<Item> expected, List<Item> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(expected.get(i).id, actual.get(i).id, "posição " + i);
+	}
+
+	@Test
+	void testSameAsCollectionsSort() {
+		// abaixo e acima do limite da ordenação em paralelo
+		for (int n : new int[] { 200, 20_000 })
+			for (boolean prepare : new boolean[] { false, true }) {
+				List<Item> expected = items(n);
+				Collections.sort(expected, new AlphabeticalOrder(prepare));
+
+				List<Item> actual = items(n);
+				AlphabeticalOrder.sort(actual, prepare);
+				assertSameOrder(expected, actual);
+
+				List<Item> linked = new LinkedList<>(items(n));
+				ListUtils.sortByAlphabeticalOrder(linked, prepare);
+				assertSameOrder(expected, linked);
+			}
+	}
+}
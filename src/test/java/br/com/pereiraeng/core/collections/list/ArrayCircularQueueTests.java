@@ -0,0 +1,75 @@
+package br.com.pereiraeng.core.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayCircularQueueTests {
+
+	@Test
+	void testSameSemanticsAsCircularQueue() {
+		CircularQueue<Integer> linked = new CircularQueue<>();
+		ArrayCircularQueue<Integer> array = new ArrayCircularQueue<>(2);
+		for (int i = 0; i < 37; i++) {
+			linked.offer(i);
+			array.offer(i);
+		}
+		assertEquals(linked.size(), array.size());
+		assertEquals(linked.peek(), array.peek());
+		assertEquals(linked.poll(), array.poll());
+		assertEquals(linked.toString(), array.toString());
+
+		Iterator<Integer> it1 = linked.infiniteIterator(5), it2 = array.infiniteIterator(5);
+		for (int i = 0; i < 100; i++)
+			assertEquals(it1.next(), it2.next());
+
+		ArrayCircularQueue<Integer> rotated = new ArrayCircularQueue<>();
+		for (int i = 0; i < array.size(); i++)
+			rotated.add(array.get(i + 10));
+		assertEquals(array, rotated);
+		assertEquals(array.hashCode(), rotated.hashCode());
+
+		for (Iterator<Integer> it = array.iterator(); it.hasNext();)
+			if (it.next() % 2 == 0)
+				it.remove();
+		assertEquals(18, array.size());
+		assertEquals(1, (int) array.get(0));
+		assertEquals(35, (int) array.peek());
+	}
+
+	@Test
+	void testSlidingWindows() {
+		IntCircularQueue ints = new IntCircularQueue(5);
+		for (int i = 0; i < 5; i++)
+			assertFalse(ints.add(i));
+		assertTrue(ints.isFull());
+		assertFalse(ints.offer(99));
+		assertTrue(ints.add(5));
+		assertTrue(ints.add(6));
+		assertArrayEquals(new int[] { 2, 3, 4, 5, 6 }, ints.toArray());
+		assertEquals(20L, ints.sum());
+		assertEquals(2, ints.pollFirst());
+		assertEquals(6, ints.poll());
+		PrimitiveIterator.OfInt it = ints.infiniteIterator(-1);
+		int[] round = new int[6];
+		for (int i = 0; i < round.length; i++)
+			round[i] = it.nextInt();
+		assertArrayEquals(new int[] { 5, 3, 4, 5, 3, 4 }, round);
+
+		DoubleCircularQueue ds = new DoubleCircularQueue(3);
+		for (double d = 0.5; d < 10; d++)
+			ds.add(d);
+		assertArrayEquals(new double[] { 7.5, 8.5, 9.5 }, ds.toArray());
+		assertEquals(25.5, ds.sum());
+		double[] dst = new double[4];
+		ds.copyTo(dst, 1);
+		assertEquals("[0.0, 7.5, 8.5, 9.5]", Arrays.toString(dst));
+	}
+}
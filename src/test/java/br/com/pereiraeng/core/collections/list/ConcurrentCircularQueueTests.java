@@ -0,0 +1,86 @@
+package br.com.pereiraeng.core.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentCircularQueueTests {
+
+	@Test
+	void testSingleThread() {
+		SpscCircularQueue<Integer> q = new SpscCircularQueue<>(3);
+		assertTrue(q.offer(1));
+		assertTrue(q.offer(2));
+		assertTrue(q.offer(3));
+		assertFalse(q.offer(4));
+		assertEquals(3, q.size());
+		assertEquals(1, (int) q.poll());
+		assertTrue(q.offer(4));
+		List<Integer> out = new ArrayList<>();
+		assertEquals(2, q.drainTo(out, 2));
+		assertEquals(1, q.drainTo(out));
+		assertEquals("[2, 3, 4]", out.toString());
+		assertNull(q.poll());
+		assertTrue(q.isEmpty());
+	}
+
+	@Test
+	void testSpsc() throws InterruptedException {
+		// a espera ativa pura só é adequada com núcleos dedicados; aqui, poucos
+		// elementos
+		transfer(new SpscCircularQueue<>(64, WaitStrategy.spinning()), 1, 1_000);
+		for (WaitStrategy ws : new WaitStrategy[] { WaitStrategy.blocking(), WaitStrategy.yielding() })
+			transfer(new SpscCircularQueue<>(64, ws), 1, 100_000);
+	}
+
+	@Test
+	void testMpsc() throws InterruptedException {
+		for (WaitStrategy ws : new WaitStrategy[] { WaitStrategy.blocking(), WaitStrategy.yielding() })
+			transfer(new MpscCircularQueue<>(64, ws), 4, 50_000);
+	}
+
+	/**
+	 * Cada produtor envia uma sequência crescente; o consumidor verifica a ordem
+	 * de cada produtor e o total recebido
+	 */
+	private static void transfer(ConcurrentCircularQueue<long[]> q, int producers, int count)
+			throws InterruptedException {
+		Thread[] ts = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			final int id = p;
+			ts[p] = new Thread(() -> {
+				for (int i = 0; i < count; i++)
+					q.incomingData(new long[] { id, i });
+			});
+			ts[p].start();
+		}
+
+		long[] next = new long[producers];
+		int received = 0;
+		List<long[]> batch = new ArrayList<>();
+		while (received < producers * count) {
+			if (received % 2 == 0) {
+				long[] e = q.take();
+				assertEquals(next[(int) e[0]]++, e[1]);
+				received++;
+			} else {
+				batch.clear();
+				q.drainTo(batch, 16);
+				for (long[] e : batch)
+					assertEquals(next[(int) e[0]]++, e[1]);
+				received += batch.size();
+			}
+		}
+		for (Thread t : ts)
+			t.join();
+		assertTrue(q.isEmpty());
+		for (long n : next)
+			assertEquals(count, n);
+	}
+}
@@ -0,0 +1,39 @@
+package br.com.pereiraeng.core.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.collections.ArrayUtils;
+
+class DoubleRotatedViewTests {
+
+	@Test
+	void testSameSemanticsAsArrayUtils() {
+		double[] data = new double[12], copy = new double[12];
+		for (int i = 0; i < data.length; i++)
+			data[i] = copy[i] = i;
+		DoubleRotatedView view = new DoubleRotatedView(data, 2, 10);
+		int[] moves = { 3, -1, 9, -20, 0, 5, 1, -8 };
+		for (int m : moves) {
+			view.rotate(m);
+			ArrayUtils.rotate(copy, 2, 10, m);
+			assertArrayEquals(Arrays.copyOfRange(copy, 2, 10), view.toArray(), "rotate " + m);
+			view.shift(m, -m);
+			ArrayUtils.shift(copy, 2, 10, m, -m);
+			assertArrayEquals(Arrays.copyOfRange(copy, 2, 10), view.toArray(), "shift " + m);
+		}
+		for (int i = 0; i < 20; i++) {
+			view.push(100 + i);
+			ArrayUtils.shift(copy, 2, 10, -1, 100 + i);
+		}
+		assertEquals(copy[9], view.get(7));
+		view.set(0, 42.0);
+		copy[2] = 42.0;
+		view.apply();
+		assertArrayEquals(copy, data);
+	}
+}
@@ -0,0 +1,66 @@
+package br.com.pereiraeng.core.collections.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.StringUtils;
+
+class FuzzyDictionaryTests {
+
+	@Test
+	void testSearch() {
+		Map<Integer, String> dic = new HashMap<>();
+		dic.put(1, "João da Silva");
+		dic.put(2, "José Pereira");
+		dic.put(3, "Maria Souza");
+		FuzzyDictionary<Integer> fd = new FuzzyDictionary<>(dic, true, true);
+
+		assertEquals(1, fd.search("JOAO DA SILVA"));
+		assertEquals(2, fd.search("jose pereyra"));
+		assertNull(fd.search("xyz"));
+
+		List<Integer> top = fd.search("jose pereira", 3, 0f);
+		assertEquals(2, top.get(0));
+		assertEquals(3, top.size());
+
+		fd.remove(2);
+		assertTrue(fd.search("jose pereira", 3, 0.6f).isEmpty());
+		fd.put(4, "José Pereira");
+		assertEquals(4, fd.search("jose pereira"));
+	}
+
+	@Test
+	void testSameAsLinearScan() {
+		Random r = new Random(42);
+		Map<Integer, String> dic = new HashMap<>();
+		for (int i = 0; i < 2000; i++)
+			dic.put(i, randomWord(r));
+		FuzzyDictionary<Integer> fd = new FuzzyDictionary<>(dic, true, true);
+
+		for (int i = 0; i < 200; i++) {
+			String q = randomWord(r);
+			Integer linear = StringUtils.searchDictionary(q, dic, true, true);
+			Integer indexed = fd.search(q);
+			if (linear == null)
+				assertNull(indexed);
+			else
+				assertEquals(StringUtils.relevancia(q, dic.get(linear), true, true),
+						StringUtils.relevancia(q, dic.get(indexed), true, true));
+		}
+	}
+
+	private static String randomWord(Random r) {
+		char[] cs = new char[3 + r.nextInt(8)];
+		for (int i = 0; i < cs.length; i++)
+			cs[i] = (char) ('a' + r.nextInt(6));
+		return new String(cs);
+	}
+}
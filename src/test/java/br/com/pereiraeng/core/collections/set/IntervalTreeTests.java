@@ -0,0 +1,125 @@
+package br.com.pereiraeng.core.collections.set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.pereiraeng.core.TimeUtils;
+
+class IntervalTreeTests {
+
+	@Test
+	void testQueriesAgainstBruteForce() {
+		Random r = new Random(21L);
+		int n = 500;
+		long[] s = new long[n], e = new long[n];
+		for (int i = 0; i < n; i++) {
+			s[i] = r.nextInt(10_000);
+			e[i] = s[i] + r.nextInt(i % 10 == 0 ? 2_000 : 50);
+		}
+		IntervalTree t = new IntervalTree(s, e);
+
+		// cobertura ponto a ponto: os pontos inteiros dos intervalos fechados, e os
+		// segmentos [x, x + 1[ entre dois pontos cobertos
+		boolean[] points = new boolean[13_001], covered = new boolean[13_000];
+		for (int i = 0; i < n; i++)
+			for (long x = s[i]; x <= e[i]; x++)
+				points[(int) x] = true;
+		for (int x = 0; x < covered.length; x++)
+			covered[x] = points[x] && points[x + 1];
+
+		for (int q = 0; q < 2000; q++) {
+			long from = r.nextInt(12_000) - 500, to = from + r.nextInt(q % 2 == 0 ? 5 : 500);
+			int[] expected = IntStream.range(0, n).filter(i -> s[i] <= to && e[i] >= from).toArray();
+			int[] actual = t.overlapping(from, to);
+			assertEquals(expected.length, t.countOverlapping(from, to));
+			Arrays.sort(actual);
+			assertArrayEquals(expected, actual);
+			assertArrayEquals(IntStream.range(0, n).filter(i -> s[i] <= from && e[i] >= from).toArray(),
+					IntStream.of(t.stabbing(from)).sorted().toArray());
+
+			long c = 0;
+			for (long x = Math.max(from, 0); x < to; x++)
+				if (covered[(int) x])
+					c++;
+			assertEquals(c, t.coverage(from, to), from + " " + to);
+			assertEquals(from < to && c == to - from, from < to && t.covers(from, to));
+		}
+
+		// união: intervalos disjuntos, ordenados e que cobrem os mesmos pontos
+		long[][] u = t.union();
+		for (int i = 1; i < u.length; i++)
+			assertTrue(u[i][0] > u[i - 1][1] + 1);
+		assertEquals(Arrays.stream(u).mapToLong(p -> p[1] - p[0]).sum(), t.coverage(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2));
+		assertEquals(Arrays.stream(s).min().getAsLong(), t.min());
+		assertEquals(Arrays.stream(e).max().getAsLong(), t.max());
+	}
+
+	@Test
+	void testEdges() {
+		IntervalTree empty = new IntervalTree(new long[0], new long[0]);
+		assertEquals(0, empty.overlapping(0, 10).length);
+		assertEquals(0, empty.union().length);
+		assertFalse(empty.covers(0, 0));
+
+		IntervalTree t = new IntervalTree(new long[] { 0, 10, 5 }, new long[] { 10, 20, 5 });
+		assertArrayEquals(new int[] { 0, 2 }, t.stabbing(5));
+		assertArrayEquals(new int[] { 0, 1 }, t.stabbing(10));
+		assertArrayEquals(new long[][] { { 0, 20 } }, t.union());
+		assertTrue(t.covers(3, 17));
+		assertEquals(5L, t.coverage(15, 25));
+		assertThrows(IllegalArgumentException.class, () -> new IntervalTree(new long[] { 1 }, new long[] { 0 }));
+
+		// intervalos fechados contíguos
+		t = new IntervalTree(new long[] { 10, 0, 30 }, new long[] { 19, 9, 39 });
+		assertArrayEquals(new long[][] { { 0, 19 }, { 30, 39 } }, t.union());
+		assertTrue(t.covers(0, 19));
+		assertFalse(t.covers(0, 30));
+		assertEquals(19L, t.coverage(0, 25));
+		t = new IntervalTree(new long[] { 10, 0 }, new long[] { 19, 9 }, 0L);
+		assertArrayEquals(new long[][] { { 0, 9 }, { 10, 19 } }, t.union());
+		assertFalse(t.covers(0, 19));
+		t = new IntervalTree(new long[] { Long.MIN_VALUE, Long.MAX_VALUE }, new long[] { 0, Long.MAX_VALUE }, 1L);
+		assertEquals(2, t.union().length);
+	}
+
+	@Test
+	void testCalendarAdapters() {
+		Calendar a = Calendar.getInstance(), b = Calendar.getInstance(), c = Calendar.getInstance();
+		a.setTimeInMillis(1_000_000L);
+		b.setTimeInMillis(5_000_000L);
+		c.setTimeInMillis(9_000_000L);
+		IntervalTree t = TimeUtils.toIntervalTree(Arrays.asList(new Calendar[] { b, c }, new Calendar[] { a, b }));
+		assertArrayEquals(TimeUtils.getLimits(Arrays.asList(new Calendar[] { b, c }, new Calendar[] { a, b })),
+				TimeUtils.getLimits(t));
+		Calendar[][] u = TimeUtils.toCalendars(t.union());
+		assertEquals(1, u.length);
+		assertEquals(a, u[0][0]);
+		assertEquals(c, u[0][1]);
+
+		// dias consecutivos (de 0h00 a 23h59): contínuos, como em
+		// convertCalendarIntoRange
+		Calendar d1 = Calendar.getInstance(), d2 = Calendar.getInstance(), d4 = Calendar.getInstance();
+		d1.set(2021, Calendar.MARCH, 14, 12, 0);
+		d2.set(2021, Calendar.MARCH, 15, 12, 0);
+		d4.set(2021, Calendar.MARCH, 17, 12, 0);
+		Calendar[][] expected = TimeUtils.convertCalendarIntoRange(Calendar.DAY_OF_MONTH, d1, d2, d4);
+		t = TimeUtils.toIntervalTree(Arrays.asList(TimeUtils.getRange(d1, Calendar.DAY_OF_MONTH),
+				TimeUtils.getRange(d2, Calendar.DAY_OF_MONTH), TimeUtils.getRange(d4, Calendar.DAY_OF_MONTH)));
+		u = TimeUtils.toCalendars(t.union());
+		assertEquals(expected.length, u.length);
+		for (int i = 0; i < u.length; i++)
+			for (int j = 0; j < 2; j++)
+				assertEquals(expected[i][j].getTimeInMillis(), u[i][j].getTimeInMillis());
+		assertTrue(t.covers(expected[0][0].getTimeInMillis(), expected[0][1].getTimeInMillis()));
+	}
+}